@@ -0,0 +1,71 @@
+/* 
+ * UUIDVault-api
+ * Copyright © 2020 Anand Beh <https://www.arim.space>
+ * 
+ * UUIDVault-api is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Lesser General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ * 
+ * UUIDVault-api is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the
+ * GNU Lesser General Public License for more details.
+ * 
+ * You should have received a copy of the GNU Lesser General Public License
+ * along with UUIDVault-api. If not, see <https://www.gnu.org/licenses/>
+ * and navigate to version 3 of the GNU Lesser General Public License.
+ */
+package space.arim.uuidvault.api;
+
+import java.util.Map;
+import java.util.Set;
+import java.util.UUID;
+import java.util.concurrent.CompletableFuture;
+
+/**
+ * A {@link UUIDResolver} which is able to resolve many names or uuids at once, such as with
+ * a single {@code IN (...)} query. <br>
+ * <br>
+ * Resolvers which do not implement this interface still participate in bulk resolution,
+ * through {@link UUIDVault#resolveAllByName(java.util.Collection)} and {@link UUIDVault#resolveAllByUUID(java.util.Collection)}.
+ * UUIDVault will simply call their single resolution methods once per name or uuid. <br>
+ * <br>
+ * UUIDVault will only ask a batch resolver for the names or uuids which higher priority resolvers
+ * did not find. The same rules regarding case insensitivity, and not calling the Mojang API,
+ * apply as with {@code UUIDResolver}.
+ * 
+ * @author A248
+ * 
+ */
+public interface BatchUUIDResolver extends UUIDResolver {
+
+	/**
+	 * Resolves many playernames to UUIDs. <br>
+	 * <br>
+	 * The keys of the resulting map must be the same strings as those in the specified set.
+	 * Names for which no uuid was found should be absent from the map. <br>
+	 * <br>
+	 * If no mapping was found, the returned future or its result may be null.
+	 * 
+	 * @param names the names of the players whose uuids to find, distinct ignoring case, never null or empty.
+	 * The set is unmodifiable
+	 * @return a nullable completable future which returns a map of names to their corresponding uuids
+	 */
+	CompletableFuture<Map<String, UUID>> resolveAllByName(Set<String> names);
+
+	/**
+	 * Resolves many UUIDs to playernames. <br>
+	 * <br>
+	 * The keys of the resulting map must be uuids from the specified set.
+	 * UUIDs for which no name was found should be absent from the map. <br>
+	 * <br>
+	 * If no mapping was found, the returned future or its result may be null.
+	 * 
+	 * @param uuids the uuids of the players whose names to find, never null or empty.
+	 * The set is unmodifiable
+	 * @return a nullable completable future which returns a map of uuids to their corresponding playernames
+	 */
+	CompletableFuture<Map<UUID, String>> resolveAllByUUID(Set<UUID> uuids);
+
+}
@@ -0,0 +1,44 @@
+/* 
+ * UUIDVault-api
+ * Copyright © 2020 Anand Beh <https://www.arim.space>
+ * 
+ * UUIDVault-api is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Lesser General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ * 
+ * UUIDVault-api is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the
+ * GNU Lesser General Public License for more details.
+ * 
+ * You should have received a copy of the GNU Lesser General Public License
+ * along with UUIDVault-api. If not, see <https://www.gnu.org/licenses/>
+ * and navigate to version 3 of the GNU Lesser General Public License.
+ */
+package space.arim.uuidvault.api;
+
+import java.util.Collection;
+import java.util.concurrent.CompletableFuture;
+
+/**
+ * A {@link UUIDResolver} which knows every uuid a name has belonged to, and when each was last seen. <br>
+ * <br>
+ * {@link UUIDVault#resolveAllCandidates(String)} asks such resolvers for all their candidates,
+ * whereas other resolvers can only contribute the single uuid from {@link #resolve(String)}.
+ * The same rules regarding case insensitivity, and not calling the Mojang API, apply as with {@code UUIDResolver}.
+ * 
+ * @author A248
+ * 
+ */
+public interface CandidateResolver extends UUIDResolver {
+
+	/**
+	 * Finds every uuid known to have had the specified name, ignoring case
+	 * 
+	 * @param name the name, never null
+	 * @return a nullable completable future which returns the candidates found, may be null or empty if none were found
+	 */
+	CompletableFuture<Collection<UUIDCandidate>> resolveCandidates(String name);
+	
+}
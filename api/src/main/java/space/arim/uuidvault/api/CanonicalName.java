@@ -0,0 +1,184 @@
+/* 
+ * UUIDVault-api
+ * Copyright © 2020 Anand Beh <https://www.arim.space>
+ * 
+ * UUIDVault-api is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Lesser General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ * 
+ * UUIDVault-api is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the
+ * GNU Lesser General Public License for more details.
+ * 
+ * You should have received a copy of the GNU Lesser General Public License
+ * along with UUIDVault-api. If not, see <https://www.gnu.org/licenses/>
+ * and navigate to version 3 of the GNU Lesser General Public License.
+ */
+package space.arim.uuidvault.api;
+
+import java.util.Locale;
+
+/**
+ * A validated, case folded playername. Since names ignore case, two canonical names are equal
+ * if their names are equal ignoring case. <br>
+ * <br>
+ * UUIDVault validates and folds a name once per lookup, rather than each resolver and cache
+ * lowercasing it again. Resolvers implementing {@link CanonicalNameResolver} receive the result directly.
+ * The folded form is the name lowercased as by {@code name.toLowerCase(Locale.ROOT)}, and its hash code
+ * is computed only once. <br>
+ * <br>
+ * <b>Validation</b> <br>
+ * {@link #ofStrict(String)} accepts only valid Minecraft names: 1 to 16 characters, each a letter, digit,
+ * or underscore. {@link #of(String)} is lenient, accepting any name of 1 to 16 characters without spaces.
+ * The lenient form is necessary for players whose names carry a prefix added by a proxy, such as
+ * Bedrock players joining through Floodgate.
+ * 
+ * @author A248
+ * 
+ */
+public final class CanonicalName {
+
+	private static final int MAX_LENGTH = 16;
+	
+	/**
+	 * Per character flags, for ASCII characters only
+	 */
+	private static final byte[] CHAR_FLAGS = new byte[128];
+	private static final byte VALID = 1;
+	private static final byte UPPERCASE = 2;
+	
+	static {
+		for (char c = 'a'; c <= 'z'; c++) {
+			CHAR_FLAGS[c] = VALID;
+		}
+		for (char c = 'A'; c <= 'Z'; c++) {
+			CHAR_FLAGS[c] = VALID | UPPERCASE;
+		}
+		for (char c = '0'; c <= '9'; c++) {
+			CHAR_FLAGS[c] = VALID;
+		}
+		CHAR_FLAGS['_'] = VALID;
+	}
+	
+	private final String name;
+	private final String folded;
+	private final int hash;
+	
+	private CanonicalName(String name, String folded, int hash) {
+		this.name = name;
+		this.folded = folded;
+		this.hash = hash;
+	}
+	
+	/**
+	 * Validates and folds a name leniently. The name is valid if it is between 1 and 16 characters
+	 * and contains no spaces.
+	 * 
+	 * @param name the name
+	 * @return the canonical name, or null if the name is invalid
+	 * @throws NullPointerException if {@code name} is null
+	 */
+	public static CanonicalName of(String name) {
+		return of(name, false);
+	}
+	
+	/**
+	 * Validates and folds a name strictly. The name is valid if it is between 1 and 16 characters,
+	 * each of which is an ASCII letter, digit, or underscore.
+	 * 
+	 * @param name the name
+	 * @return the canonical name, or null if the name is invalid
+	 * @throws NullPointerException if {@code name} is null
+	 */
+	public static CanonicalName ofStrict(String name) {
+		return of(name, true);
+	}
+	
+	/**
+	 * Validates and folds a name
+	 * 
+	 * @param name the name
+	 * @param strict whether to validate strictly, see {@link #ofStrict(String)}
+	 * @return the canonical name, or null if the name is invalid
+	 * @throws NullPointerException if {@code name} is null
+	 */
+	public static CanonicalName of(String name, boolean strict) {
+		int length = name.length();
+		if (length == 0 || length > MAX_LENGTH) {
+			return null;
+		}
+		boolean hasUppercase = false;
+		int hash = 0;
+		for (int n = 0; n < length; n++) {
+			char c = name.charAt(n);
+			if (c >= 128) {
+				if (strict) {
+					return null;
+				}
+				// Non-ASCII, rare enough to leave to the JDK
+				String folded = name.toLowerCase(Locale.ROOT);
+				return new CanonicalName(name, folded, folded.hashCode());
+			}
+			byte flags = CHAR_FLAGS[c];
+			if ((flags & VALID) == 0) {
+				if (strict || c == ' ') {
+					return null;
+				}
+			} else if ((flags & UPPERCASE) != 0) {
+				hasUppercase = true;
+				c += 'a' - 'A';
+			}
+			hash = 31 * hash + c;
+		}
+		String folded = (hasUppercase) ? name.toLowerCase(Locale.ROOT) : name;
+		return new CanonicalName(name, folded, hash);
+	}
+	
+	/**
+	 * Gets the name as originally given, before folding
+	 * 
+	 * @return the original name
+	 */
+	public String getName() {
+		return name;
+	}
+	
+	/**
+	 * Gets the case folded name. Equal canonical names have the same folded name.
+	 * 
+	 * @return the folded name
+	 */
+	public String getFolded() {
+		return folded;
+	}
+	
+	@Override
+	public int hashCode() {
+		return hash;
+	}
+	
+	@Override
+	public boolean equals(Object object) {
+		if (this == object) {
+			return true;
+		}
+		if (!(object instanceof CanonicalName)) {
+			return false;
+		}
+		CanonicalName other = (CanonicalName) object;
+		return hash == other.hash && folded.equals(other.folded);
+	}
+	
+	/**
+	 * Gets the folded name
+	 * 
+	 * @return the folded name
+	 */
+	@Override
+	public String toString() {
+		return folded;
+	}
+	
+}
@@ -0,0 +1,55 @@
+/* 
+ * UUIDVault-api
+ * Copyright © 2020 Anand Beh <https://www.arim.space>
+ * 
+ * UUIDVault-api is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Lesser General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ * 
+ * UUIDVault-api is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the
+ * GNU Lesser General Public License for more details.
+ * 
+ * You should have received a copy of the GNU Lesser General Public License
+ * along with UUIDVault-api. If not, see <https://www.gnu.org/licenses/>
+ * and navigate to version 3 of the GNU Lesser General Public License.
+ */
+package space.arim.uuidvault.api;
+
+import java.util.UUID;
+import java.util.concurrent.CompletableFuture;
+
+/**
+ * A {@link UUIDResolver} which accepts names already validated and case folded by UUIDVault. <br>
+ * <br>
+ * For name lookups, UUIDVault calls the methods of this interface <i>instead of</i>
+ * {@link #resolve(String)} and {@link #resolveImmediately(String)}. Implementations may then use
+ * {@link CanonicalName#getFolded()} directly as a key, without lowercasing the name themselves.
+ * The methods taking a {@code String} should still be implemented, since other callers may use them. <br>
+ * <br>
+ * Bulk lookups through {@link BatchUUIDResolver} are unaffected.
+ * 
+ * @author A248
+ * 
+ */
+public interface CanonicalNameResolver extends UUIDResolver {
+
+	/**
+	 * Resolves a canonical playername to a UUID. Otherwise the same as {@link #resolve(String)}
+	 * 
+	 * @param name the canonical name of the player whose uuid to find, will never be null
+	 * @return a nullable completable future which returns a corresponding uuid or {@code null} if it did not find one
+	 */
+	CompletableFuture<UUID> resolve(CanonicalName name);
+	
+	/**
+	 * Resolves a canonical playername to a UUID without blocking. Otherwise the same as {@link #resolveImmediately(String)}
+	 * 
+	 * @param name the canonical name of the player whose uuid to find, will never be null
+	 * @return a corresponding uuid or {@code null} if not found without blocking
+	 */
+	UUID resolveImmediately(CanonicalName name);
+	
+}
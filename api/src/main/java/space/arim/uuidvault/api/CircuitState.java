@@ -0,0 +1,49 @@
+/* 
+ * UUIDVault-api
+ * Copyright © 2020 Anand Beh <https://www.arim.space>
+ * 
+ * UUIDVault-api is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Lesser General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ * 
+ * UUIDVault-api is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the
+ * GNU Lesser General Public License for more details.
+ * 
+ * You should have received a copy of the GNU Lesser General Public License
+ * along with UUIDVault-api. If not, see <https://www.gnu.org/licenses/>
+ * and navigate to version 3 of the GNU Lesser General Public License.
+ */
+package space.arim.uuidvault.api;
+
+/**
+ * The state of the circuit breaker guarding a registered resolver. <br>
+ * See {@link ResolverStatistics#getCircuitState()}. <br>
+ * <br>
+ * A resolver which fails or is slow too often is no longer queried for a cooldown period,
+ * after which a single lookup is let through to probe whether it has recovered.
+ * 
+ * @author A248
+ * 
+ */
+public enum CircuitState {
+
+	/**
+	 * The resolver is queried normally
+	 * 
+	 */
+	CLOSED,
+	/**
+	 * The resolver failed too often, and is skipped until the cooldown passes
+	 * 
+	 */
+	OPEN,
+	/**
+	 * The cooldown passed, and a single lookup is probing whether the resolver has recovered
+	 * 
+	 */
+	HALF_OPEN
+
+}
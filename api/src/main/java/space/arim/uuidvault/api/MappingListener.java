@@ -0,0 +1,57 @@
+/* 
+ * UUIDVault-api
+ * Copyright © 2020 Anand Beh <https://www.arim.space>
+ * 
+ * UUIDVault-api is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Lesser General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ * 
+ * UUIDVault-api is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the
+ * GNU Lesser General Public License for more details.
+ * 
+ * You should have received a copy of the GNU Lesser General Public License
+ * along with UUIDVault-api. If not, see <https://www.gnu.org/licenses/>
+ * and navigate to version 3 of the GNU Lesser General Public License.
+ */
+package space.arim.uuidvault.api;
+
+import java.util.Map;
+import java.util.UUID;
+
+/**
+ * A {@link UUIDResolver} which learns of mappings found by lower priority resolvers,
+ * typically to answer {@code resolveImmediately} from its own in-memory cache next time. <br>
+ * <br>
+ * When an asynchronous lookup through UUIDVault asks this resolver, and a lower priority resolver
+ * then finds the mapping, UUIDVault passes the mapping on to this resolver. Mappings are
+ * delivered later, in batches, on a UUIDVault thread. They are never delivered to the resolver
+ * which found them. <br>
+ * <br>
+ * Implementations must be thread safe, and should return quickly. Exceptions thrown
+ * are logged and otherwise ignored.
+ * 
+ * @author A248
+ * 
+ */
+public interface MappingListener extends UUIDResolver {
+
+	/**
+	 * Receives uuids found by lower priority resolvers for names. <br>
+	 * <br>
+	 * The names are as they were looked up, and so are not necessarily correctly capitalised.
+	 * 
+	 * @param uuids the names looked up to the uuids found, never null or empty. The map is unmodifiable
+	 */
+	void onUUIDsFound(Map<String, UUID> uuids);
+	
+	/**
+	 * Receives names found by lower priority resolvers for uuids
+	 * 
+	 * @param names the uuids looked up to the names found, never null or empty. The map is unmodifiable
+	 */
+	void onNamesFound(Map<UUID, String> names);
+	
+}
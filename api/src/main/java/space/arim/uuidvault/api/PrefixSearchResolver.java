@@ -0,0 +1,48 @@
+/* 
+ * UUIDVault-api
+ * Copyright © 2020 Anand Beh <https://www.arim.space>
+ * 
+ * UUIDVault-api is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Lesser General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ * 
+ * UUIDVault-api is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the
+ * GNU Lesser General Public License for more details.
+ * 
+ * You should have received a copy of the GNU Lesser General Public License
+ * along with UUIDVault-api. If not, see <https://www.gnu.org/licenses/>
+ * and navigate to version 3 of the GNU Lesser General Public License.
+ */
+package space.arim.uuidvault.api;
+
+import java.util.List;
+
+/**
+ * A {@link UUIDResolver} which is able to search its names by prefix, such as for tab completion. <br>
+ * <br>
+ * {@link UUIDVault#searchByPrefix(String, int)} combines the names found by every such resolver
+ * with those UUIDVault knows of itself. Since tab completion happens on the main thread,
+ * implementations must not block, just as with {@link #resolveImmediately(String)}.
+ * Resolvers which would need to query a database should only search an in-memory cache.
+ * 
+ * @author A248
+ * 
+ */
+public interface PrefixSearchResolver extends UUIDResolver {
+
+	/**
+	 * Finds names starting with the specified prefix, ignoring case, without blocking. <br>
+	 * <br>
+	 * If more names than the limit are known, which ones are returned is up to the implementation.
+	 * Ideally, they are the first in alphabetical order.
+	 * 
+	 * @param prefix the prefix of the names to find, never null but possibly empty
+	 * @param limit the maximum amount of names to return, always positive
+	 * @return the names found, correctly spelled, may be null or empty if none were found
+	 */
+	List<String> searchByPrefix(String prefix, int limit);
+	
+}
@@ -0,0 +1,109 @@
+/* 
+ * UUIDVault-api
+ * Copyright © 2020 Anand Beh <https://www.arim.space>
+ * 
+ * UUIDVault-api is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Lesser General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ * 
+ * UUIDVault-api is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the
+ * GNU Lesser General Public License for more details.
+ * 
+ * You should have received a copy of the GNU Lesser General Public License
+ * along with UUIDVault-api. If not, see <https://www.gnu.org/licenses/>
+ * and navigate to version 3 of the GNU Lesser General Public License.
+ */
+package space.arim.uuidvault.api;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * A point in time snapshot of how a registered resolver has performed. <br>
+ * See {@link UUIDVault#getStatistics()}. <br>
+ * <br>
+ * Counts begin when the resolver is registered. Latencies are only measured for asynchronous
+ * resolution, and are approximate.
+ * 
+ * @author A248
+ * 
+ */
+public interface ResolverStatistics {
+
+	/**
+	 * Gets how many times the resolver found a result when resolving immediately
+	 * 
+	 * @return the amount of immediate hits
+	 */
+	long getImmediateHits();
+	
+	/**
+	 * Gets how many times the resolver found nothing when resolving immediately
+	 * 
+	 * @return the amount of immediate misses
+	 */
+	long getImmediateMisses();
+	
+	/**
+	 * Gets how many times the resolver found a result when resolving asynchronously.
+	 * For bulk resolution, each call which found at least one result counts once.
+	 * 
+	 * @return the amount of asynchronous hits
+	 */
+	long getHits();
+	
+	/**
+	 * Gets how many times the resolver found nothing when resolving asynchronously
+	 * 
+	 * @return the amount of asynchronous misses
+	 */
+	long getMisses();
+	
+	/**
+	 * Gets how many times the resolver's future completed exceptionally
+	 * 
+	 * @return the amount of exceptions
+	 */
+	long getExceptions();
+	
+	/**
+	 * Gets how many times the resolver did not complete within its configured timeout
+	 * 
+	 * @return the amount of timeouts
+	 */
+	long getTimeouts();
+	
+	/**
+	 * Gets how many of the resolver's exceptions and timeouts were not logged in full,
+	 * because too many occurred at once. Such failures are instead summarised periodically.
+	 * 
+	 * @return the amount of suppressed errors
+	 */
+	long getSuppressedErrors();
+	
+	/**
+	 * Gets the state of the resolver's circuit breaker. While the breaker is not closed,
+	 * the resolver is skipped. <br>
+	 * <br>
+	 * If circuit breaking is disabled, this is always {@link CircuitState#CLOSED}.
+	 * 
+	 * @return the circuit breaker state
+	 */
+	CircuitState getCircuitState();
+	
+	/**
+	 * Gets an approximate percentile of asynchronous resolution latency. For example,
+	 * {@code getLatency(99D, TimeUnit.MILLISECONDS)} is the p99 latency in milliseconds. <br>
+	 * <br>
+	 * If nothing has been measured, {@code 0} is returned.
+	 * 
+	 * @param percentile the percentile, between 0 and 100 inclusive
+	 * @param unit the unit of the result
+	 * @return the latency at the percentile
+	 * @throws IllegalArgumentException if {@code percentile} is not between 0 and 100
+	 */
+	long getLatency(double percentile, TimeUnit unit);
+	
+}
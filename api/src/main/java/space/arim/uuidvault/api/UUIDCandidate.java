@@ -0,0 +1,125 @@
+/* 
+ * UUIDVault-api
+ * Copyright © 2020 Anand Beh <https://www.arim.space>
+ * 
+ * UUIDVault-api is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Lesser General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ * 
+ * UUIDVault-api is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the
+ * GNU Lesser General Public License for more details.
+ * 
+ * You should have received a copy of the GNU Lesser General Public License
+ * along with UUIDVault-api. If not, see <https://www.gnu.org/licenses/>
+ * and navigate to version 3 of the GNU Lesser General Public License.
+ */
+package space.arim.uuidvault.api;
+
+import java.util.Objects;
+import java.util.UUID;
+
+/**
+ * A uuid which a name may belong to, along with when the player was last seen with that name. <br>
+ * <br>
+ * Since players may change their names, a name may have belonged to several players over time.
+ * The candidate last seen most recently is the likeliest current owner of the name.
+ * 
+ * @author A248
+ * 
+ */
+public final class UUIDCandidate {
+
+	private final UUID uuid;
+	private final long lastSeen;
+	
+	private UUIDCandidate(UUID uuid, long lastSeen) {
+		this.uuid = uuid;
+		this.lastSeen = lastSeen;
+	}
+	
+	/**
+	 * Creates a candidate
+	 * 
+	 * @param uuid the uuid
+	 * @param lastSeen when the player was last seen with the name, in milliseconds since the epoch,
+	 * or zero if unknown
+	 * @return the candidate
+	 * @throws NullPointerException if {@code uuid} is null
+	 * @throws IllegalArgumentException if {@code lastSeen} is negative
+	 */
+	public static UUIDCandidate of(UUID uuid, long lastSeen) {
+		Objects.requireNonNull(uuid, "UUID must not be null");
+		if (lastSeen < 0L) {
+			throw new IllegalArgumentException("Last seen must not be negative");
+		}
+		return new UUIDCandidate(uuid, lastSeen);
+	}
+	
+	/**
+	 * Creates a candidate whose recency is unknown
+	 * 
+	 * @param uuid the uuid
+	 * @return the candidate
+	 * @throws NullPointerException if {@code uuid} is null
+	 */
+	public static UUIDCandidate ofUnknownRecency(UUID uuid) {
+		return of(uuid, 0L);
+	}
+	
+	/**
+	 * Gets the uuid
+	 * 
+	 * @return the uuid
+	 */
+	public UUID getUUID() {
+		return uuid;
+	}
+	
+	/**
+	 * Gets when the player was last seen with the name
+	 * 
+	 * @return the time last seen in milliseconds since the epoch, or zero if unknown
+	 */
+	public long getLastSeen() {
+		return lastSeen;
+	}
+	
+	/**
+	 * Whether it is known when the player was last seen with the name
+	 * 
+	 * @return true if {@link #getLastSeen()} is known, false otherwise
+	 */
+	public boolean isLastSeenKnown() {
+		return lastSeen != 0L;
+	}
+	
+	@Override
+	public int hashCode() {
+		final int prime = 31;
+		int result = 1;
+		result = prime * result + uuid.hashCode();
+		result = prime * result + (int) (lastSeen ^ (lastSeen >>> 32));
+		return result;
+	}
+	
+	@Override
+	public boolean equals(Object object) {
+		if (this == object) {
+			return true;
+		}
+		if (!(object instanceof UUIDCandidate)) {
+			return false;
+		}
+		UUIDCandidate other = (UUIDCandidate) object;
+		return lastSeen == other.lastSeen && uuid.equals(other.uuid);
+	}
+	
+	@Override
+	public String toString() {
+		return "UUIDCandidate [uuid=" + uuid + ", lastSeen=" + lastSeen + "]";
+	}
+	
+}
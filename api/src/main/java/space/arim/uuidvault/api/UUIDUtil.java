@@ -18,6 +18,9 @@
  */
 package space.arim.uuidvault.api;
 
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.util.Arrays;
 import java.util.UUID;
 
 /**
@@ -25,31 +28,56 @@ import java.util.UUID;
  * full UUID strings, short UUID strings, and byte arrays. <br>
  * <br>
  * <b>A Note on Preconditions</b> <br>
- * So that it may be used to operate on large volumes of data, this class does not check preconditions.
- * It assumes all UUIDs, strings, and byte arrays are valid representations. Malformed input may lead
- * to unexpected behaviour. Callers are encouraged to validate their own input. <br>
+ * Methods parsing a {@code UUID} from a string, {@link #fromShortString(String)} and its overloads and
+ * {@link #fromFullString(CharSequence, int)}, validate their input as part of parsing, at no extra cost.
+ * They throw {@link NumberFormatException} if too few characters are present, if a character is not
+ * a hex digit (upper or lower case), or, for full strings, if a hyphen is misplaced. <br>
+ * <br>
+ * So that it may be used to operate on large volumes of data, the remaining methods do not check
+ * preconditions. {@link #expandShortString(String)}, {@link #contractFullString(String)}, and the byte
+ * conversions assume valid representations, and malformed input may lead to unexpected behaviour.
+ * Callers of these are encouraged to validate their own input. <br>
  * <br>
  * <b>UUID Forms</b> <br>
  * This class recognises 3 forms of UUIDs besides {@code java.util.UUID}: <br>
  * 1. Full UUID strings. This the common string based representation of a UUID as defined by {@link UUID#toString()}.
  * UUIDs in this form may be converted back to a {@code java.util.UUID} via the JDK's {@link UUID#fromString(String)}. <br>
  * 2. Short UUID strings. These are the same as full UUID strings except that they are not hyphenated. <br>
- * 3. Byte arrays. These must be 16 bytes in length. <br>
+ * 3. Byte arrays. These must be 16 bytes in length. Byte buffers are also supported, always using big endian. <br>
  * <br>
  * Methods are provided for efficient conversion between: <br>
  * 1. Full UUID strings and short UUID strings. <br>
- * 2. Short UUID strings and {@code java.util.UUID}. <br>
+ * 2. Short UUID strings, full UUID strings, and {@code java.util.UUID}. <br>
  * 3. Byte arrays and {@code java.util.UUID}. <br>
  * <br>
  * Where applicable, conversion methods are designed to be at least as performant as more roundabout approaches.
  * For example, {@link #fromShortString(String)} should be faster than combining {@link #expandShortString(String)} and
- * {@link UUID#fromString(String)}.
+ * {@link UUID#fromString(String)}. <br>
+ * <br>
+ * <b>Avoiding Allocation</b> <br>
+ * For bulk operations, overloads are provided which parse from any {@code CharSequence} at an offset, write
+ * into a caller supplied {@code char[]} or {@code StringBuilder}, or operate on the most and least significant
+ * bits of a UUID directly. These create no intermediate objects.
  * 
  * @author A248
  *
  */
 public class UUIDUtil {
 
+	private static final char[] HEX_DIGITS = "0123456789abcdef".toCharArray();
+	/**
+	 * Values of hex digits indexed by character, both upper and lower case. -1 for other characters
+	 */
+	private static final byte[] HEX_VALUES = new byte['f' + 1];
+	
+	static {
+		Arrays.fill(HEX_VALUES, (byte) -1);
+		for (int n = 0; n < 16; n++) {
+			HEX_VALUES[HEX_DIGITS[n]] = (byte) n;
+			HEX_VALUES[Character.toUpperCase(HEX_DIGITS[n])] = (byte) n;
+		}
+	}
+	
 	/*
 	 * 
 	 * UUID String Conversions
@@ -64,12 +92,17 @@ public class UUIDUtil {
 	 * @return the full uuid string
 	 */
 	public static String expandShortString(String shortUuid) {
-		return new StringBuilder()
-				.append(shortUuid, 0, 8).append('-')
-				.append(shortUuid, 8, 12).append('-')
-				.append(shortUuid, 12, 16).append('-')
-				.append(shortUuid, 16, 20).append('-')
-				.append(shortUuid, 20, 32).toString();
+		char[] chars = new char[36];
+		shortUuid.getChars(0, 8, chars, 0);
+		chars[8] = '-';
+		shortUuid.getChars(8, 12, chars, 9);
+		chars[13] = '-';
+		shortUuid.getChars(12, 16, chars, 14);
+		chars[18] = '-';
+		shortUuid.getChars(16, 20, chars, 19);
+		chars[23] = '-';
+		shortUuid.getChars(20, 32, chars, 24);
+		return new String(chars);
 	}
 	
 	/**
@@ -82,12 +115,13 @@ public class UUIDUtil {
 	 * @return the short uuid string
 	 */
 	public static String contractFullString(String fullUuid) {
-		return new StringBuilder()
-				.append(fullUuid, 0, 8)
-				.append(fullUuid, 9, 13)
-				.append(fullUuid, 14, 18)
-				.append(fullUuid, 19, 23)
-				.append(fullUuid, 24, 36).toString();
+		char[] chars = new char[32];
+		fullUuid.getChars(0, 8, chars, 0);
+		fullUuid.getChars(9, 13, chars, 8);
+		fullUuid.getChars(14, 18, chars, 12);
+		fullUuid.getChars(19, 23, chars, 16);
+		fullUuid.getChars(24, 36, chars, 20);
+		return new String(chars);
 	}
 	
 	/*
@@ -104,12 +138,34 @@ public class UUIDUtil {
 	 * @return the short uuid string
 	 */
 	public static String toShortString(UUID uuid) {
-		return formatAsHex(uuid.getMostSignificantBits()) + formatAsHex(uuid.getLeastSignificantBits());
+		char[] chars = new char[32];
+		toShortString(uuid, chars, 0);
+		return new String(chars);
 	}
 	
-	private static String formatAsHex(long bits) {
-		String hex = Long.toHexString(bits);
-		return ("0000000000000000" + hex).substring(hex.length());
+	/**
+	 * Writes the short form string representation of a {@code UUID} to a char array
+	 * at the specified offset.
+	 * 
+	 * @param uuid the UUID
+	 * @param chars the char array to write to, must be at least of length (offset + 32)
+	 * @param offset the offset in the char array after which to write chars
+	 */
+	public static void toShortString(UUID uuid, char[] chars, int offset) {
+		writeHex(uuid.getMostSignificantBits(), chars, offset, 16);
+		writeHex(uuid.getLeastSignificantBits(), chars, offset + 16, 16);
+	}
+	
+	/**
+	 * Appends the short form string representation of a {@code UUID} to a string builder
+	 * 
+	 * @param uuid the UUID
+	 * @param builder the string builder to append to
+	 */
+	public static void toShortString(UUID uuid, StringBuilder builder) {
+		builder.ensureCapacity(builder.length() + 32);
+		appendHex(uuid.getMostSignificantBits(), builder, 16);
+		appendHex(uuid.getLeastSignificantBits(), builder, 16);
 	}
 	
 	/**
@@ -117,11 +173,154 @@ public class UUIDUtil {
 	 * 
 	 * @param shortUuid the short uuid string
 	 * @return the UUID
+	 * @throws NumberFormatException if the string is not exactly 32 characters long, or if any
+	 * character is not a hex digit
 	 */
 	public static UUID fromShortString(String shortUuid) {
+		if (shortUuid.length() != 32) {
+			throw new NumberFormatException("Short uuid string must have 32 characters: " + shortUuid);
+		}
+		return fromShortString(shortUuid, 0);
+	}
+	
+	/**
+	 * Reads a short form uuid string, starting at the specified offset, to a {@code UUID}.
+	 * Useful for parsing a UUID contained in a larger sequence of characters.
+	 * 
+	 * @param shortUuid the character sequence containing the short uuid string,
+	 * must be at least of length (offset + 32)
+	 * @param offset the offset at which the short uuid string begins
+	 * @return the UUID
+	 * @throws NumberFormatException if the offset is negative, if fewer than 32 characters follow it,
+	 * or if any of those 32 characters is not a hex digit
+	 */
+	public static UUID fromShortString(CharSequence shortUuid, int offset) {
+		checkLength(shortUuid, offset, 32);
 		return new UUID(
-				Long.parseUnsignedLong(shortUuid.substring(0, 16), 16),
-				Long.parseUnsignedLong(shortUuid.substring(16, 32), 16));
+				readHex(shortUuid, offset, 16),
+				readHex(shortUuid, offset + 16, 16));
+	}
+	
+	/*
+	 * 
+	 * Full form conversions
+	 * 
+	 */
+	
+	/**
+	 * Writes the full form string representation of a {@code UUID}, as would be returned by {@link UUID#toString()},
+	 * to a char array at the specified offset.
+	 * 
+	 * @param uuid the UUID
+	 * @param chars the char array to write to, must be at least of length (offset + 36)
+	 * @param offset the offset in the char array after which to write chars
+	 */
+	public static void toFullString(UUID uuid, char[] chars, int offset) {
+		long msb = uuid.getMostSignificantBits();
+		long lsb = uuid.getLeastSignificantBits();
+		writeHex(msb >>> 32, chars, offset, 8);
+		chars[offset + 8] = '-';
+		writeHex(msb >>> 16, chars, offset + 9, 4);
+		chars[offset + 13] = '-';
+		writeHex(msb, chars, offset + 14, 4);
+		chars[offset + 18] = '-';
+		writeHex(lsb >>> 48, chars, offset + 19, 4);
+		chars[offset + 23] = '-';
+		writeHex(lsb, chars, offset + 24, 12);
+	}
+	
+	/**
+	 * Appends the full form string representation of a {@code UUID}, as would be returned by {@link UUID#toString()},
+	 * to a string builder
+	 * 
+	 * @param uuid the UUID
+	 * @param builder the string builder to append to
+	 */
+	public static void toFullString(UUID uuid, StringBuilder builder) {
+		long msb = uuid.getMostSignificantBits();
+		long lsb = uuid.getLeastSignificantBits();
+		builder.ensureCapacity(builder.length() + 36);
+		appendHex(msb >>> 32, builder, 8);
+		builder.append('-');
+		appendHex(msb >>> 16, builder, 4);
+		builder.append('-');
+		appendHex(msb, builder, 4);
+		builder.append('-');
+		appendHex(lsb >>> 48, builder, 4);
+		builder.append('-');
+		appendHex(lsb, builder, 12);
+	}
+	
+	/**
+	 * Reads a full form uuid string, starting at the specified offset, to a {@code UUID}.
+	 * Unlike {@link UUID#fromString(String)}, this requires the exact form produced by {@link UUID#toString()}.
+	 * 
+	 * @param fullUuid the character sequence containing the full uuid string,
+	 * must be at least of length (offset + 36)
+	 * @param offset the offset at which the full uuid string begins
+	 * @return the UUID
+	 * @throws NumberFormatException if the offset is negative, if fewer than 36 characters follow it,
+	 * if any of the characters at (offset + 8), (offset + 13), (offset + 18) and (offset + 23) is
+	 * not a hyphen, or if any other of the 36 characters is not a hex digit
+	 */
+	public static UUID fromFullString(CharSequence fullUuid, int offset) {
+		checkLength(fullUuid, offset, 36);
+		checkHyphen(fullUuid, offset + 8);
+		checkHyphen(fullUuid, offset + 13);
+		checkHyphen(fullUuid, offset + 18);
+		checkHyphen(fullUuid, offset + 23);
+		long msb = readHex(fullUuid, offset, 8) << 32
+				| readHex(fullUuid, offset + 9, 4) << 16
+				| readHex(fullUuid, offset + 14, 4);
+		long lsb = readHex(fullUuid, offset + 19, 4) << 48
+				| readHex(fullUuid, offset + 24, 12);
+		return new UUID(msb, lsb);
+	}
+	
+	/**
+	 * Writes the lowest hex digits of a value, most significant first
+	 * 
+	 * @param bits the value
+	 * @param chars the destination
+	 * @param offset the offset in the destination
+	 * @param digits the amount of hex digits to write
+	 */
+	private static void writeHex(long bits, char[] chars, int offset, int digits) {
+		for (int n = offset + digits - 1; n >= offset; n--) {
+			chars[n] = HEX_DIGITS[(int) (bits & 0xfL)];
+			bits >>>= 4;
+		}
+	}
+	
+	private static void appendHex(long bits, StringBuilder builder, int digits) {
+		for (int shift = (digits - 1) * 4; shift >= 0; shift -= 4) {
+			builder.append(HEX_DIGITS[(int) ((bits >>> shift) & 0xfL)]);
+		}
+	}
+	
+	private static void checkLength(CharSequence chars, int offset, int length) {
+		if (offset < 0 || chars.length() - offset < length) {
+			throw new NumberFormatException("Expected " + length + " characters at index " + offset + " of " + chars);
+		}
+	}
+	
+	private static void checkHyphen(CharSequence chars, int index) {
+		if (chars.charAt(index) != '-') {
+			throw new NumberFormatException("Expected '-' at index " + index + " of " + chars);
+		}
+	}
+	
+	private static long readHex(CharSequence chars, int offset, int digits) {
+		long result = 0L;
+		for (int n = offset; n < offset + digits; n++) {
+			char c = chars.charAt(n);
+			int value = (c <= 'f') ? HEX_VALUES[c] : -1;
+			if (value == -1) {
+				throw new NumberFormatException("Invalid hex digit '" + c + "' at index " + n + " of " + chars);
+			}
+			result = (result << 4) | value;
+		}
+		return result;
 	}
 	
 	/*
@@ -152,9 +351,19 @@ public class UUIDUtil {
 	 * @param offset the offset in the byte array after which to write bytes
 	 */
 	public static void toByteArray(UUID uuid, byte[] byteArray, int offset) {
-		long msb = uuid.getMostSignificantBits();
-		long lsb = uuid.getLeastSignificantBits();
-
+		toByteArray(uuid.getMostSignificantBits(), uuid.getLeastSignificantBits(), byteArray, offset);
+	}
+	
+	/**
+	 * Writes a UUID, given as its most and least significant bits, to a byte array at the specified offset.
+	 * The result is the same as that of {@link #toByteArray(UUID, byte[], int)}
+	 * 
+	 * @param msb the most significant bits of the UUID
+	 * @param lsb the least significant bits of the UUID
+	 * @param byteArray the byte array to write to, must be at least of length (offset + 16)
+	 * @param offset the offset in the byte array after which to write bytes
+	 */
+	public static void toByteArray(long msb, long lsb, byte[] byteArray, int offset) {
 		for (int i = 7; i >= 0; i--) {
 			byteArray[offset + i] = (byte) (msb & 0xffL);
 			msb >>= 8;
@@ -172,9 +381,7 @@ public class UUIDUtil {
 	 * @return the UUID
 	 */
 	public static UUID fromByteArray(byte[] byteArray) {
-		return new UUID(
-				longFromBytes(byteArray[0], byteArray[1], byteArray[2], byteArray[3], byteArray[4], byteArray[5], byteArray[6], byteArray[7]),
-				longFromBytes(byteArray[8], byteArray[9], byteArray[10], byteArray[11], byteArray[12], byteArray[13], byteArray[14], byteArray[15]));
+		return fromByteArray(byteArray, 0);
 	}
 	
 	/**
@@ -186,23 +393,93 @@ public class UUIDUtil {
 	 */
 	public static UUID fromByteArray(byte[] byteArray, int offset) {
 		return new UUID(
-				longFromBytes(
-						byteArray[offset], byteArray[offset + 1], byteArray[offset + 2], byteArray[offset + 3],
-						byteArray[offset + 4], byteArray[offset + 5], byteArray[offset + 6], byteArray[offset + 7]),
-				longFromBytes(
-						byteArray[offset + 8], byteArray[offset + 9], byteArray[offset + 10], byteArray[offset + 11],
-						byteArray[offset + 12], byteArray[offset + 13], byteArray[offset + 14], byteArray[offset + 15]));
-	}
-	
-	private static long longFromBytes(byte b1, byte b2, byte b3, byte b4, byte b5, byte b6, byte b7, byte b8) {
-		return (b1 & 0xffL) << 56
-				| (b2 & 0xffL) << 48
-				| (b3 & 0xffL) << 40
-				| (b4 & 0xffL) << 32
-				| (b5 & 0xffL) << 24
-				| (b6 & 0xffL) << 16
-				| (b7 & 0xffL) << 8
-				| (b8 & 0xffL);
+				mostSignificantBits(byteArray, offset),
+				leastSignificantBits(byteArray, offset));
+	}
+	
+	/**
+	 * Reads the most significant bits of a UUID from a byte array with a specified offset,
+	 * without creating a {@code UUID}
+	 * 
+	 * @param byteArray the byte array to read from, must be at least of length (offset + 16)
+	 * @param offset the offset after which the UUID's bytes begin
+	 * @return the most significant bits of the UUID
+	 */
+	public static long mostSignificantBits(byte[] byteArray, int offset) {
+		return longFromBytes(byteArray, offset);
+	}
+	
+	/**
+	 * Reads the least significant bits of a UUID from a byte array with a specified offset,
+	 * without creating a {@code UUID}
+	 * 
+	 * @param byteArray the byte array to read from, must be at least of length (offset + 16)
+	 * @param offset the offset after which the UUID's bytes begin
+	 * @return the least significant bits of the UUID
+	 */
+	public static long leastSignificantBits(byte[] byteArray, int offset) {
+		return longFromBytes(byteArray, offset + 8);
+	}
+	
+	private static long longFromBytes(byte[] byteArray, int offset) {
+		return (byteArray[offset] & 0xffL) << 56
+				| (byteArray[offset + 1] & 0xffL) << 48
+				| (byteArray[offset + 2] & 0xffL) << 40
+				| (byteArray[offset + 3] & 0xffL) << 32
+				| (byteArray[offset + 4] & 0xffL) << 24
+				| (byteArray[offset + 5] & 0xffL) << 16
+				| (byteArray[offset + 6] & 0xffL) << 8
+				| (byteArray[offset + 7] & 0xffL);
+	}
+	
+	/*
+	 * 
+	 * Byte Buffer Conversions
+	 * 
+	 */
+	
+	/**
+	 * Writes a UUID to a byte buffer at its current position, advancing the position by 16.
+	 * The bytes written are the same as those of {@link #toByteArray(UUID)}, regardless of
+	 * the byte order of the buffer.
+	 * 
+	 * @param uuid the UUID
+	 * @param buffer the byte buffer to write to, must have at least 16 bytes remaining
+	 */
+	public static void toByteBuffer(UUID uuid, ByteBuffer buffer) {
+		boolean bigEndian = buffer.order() == ByteOrder.BIG_ENDIAN;
+		long msb = uuid.getMostSignificantBits();
+		long lsb = uuid.getLeastSignificantBits();
+		buffer.putLong((bigEndian) ? msb : Long.reverseBytes(msb));
+		buffer.putLong((bigEndian) ? lsb : Long.reverseBytes(lsb));
+	}
+	
+	/**
+	 * Reads a UUID from a byte buffer at its current position, advancing the position by 16.
+	 * This is the inverse operation of {@link #toByteBuffer(UUID, ByteBuffer)}
+	 * 
+	 * @param buffer the byte buffer to read from, must have at least 16 bytes remaining
+	 * @return the UUID
+	 */
+	public static UUID fromByteBuffer(ByteBuffer buffer) {
+		boolean bigEndian = buffer.order() == ByteOrder.BIG_ENDIAN;
+		long msb = buffer.getLong();
+		long lsb = buffer.getLong();
+		return (bigEndian) ? new UUID(msb, lsb) : new UUID(Long.reverseBytes(msb), Long.reverseBytes(lsb));
+	}
+	
+	/**
+	 * Reads a UUID from a byte buffer at the specified index, without changing its position.
+	 * 
+	 * @param buffer the byte buffer to read from, must be at least of limit (index + 16)
+	 * @param index the index at which the UUID's bytes begin
+	 * @return the UUID
+	 */
+	public static UUID fromByteBuffer(ByteBuffer buffer, int index) {
+		boolean bigEndian = buffer.order() == ByteOrder.BIG_ENDIAN;
+		long msb = buffer.getLong(index);
+		long lsb = buffer.getLong(index + 8);
+		return (bigEndian) ? new UUID(msb, lsb) : new UUID(Long.reverseBytes(msb), Long.reverseBytes(lsb));
 	}
 	
 }
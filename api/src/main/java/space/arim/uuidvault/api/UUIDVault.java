@@ -18,6 +18,9 @@
  */
 package space.arim.uuidvault.api;
 
+import java.util.Collection;
+import java.util.List;
+import java.util.Map;
 import java.util.UUID;
 import java.util.concurrent.CompletableFuture;
 
@@ -159,6 +162,38 @@ public abstract class UUIDVault implements CollectiveUUIDResolver {
 	 */
 	public abstract String resolveNatively(UUID uuid);
 	
+	/**
+	 * Checks online players, and the offline player cache if applicable,
+	 * for players matching each of the specified names. May be called from any thread. <br>
+	 * <br>
+	 * If {@link #mustCallNativeResolutionSync()} is true, the lookup is queued and performed on the main thread,
+	 * together with every other such lookup queued in the meantime. Otherwise, it is performed immediately. <br>
+	 * <br>
+	 * The completable future, once completed, will produce a map whose keys are the specified names,
+	 * excluding those for which no player was found. The future <i>itself</i> will never be null.
+	 * 
+	 * @param names the names of the players whose uuids to find, must not be null nor contain null elements
+	 * @return a nonnull completable future which returns a map of the found names to their uuids
+	 * @throws NullPointerException if {@code names} or any of its elements is null
+	 */
+	public abstract CompletableFuture<Map<String, UUID>> resolveAllByNameNatively(Collection<String> names);
+	
+	/**
+	 * Checks online players, and the offline player cache if applicable,
+	 * for players matching each of the specified uuids. May be called from any thread. <br>
+	 * <br>
+	 * If {@link #mustCallNativeResolutionSync()} is true, the lookup is queued and performed on the main thread,
+	 * together with every other such lookup queued in the meantime. Otherwise, it is performed immediately. <br>
+	 * <br>
+	 * The completable future, once completed, will produce a map whose keys are the specified uuids,
+	 * excluding those for which no player was found. The future <i>itself</i> will never be null.
+	 * 
+	 * @param uuids the uuids of the players whose names to find, must not be null nor contain null elements
+	 * @return a nonnull completable future which returns a map of the found uuids to their names
+	 * @throws NullPointerException if {@code uuids} or any of its elements is null
+	 */
+	public abstract CompletableFuture<Map<UUID, String>> resolveAllByUUIDNatively(Collection<UUID> uuids);
+	
 	/**
 	 * {@inheritDoc}
 	 * 
@@ -187,6 +222,57 @@ public abstract class UUIDVault implements CollectiveUUIDResolver {
 	@Override
 	public abstract CompletableFuture<String> resolve(UUID uuid);
 	
+	/**
+	 * Begins a full lookup of many names at once, checking all resolvers until each name is found
+	 * or there are no more resolvers. <br>
+	 * <br>
+	 * Each resolver is only asked for the names not yet found. Resolvers which implement
+	 * {@link BatchUUIDResolver} are asked for all such names in one call. <br>
+	 * <br>
+	 * The completable future, once completed, will produce a map whose keys are the specified names,
+	 * excluding those for which no uuid was found. Like other name lookups, names are matched ignoring case,
+	 * so names differing only in case will map to the same uuid. The future <i>itself</i> will never be null.
+	 * 
+	 * @param names the names of the players whose uuids to find, must not be null nor contain null elements
+	 * @return a nonnull completable future which returns a map of the found names to their uuids
+	 * @throws NullPointerException if {@code names} or any of its elements is null
+	 */
+	public abstract CompletableFuture<Map<String, UUID>> resolveAllByName(Collection<String> names);
+	
+	/**
+	 * Begins a full lookup of many uuids at once, checking all resolvers until each uuid is found
+	 * or there are no more resolvers. <br>
+	 * <br>
+	 * Each resolver is only asked for the uuids not yet found. Resolvers which implement
+	 * {@link BatchUUIDResolver} are asked for all such uuids in one call. <br>
+	 * <br>
+	 * The completable future, once completed, will produce a map whose keys are the specified uuids,
+	 * excluding those for which no name was found. The future <i>itself</i> will never be null.
+	 * 
+	 * @param uuids the uuids of the players whose names to find, must not be null nor contain null elements
+	 * @return a nonnull completable future which returns a map of the found uuids to their names
+	 * @throws NullPointerException if {@code uuids} or any of its elements is null
+	 */
+	public abstract CompletableFuture<Map<UUID, String>> resolveAllByUUID(Collection<UUID> uuids);
+	
+	/**
+	 * Begins a lookup of every uuid known to have had a name, checking all resolvers at once. <br>
+	 * <br>
+	 * Resolvers which implement {@link CandidateResolver} contribute all their candidates. Other resolvers
+	 * contribute the uuid they would find through {@link UUIDResolver#resolve(String)}, with unknown recency.
+	 * If UUIDVault is configured to consult online players during resolution, an online player
+	 * with the name is a candidate last seen now. <br>
+	 * <br>
+	 * The completable future, once completed, will produce an unmodifiable list without duplicate uuids,
+	 * ordered by last seen, newest first. Candidates of unknown recency come last, in the order
+	 * of the resolvers which found them. The future <i>itself</i> will never be null.
+	 * 
+	 * @param name the name of the player whose candidate uuids to find, must not be null
+	 * @return a nonnull completable future which returns a list of candidates, possibly empty
+	 * @throws NullPointerException if {@code name} is null
+	 */
+	public abstract CompletableFuture<List<UUIDCandidate>> resolveAllCandidates(String name);
+	
 	/**
 	 * Creates a {@link CollectiveUUIDResolver} which resolves in the same fashion as UUIDVault would,
 	 * except that it will skip or ignore the specified registration. <br>
@@ -202,4 +288,32 @@ public abstract class UUIDVault implements CollectiveUUIDResolver {
 	 */
 	public abstract CollectiveUUIDResolver createCollectiveResolverIgnoring(UUIDVaultRegistration registration);
 	
+	/**
+	 * Gets statistics about each registered resolver, such as how often it finds results
+	 * and how long it takes. <br>
+	 * <br>
+	 * The returned map is an unmodifiable snapshot, ordered by the order in which resolvers are queried.
+	 * 
+	 * @return a snapshot of statistics of each current registration
+	 */
+	public abstract Map<UUIDVaultRegistration, ResolverStatistics> getStatistics();
+	
+	/**
+	 * Finds names starting with the specified prefix, ignoring case, such as for tab completion. <br>
+	 * <br>
+	 * Names are drawn from those UUIDVault has recently seen, through lookups or players joining,
+	 * and from every registered {@link PrefixSearchResolver}. No resolver is asked to perform a full
+	 * lookup, so this method does not block and is suitable for use from the main thread. <br>
+	 * <br>
+	 * The returned list is unmodifiable, sorted alphabetically ignoring case, and contains no names
+	 * which differ only in case. If more names match than the limit, the first in that order are returned.
+	 * 
+	 * @param prefix the prefix of the names to find, may be empty to find any names
+	 * @param limit the maximum amount of names to find
+	 * @return a nonnull list of names found
+	 * @throws NullPointerException if {@code prefix} is null
+	 * @throws IllegalArgumentException if {@code limit} is negative
+	 */
+	public abstract List<String> searchByPrefix(String prefix, int limit);
+	
 }
@@ -0,0 +1,60 @@
+/* 
+ * UUIDVault-api
+ * Copyright © 2020 Anand Beh <https://www.arim.space>
+ * 
+ * UUIDVault-api is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Lesser General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ * 
+ * UUIDVault-api is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the
+ * GNU Lesser General Public License for more details.
+ * 
+ * You should have received a copy of the GNU Lesser General Public License
+ * along with UUIDVault-api. If not, see <https://www.gnu.org/licenses/>
+ * and navigate to version 3 of the GNU Lesser General Public License.
+ */
+package space.arim.uuidvault.api;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+import java.util.Locale;
+
+import org.junit.jupiter.api.Test;
+
+public class CanonicalNameTest {
+
+	@Test
+	public void testFolding() {
+		CanonicalName name = CanonicalName.of("A248_Test");
+		assertEquals("A248_Test", name.getName());
+		assertEquals("a248_test", name.getFolded());
+		assertEquals("a248_test".hashCode(), name.hashCode());
+		assertEquals(CanonicalName.of("a248_TEST"), name);
+		assertSame("already", CanonicalName.of("already").getFolded(), "Lowercase names need not be copied");
+	}
+
+	@Test
+	public void testStrictValidation() {
+		assertNotNull(CanonicalName.ofStrict("Valid_Name_1234"));
+		assertNull(CanonicalName.ofStrict(""));
+		assertNull(CanonicalName.ofStrict("SeventeenLetters_"));
+		assertNull(CanonicalName.ofStrict("has space"));
+		assertNull(CanonicalName.ofStrict(".BedrockPlayer"));
+		assertNull(CanonicalName.ofStrict("héllo"));
+	}
+
+	@Test
+	public void testLenientValidation() {
+		assertNotNull(CanonicalName.of(".BedrockPlayer"));
+		assertNull(CanonicalName.of(""));
+		assertNull(CanonicalName.of("has space"));
+		assertNull(CanonicalName.of("SeventeenLetters_"));
+		CanonicalName nonAscii = CanonicalName.of("HÉllo");
+		assertEquals("HÉllo".toLowerCase(Locale.ROOT), nonAscii.getFolded());
+		assertEquals(nonAscii.getFolded().hashCode(), nonAscii.hashCode());
+	}
+
+}
@@ -0,0 +1,129 @@
+/* 
+ * UUIDVault-api
+ * Copyright © 2020 Anand Beh <https://www.arim.space>
+ * 
+ * UUIDVault-api is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Lesser General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ * 
+ * UUIDVault-api is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the
+ * GNU Lesser General Public License for more details.
+ * 
+ * You should have received a copy of the GNU Lesser General Public License
+ * along with UUIDVault-api. If not, see <https://www.gnu.org/licenses/>
+ * and navigate to version 3 of the GNU Lesser General Public License.
+ */
+package space.arim.uuidvault.api;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+import java.util.UUID;
+
+import org.junit.jupiter.api.Test;
+
+public class UUIDUtilTest {
+
+	private static List<UUID> uuids() {
+		List<UUID> uuids = new ArrayList<>();
+		uuids.add(new UUID(0L, 0L));
+		uuids.add(new UUID(-1L, -1L));
+		uuids.add(new UUID(1L, Long.MIN_VALUE));
+		Random random = new Random(248L);
+		for (int n = 0; n < 100; n++) {
+			uuids.add(new UUID(random.nextLong(), random.nextLong()));
+		}
+		return uuids;
+	}
+
+	@Test
+	public void testStringConversions() {
+		for (UUID uuid : uuids()) {
+			String full = uuid.toString();
+			String shortForm = full.replace("-", "");
+			assertEquals(shortForm, UUIDUtil.toShortString(uuid));
+			assertEquals(shortForm, UUIDUtil.contractFullString(full));
+			assertEquals(full, UUIDUtil.expandShortString(shortForm));
+			assertEquals(uuid, UUIDUtil.fromShortString(shortForm));
+			assertEquals(uuid, UUIDUtil.fromShortString(shortForm.toUpperCase()));
+		}
+	}
+
+	@Test
+	public void testOffsetConversions() {
+		for (UUID uuid : uuids()) {
+			String full = uuid.toString();
+			String shortForm = full.replace("-", "");
+
+			char[] chars = new char[40];
+			UUIDUtil.toShortString(uuid, chars, 3);
+			assertEquals(shortForm, new String(chars, 3, 32));
+			UUIDUtil.toFullString(uuid, chars, 4);
+			assertEquals(full, new String(chars, 4, 36));
+
+			StringBuilder builder = new StringBuilder("prefix:");
+			UUIDUtil.toShortString(uuid, builder);
+			assertEquals("prefix:" + shortForm, builder.toString());
+			builder.setLength(0);
+			UUIDUtil.toFullString(uuid, builder);
+			assertEquals(full, builder.toString());
+
+			assertEquals(uuid, UUIDUtil.fromShortString("uuid=" + shortForm + ";", 5));
+			assertEquals(uuid, UUIDUtil.fromFullString(new StringBuilder("uuid=").append(full), 5));
+		}
+	}
+
+	@Test
+	public void testInvalidStringsRejected() {
+		String full = "ed5f12cd-6007-45d9-a4b9-940524ddaecf";
+		String shortForm = "ed5f12cd600745d9a4b9940524ddaecf";
+		assertThrows(NumberFormatException.class, () -> UUIDUtil.fromShortString(full));
+		assertThrows(NumberFormatException.class, () -> UUIDUtil.fromShortString(shortForm.substring(1)));
+		assertThrows(NumberFormatException.class, () -> UUIDUtil.fromShortString(shortForm + "0"));
+		for (char invalid : new char[] {'G', 'g', '-', ' ', 'z', '\u00e9'}) {
+			String invalidShort = invalid + shortForm.substring(1);
+			assertThrows(NumberFormatException.class, () -> UUIDUtil.fromShortString(invalidShort));
+			String invalidFull = full.substring(0, 35) + invalid;
+			assertThrows(NumberFormatException.class, () -> UUIDUtil.fromFullString(invalidFull, 0));
+		}
+		assertThrows(NumberFormatException.class, () -> UUIDUtil.fromShortString("uuid=" + shortForm, 6));
+		assertThrows(NumberFormatException.class, () -> UUIDUtil.fromFullString(full.replace('-', '0'), 0));
+		assertThrows(NumberFormatException.class, () -> UUIDUtil.fromFullString(full.substring(0, 35), 0));
+		assertThrows(NumberFormatException.class, () -> UUIDUtil.fromFullString(full, -1));
+	}
+
+	@Test
+	public void testByteConversions() {
+		for (UUID uuid : uuids()) {
+			byte[] bytes = UUIDUtil.toByteArray(uuid);
+			assertEquals(uuid, UUIDUtil.fromByteArray(bytes));
+			assertEquals(uuid.getMostSignificantBits(), UUIDUtil.mostSignificantBits(bytes, 0));
+			assertEquals(uuid.getLeastSignificantBits(), UUIDUtil.leastSignificantBits(bytes, 0));
+
+			byte[] offsetBytes = new byte[20];
+			UUIDUtil.toByteArray(uuid.getMostSignificantBits(), uuid.getLeastSignificantBits(), offsetBytes, 2);
+			assertEquals(uuid, UUIDUtil.fromByteArray(offsetBytes, 2));
+
+			for (ByteOrder order : new ByteOrder[] {ByteOrder.BIG_ENDIAN, ByteOrder.LITTLE_ENDIAN}) {
+				ByteBuffer buffer = ByteBuffer.allocate(17).order(order);
+				buffer.put((byte) 0);
+				UUIDUtil.toByteBuffer(uuid, buffer);
+				byte[] written = new byte[16];
+				System.arraycopy(buffer.array(), 1, written, 0, 16);
+				assertArrayEquals(bytes, written, "Byte buffers should always be big endian");
+				assertEquals(uuid, UUIDUtil.fromByteBuffer(buffer, 1));
+				buffer.position(1);
+				assertEquals(uuid, UUIDUtil.fromByteBuffer(buffer));
+				assertEquals(17, buffer.position());
+			}
+		}
+	}
+
+}
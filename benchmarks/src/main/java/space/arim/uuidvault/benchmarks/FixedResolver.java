@@ -0,0 +1,85 @@
+/* 
+ * UUIDVault-benchmarks
+ * Copyright © 2020 Anand Beh <https://www.arim.space>
+ * 
+ * UUIDVault-benchmarks is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Lesser General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ * 
+ * UUIDVault-benchmarks is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the
+ * GNU Lesser General Public License for more details.
+ * 
+ * You should have received a copy of the GNU Lesser General Public License
+ * along with UUIDVault-benchmarks. If not, see <https://www.gnu.org/licenses/>
+ * and navigate to version 3 of the GNU Lesser General Public License.
+ */
+package space.arim.uuidvault.benchmarks;
+
+import java.util.UUID;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.Executor;
+
+import space.arim.uuidvault.api.UUIDResolver;
+
+/**
+ * Resolves a single mapping. Asynchronous results are either already completed,
+ * or completed later by an executor.
+ * 
+ */
+public class FixedResolver implements UUIDResolver {
+
+	private final UUID uuid;
+	private final String name;
+	private final CompletableFuture<UUID> completedUUID;
+	private final CompletableFuture<String> completedName;
+	private final CompletableFuture<UUID> completedNullUUID = CompletableFuture.completedFuture(null);
+	private final CompletableFuture<String> completedNullName = CompletableFuture.completedFuture(null);
+	private final Executor delayExecutor;
+
+	/**
+	 * Creates the resolver
+	 * 
+	 * @param uuid the uuid
+	 * @param name the name
+	 * @param delayExecutor the executor with which to complete futures, null to use completed futures
+	 */
+	FixedResolver(UUID uuid, String name, Executor delayExecutor) {
+		this.uuid = uuid;
+		this.name = name;
+		completedUUID = CompletableFuture.completedFuture(uuid);
+		completedName = CompletableFuture.completedFuture(name);
+		this.delayExecutor = delayExecutor;
+	}
+
+	@Override
+	public CompletableFuture<UUID> resolve(String name) {
+		UUID result = resolveImmediately(name);
+		if (delayExecutor != null) {
+			return CompletableFuture.supplyAsync(() -> result, delayExecutor);
+		}
+		return (result == null) ? completedNullUUID : completedUUID;
+	}
+
+	@Override
+	public UUID resolveImmediately(String name) {
+		return (name.equalsIgnoreCase(this.name)) ? uuid : null;
+	}
+
+	@Override
+	public CompletableFuture<String> resolve(UUID uuid) {
+		String result = resolveImmediately(uuid);
+		if (delayExecutor != null) {
+			return CompletableFuture.supplyAsync(() -> result, delayExecutor);
+		}
+		return (result == null) ? completedNullName : completedName;
+	}
+
+	@Override
+	public String resolveImmediately(UUID uuid) {
+		return (uuid.equals(this.uuid)) ? name : null;
+	}
+
+}
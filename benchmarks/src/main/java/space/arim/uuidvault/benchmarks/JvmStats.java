@@ -0,0 +1,100 @@
+/* 
+ * UUIDVault-benchmarks
+ * Copyright © 2020 Anand Beh <https://www.arim.space>
+ * 
+ * UUIDVault-benchmarks is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Lesser General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ * 
+ * UUIDVault-benchmarks is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the
+ * GNU Lesser General Public License for more details.
+ * 
+ * You should have received a copy of the GNU Lesser General Public License
+ * along with UUIDVault-benchmarks. If not, see <https://www.gnu.org/licenses/>
+ * and navigate to version 3 of the GNU Lesser General Public License.
+ */
+package space.arim.uuidvault.benchmarks;
+
+import java.lang.management.GarbageCollectorMXBean;
+import java.lang.management.ManagementFactory;
+import java.lang.management.ThreadMXBean;
+
+/**
+ * Snapshot of allocation and garbage collection counters of the JVM. <br>
+ * <br>
+ * Allocation is the sum over live threads, as reported by HotSpot, so allocation by threads
+ * which terminated between snapshots is not counted. The harness' own threads are long lived,
+ * but short lived dispatch threads, such as virtual threads, are undercounted.
+ * 
+ */
+final class JvmStats {
+
+	/**
+	 * Bytes allocated by live threads, or -1 if not supported by the JVM
+	 */
+	final long allocatedBytes;
+	final long gcCount;
+	final long gcMillis;
+	
+	private JvmStats(long allocatedBytes, long gcCount, long gcMillis) {
+		this.allocatedBytes = allocatedBytes;
+		this.gcCount = gcCount;
+		this.gcMillis = gcMillis;
+	}
+	
+	static JvmStats take() {
+		long gcCount = 0L;
+		long gcMillis = 0L;
+		for (GarbageCollectorMXBean collector : ManagementFactory.getGarbageCollectorMXBeans()) {
+			gcCount += Math.max(collector.getCollectionCount(), 0L);
+			gcMillis += Math.max(collector.getCollectionTime(), 0L);
+		}
+		return new JvmStats(allocatedBytes(), gcCount, gcMillis);
+	}
+	
+	private static long allocatedBytes() {
+		ThreadMXBean threads = ManagementFactory.getThreadMXBean();
+		if (!(threads instanceof com.sun.management.ThreadMXBean)) {
+			return -1L;
+		}
+		com.sun.management.ThreadMXBean hotspotThreads = (com.sun.management.ThreadMXBean) threads;
+		if (!hotspotThreads.isThreadAllocatedMemorySupported() || !hotspotThreads.isThreadAllocatedMemoryEnabled()) {
+			return -1L;
+		}
+		long total = 0L;
+		for (long allocated : hotspotThreads.getThreadAllocatedBytes(threads.getAllThreadIds())) {
+			// -1 for threads which terminated meanwhile
+			total += Math.max(allocated, 0L);
+		}
+		return total;
+	}
+	
+	/**
+	 * Gets the bytes allocated since an earlier snapshot
+	 * 
+	 * @param earlier the earlier snapshot
+	 * @return the bytes allocated, or -1 if not supported
+	 */
+	long allocatedSince(JvmStats earlier) {
+		if (allocatedBytes == -1L || earlier.allocatedBytes == -1L) {
+			return -1L;
+		}
+		// Negative if threads terminated
+		return Math.max(allocatedBytes - earlier.allocatedBytes, 0L);
+	}
+	
+	/**
+	 * Measures the heap retained after a full collection. Requests a collection,
+	 * so this is inaccurate if explicit collections are disabled.
+	 * 
+	 * @return the used heap in bytes after collection
+	 */
+	static long retainedHeap() {
+		System.gc();
+		return ManagementFactory.getMemoryMXBean().getHeapMemoryUsage().getUsed();
+	}
+	
+}
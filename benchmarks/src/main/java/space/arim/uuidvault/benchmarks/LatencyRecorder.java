@@ -0,0 +1,141 @@
+/* 
+ * UUIDVault-benchmarks
+ * Copyright © 2020 Anand Beh <https://www.arim.space>
+ * 
+ * UUIDVault-benchmarks is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Lesser General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ * 
+ * UUIDVault-benchmarks is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the
+ * GNU Lesser General Public License for more details.
+ * 
+ * You should have received a copy of the GNU Lesser General Public License
+ * along with UUIDVault-benchmarks. If not, see <https://www.gnu.org/licenses/>
+ * and navigate to version 3 of the GNU Lesser General Public License.
+ */
+package space.arim.uuidvault.benchmarks;
+
+import java.util.concurrent.atomic.LongAccumulator;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Lock free histogram of latencies with 8 linear sub-buckets per power of two, so that
+ * percentiles are accurate to within 12.5%. Latencies below 8 nanoseconds are counted exactly.
+ * 
+ */
+final class LatencyRecorder {
+
+	private static final int SUB_BUCKET_BITS = 3;
+	private static final int SUB_BUCKETS = 1 << SUB_BUCKET_BITS;
+	// Nanosecond latencies are positive longs, thus below 2^63
+	private static final int BUCKETS = (63 - SUB_BUCKET_BITS + 1) * SUB_BUCKETS;
+	
+	private final LongAdder[] buckets = new LongAdder[BUCKETS];
+	private final LongAccumulator max = new LongAccumulator(Math::max, 0L);
+	
+	LatencyRecorder() {
+		for (int n = 0; n < BUCKETS; n++) {
+			buckets[n] = new LongAdder();
+		}
+	}
+	
+	private static int bucketOf(long nanos) {
+		if (nanos < SUB_BUCKETS) {
+			return (int) Math.max(nanos, 0L);
+		}
+		int exponent = 63 - Long.numberOfLeadingZeros(nanos);
+		int subBucket = (int) (nanos >>> (exponent - SUB_BUCKET_BITS)) & (SUB_BUCKETS - 1);
+		return (exponent - SUB_BUCKET_BITS + 1) * SUB_BUCKETS + subBucket;
+	}
+	
+	private static long lowerBoundOf(int bucket) {
+		if (bucket < SUB_BUCKETS) {
+			return bucket;
+		}
+		int exponent = bucket / SUB_BUCKETS + SUB_BUCKET_BITS - 1;
+		return (long) (SUB_BUCKETS + bucket % SUB_BUCKETS) << (exponent - SUB_BUCKET_BITS);
+	}
+	
+	void record(long nanos) {
+		buckets[bucketOf(nanos)].increment();
+		max.accumulate(nanos);
+	}
+	
+	/**
+	 * Gets the highest latency recorded so far
+	 * 
+	 * @return the maximum latency in nanoseconds
+	 */
+	long max() {
+		return max.get();
+	}
+	
+	/**
+	 * Takes a copy of the counts of each bucket
+	 * 
+	 * @return the bucket counts
+	 */
+	long[] snapshot() {
+		long[] counts = new long[BUCKETS];
+		for (int n = 0; n < BUCKETS; n++) {
+			counts[n] = buckets[n].sum();
+		}
+		return counts;
+	}
+	
+	/**
+	 * Subtracts an earlier snapshot from a later one, yielding the counts in between
+	 * 
+	 * @param later the later snapshot
+	 * @param earlier the earlier snapshot
+	 * @return the bucket counts in between
+	 */
+	static long[] difference(long[] later, long[] earlier) {
+		long[] counts = new long[BUCKETS];
+		for (int n = 0; n < BUCKETS; n++) {
+			counts[n] = later[n] - earlier[n];
+		}
+		return counts;
+	}
+	
+	static long total(long[] counts) {
+		long total = 0L;
+		for (long count : counts) {
+			total += count;
+		}
+		return total;
+	}
+	
+	/**
+	 * Computes an approximate percentile from bucket counts
+	 * 
+	 * @param counts the bucket counts
+	 * @param percentile the percentile, between 0 and 100
+	 * @return the approximate latency in nanoseconds, or 0 if there are no counts
+	 */
+	static long percentile(long[] counts, double percentile) {
+		long total = total(counts);
+		if (total == 0L) {
+			return 0L;
+		}
+		double rank = percentile / 100D * total;
+		long seen = 0L;
+		for (int n = 0; n < BUCKETS; n++) {
+			long count = counts[n];
+			if (count == 0L) {
+				continue;
+			}
+			if (seen + count >= rank) {
+				long lower = lowerBoundOf(n);
+				long width = (n + 1 < BUCKETS) ? lowerBoundOf(n + 1) - lower : lower;
+				return lower + (long) (width * ((rank - seen) / count));
+			}
+			seen += count;
+		}
+		return lowerBoundOf(BUCKETS - 1);
+	}
+	
+}
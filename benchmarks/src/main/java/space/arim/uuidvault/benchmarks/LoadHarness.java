@@ -0,0 +1,459 @@
+/* 
+ * UUIDVault-benchmarks
+ * Copyright © 2020 Anand Beh <https://www.arim.space>
+ * 
+ * UUIDVault-benchmarks is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Lesser General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ * 
+ * UUIDVault-benchmarks is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the
+ * GNU Lesser General Public License for more details.
+ * 
+ * You should have received a copy of the GNU Lesser General Public License
+ * along with UUIDVault-benchmarks. If not, see <https://www.gnu.org/licenses/>
+ * and navigate to version 3 of the GNU Lesser General Public License.
+ */
+package space.arim.uuidvault.benchmarks;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ScheduledThreadPoolExecutor;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLongArray;
+import java.util.concurrent.atomic.LongAdder;
+
+import space.arim.uuidvault.api.ResolverStatistics;
+import space.arim.uuidvault.api.UUIDVaultRegistration;
+import space.arim.uuidvault.plugin.TestableUUIDVault;
+
+/**
+ * Load and soak harness driving a {@link TestableUUIDVault} with a mix of resolvers. Unlike the
+ * JMH benchmarks, which measure single operations in isolation, this simulates many callers
+ * with lookups outstanding at once, and reports throughput, latency percentiles, allocation,
+ * and garbage collection at regular intervals. <br>
+ * <br>
+ * Each caller has exactly one lookup outstanding. Once it completes, the caller is handed back
+ * to the threads starting lookups, which pick another player at random. Names and uuids of
+ * players are created up front, so that allocation reported is that of the vault and its
+ * resolvers, plus the small completion callback per lookup. <br>
+ * <br>
+ * In soak mode, the retained heap is measured at every report, and lookups outstanding for
+ * longer than the stall time are counted. The run fails if any lookup stalled, if any remained
+ * outstanding once callers stopped, or if the retained heap grew beyond the tolerance. <br>
+ * <br>
+ * Run with {@code java -cp benchmarks.jar space.arim.uuidvault.benchmarks.LoadHarness [key=value...]}.
+ * Pass {@code help} to list options. Exits with 0 on success, 1 if the soak checks
+ * failed, and 2 for invalid options.
+ * 
+ */
+public final class LoadHarness {
+
+	private final LoadOptions options;
+	private final TestableUUIDVault vault;
+	private final ScheduledThreadPoolExecutor delayExecutor;
+	private final List<UUIDVaultRegistration> registrations = new ArrayList<>();
+	private final List<String> registrationLabels = new ArrayList<>();
+	
+	private final String[] names;
+	private final UUID[] uuids;
+	private final Integer[] callerIds;
+	private final BlockingQueue<Integer> idleCallers;
+	/**
+	 * Start time of each caller's outstanding lookup, or 0 if none
+	 */
+	private final AtomicLongArray lookupStarts;
+	
+	private final LatencyRecorder asyncLatency = new LatencyRecorder();
+	private final LatencyRecorder immediateLatency = new LatencyRecorder();
+	private final LongAdder hits = new LongAdder();
+	private final LongAdder misses = new LongAdder();
+	private final LongAdder errors = new LongAdder();
+	private volatile boolean running = true;
+	private final long startNanos = System.nanoTime();
+	
+	private LoadHarness(LoadOptions options) {
+		this.options = options;
+		vault = new TestableUUIDVault(options.settings);
+		delayExecutor = new ScheduledThreadPoolExecutor(options.slowThreads, (runnable) -> {
+			Thread thread = new Thread(runnable, "LoadHarness-slow");
+			thread.setDaemon(true);
+			return thread;
+		});
+		Class<?>[] pluginClasses = Registrations.distinctClasses(options.mix.size());
+		for (int n = 0; n < options.mix.size(); n++) {
+			LoadResolver resolver = new LoadResolver(options.mix.get(n), options.knownKeys, delayExecutor, options.slowMicros);
+			String label = resolver + "#" + n;
+			registrations.add(vault.register(resolver, pluginClasses[n], (byte) (100 - n), label));
+			registrationLabels.add(label);
+		}
+		names = new String[options.keys];
+		uuids = new UUID[options.keys];
+		for (int key = 0; key < options.keys; key++) {
+			names[key] = LoadResolver.nameOf(key);
+			uuids[key] = LoadResolver.uuidOf(key);
+		}
+		callerIds = new Integer[options.callers];
+		idleCallers = new ArrayBlockingQueue<>(options.callers);
+		for (int caller = 0; caller < options.callers; caller++) {
+			callerIds[caller] = caller;
+			idleCallers.add(callerIds[caller]);
+		}
+		lookupStarts = new AtomicLongArray(options.callers);
+	}
+	
+	public static void main(String[] args) throws InterruptedException {
+		if (args.length == 1 && args[0].equals("help")) {
+			System.out.println(LoadOptions.USAGE);
+			return;
+		}
+		LoadOptions options;
+		try {
+			options = LoadOptions.parse(args);
+		} catch (IllegalArgumentException ex) {
+			System.err.println(ex.getMessage());
+			System.err.println(LoadOptions.USAGE);
+			System.exit(2);
+			return;
+		}
+		LoadHarness harness = new LoadHarness(options);
+		boolean passed;
+		try {
+			passed = harness.run();
+		} finally {
+			harness.close();
+		}
+		System.exit((passed) ? 0 : 1);
+	}
+	
+	/*
+	 * 
+	 * Callers
+	 * 
+	 */
+	
+	private void drive() {
+		ThreadLocalRandom random = ThreadLocalRandom.current();
+		while (running) {
+			Integer caller;
+			try {
+				caller = idleCallers.poll(100L, TimeUnit.MILLISECONDS);
+			} catch (InterruptedException ex) {
+				Thread.currentThread().interrupt();
+				return;
+			}
+			if (caller == null) {
+				continue;
+			}
+			int key = random.nextInt(options.keys);
+			boolean byName = random.nextBoolean();
+			if (random.nextDouble() < options.immediateFraction) {
+				lookupImmediately(key, byName);
+				idleCallers.offer(caller);
+			} else {
+				lookup(caller, key, byName);
+			}
+		}
+	}
+	
+	private void lookupImmediately(int key, boolean byName) {
+		long start = System.nanoTime();
+		Object result;
+		try {
+			result = (byName) ? vault.resolveImmediately(names[key]) : vault.resolveImmediately(uuids[key]);
+		} catch (RuntimeException ex) {
+			errors.increment();
+			return;
+		}
+		immediateLatency.record(System.nanoTime() - start);
+		count(result, null);
+	}
+	
+	private void lookup(Integer caller, int key, boolean byName) {
+		int slot = caller;
+		long start = System.nanoTime();
+		lookupStarts.set(slot, start);
+		CompletableFuture<?> future;
+		try {
+			future = (byName) ? vault.resolve(names[key]) : vault.resolve(uuids[key]);
+		} catch (RuntimeException ex) {
+			errors.increment();
+			lookupStarts.set(slot, 0L);
+			idleCallers.offer(caller);
+			return;
+		}
+		future.whenComplete((result, ex) -> {
+			asyncLatency.record(System.nanoTime() - start);
+			count(result, ex);
+			lookupStarts.set(slot, 0L);
+			idleCallers.offer(caller);
+		});
+	}
+	
+	private void count(Object result, Throwable ex) {
+		if (ex != null) {
+			errors.increment();
+		} else if (result != null) {
+			hits.increment();
+		} else {
+			misses.increment();
+		}
+	}
+	
+	/*
+	 * 
+	 * Measurement
+	 * 
+	 */
+	
+	private boolean run() throws InterruptedException {
+		System.out.println("Resolvers, highest priority first: " + registrationLabels);
+		System.out.println("Callers: " + options.callers + ", threads: " + options.threads + ", players: " + options.keys
+				+ " (" + options.knownKeys + " known), soak: " + options.soak);
+		System.out.println(options.settings);
+		List<Thread> drivers = new ArrayList<>();
+		for (int n = 0; n < options.threads; n++) {
+			Thread driver = new Thread(this::drive, "LoadHarness-caller-" + n);
+			driver.setDaemon(true);
+			driver.start();
+			drivers.add(driver);
+		}
+		sleepNanos(options.warmupNanos);
+		System.out.println("Warmup complete");
+
+		Sample first = sample();
+		Sample previous = first;
+		List<Long> retainedHeaps = new ArrayList<>();
+		int stalledSeen = 0;
+		long end = first.nanos + options.durationNanos;
+		long now;
+		while ((now = System.nanoTime()) < end) {
+			sleepNanos(Math.min(options.reportNanos, end - now));
+			Sample current = sample();
+			StringBuilder line = report(previous, current);
+			if (options.soak) {
+				int stalled = stalledLookups();
+				stalledSeen = Math.max(stalledSeen, stalled);
+				// The forced collection counts toward the next interval
+				long retainedHeap = JvmStats.retainedHeap();
+				retainedHeaps.add(retainedHeap);
+				line.append(" | stalled ").append(stalled).append(" | retained heap ").append(megabytes(retainedHeap));
+			}
+			System.out.println(line);
+			previous = current;
+		}
+		running = false;
+		for (Thread driver : drivers) {
+			driver.join();
+		}
+		int leaked = drain();
+
+		// Measured until the last report, since allocation by terminated callers is no longer known
+		System.out.println();
+		System.out.println("Total " + report(first, previous));
+		reportResolvers();
+		if (!options.soak) {
+			return true;
+		}
+		return verdict(stalledSeen, leaked, retainedHeaps);
+	}
+	
+	private Sample sample() {
+		return new Sample(System.nanoTime(), asyncLatency.snapshot(), immediateLatency.snapshot(),
+				hits.sum(), misses.sum(), errors.sum(), JvmStats.take());
+	}
+	
+	private StringBuilder report(Sample earlier, Sample later) {
+		double seconds = (later.nanos - earlier.nanos) / 1_000_000_000D;
+		long[] async = LatencyRecorder.difference(later.async, earlier.async);
+		long[] immediate = LatencyRecorder.difference(later.immediate, earlier.immediate);
+		long lookups = LatencyRecorder.total(async) + LatencyRecorder.total(immediate);
+		long hitCount = later.hits - earlier.hits;
+		long missCount = later.misses - earlier.misses;
+		long errorCount = later.errors - earlier.errors;
+
+		StringBuilder line = new StringBuilder();
+		line.append(String.format("[%6.0fs] %,.0f lookups/s", (later.nanos - startNanos) / 1_000_000_000D, lookups / seconds));
+		if (LatencyRecorder.total(async) != 0L) {
+			appendPercentiles(line.append(" | async"), async);
+		}
+		if (LatencyRecorder.total(immediate) != 0L) {
+			appendPercentiles(line.append(" | immediate"), immediate);
+		}
+		long outcomes = hitCount + missCount + errorCount;
+		if (outcomes != 0L) {
+			line.append(String.format(" | hits %.1f%% errors %.1f%%", 100D * hitCount / outcomes, 100D * errorCount / outcomes));
+		}
+		long allocated = later.jvm.allocatedSince(earlier.jvm);
+		if (allocated != -1L && lookups != 0L) {
+			line.append(String.format(" | alloc %,d B/op %s/s", allocated / lookups, megabytes((long) (allocated / seconds))));
+		}
+		line.append(" | gc ").append(later.jvm.gcCount - earlier.jvm.gcCount)
+				.append(" (").append(later.jvm.gcMillis - earlier.jvm.gcMillis).append(" ms)");
+		return line;
+	}
+	
+	private static void appendPercentiles(StringBuilder line, long[] counts) {
+		line.append(" p50 ").append(duration(LatencyRecorder.percentile(counts, 50D)))
+				.append(" p99 ").append(duration(LatencyRecorder.percentile(counts, 99D)))
+				.append(" p99.9 ").append(duration(LatencyRecorder.percentile(counts, 99.9D)));
+	}
+	
+	private void reportResolvers() {
+		Map<UUIDVaultRegistration, ResolverStatistics> statistics = vault.getStatistics();
+		for (int n = 0; n < registrations.size(); n++) {
+			ResolverStatistics resolverStatistics = statistics.get(registrations.get(n));
+			if (resolverStatistics == null) {
+				continue;
+			}
+			System.out.println(String.format("  %-12s hits %,d misses %,d exceptions %,d timeouts %,d immediate hits %,d misses %,d",
+					registrationLabels.get(n), resolverStatistics.getHits(), resolverStatistics.getMisses(),
+					resolverStatistics.getExceptions(), resolverStatistics.getTimeouts(),
+					resolverStatistics.getImmediateHits(), resolverStatistics.getImmediateMisses()));
+		}
+		System.out.println("  max latency: async " + duration(asyncLatency.max())
+				+ ((options.immediateFraction == 0D) ? "" : ", immediate " + duration(immediateLatency.max())));
+	}
+	
+	/*
+	 * 
+	 * Soak checks
+	 * 
+	 */
+	
+	private int stalledLookups() {
+		long now = System.nanoTime();
+		int stalled = 0;
+		for (int caller = 0; caller < options.callers; caller++) {
+			long start = lookupStarts.get(caller);
+			if (start != 0L && now - start > options.stallNanos) {
+				stalled++;
+			}
+		}
+		return stalled;
+	}
+	
+	/**
+	 * Waits for outstanding lookups to complete, for at most the stall time
+	 * 
+	 * @return the amount of lookups still outstanding
+	 */
+	private int drain() throws InterruptedException {
+		long deadline = System.nanoTime() + options.stallNanos;
+		int outstanding;
+		while ((outstanding = outstandingLookups()) != 0 && System.nanoTime() < deadline) {
+			Thread.sleep(10L);
+		}
+		return outstanding;
+	}
+	
+	private int outstandingLookups() {
+		int outstanding = 0;
+		for (int caller = 0; caller < options.callers; caller++) {
+			if (lookupStarts.get(caller) != 0L) {
+				outstanding++;
+			}
+		}
+		return outstanding;
+	}
+	
+	private boolean verdict(int stalledSeen, int leaked, List<Long> retainedHeaps) {
+		boolean passed = true;
+		if (stalledSeen != 0) {
+			System.out.println("FAILED: up to " + stalledSeen + " lookups were outstanding for longer than the stall time");
+			passed = false;
+		}
+		if (leaked != 0) {
+			System.out.println("FAILED: " + leaked + " lookups never completed");
+			passed = false;
+		}
+		if (retainedHeaps.size() < 4) {
+			System.out.println("Too few reports to judge heap growth. Run for at least 4 report intervals");
+		} else {
+			// Minimums discount lookups in flight, and garbage surviving by chance
+			long baseline = min(retainedHeaps.subList(0, retainedHeaps.size() / 2));
+			long recent = min(retainedHeaps.subList(retainedHeaps.size() * 3 / 4, retainedHeaps.size()));
+			long growth = recent - baseline;
+			System.out.println("Retained heap growth: " + megabytes(growth));
+			if (growth > options.maxHeapGrowthBytes) {
+				System.out.println("FAILED: retained heap grew by more than " + megabytes(options.maxHeapGrowthBytes));
+				passed = false;
+			}
+		}
+		if (passed) {
+			System.out.println("PASSED");
+		}
+		return passed;
+	}
+	
+	private static long min(List<Long> values) {
+		long min = Long.MAX_VALUE;
+		for (long value : values) {
+			min = Math.min(min, value);
+		}
+		return min;
+	}
+	
+	/*
+	 * 
+	 * Utils
+	 * 
+	 */
+	
+	private static void sleepNanos(long nanos) throws InterruptedException {
+		TimeUnit.NANOSECONDS.sleep(nanos);
+	}
+	
+	private static String duration(long nanos) {
+		if (nanos < 1_000L) {
+			return nanos + " ns";
+		}
+		if (nanos < 1_000_000L) {
+			return String.format("%.1f us", nanos / 1_000D);
+		}
+		if (nanos < 1_000_000_000L) {
+			return String.format("%.1f ms", nanos / 1_000_000D);
+		}
+		return String.format("%.2f s", nanos / 1_000_000_000D);
+	}
+	
+	private static String megabytes(long bytes) {
+		return String.format("%.1f MB", bytes / (1024D * 1024D));
+	}
+	
+	private void close() {
+		vault.shutdown();
+		delayExecutor.shutdownNow();
+	}
+	
+	private static final class Sample {
+		
+		final long nanos;
+		final long[] async;
+		final long[] immediate;
+		final long hits;
+		final long misses;
+		final long errors;
+		final JvmStats jvm;
+		
+		Sample(long nanos, long[] async, long[] immediate, long hits, long misses, long errors, JvmStats jvm) {
+			this.nanos = nanos;
+			this.async = async;
+			this.immediate = immediate;
+			this.hits = hits;
+			this.misses = misses;
+			this.errors = errors;
+			this.jvm = jvm;
+		}
+		
+	}
+	
+}
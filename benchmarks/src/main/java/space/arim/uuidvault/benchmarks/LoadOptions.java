@@ -0,0 +1,178 @@
+/* 
+ * UUIDVault-benchmarks
+ * Copyright © 2020 Anand Beh <https://www.arim.space>
+ * 
+ * UUIDVault-benchmarks is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Lesser General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ * 
+ * UUIDVault-benchmarks is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the
+ * GNU Lesser General Public License for more details.
+ * 
+ * You should have received a copy of the GNU Lesser General Public License
+ * along with UUIDVault-benchmarks. If not, see <https://www.gnu.org/licenses/>
+ * and navigate to version 3 of the GNU Lesser General Public License.
+ */
+package space.arim.uuidvault.benchmarks;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+import space.arim.uuidvault.plugin.VaultSettings;
+
+/**
+ * Options of the load harness, parsed from arguments of the form {@code key=value}.
+ * Durations accept a suffix of s, m, or h, and are otherwise seconds.
+ * 
+ */
+final class LoadOptions {
+
+	/**
+	 * Resolvers to register, highest priority first
+	 */
+	final List<LoadResolver.Kind> mix;
+	final int callers;
+	final int threads;
+	final int keys;
+	final int knownKeys;
+	final long slowMicros;
+	final int slowThreads;
+	final double immediateFraction;
+	final long warmupNanos;
+	final long durationNanos;
+	final long reportNanos;
+	final boolean soak;
+	final long stallNanos;
+	final long maxHeapGrowthBytes;
+	final VaultSettings settings;
+	
+	static final String USAGE = String.join(System.lineSeparator(),
+			"Options, as key=value:",
+			"  mix=null:1,failing:1,slow:1,immediate:1  resolvers to register by kind and count, highest priority first",
+			"  callers=2000            concurrent callers, each with one lookup outstanding",
+			"  threads=<processors>    threads starting lookups",
+			"  keys=100000             distinct players looked up",
+			"  known=0.9               fraction of players known to slow resolvers, half of which immediate resolvers know",
+			"  slow-millis=5           delay of slow resolvers",
+			"  slow-threads=2          threads completing futures of slow resolvers",
+			"  immediate-fraction=0    fraction of lookups using resolveImmediately",
+			"  cache=0                 result cache size",
+			"  dispatch=caller         dispatch mode, one of caller, pool, virtual",
+			"  dispatch-threads=4      dispatch pool size",
+			"  parallel=false          parallel resolution",
+			"  warmup=10s              time before measurement",
+			"  duration=60s            time measured",
+			"  report=10s              interval between reports, 60s in soak mode",
+			"  soak=false              check for stalled lookups and heap growth, failing if found",
+			"  stall=30s               time after which an outstanding lookup counts as stalled",
+			"  max-heap-growth-mb=32   retained heap growth tolerated in soak mode");
+	
+	private LoadOptions(Map<String, String> values) {
+		mix = Collections.unmodifiableList(parseMix(take(values, "mix", "null:1,failing:1,slow:1,immediate:1")));
+		callers = positive(values, "callers", 2000);
+		threads = positive(values, "threads", Runtime.getRuntime().availableProcessors());
+		keys = positive(values, "keys", 100_000);
+		knownKeys = (int) (keys * fraction(values, "known", 0.9D));
+		slowMicros = (long) (Double.parseDouble(take(values, "slow-millis", "5")) * 1000D);
+		slowThreads = positive(values, "slow-threads", 2);
+		immediateFraction = fraction(values, "immediate-fraction", 0D);
+		warmupNanos = duration(values, "warmup", "10s");
+		durationNanos = duration(values, "duration", "60s");
+		soak = Boolean.parseBoolean(take(values, "soak", "false"));
+		reportNanos = duration(values, "report", (soak) ? "60s" : "10s");
+		stallNanos = duration(values, "stall", "30s");
+		maxHeapGrowthBytes = positive(values, "max-heap-growth-mb", 32) * 1024L * 1024L;
+
+		VaultSettings.Builder builder = VaultSettings.builder()
+				.cacheSize(Integer.parseInt(take(values, "cache", "0")))
+				.dispatch(VaultSettings.DispatchMode.valueOf(take(values, "dispatch", "caller").toUpperCase(Locale.ROOT)),
+						positive(values, "dispatch-threads", 4))
+				.parallelResolution(Boolean.parseBoolean(take(values, "parallel", "false")))
+				// Failing resolvers would otherwise flood the console
+				.errorLogWindow(1L, TimeUnit.HOURS);
+		settings = builder.build();
+		if (!values.isEmpty()) {
+			throw new IllegalArgumentException("Unknown options " + values.keySet());
+		}
+	}
+	
+	/**
+	 * Parses options
+	 * 
+	 * @param args the arguments
+	 * @return the options
+	 * @throws IllegalArgumentException if any argument is invalid
+	 */
+	static LoadOptions parse(String[] args) {
+		Map<String, String> values = new HashMap<>();
+		for (String arg : args) {
+			int separator = arg.indexOf('=');
+			if (separator == -1) {
+				throw new IllegalArgumentException("Expected key=value but got " + arg);
+			}
+			values.put(arg.substring(0, separator), arg.substring(separator + 1));
+		}
+		return new LoadOptions(values);
+	}
+	
+	private static String take(Map<String, String> values, String key, String defaultValue) {
+		String value = values.remove(key);
+		return (value == null) ? defaultValue : value.trim();
+	}
+	
+	private static int positive(Map<String, String> values, String key, int defaultValue) {
+		int value = Integer.parseInt(take(values, key, Integer.toString(defaultValue)));
+		if (value <= 0) {
+			throw new IllegalArgumentException(key + " must be positive");
+		}
+		return value;
+	}
+	
+	private static double fraction(Map<String, String> values, String key, double defaultValue) {
+		double value = Double.parseDouble(take(values, key, Double.toString(defaultValue)));
+		if (!(value >= 0D && value <= 1D)) {
+			throw new IllegalArgumentException(key + " must be between 0 and 1");
+		}
+		return value;
+	}
+	
+	private static long duration(Map<String, String> values, String key, String defaultValue) {
+		String value = take(values, key, defaultValue).toLowerCase(Locale.ROOT);
+		TimeUnit unit = TimeUnit.SECONDS;
+		switch (value.isEmpty() ? ' ' : value.charAt(value.length() - 1)) {
+		case 'h':
+			unit = TimeUnit.HOURS;
+			break;
+		case 'm':
+			unit = TimeUnit.MINUTES;
+			break;
+		case 's':
+			break;
+		default:
+			return TimeUnit.SECONDS.toNanos(Long.parseLong(value));
+		}
+		return unit.toNanos(Long.parseLong(value.substring(0, value.length() - 1)));
+	}
+	
+	private static List<LoadResolver.Kind> parseMix(String mix) {
+		List<LoadResolver.Kind> kinds = new ArrayList<>();
+		for (String entry : mix.split(",")) {
+			String[] parts = entry.trim().split(":");
+			LoadResolver.Kind kind = LoadResolver.Kind.valueOf(parts[0].toUpperCase(Locale.ROOT));
+			int count = (parts.length > 1) ? Integer.parseInt(parts[1]) : 1;
+			for (int n = 0; n < count; n++) {
+				kinds.add(kind);
+			}
+		}
+		return kinds;
+	}
+	
+}
@@ -0,0 +1,205 @@
+/* 
+ * UUIDVault-benchmarks
+ * Copyright © 2020 Anand Beh <https://www.arim.space>
+ * 
+ * UUIDVault-benchmarks is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Lesser General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ * 
+ * UUIDVault-benchmarks is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the
+ * GNU Lesser General Public License for more details.
+ * 
+ * You should have received a copy of the GNU Lesser General Public License
+ * along with UUIDVault-benchmarks. If not, see <https://www.gnu.org/licenses/>
+ * and navigate to version 3 of the GNU Lesser General Public License.
+ */
+package space.arim.uuidvault.benchmarks;
+
+import java.util.UUID;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+
+import space.arim.uuidvault.api.UUIDResolver;
+
+/**
+ * Resolver used by the load harness, behaving according to its kind. Knows the mappings
+ * of keys below a bound, where key {@code n} is the name "Player" followed by {@code n},
+ * and the uuid {@link #uuidOf(int)}. <br>
+ * <br>
+ * Immediate resolvers only know the lower half of the known keys, as would an in memory
+ * store of recently active players. Since the vault tries resolving immediately before
+ * asynchronously, the other half then reaches slow resolvers.
+ * 
+ */
+final class LoadResolver implements UUIDResolver {
+
+	/**
+	 * How a resolver behaves
+	 * 
+	 */
+	enum Kind {
+		/**
+		 * Completes futures after a delay, as would a database. Never resolves immediately
+		 */
+		SLOW,
+		/**
+		 * Fails every asynchronous lookup, as would a resolver whose backing store is down.
+		 * Never resolves immediately
+		 */
+		FAILING,
+		/**
+		 * Knows nothing, returning completed futures of null
+		 */
+		NULL,
+		/**
+		 * Returns completed futures and resolves immediately, as would an in memory store
+		 */
+		IMMEDIATE
+	}
+	
+	private static final String NAME_PREFIX = "Player";
+	private static final long KEY_MOST_SIG_BITS = 0x5eed_5eed_5eed_5eedL;
+	
+	private static final CompletableFuture<UUID> NULL_UUID = CompletableFuture.completedFuture(null);
+	private static final CompletableFuture<String> NULL_NAME = CompletableFuture.completedFuture(null);
+	
+	private final Kind kind;
+	private final int knownKeys;
+	private final ScheduledExecutorService delayExecutor;
+	private final long delayMicros;
+	private final LoadFailure failure = new LoadFailure();
+	
+	/**
+	 * Creates the resolver
+	 * 
+	 * @param kind the kind of resolver
+	 * @param knownKeys the amount of keys whose mappings are known
+	 * @param delayExecutor the executor with which slow resolvers complete futures
+	 * @param delayMicros the delay of slow resolvers in microseconds
+	 */
+	LoadResolver(Kind kind, int knownKeys, ScheduledExecutorService delayExecutor, long delayMicros) {
+		this.kind = kind;
+		this.knownKeys = (kind == Kind.IMMEDIATE) ? knownKeys / 2 : knownKeys;
+		this.delayExecutor = delayExecutor;
+		this.delayMicros = delayMicros;
+	}
+	
+	static String nameOf(int key) {
+		return NAME_PREFIX + key;
+	}
+	
+	static UUID uuidOf(int key) {
+		return new UUID(KEY_MOST_SIG_BITS, key);
+	}
+	
+	private int keyOf(String name) {
+		int length = name.length();
+		if (length <= NAME_PREFIX.length() || !name.regionMatches(true, 0, NAME_PREFIX, 0, NAME_PREFIX.length())) {
+			return -1;
+		}
+		long key = 0L;
+		for (int n = NAME_PREFIX.length(); n < length; n++) {
+			char c = name.charAt(n);
+			if (c < '0' || c > '9' || (key = key * 10 + (c - '0')) >= knownKeys) {
+				return -1;
+			}
+		}
+		return (int) key;
+	}
+	
+	private int keyOf(UUID uuid) {
+		long key = uuid.getLeastSignificantBits();
+		return (uuid.getMostSignificantBits() == KEY_MOST_SIG_BITS && key >= 0L && key < knownKeys) ? (int) key : -1;
+	}
+	
+	private <T> CompletableFuture<T> delayed(T value) {
+		CompletableFuture<T> future = new CompletableFuture<>();
+		delayExecutor.schedule(() -> future.complete(value), delayMicros, TimeUnit.MICROSECONDS);
+		return future;
+	}
+	
+	private <T> CompletableFuture<T> failed() {
+		CompletableFuture<T> future = new CompletableFuture<>();
+		future.completeExceptionally(failure);
+		return future;
+	}
+	
+	@Override
+	public CompletableFuture<UUID> resolve(String name) {
+		switch (kind) {
+		case SLOW:
+			int key = keyOf(name);
+			return delayed((key == -1) ? null : uuidOf(key));
+		case FAILING:
+			return failed();
+		case IMMEDIATE:
+			UUID uuid = resolveImmediately(name);
+			return (uuid == null) ? NULL_UUID : CompletableFuture.completedFuture(uuid);
+		default:
+			return NULL_UUID;
+		}
+	}
+	
+	@Override
+	public UUID resolveImmediately(String name) {
+		switch (kind) {
+		case IMMEDIATE:
+			int key = keyOf(name);
+			return (key == -1) ? null : uuidOf(key);
+		default:
+			return null;
+		}
+	}
+	
+	@Override
+	public CompletableFuture<String> resolve(UUID uuid) {
+		switch (kind) {
+		case SLOW:
+			int key = keyOf(uuid);
+			return delayed((key == -1) ? null : nameOf(key));
+		case FAILING:
+			return failed();
+		case IMMEDIATE:
+			String name = resolveImmediately(uuid);
+			return (name == null) ? NULL_NAME : CompletableFuture.completedFuture(name);
+		default:
+			return NULL_NAME;
+		}
+	}
+	
+	@Override
+	public String resolveImmediately(UUID uuid) {
+		switch (kind) {
+		case IMMEDIATE:
+			int key = keyOf(uuid);
+			return (key == -1) ? null : nameOf(key);
+		default:
+			return null;
+		}
+	}
+	
+	@Override
+	public String toString() {
+		return kind.name().toLowerCase();
+	}
+	
+	/**
+	 * Failure of a failing resolver. Reused, and without a stack trace, so that failing
+	 * does not itself allocate much
+	 * 
+	 */
+	private static final class LoadFailure extends RuntimeException {
+		
+		private static final long serialVersionUID = 1L;
+		
+		LoadFailure() {
+			super("Simulated failure of a load test resolver", null, false, false);
+		}
+		
+	}
+	
+}
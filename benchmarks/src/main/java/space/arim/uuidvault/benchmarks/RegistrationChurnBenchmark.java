@@ -0,0 +1,100 @@
+/* 
+ * UUIDVault-benchmarks
+ * Copyright © 2020 Anand Beh <https://www.arim.space>
+ * 
+ * UUIDVault-benchmarks is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Lesser General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ * 
+ * UUIDVault-benchmarks is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the
+ * GNU Lesser General Public License for more details.
+ * 
+ * You should have received a copy of the GNU Lesser General Public License
+ * along with UUIDVault-benchmarks. If not, see <https://www.gnu.org/licenses/>
+ * and navigate to version 3 of the GNU Lesser General Public License.
+ */
+package space.arim.uuidvault.benchmarks;
+
+import java.util.UUID;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Threads;
+import org.openjdk.jmh.annotations.Warmup;
+
+import space.arim.uuidvault.api.UUIDVaultRegistration;
+import space.arim.uuidvault.plugin.TestableUUIDVault;
+
+/**
+ * Concurrent registration and unregistration, which contend on the same compare and set.
+ * Each thread registers and unregisters its own resolver.
+ * 
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@Threads(4)
+public class RegistrationChurnBenchmark {
+
+	private static final int MAX_THREADS = 64;
+
+	@State(Scope.Benchmark)
+	public static class VaultState {
+
+		@Param({"0", "20"})
+		int existingRegistrations;
+
+		TestableUUIDVault vault;
+		// Plugin classes for threads, distinct from those of existing registrations
+		Class<?>[] threadClasses;
+		final AtomicInteger threadIndex = new AtomicInteger();
+
+		@Setup
+		public void setup() {
+			vault = new TestableUUIDVault();
+			Registrations.registerResolvers(vault, existingRegistrations, -1, null);
+			Class<?>[] classes = Registrations.distinctClasses(existingRegistrations + MAX_THREADS);
+			threadClasses = new Class<?>[MAX_THREADS];
+			System.arraycopy(classes, existingRegistrations, threadClasses, 0, MAX_THREADS);
+		}
+
+	}
+
+	@State(Scope.Thread)
+	public static class ThreadState {
+
+		FixedResolver resolver;
+		Class<?> pluginClass;
+
+		@Setup
+		public void setup(VaultState vaultState) {
+			int index = vaultState.threadIndex.getAndIncrement();
+			resolver = new FixedResolver(new UUID(1, index), "Thread" + index, null);
+			pluginClass = vaultState.threadClasses[index];
+		}
+
+	}
+
+	@Benchmark
+	public boolean registerThenUnregister(VaultState vaultState, ThreadState threadState) {
+		TestableUUIDVault vault = vaultState.vault;
+		UUIDVaultRegistration registration = vault.register(threadState.resolver, threadState.pluginClass, (byte) 0, "Churn");
+		return vault.unregister(registration);
+	}
+
+}
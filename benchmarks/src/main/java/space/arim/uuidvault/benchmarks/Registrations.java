@@ -0,0 +1,101 @@
+/* 
+ * UUIDVault-benchmarks
+ * Copyright © 2020 Anand Beh <https://www.arim.space>
+ * 
+ * UUIDVault-benchmarks is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Lesser General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ * 
+ * UUIDVault-benchmarks is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the
+ * GNU Lesser General Public License for more details.
+ * 
+ * You should have received a copy of the GNU Lesser General Public License
+ * along with UUIDVault-benchmarks. If not, see <https://www.gnu.org/licenses/>
+ * and navigate to version 3 of the GNU Lesser General Public License.
+ */
+package space.arim.uuidvault.benchmarks;
+
+import java.lang.reflect.Array;
+import java.util.UUID;
+import java.util.concurrent.Executor;
+
+import space.arim.uuidvault.api.UUIDVault;
+import space.arim.uuidvault.api.UUIDVaultRegistration;
+
+/**
+ * Helpers for registering many resolvers, as benchmarks need
+ * 
+ */
+final class Registrations {
+
+	static final String TARGET_NAME = "A248";
+	static final UUID TARGET_UUID = new UUID(0x1234_5678_9abc_def0L, 0x0fed_cba9_8765_4321L);
+
+	private Registrations() {}
+
+	/**
+	 * Gets distinct classes to use as plugin classes, since each registration requires its own.
+	 * Array classes of increasing dimension are used for this purpose.
+	 * 
+	 * @param amount the amount of classes
+	 * @return distinct classes
+	 */
+	static Class<?>[] distinctClasses(int amount) {
+		Class<?>[] classes = new Class<?>[amount];
+		Class<?> clazz = Object.class;
+		for (int n = 0; n < amount; n++) {
+			classes[n] = clazz;
+			clazz = Array.newInstance(clazz, 0).getClass();
+		}
+		return classes;
+	}
+
+	/**
+	 * Registers resolvers, in descending priority, of which only the one at the hit position
+	 * knows the target mapping
+	 * 
+	 * @param vault the vault
+	 * @param amount the amount of resolvers
+	 * @param hitPosition the position of the resolver knowing the target mapping, or -1 for none
+	 * @param delayExecutor the executor with which resolvers complete futures, null for completed futures
+	 * @return the registrations, in descending priority
+	 */
+	static UUIDVaultRegistration[] registerResolvers(UUIDVault vault, int amount, int hitPosition, Executor delayExecutor) {
+		Class<?>[] pluginClasses = distinctClasses(amount);
+		UUIDVaultRegistration[] registrations = new UUIDVaultRegistration[amount];
+		for (int n = 0; n < amount; n++) {
+			FixedResolver resolver;
+			if (n == hitPosition) {
+				resolver = new FixedResolver(TARGET_UUID, TARGET_NAME, delayExecutor);
+			} else {
+				resolver = new FixedResolver(new UUID(0, n), "Other" + n, delayExecutor);
+			}
+			registrations[n] = vault.register(resolver, pluginClasses[n], (byte) (100 - n), "Resolver" + n);
+		}
+		return registrations;
+	}
+
+	/**
+	 * Determines the hit position from a position parameter
+	 * 
+	 * @param position one of "first", "last", or "miss"
+	 * @param amount the amount of resolvers
+	 * @return the hit position, -1 for a miss
+	 */
+	static int hitPosition(String position, int amount) {
+		switch (position) {
+		case "first":
+			return 0;
+		case "last":
+			return amount - 1;
+		case "miss":
+			return -1;
+		default:
+			throw new IllegalArgumentException("Unknown position " + position);
+		}
+	}
+
+}
@@ -0,0 +1,95 @@
+/* 
+ * UUIDVault-benchmarks
+ * Copyright © 2020 Anand Beh <https://www.arim.space>
+ * 
+ * UUIDVault-benchmarks is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Lesser General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ * 
+ * UUIDVault-benchmarks is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the
+ * GNU Lesser General Public License for more details.
+ * 
+ * You should have received a copy of the GNU Lesser General Public License
+ * along with UUIDVault-benchmarks. If not, see <https://www.gnu.org/licenses/>
+ * and navigate to version 3 of the GNU Lesser General Public License.
+ */
+package space.arim.uuidvault.benchmarks;
+
+import java.util.UUID;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+
+import space.arim.uuidvault.plugin.TestableUUIDVault;
+
+/**
+ * Asynchronous resolution through chains of resolvers. With "completed", every resolver returns
+ * an already completed future. With "delayed", every future is completed by another thread.
+ * 
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class ResolveBenchmark {
+
+	@Param({"1", "5", "20"})
+	private int registrations;
+
+	@Param({"first", "last", "miss"})
+	private String position;
+
+	@Param({"completed", "delayed"})
+	private String futures;
+
+	private TestableUUIDVault vault;
+	private ExecutorService executor;
+	private String name = Registrations.TARGET_NAME;
+	private UUID uuid = Registrations.TARGET_UUID;
+
+	@Setup
+	public void setup() {
+		vault = new TestableUUIDVault();
+		if (futures.equals("delayed")) {
+			executor = Executors.newSingleThreadExecutor();
+		}
+		Registrations.registerResolvers(vault, registrations, Registrations.hitPosition(position, registrations), executor);
+	}
+
+	@TearDown
+	public void tearDown() {
+		if (executor != null) {
+			executor.shutdown();
+		}
+		vault.shutdown();
+	}
+
+	@Benchmark
+	public UUID resolveByName() {
+		return vault.resolve(name).join();
+	}
+
+	@Benchmark
+	public String resolveByUUID() {
+		return vault.resolve(uuid).join();
+	}
+
+}
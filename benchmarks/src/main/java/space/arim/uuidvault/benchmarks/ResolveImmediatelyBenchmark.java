@@ -0,0 +1,73 @@
+/* 
+ * UUIDVault-benchmarks
+ * Copyright © 2020 Anand Beh <https://www.arim.space>
+ * 
+ * UUIDVault-benchmarks is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Lesser General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ * 
+ * UUIDVault-benchmarks is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the
+ * GNU Lesser General Public License for more details.
+ * 
+ * You should have received a copy of the GNU Lesser General Public License
+ * along with UUIDVault-benchmarks. If not, see <https://www.gnu.org/licenses/>
+ * and navigate to version 3 of the GNU Lesser General Public License.
+ */
+package space.arim.uuidvault.benchmarks;
+
+import java.util.UUID;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import space.arim.uuidvault.plugin.TestableUUIDVault;
+
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class ResolveImmediatelyBenchmark {
+
+	@Param({"1", "5", "20"})
+	private int registrations;
+
+	@Param({"first", "last", "miss"})
+	private String position;
+
+	private TestableUUIDVault vault;
+	// Non-final so that lookups are not constant folded
+	private String name = Registrations.TARGET_NAME;
+	private UUID uuid = Registrations.TARGET_UUID;
+
+	@Setup
+	public void setup() {
+		vault = new TestableUUIDVault();
+		Registrations.registerResolvers(vault, registrations, Registrations.hitPosition(position, registrations), null);
+	}
+
+	@Benchmark
+	public UUID resolveImmediatelyByName() {
+		return vault.resolveImmediately(name);
+	}
+
+	@Benchmark
+	public String resolveImmediatelyByUUID() {
+		return vault.resolveImmediately(uuid);
+	}
+
+}
@@ -0,0 +1,176 @@
+/* 
+ * UUIDVault-benchmarks
+ * Copyright © 2020 Anand Beh <https://www.arim.space>
+ * 
+ * UUIDVault-benchmarks is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Lesser General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ * 
+ * UUIDVault-benchmarks is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the
+ * GNU Lesser General Public License for more details.
+ * 
+ * You should have received a copy of the GNU Lesser General Public License
+ * along with UUIDVault-benchmarks. If not, see <https://www.gnu.org/licenses/>
+ * and navigate to version 3 of the GNU Lesser General Public License.
+ */
+package space.arim.uuidvault.benchmarks;
+
+import java.nio.ByteBuffer;
+import java.util.UUID;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import space.arim.uuidvault.api.UUIDUtil;
+
+/**
+ * Every conversion of {@link UUIDUtil}, alongside the JDK equivalents it should outperform
+ * 
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class UUIDUtilBenchmark {
+
+	private UUID uuid;
+	private String fullString;
+	private String shortString;
+	private byte[] bytes;
+	private final byte[] reusedBytes = new byte[16];
+	private final char[] reusedChars = new char[36];
+	private final StringBuilder reusedBuilder = new StringBuilder(36);
+	private final ByteBuffer reusedBuffer = ByteBuffer.allocate(16);
+
+	@Setup
+	public void setup() {
+		uuid = UUID.randomUUID();
+		fullString = uuid.toString();
+		shortString = fullString.replace("-", "");
+		bytes = UUIDUtil.toByteArray(uuid);
+	}
+
+	@Benchmark
+	public String expandShortString() {
+		return UUIDUtil.expandShortString(shortString);
+	}
+
+	@Benchmark
+	public String contractFullString() {
+		return UUIDUtil.contractFullString(fullString);
+	}
+
+	@Benchmark
+	public String contractFullStringByReplace() {
+		return fullString.replace("-", "");
+	}
+
+	@Benchmark
+	public String toShortString() {
+		return UUIDUtil.toShortString(uuid);
+	}
+
+	@Benchmark
+	public UUID fromShortString() {
+		return UUIDUtil.fromShortString(shortString);
+	}
+
+	@Benchmark
+	public UUID fromShortStringByExpanding() {
+		return UUID.fromString(UUIDUtil.expandShortString(shortString));
+	}
+
+	@Benchmark
+	public char[] toShortStringChars() {
+		UUIDUtil.toShortString(uuid, reusedChars, 0);
+		return reusedChars;
+	}
+
+	@Benchmark
+	public StringBuilder toShortStringBuilder() {
+		reusedBuilder.setLength(0);
+		UUIDUtil.toShortString(uuid, reusedBuilder);
+		return reusedBuilder;
+	}
+
+	@Benchmark
+	public String toFullString() {
+		return uuid.toString();
+	}
+
+	@Benchmark
+	public char[] toFullStringChars() {
+		UUIDUtil.toFullString(uuid, reusedChars, 0);
+		return reusedChars;
+	}
+
+	@Benchmark
+	public StringBuilder toFullStringBuilder() {
+		reusedBuilder.setLength(0);
+		UUIDUtil.toFullString(uuid, reusedBuilder);
+		return reusedBuilder;
+	}
+
+	@Benchmark
+	public UUID fromFullStringUtil() {
+		return UUIDUtil.fromFullString(fullString, 0);
+	}
+
+	@Benchmark
+	public UUID fromFullString() {
+		return UUID.fromString(fullString);
+	}
+
+	@Benchmark
+	public byte[] toByteArray() {
+		return UUIDUtil.toByteArray(uuid);
+	}
+
+	@Benchmark
+	public byte[] toByteArrayReused() {
+		UUIDUtil.toByteArray(uuid, reusedBytes, 0);
+		return reusedBytes;
+	}
+
+	@Benchmark
+	public UUID fromByteArray() {
+		return UUIDUtil.fromByteArray(bytes);
+	}
+
+	@Benchmark
+	public UUID fromByteArrayOffset() {
+		return UUIDUtil.fromByteArray(bytes, 0);
+	}
+
+	@Benchmark
+	public long significantBitsFromByteArray() {
+		return UUIDUtil.mostSignificantBits(bytes, 0) ^ UUIDUtil.leastSignificantBits(bytes, 0);
+	}
+
+	@Benchmark
+	public ByteBuffer toByteBuffer() {
+		reusedBuffer.clear();
+		UUIDUtil.toByteBuffer(uuid, reusedBuffer);
+		return reusedBuffer;
+	}
+
+	@Benchmark
+	public UUID fromByteBuffer() {
+		return UUIDUtil.fromByteBuffer(reusedBuffer, 0);
+	}
+
+}
@@ -0,0 +1,70 @@
+/* 
+ * UUIDVault-bungee
+ * Copyright © 2020 Anand Beh <https://www.arim.space>
+ * 
+ * UUIDVault-bungee is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Lesser General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ * 
+ * UUIDVault-bungee is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the
+ * GNU Lesser General Public License for more details.
+ * 
+ * You should have received a copy of the GNU Lesser General Public License
+ * along with UUIDVault-bungee. If not, see <https://www.gnu.org/licenses/>
+ * and navigate to version 3 of the GNU Lesser General Public License.
+ */
+package space.arim.uuidvault.plugin;
+
+import net.md_5.bungee.api.ProxyServer;
+import net.md_5.bungee.api.config.ServerInfo;
+import net.md_5.bungee.api.connection.ProxiedPlayer;
+import net.md_5.bungee.api.event.PluginMessageEvent;
+import net.md_5.bungee.api.event.ServerConnectedEvent;
+import net.md_5.bungee.api.plugin.Listener;
+import net.md_5.bungee.event.EventHandler;
+import net.md_5.bungee.event.EventPriority;
+
+/**
+ * Propagates mappings to backend servers over plugin messaging on BungeeCord. Each player
+ * connecting to a backend server is propagated, such that the backend server is reachable
+ * by the time the mapping is sent. <br>
+ * <br>
+ * Messages on the channel which pass through the proxy, such as those sent by clients,
+ * are dropped, so that only the proxy's own mappings reach backend servers.
+ * 
+ */
+public class BungeeMappingTransport implements MappingTransport, Listener {
+
+	private final ProxyServer proxy;
+	private final UUIDVaultBungee vault;
+	
+	BungeeMappingTransport(ProxyServer proxy, UUIDVaultBungee vault) {
+		this.proxy = proxy;
+		this.vault = vault;
+	}
+	
+	@Override
+	public void send(byte[] frame) {
+		for (ServerInfo server : proxy.getServers().values()) {
+			// Not queued for empty servers, which will hear of their players when they connect
+			server.sendData(CHANNEL, frame, false);
+		}
+	}
+	
+	@EventHandler
+	public void onConnected(ServerConnectedEvent evt) {
+		ProxiedPlayer player = evt.getPlayer();
+		vault.propagateMapping(player.getUniqueId(), player.getName());
+	}
+	
+	@EventHandler(priority = EventPriority.LOWEST)
+	public void onPluginMessage(PluginMessageEvent evt) {
+		if (CHANNEL.equals(evt.getTag())) {
+			evt.setCancelled(true);
+		}
+	}
+	
+}
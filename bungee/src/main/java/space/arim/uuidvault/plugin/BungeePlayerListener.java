@@ -0,0 +1,52 @@
+/* 
+ * UUIDVault-bungee
+ * Copyright © 2020 Anand Beh <https://www.arim.space>
+ * 
+ * UUIDVault-bungee is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Lesser General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ * 
+ * UUIDVault-bungee is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the
+ * GNU Lesser General Public License for more details.
+ * 
+ * You should have received a copy of the GNU Lesser General Public License
+ * along with UUIDVault-bungee. If not, see <https://www.gnu.org/licenses/>
+ * and navigate to version 3 of the GNU Lesser General Public License.
+ */
+package space.arim.uuidvault.plugin;
+
+import net.md_5.bungee.api.connection.ProxiedPlayer;
+import net.md_5.bungee.api.event.PlayerDisconnectEvent;
+import net.md_5.bungee.api.event.PostLoginEvent;
+import net.md_5.bungee.api.plugin.Listener;
+import net.md_5.bungee.event.EventHandler;
+import net.md_5.bungee.event.EventPriority;
+
+/**
+ * Keeps the {@link OnlinePlayerIndex} up to date on BungeeCord
+ * 
+ */
+public class BungeePlayerListener implements Listener {
+
+	private final OnlinePlayerIndex index;
+	
+	BungeePlayerListener(OnlinePlayerIndex index) {
+		this.index = index;
+	}
+	
+	@EventHandler(priority = EventPriority.LOWEST)
+	public void onJoin(PostLoginEvent evt) {
+		ProxiedPlayer player = evt.getPlayer();
+		index.add(player.getUniqueId(), player.getName());
+	}
+	
+	@EventHandler(priority = EventPriority.HIGHEST)
+	public void onQuit(PlayerDisconnectEvent evt) {
+		ProxiedPlayer player = evt.getPlayer();
+		index.remove(player.getUniqueId(), player.getName());
+	}
+	
+}
@@ -39,17 +39,30 @@ import space.arim.uuidvault.api.UUIDVault;
 public class UUIDVaultBungee extends SimpleImplementation {
 
 	private final Logger logger;
+	// BungeeCord does not unload plugins, so the cache never needs to be invalidated
+	private final PluginLookupCache<Plugin> plugins = new PluginLookupCache<>(UUIDVaultBungee::scanPluginFor);
 	
 	/**
-	 * Creates the instance
+	 * Creates the instance with default settings
 	 * 
 	 * @param plugin the bungee plugin to use
 	 */
 	public UUIDVaultBungee(Plugin plugin) {
+		this(plugin, VaultSettings.defaults());
+	}
+	
+	/**
+	 * Creates the instance
+	 * 
+	 * @param plugin the bungee plugin to use
+	 * @param settings the settings to use
+	 */
+	public UUIDVaultBungee(Plugin plugin, VaultSettings settings) {
+		super(settings);
 		logger = plugin.getLogger();
 	}
 
-	private Plugin getPluginFor(Class<?> pluginClass) {
+	private static Plugin scanPluginFor(Class<?> pluginClass) {
 		for (Plugin plugin : ProxyServer.getInstance().getPluginManager().getPlugins()) {
 			if (plugin.getClass().equals(pluginClass)) {
 				return plugin;
@@ -58,6 +71,10 @@ public class UUIDVaultBungee extends SimpleImplementation {
 		return null;
 	}
 	
+	private Plugin getPluginFor(Class<?> pluginClass) {
+		return plugins.get(pluginClass);
+	}
+	
 	@Override
 	boolean verifyNativePluginClass(Class<?> pluginClass) {
 		return !Plugin.class.equals(pluginClass) && Plugin.class.isAssignableFrom(pluginClass)
@@ -79,6 +96,11 @@ public class UUIDVaultBungee extends SimpleImplementation {
 	void logException(String message, Throwable throwable) {
 		logger.log(Level.WARNING, message, throwable);
 	}
+	
+	@Override
+	void logWarning(String message) {
+		logger.log(Level.WARNING, message);
+	}
 
 	@Override
 	UUID resolveNativelyDirectly(String name) {
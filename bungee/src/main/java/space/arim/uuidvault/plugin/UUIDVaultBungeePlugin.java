@@ -18,15 +18,46 @@
  */
 package space.arim.uuidvault.plugin;
 
+import java.util.logging.Level;
+
+import net.md_5.bungee.api.connection.ProxiedPlayer;
 import net.md_5.bungee.api.plugin.Listener;
 import net.md_5.bungee.api.plugin.Plugin;
 
 public class UUIDVaultBungeePlugin extends Plugin implements Listener {
 	
+	private VaultSettings settings;
+	private UUIDVaultBungee uvb;
+	
 	@Override
 	public void onLoad() {
-		UUIDVaultBungee uvb = new UUIDVaultBungee(this);
+		settings = SettingsFile.loadOrDefaults(getDataFolder().toPath(),
+				(message, ex) -> getLogger().log(Level.WARNING, message, ex));
+		uvb = new UUIDVaultBungee(this, settings);
 		uvb.setInstance1();
 	}
 	
+	@Override
+	public void onEnable() {
+		OnlinePlayerIndex index = uvb.onlinePlayers();
+		if (index != null) {
+			getProxy().getPluginManager().registerListener(this, new BungeePlayerListener(index));
+			// Players already online, such as after a reload
+			for (ProxiedPlayer player : getProxy().getPlayers()) {
+				index.add(player.getUniqueId(), player.getName());
+			}
+		}
+		if (settings.mappingPropagation()) {
+			BungeeMappingTransport transport = new BungeeMappingTransport(getProxy(), uvb);
+			getProxy().registerChannel(MappingTransport.CHANNEL);
+			getProxy().getPluginManager().registerListener(this, transport);
+			uvb.startPropagation(transport);
+		}
+	}
+	
+	@Override
+	public void onDisable() {
+		uvb.shutdown();
+	}
+	
 }
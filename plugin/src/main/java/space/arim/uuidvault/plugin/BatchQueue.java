@@ -0,0 +1,114 @@
+/* 
+ * UUIDVault-plugin
+ * Copyright © 2020 Anand Beh <https://www.arim.space>
+ * 
+ * UUIDVault-plugin is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Lesser General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ * 
+ * UUIDVault-plugin is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the
+ * GNU Lesser General Public License for more details.
+ * 
+ * You should have received a copy of the GNU Lesser General Public License
+ * along with UUIDVault-plugin. If not, see <https://www.gnu.org/licenses/>
+ * and navigate to version 3 of the GNU Lesser General Public License.
+ */
+package space.arim.uuidvault.plugin;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Queue;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.Executor;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.function.BiConsumer;
+import java.util.function.Consumer;
+
+/**
+ * Queues elements from any thread and drains them in batches. <br>
+ * <br>
+ * At most one drain is scheduled at a time, when the first element is queued. The drain
+ * receives every element queued before it runs, so that the amount of drains grows with
+ * time rather than with the amount of elements.
+ * 
+ * @param <E> the element type
+ */
+final class BatchQueue<E> {
+
+	private final Consumer<Runnable> scheduler;
+	private final Consumer<List<E>> drain;
+	private final BiConsumer<E, RuntimeException> refused;
+	private final Queue<E> queue = new ConcurrentLinkedQueue<>();
+	private final AtomicBoolean scheduled = new AtomicBoolean();
+
+	/**
+	 * Creates the queue
+	 * 
+	 * @param scheduler schedules the drain, throwing an exception if it cannot
+	 * @param drain handles the queued elements, never empty
+	 * @param refused handles each queued element if the drain could not be scheduled
+	 */
+	BatchQueue(Consumer<Runnable> scheduler, Consumer<List<E>> drain, BiConsumer<E, RuntimeException> refused) {
+		this.scheduler = scheduler;
+		this.drain = drain;
+		this.refused = refused;
+	}
+
+	/**
+	 * Creates a queue drained on an executor, after a delay. If the scheduler is shut down,
+	 * the drain will never happen, so queued elements are discarded.
+	 * 
+	 * @param <E> the element type
+	 * @param scheduler the scheduler used to delay the drain
+	 * @param delayMillis how long elements are gathered before the drain
+	 * @param executor the executor on which the drain runs
+	 * @param drain handles the queued elements, never empty
+	 * @return the queue
+	 */
+	static <E> BatchQueue<E> delayed(VaultScheduler scheduler, long delayMillis, Executor executor,
+			Consumer<List<E>> drain) {
+		return new BatchQueue<>((command) -> {
+			if (scheduler.schedule(() -> executor.execute(command), delayMillis) == null) {
+				throw new RejectedExecutionException("Shut down");
+			}
+		}, drain, (element, ex) -> {});
+	}
+
+	/**
+	 * Queues an element, scheduling a drain if none is scheduled
+	 * 
+	 * @param element the element
+	 */
+	void offer(E element) {
+		queue.offer(element);
+		if (scheduled.compareAndSet(false, true)) {
+			try {
+				scheduler.accept(this::drain);
+			} catch (RuntimeException ex) {
+				scheduled.set(false);
+				E discarded;
+				while ((discarded = queue.poll()) != null) {
+					refused.accept(discarded, ex);
+				}
+			}
+		}
+	}
+
+	private void drain() {
+		// Reset before polling, so that elements queued during the drain are not stranded
+		scheduled.set(false);
+		List<E> elements = new ArrayList<>();
+		E element;
+		while ((element = queue.poll()) != null) {
+			elements.add(element);
+		}
+		if (!elements.isEmpty()) {
+			drain.accept(elements);
+		}
+	}
+
+}
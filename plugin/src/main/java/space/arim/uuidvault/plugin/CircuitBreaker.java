@@ -0,0 +1,177 @@
+/* 
+ * UUIDVault-plugin
+ * Copyright © 2020 Anand Beh <https://www.arim.space>
+ * 
+ * UUIDVault-plugin is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Lesser General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ * 
+ * UUIDVault-plugin is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the
+ * GNU Lesser General Public License for more details.
+ * 
+ * You should have received a copy of the GNU Lesser General Public License
+ * along with UUIDVault-plugin. If not, see <https://www.gnu.org/licenses/>
+ * and navigate to version 3 of the GNU Lesser General Public License.
+ */
+package space.arim.uuidvault.plugin;
+
+import java.util.concurrent.TimeUnit;
+
+import space.arim.uuidvault.api.CircuitState;
+
+/**
+ * Circuit breaker of a single registration. <br>
+ * <br>
+ * Outcomes of asynchronous lookups are counted in windows of {@code minimumCalls} calls.
+ * Exceptions, timeouts, and calls slower than the slow call threshold are failures. If the
+ * proportion of failures in a window reaches the failure rate, the breaker opens, and the
+ * resolver is skipped until the cooldown passes. Then, a single probe is let through.
+ * If it succeeds, the breaker closes, otherwise it opens again. If the probe is still
+ * outstanding after another cooldown, a new probe is let through in its place. <br>
+ * <br>
+ * Callers receive a permit from {@link #tryAcquire()} and hand it back with the outcome,
+ * so that only the probe's own outcome decides whether a half open breaker closes. <br>
+ * <br>
+ * Transitions are synchronized, but only occur on completion of a lookup, or when the breaker is open.
+ * 
+ */
+final class CircuitBreaker {
+
+	private final double failureRate;
+	private final int minimumCalls;
+	private final long slowCallNanos;
+	private final long cooldownNanos;
+
+	/**
+	 * Permit given to calls while the breaker is closed
+	 * 
+	 */
+	private static final Object CLOSED_PERMIT = new Object();
+
+	private volatile CircuitState state = CircuitState.CLOSED;
+	// Guarded by this
+	private int calls;
+	private int failures;
+	// While open, when the cooldown ends; while half open, when the probe may be replaced
+	private long openUntilNanos;
+	private Object probe;
+
+	/**
+	 * Creates the breaker
+	 * 
+	 * @param failureRate the failure rate at which to open, zero to disable the breaker
+	 * @param minimumCalls the amount of calls over which the failure rate is measured
+	 * @param slowCallMillis latency in milliseconds at which a call counts as a failure, zero for none
+	 * @param cooldownMillis how long the breaker stays open
+	 */
+	CircuitBreaker(double failureRate, int minimumCalls, long slowCallMillis, long cooldownMillis) {
+		this.failureRate = failureRate;
+		this.minimumCalls = minimumCalls;
+		slowCallNanos = (slowCallMillis == 0L) ? Long.MAX_VALUE : TimeUnit.MILLISECONDS.toNanos(slowCallMillis);
+		cooldownNanos = TimeUnit.MILLISECONDS.toNanos(cooldownMillis);
+	}
+
+	private boolean isEnabled() {
+		return failureRate != 0D;
+	}
+
+	CircuitState state() {
+		return state;
+	}
+
+	/**
+	 * Whether the resolver may be queried immediately. Immediate lookups never probe,
+	 * because their outcome is not measured.
+	 * 
+	 * @return true if the breaker is closed
+	 */
+	boolean allowsImmediate() {
+		return state == CircuitState.CLOSED;
+	}
+
+	/**
+	 * Determines whether the resolver may be queried asynchronously. If the breaker is open
+	 * and the cooldown has passed, or the current probe has been outstanding for longer
+	 * than the cooldown, the caller becomes the probe. <br>
+	 * <br>
+	 * The returned permit must later be passed to {@link #recordOutcome(Object, boolean, long)}.
+	 * 
+	 * @return the permit, or null if the resolver may not be queried
+	 */
+	Object tryAcquire() {
+		if (state == CircuitState.CLOSED) {
+			return CLOSED_PERMIT;
+		}
+		synchronized (this) {
+			if (this.state == CircuitState.CLOSED) {
+				return CLOSED_PERMIT;
+			}
+			long now = System.nanoTime();
+			if (now - openUntilNanos < 0L) {
+				// Still cooling down, or only one probe at a time
+				return null;
+			}
+			this.state = CircuitState.HALF_OPEN;
+			openUntilNanos = now + cooldownNanos;
+			return probe = new Object();
+		}
+	}
+
+	/**
+	 * Records the outcome of an asynchronous lookup
+	 * 
+	 * @param permit the permit obtained from {@link #tryAcquire()}
+	 * @param failed whether the lookup completed exceptionally or timed out
+	 * @param latencyNanos the latency of the lookup
+	 */
+	void recordOutcome(Object permit, boolean failed, long latencyNanos) {
+		if (!isEnabled()) {
+			return;
+		}
+		boolean failure = failed || latencyNanos >= slowCallNanos;
+		synchronized (this) {
+			switch (state) {
+			case HALF_OPEN:
+				if (permit != probe) {
+					// Lookups begun before the breaker opened, or a replaced probe
+					break;
+				}
+				probe = null;
+				if (failure) {
+					open();
+				} else {
+					state = CircuitState.CLOSED;
+					calls = 0;
+					failures = 0;
+				}
+				break;
+			case CLOSED:
+				calls++;
+				if (failure) {
+					failures++;
+				}
+				if (calls >= minimumCalls) {
+					if (failures >= failureRate * calls) {
+						open();
+					}
+					calls = 0;
+					failures = 0;
+				}
+				break;
+			default:
+				// Lookups begun before the breaker opened
+				break;
+			}
+		}
+	}
+
+	private void open() {
+		// Guarded by this
+		state = CircuitState.OPEN;
+		openUntilNanos = System.nanoTime() + cooldownNanos;
+	}
+
+}
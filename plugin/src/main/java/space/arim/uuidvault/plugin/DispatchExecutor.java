@@ -0,0 +1,128 @@
+/* 
+ * UUIDVault-plugin
+ * Copyright © 2020 Anand Beh <https://www.arim.space>
+ * 
+ * UUIDVault-plugin is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Lesser General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ * 
+ * UUIDVault-plugin is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the
+ * GNU Lesser General Public License for more details.
+ * 
+ * You should have received a copy of the GNU Lesser General Public License
+ * along with UUIDVault-plugin. If not, see <https://www.gnu.org/licenses/>
+ * and navigate to version 3 of the GNU Lesser General Public License.
+ */
+package space.arim.uuidvault.plugin;
+
+import java.lang.reflect.InvocationTargetException;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.Executor;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Consumer;
+
+/**
+ * Executor for the continuations of asynchronous lookups. The underlying threads are only
+ * started once something is executed. <br>
+ * <br>
+ * Tasks which cannot be executed, because the pool's queue is full or the executor was shut
+ * down, run on the calling thread instead. Continuations are therefore never lost.
+ * 
+ */
+final class DispatchExecutor implements Executor {
+
+	private final VaultSettings.DispatchMode mode;
+	private final int poolThreads;
+	private final Consumer<String> warningLogger;
+	
+	private volatile ExecutorService executor;
+	private boolean shutdown; // Guarded by this
+	
+	private static final int POOL_QUEUE_CAPACITY = 4096;
+	private static final long POOL_KEEP_ALIVE_SECONDS = 60L;
+	
+	/**
+	 * Creates from a mode other than {@code CALLER}
+	 * 
+	 * @param mode the dispatch mode
+	 * @param poolThreads the maximum threads of the pool
+	 * @param warningLogger logs a warning if virtual threads are unavailable
+	 */
+	DispatchExecutor(VaultSettings.DispatchMode mode, int poolThreads, Consumer<String> warningLogger) {
+		this.mode = mode;
+		this.poolThreads = poolThreads;
+		this.warningLogger = warningLogger;
+	}
+	
+	private ExecutorService executor() {
+		ExecutorService executor = this.executor;
+		if (executor == null) {
+			synchronized (this) {
+				executor = this.executor;
+				if (executor == null) {
+					if (shutdown) {
+						return null;
+					}
+					executor = createExecutor();
+					this.executor = executor;
+				}
+			}
+		}
+		return executor;
+	}
+	
+	private ExecutorService createExecutor() {
+		if (mode == VaultSettings.DispatchMode.VIRTUAL) {
+			try {
+				// Java 21 API, looked up reflectively so as to compile for Java 8
+				return (ExecutorService) Executors.class.getMethod("newVirtualThreadPerTaskExecutor").invoke(null);
+			} catch (NoSuchMethodException | IllegalAccessException | InvocationTargetException ex) {
+				warningLogger.accept("Virtual threads require Java 21 or later. Using a thread pool for dispatch instead.");
+			}
+		}
+		AtomicInteger threadCount = new AtomicInteger();
+		ThreadPoolExecutor pool = new ThreadPoolExecutor(poolThreads, poolThreads,
+				POOL_KEEP_ALIVE_SECONDS, TimeUnit.SECONDS, new ArrayBlockingQueue<>(POOL_QUEUE_CAPACITY), (runnable) -> {
+			Thread thread = new Thread(runnable, "UUIDVault-dispatch-" + threadCount.incrementAndGet());
+			thread.setDaemon(true);
+			return thread;
+		});
+		pool.allowCoreThreadTimeOut(true);
+		return pool;
+	}
+	
+	@Override
+	public void execute(Runnable command) {
+		ExecutorService executor = executor();
+		if (executor != null) {
+			try {
+				executor.execute(command);
+				return;
+			} catch (RejectedExecutionException ex) {
+				// Queue full or shut down, run on this thread instead
+			}
+		}
+		command.run();
+	}
+	
+	/**
+	 * Stops accepting tasks. Queued tasks still run
+	 * 
+	 */
+	synchronized void shutdown() {
+		shutdown = true;
+		ExecutorService executor = this.executor;
+		if (executor != null) {
+			executor.shutdown();
+		}
+	}
+	
+}
@@ -0,0 +1,92 @@
+/* 
+ * UUIDVault-plugin
+ * Copyright © 2020 Anand Beh <https://www.arim.space>
+ * 
+ * UUIDVault-plugin is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Lesser General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ * 
+ * UUIDVault-plugin is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the
+ * GNU Lesser General Public License for more details.
+ * 
+ * You should have received a copy of the GNU Lesser General Public License
+ * along with UUIDVault-plugin. If not, see <https://www.gnu.org/licenses/>
+ * and navigate to version 3 of the GNU Lesser General Public License.
+ */
+package space.arim.uuidvault.plugin;
+
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Rate limits the logging of a single registration's failures with a token bucket. <br>
+ * <br>
+ * The bucket holds up to {@code burst} tokens and is refilled at {@code burst} tokens per window.
+ * A failure which takes a token is logged in full. Otherwise, it is only counted, and the count
+ * is reported periodically in a single summary line.
+ * 
+ */
+final class ErrorReporter {
+
+	private final int burst;
+	/**
+	 * Window over which the bucket refills, zero if rate limiting is disabled
+	 */
+	private final long windowNanos;
+
+	private double tokens; // Guarded by this
+	private long lastRefillNanos; // Guarded by this
+
+	private final AtomicLong suppressedSinceSummary = new AtomicLong();
+
+	/**
+	 * Creates the reporter
+	 * 
+	 * @param burst how many failures may be logged in full at once
+	 * @param windowMillis the window in milliseconds, zero to disable rate limiting
+	 */
+	ErrorReporter(int burst, long windowMillis) {
+		this.burst = burst;
+		windowNanos = TimeUnit.MILLISECONDS.toNanos(windowMillis);
+		tokens = burst;
+		lastRefillNanos = System.nanoTime();
+	}
+
+	/**
+	 * Determines whether a failure should be logged in full. If not, the failure
+	 * is counted as suppressed.
+	 * 
+	 * @return true to log the failure, false if it was suppressed
+	 */
+	boolean tryReport() {
+		if (windowNanos == 0L || tryAcquire()) {
+			return true;
+		}
+		suppressedSinceSummary.incrementAndGet();
+		return false;
+	}
+
+	private synchronized boolean tryAcquire() {
+		long now = System.nanoTime();
+		tokens = Math.min(burst, tokens + (now - lastRefillNanos) * (double) burst / windowNanos);
+		lastRefillNanos = now;
+		if (tokens >= 1D) {
+			tokens -= 1D;
+			return true;
+		}
+		return false;
+	}
+
+	/**
+	 * Gets and resets the amount of failures suppressed since this was last called
+	 * 
+	 * @return the amount of suppressed failures to summarise
+	 */
+	long drainSuppressed() {
+		return suppressedSinceSummary.getAndSet(0L);
+	}
+
+}
@@ -0,0 +1,143 @@
+/* 
+ * UUIDVault-plugin
+ * Copyright © 2020 Anand Beh <https://www.arim.space>
+ * 
+ * UUIDVault-plugin is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Lesser General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ * 
+ * UUIDVault-plugin is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the
+ * GNU Lesser General Public License for more details.
+ * 
+ * You should have received a copy of the GNU Lesser General Public License
+ * along with UUIDVault-plugin. If not, see <https://www.gnu.org/licenses/>
+ * and navigate to version 3 of the GNU Lesser General Public License.
+ */
+package space.arim.uuidvault.plugin;
+
+import java.util.Queue;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Concurrent map whose entries expire after a fixed duration, bounded in size. When full,
+ * the oldest entries are evicted first. <br>
+ * <br>
+ * Every entry put is queued in insertion order. An entry which was since replaced, removed,
+ * or expired stays queued, but is recognised by identity and skipped when polled, so that
+ * it never evicts a newer entry of the same key. Once such stale entries outnumber the maximum
+ * size, they are swept from the queue, so that they cannot pile up.
+ * 
+ * @param <K> the key type
+ * @param <V> the value type
+ */
+final class ExpiringMap<K, V> {
+
+	private final int maxSize;
+	private final long ttlNanos;
+	private final ConcurrentHashMap<K, Entry<K, V>> map = new ConcurrentHashMap<>();
+	private final Queue<Entry<K, V>> insertionOrder = new ConcurrentLinkedQueue<>();
+	/**
+	 * Amount of entries in the map
+	 */
+	private final AtomicInteger size = new AtomicInteger();
+	/**
+	 * Amount of entries in the queue, including stale ones
+	 */
+	private final AtomicInteger queueSize = new AtomicInteger();
+	private final AtomicBoolean sweeping = new AtomicBoolean();
+
+	ExpiringMap(int maxSize, long ttlMillis) {
+		this.maxSize = maxSize;
+		this.ttlNanos = TimeUnit.MILLISECONDS.toNanos(ttlMillis);
+	}
+
+	V get(K key) {
+		Entry<K, V> entry = map.get(key);
+		if (entry == null) {
+			return null;
+		}
+		if (System.nanoTime() - entry.expiry > 0L) {
+			if (map.remove(key, entry)) {
+				size.decrementAndGet();
+			}
+			return null;
+		}
+		return entry.value;
+	}
+
+	void put(K key, V value) {
+		Entry<K, V> entry = new Entry<>(key, value, System.nanoTime() + ttlNanos);
+		if (map.put(key, entry) == null) {
+			size.incrementAndGet();
+		}
+		insertionOrder.offer(entry);
+		queueSize.incrementAndGet();
+		while (size.get() > maxSize) {
+			Entry<K, V> eldest = insertionOrder.poll();
+			if (eldest == null) {
+				break;
+			}
+			queueSize.decrementAndGet();
+			if (map.remove(eldest.key, eldest)) {
+				size.decrementAndGet();
+			}
+		}
+		if (queueSize.get() > 2 * maxSize) {
+			sweepStale();
+		}
+	}
+
+	private void sweepStale() {
+		if (!sweeping.compareAndSet(false, true)) {
+			return;
+		}
+		try {
+			insertionOrder.removeIf((entry) -> {
+				if (map.get(entry.key) != entry) {
+					queueSize.decrementAndGet();
+					return true;
+				}
+				return false;
+			});
+		} finally {
+			sweeping.set(false);
+		}
+	}
+
+	void remove(K key) {
+		if (map.remove(key) != null) {
+			size.decrementAndGet();
+		}
+	}
+
+	void clear() {
+		for (K key : map.keySet()) {
+			remove(key);
+		}
+		while (insertionOrder.poll() != null) {
+			queueSize.decrementAndGet();
+		}
+	}
+
+	private static final class Entry<K, V> {
+
+		final K key;
+		final V value;
+		final long expiry;
+
+		Entry(K key, V value, long expiry) {
+			this.key = key;
+			this.value = value;
+			this.expiry = expiry;
+		}
+
+	}
+
+}
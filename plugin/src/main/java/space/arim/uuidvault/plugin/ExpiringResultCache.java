@@ -0,0 +1,67 @@
+/* 
+ * UUIDVault-plugin
+ * Copyright © 2020 Anand Beh <https://www.arim.space>
+ * 
+ * UUIDVault-plugin is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Lesser General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ * 
+ * UUIDVault-plugin is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the
+ * GNU Lesser General Public License for more details.
+ * 
+ * You should have received a copy of the GNU Lesser General Public License
+ * along with UUIDVault-plugin. If not, see <https://www.gnu.org/licenses/>
+ * and navigate to version 3 of the GNU Lesser General Public License.
+ */
+package space.arim.uuidvault.plugin;
+
+import java.util.UUID;
+
+import space.arim.uuidvault.api.CanonicalName;
+
+/**
+ * Result cache backed by concurrent maps. <br>
+ * Names are cached to uuids and uuids to names, each direction bounded separately.
+ * When a direction is full, its oldest entries are evicted first.
+ * 
+ */
+final class ExpiringResultCache implements ResultCache {
+
+	private final ExpiringMap<CanonicalName, UUID> uuids;
+	private final ExpiringMap<UUID, String> names;
+
+	ExpiringResultCache(int maxSize, long ttlMillis) {
+		uuids = new ExpiringMap<>(maxSize, ttlMillis);
+		names = new ExpiringMap<>(maxSize, ttlMillis);
+	}
+
+	@Override
+	public UUID getUUID(CanonicalName name) {
+		return uuids.get(name);
+	}
+
+	@Override
+	public String getName(UUID uuid) {
+		return names.get(uuid);
+	}
+
+	@Override
+	public void putUUID(CanonicalName name, UUID uuid) {
+		uuids.put(name, uuid);
+	}
+
+	@Override
+	public void putName(UUID uuid, String name) {
+		names.put(uuid, name);
+	}
+
+	@Override
+	public void clear() {
+		uuids.clear();
+		names.clear();
+	}
+
+}
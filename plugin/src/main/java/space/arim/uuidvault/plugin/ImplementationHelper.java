@@ -18,21 +18,57 @@
  */
 package space.arim.uuidvault.plugin;
 
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
 import java.util.Objects;
+import java.util.Set;
 import java.util.UUID;
 import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.function.Function;
+import java.util.function.Supplier;
 
+import space.arim.uuidvault.api.CanonicalName;
+import space.arim.uuidvault.api.UUIDCandidate;
 import space.arim.uuidvault.api.UUIDResolver;
 import space.arim.uuidvault.api.UUIDVault;
+import space.arim.uuidvault.plugin.VaultSettings.NativeStage;
 
 abstract class ImplementationHelper extends UUIDVault {
 
-	ImplementationHelper() {
-
+	private final ConcurrentMap<InFlightKey, CompletableFuture<UUID>> uuidsInFlight = new ConcurrentHashMap<>();
+	private final ConcurrentMap<InFlightKey, CompletableFuture<String>> namesInFlight = new ConcurrentHashMap<>();
+	
+	private final boolean strictNameValidation;
+	private final NameIndex nameIndex;
+	private final OnlinePlayerIndex onlinePlayers;
+	private final NativeStage nativeStage;
+	private final MainThreadBatcher mainThreadBatcher = new MainThreadBatcher(this::runOnMainThread, this::isMainThread);
+	
+	ImplementationHelper(VaultSettings settings) {
+		strictNameValidation = settings.strictNameValidation();
+		nameIndex = (settings.nameIndexSize() == 0) ? null : new NameIndex(settings.nameIndexSize());
+		onlinePlayers = (settings.onlinePlayerIndex()) ? new OnlinePlayerIndex(nameIndex) : null;
+		nativeStage = settings.nativeStage();
 	}
 	
-	private static boolean fastEscapeInvalidNameArgument(String name) {
-		return name.isEmpty() || name.length() > 16 || name.indexOf(' ') != -1;
+	/**
+	 * Validates and folds a name argument, once for the whole lookup
+	 * 
+	 * @param name the name argument
+	 * @return the canonical name, or null if the name is invalid
+	 * @throws NullPointerException if {@code name} is null
+	 */
+	private CanonicalName canonicalize(String name) {
+		Objects.requireNonNull(name, "Name must not be null");
+		return CanonicalName.of(name, strictNameValidation);
 	}
 	
 	/*
@@ -41,18 +77,31 @@ abstract class ImplementationHelper extends UUIDVault {
 	 * 
 	 */
 	
+	/**
+	 * Gets the index of online players, which the platform must keep up to date
+	 * by listening for joins and quits
+	 * 
+	 * @return the online player index, or null if disabled
+	 */
+	OnlinePlayerIndex onlinePlayers() {
+		return onlinePlayers;
+	}
+	
 	@Override
 	public boolean mustCallNativeResolutionSync() {
-		// False by default, overriden for Spigot and Sponge
+		// False by default, overriden for Spigot and Sponge when not using the index
 		return false;
 	}
 	
 	@Override
 	public UUID resolveNatively(String name) {
-		Objects.requireNonNull(name, "Name must not be null");
-		if (fastEscapeInvalidNameArgument(name)) {
+		CanonicalName canonicalName = canonicalize(name);
+		if (canonicalName == null) {
 			return null;
 		}
+		if (onlinePlayers != null) {
+			return onlinePlayers.getUUID(canonicalName);
+		}
 
 		return resolveNativelyDirectly(name);
 	}
@@ -60,6 +109,9 @@ abstract class ImplementationHelper extends UUIDVault {
 	@Override
 	public String resolveNatively(UUID uuid) {
 		Objects.requireNonNull(uuid, "UUID must not be null");
+		if (onlinePlayers != null) {
+			return onlinePlayers.getName(uuid);
+		}
 
 		return resolveNativelyDirectly(uuid);
 	}
@@ -68,6 +120,142 @@ abstract class ImplementationHelper extends UUIDVault {
 
 	abstract String resolveNativelyDirectly(UUID uuid);
 	
+	/**
+	 * Schedules a task to run on the main thread. Only used if {@link #mustCallNativeResolutionSync()}
+	 * is true, so platforms without a main thread need not override this.
+	 * 
+	 * @param command the task
+	 */
+	void runOnMainThread(Runnable command) {
+		command.run();
+	}
+	
+	/**
+	 * Whether the current thread is the main thread. Only used if {@link #mustCallNativeResolutionSync()}
+	 * is true, so platforms without a main thread need not override this.
+	 * 
+	 * @return true if on the main thread
+	 */
+	boolean isMainThread() {
+		return false;
+	}
+	
+	@Override
+	public CompletableFuture<Map<String, UUID>> resolveAllByNameNatively(Collection<String> names) {
+		Objects.requireNonNull(names, "Names must not be null");
+		// Copy so that later changes to the collection do not affect the queued lookup
+		List<String> copy = new ArrayList<>(names);
+		for (String name : copy) {
+			Objects.requireNonNull(name, "Name must not be null");
+		}
+		Supplier<Map<String, UUID>> lookup = () -> {
+			Map<String, UUID> result = new HashMap<>();
+			for (String name : copy) {
+				UUID uuid = resolveNatively(name);
+				if (uuid != null) {
+					result.put(name, uuid);
+				}
+			}
+			return result;
+		};
+		if (mustCallNativeResolutionSync()) {
+			return mainThreadBatcher.submit(lookup);
+		}
+		return CompletableFuture.completedFuture(lookup.get());
+	}
+	
+	@Override
+	public CompletableFuture<Map<UUID, String>> resolveAllByUUIDNatively(Collection<UUID> uuids) {
+		Objects.requireNonNull(uuids, "UUIDs must not be null");
+		// Copy so that later changes to the collection do not affect the queued lookup
+		List<UUID> copy = new ArrayList<>(uuids);
+		for (UUID uuid : copy) {
+			Objects.requireNonNull(uuid, "UUID must not be null");
+		}
+		Supplier<Map<UUID, String>> lookup = () -> {
+			Map<UUID, String> result = new HashMap<>();
+			for (UUID uuid : copy) {
+				String name = resolveNatively(uuid);
+				if (name != null) {
+					result.put(uuid, name);
+				}
+			}
+			return result;
+		};
+		if (mustCallNativeResolutionSync()) {
+			return mainThreadBatcher.submit(lookup);
+		}
+		return CompletableFuture.completedFuture(lookup.get());
+	}
+	
+	/**
+	 * Consults native resolution as a stage of collective resolution. Because collective
+	 * resolution may occur on any thread, native resolution is skipped if it must be called
+	 * from the main thread.
+	 * 
+	 * @param name the canonical name
+	 * @return the uuid of the online player, or null if not found or not safely possible
+	 */
+	private UUID resolveNativeStage(CanonicalName name) {
+		if (onlinePlayers != null) {
+			return onlinePlayers.getUUID(name);
+		}
+		if (mustCallNativeResolutionSync()) {
+			return null;
+		}
+		return resolveNativelyDirectly(name.getName());
+	}
+	
+	/**
+	 * Consults native resolution as a stage of collective resolution. Because collective
+	 * resolution may occur on any thread, native resolution is skipped if it must be called
+	 * from the main thread.
+	 * 
+	 * @param uuid the uuid
+	 * @return the name of the online player, or null if not found or not safely possible
+	 */
+	private String resolveNativeStage(UUID uuid) {
+		if (onlinePlayers != null) {
+			return onlinePlayers.getName(uuid);
+		}
+		if (mustCallNativeResolutionSync()) {
+			return null;
+		}
+		return resolveNativelyDirectly(uuid);
+	}
+	
+	/*
+	 * 
+	 * Prefix search
+	 * 
+	 */
+	
+	/**
+	 * Gets the index of known names, to which names found by lookups should be added
+	 * 
+	 * @return the name index, or null if disabled
+	 */
+	NameIndex nameIndex() {
+		return nameIndex;
+	}
+	
+	@Override
+	public List<String> searchByPrefix(String prefix, int limit) {
+		Objects.requireNonNull(prefix, "Prefix must not be null");
+		if (limit < 0) {
+			throw new IllegalArgumentException("Limit must not be negative");
+		}
+		if (limit == 0) {
+			return Collections.emptyList();
+		}
+		PrefixMatches matches = new PrefixMatches(prefix, limit);
+		if (nameIndex != null) {
+			nameIndex.search(matches);
+		}
+		searchRegisteredByPrefix(matches);
+		return matches.toList();
+	}
+	
 	/*
 	 * 
 	 * Core resolution
@@ -75,12 +263,21 @@ abstract class ImplementationHelper extends UUIDVault {
 	 */
 	
 	UUID resolveImmediately(String name, UUIDResolver skip) {
-		Objects.requireNonNull(name, "Name must not be null");
-		if (fastEscapeInvalidNameArgument(name)) {
+		CanonicalName canonicalName = canonicalize(name);
+		if (canonicalName == null) {
 			return null;
 		}
-
-		return resolveImmediatelyFromRegistered(name, skip);
+		if (nativeStage == NativeStage.FIRST) {
+			UUID online = resolveNativeStage(canonicalName);
+			if (online != null) {
+				return online;
+			}
+		}
+		UUID result = resolveImmediatelyFromRegistered(canonicalName, skip);
+		if (result == null && nativeStage == NativeStage.LAST) {
+			result = resolveNativeStage(canonicalName);
+		}
+		return result;
 	}
 
 	@Override
@@ -90,8 +287,17 @@ abstract class ImplementationHelper extends UUIDVault {
 	
 	String resolveImmediately(UUID uuid, UUIDResolver skip) {
 		Objects.requireNonNull(uuid, "UUID must not be null");
-
-		return resolveImmediatelyFromRegistered(uuid, skip);
+		if (nativeStage == NativeStage.FIRST) {
+			String online = resolveNativeStage(uuid);
+			if (online != null) {
+				return online;
+			}
+		}
+		String result = resolveImmediatelyFromRegistered(uuid, skip);
+		if (result == null && nativeStage == NativeStage.LAST) {
+			result = resolveNativeStage(uuid);
+		}
+		return result;
 	}
 	
 	@Override
@@ -100,14 +306,26 @@ abstract class ImplementationHelper extends UUIDVault {
 	}
 	
 	CompletableFuture<UUID> resolve(String name, UUIDResolver skip) {
-		Objects.requireNonNull(name, "Name must not be null");
-		if (fastEscapeInvalidNameArgument(name)) {
+		CanonicalName canonicalName = canonicalize(name);
+		if (canonicalName == null) {
 			return CompletableFuture.completedFuture(null);
 		}
-
-		UUID immediate = resolveImmediatelyFromRegistered(name, skip);
-		return (immediate != null) ? CompletableFuture.completedFuture(immediate)
-				: resolveLaterFromRegistered(name, skip);
+		if (nativeStage == NativeStage.FIRST) {
+			UUID online = resolveNativeStage(canonicalName);
+			if (online != null) {
+				return CompletableFuture.completedFuture(online);
+			}
+		}
+		UUID immediate = resolveImmediatelyFromRegistered(canonicalName, skip);
+		if (immediate != null) {
+			return CompletableFuture.completedFuture(immediate);
+		}
+		InFlightKey key = new InFlightKey(canonicalName, skip);
+		CompletableFuture<UUID> later = joinInFlight(uuidsInFlight, key, () -> resolveLaterFromRegistered(canonicalName, skip));
+		if (nativeStage == NativeStage.LAST) {
+			later = later.thenApply((uuid) -> (uuid != null) ? uuid : resolveNativeStage(canonicalName));
+		}
+		return later;
 	}
 	
 	@Override
@@ -117,10 +335,22 @@ abstract class ImplementationHelper extends UUIDVault {
 	
 	CompletableFuture<String> resolve(UUID uuid, UUIDResolver skip) {
 		Objects.requireNonNull(uuid, "UUID must not be null");
-
+		if (nativeStage == NativeStage.FIRST) {
+			String online = resolveNativeStage(uuid);
+			if (online != null) {
+				return CompletableFuture.completedFuture(online);
+			}
+		}
 		String immediate = resolveImmediatelyFromRegistered(uuid, skip);
-		return (immediate != null) ? CompletableFuture.completedFuture(immediate)
-				: resolveLaterFromRegistered(uuid, skip);
+		if (immediate != null) {
+			return CompletableFuture.completedFuture(immediate);
+		}
+		InFlightKey key = new InFlightKey(uuid, skip);
+		CompletableFuture<String> later = joinInFlight(namesInFlight, key, () -> resolveLaterFromRegistered(uuid, skip));
+		if (nativeStage == NativeStage.LAST) {
+			later = later.thenApply((name) -> (name != null) ? name : resolveNativeStage(uuid));
+		}
+		return later;
 	}
 
 	@Override
@@ -128,12 +358,234 @@ abstract class ImplementationHelper extends UUIDVault {
 		return resolve(uuid, null);
 	}
 
-	abstract UUID resolveImmediatelyFromRegistered(String name, UUIDResolver skip);
+	@Override
+	public CompletableFuture<Map<String, UUID>> resolveAllByName(Collection<String> names) {
+		Objects.requireNonNull(names, "Names must not be null");
+		// Names differing only in case are equal canonical names
+		// The first spelling encountered is the one passed to resolvers
+		Map<String, CanonicalName> canonicalNames = new LinkedHashMap<>();
+		Set<CanonicalName> distinct = new HashSet<>();
+		for (String name : names) {
+			CanonicalName canonicalName = canonicalize(name);
+			if (canonicalName == null) {
+				continue;
+			}
+			canonicalNames.put(name, canonicalName);
+			distinct.add(canonicalName);
+		}
+		Map<CanonicalName, UUID> found = new HashMap<>();
+		Set<CanonicalName> pending = new HashSet<>();
+		for (CanonicalName canonicalName : distinct) {
+			UUID immediate = (nativeStage == NativeStage.FIRST) ? resolveNativeStage(canonicalName) : null;
+			if (immediate == null) {
+				immediate = resolveImmediatelyFromRegistered(canonicalName, null);
+			}
+			if (immediate != null) {
+				found.put(canonicalName, immediate);
+			} else {
+				pending.add(canonicalName);
+			}
+		}
+		CompletableFuture<Map<CanonicalName, UUID>> later = (pending.isEmpty()) ? CompletableFuture.completedFuture(found)
+				: resolveAllByNameFromRegistered(pending).thenApply((laterFound) -> {
+					found.putAll(laterFound);
+					if (nativeStage == NativeStage.LAST) {
+						for (CanonicalName canonicalName : pending) {
+							if (!found.containsKey(canonicalName)) {
+								UUID online = resolveNativeStage(canonicalName);
+								if (online != null) {
+									found.put(canonicalName, online);
+								}
+							}
+						}
+					}
+					return found;
+				});
+		return later.thenApply((allFound) -> {
+			Map<String, UUID> result = new HashMap<>();
+			for (Map.Entry<String, CanonicalName> entry : canonicalNames.entrySet()) {
+				UUID uuid = allFound.get(entry.getValue());
+				if (uuid != null) {
+					result.put(entry.getKey(), uuid);
+				}
+			}
+			return result;
+		});
+	}
+	
+	@Override
+	public CompletableFuture<Map<UUID, String>> resolveAllByUUID(Collection<UUID> uuids) {
+		Objects.requireNonNull(uuids, "UUIDs must not be null");
+		Map<UUID, String> found = new HashMap<>();
+		Set<UUID> pending = new HashSet<>();
+		for (UUID uuid : uuids) {
+			Objects.requireNonNull(uuid, "UUID must not be null");
+			if (found.containsKey(uuid) || pending.contains(uuid)) {
+				continue;
+			}
+			String immediate = (nativeStage == NativeStage.FIRST) ? resolveNativeStage(uuid) : null;
+			if (immediate == null) {
+				immediate = resolveImmediatelyFromRegistered(uuid, null);
+			}
+			if (immediate != null) {
+				found.put(uuid, immediate);
+			} else {
+				pending.add(uuid);
+			}
+		}
+		if (pending.isEmpty()) {
+			return CompletableFuture.completedFuture(found);
+		}
+		return resolveAllByUUIDFromRegistered(pending).thenApply((laterFound) -> {
+			found.putAll(laterFound);
+			if (nativeStage == NativeStage.LAST) {
+				for (UUID uuid : pending) {
+					if (!found.containsKey(uuid)) {
+						String online = resolveNativeStage(uuid);
+						if (online != null) {
+							found.put(uuid, online);
+						}
+					}
+				}
+			}
+			return found;
+		});
+	}
+	
+	@Override
+	public CompletableFuture<List<UUIDCandidate>> resolveAllCandidates(String name) {
+		CanonicalName canonicalName = canonicalize(name);
+		if (canonicalName == null) {
+			return CompletableFuture.completedFuture(Collections.emptyList());
+		}
+		UUIDCandidate online = null;
+		if (nativeStage != NativeStage.NONE) {
+			UUID uuid = resolveNativeStage(canonicalName);
+			if (uuid != null) {
+				online = UUIDCandidate.of(uuid, System.currentTimeMillis());
+			}
+		}
+		return resolveCandidatesFromRegistered(canonicalName, online);
+	}
+	
+	/**
+	 * Shares a single lookup between concurrent callers requesting the same key. The lookup
+	 * is started only if there is none in flight for the key, and forgotten once complete.
+	 * 
+	 * @param <T> the result type
+	 * @param inFlight the lookups in flight
+	 * @param key the key being looked up
+	 * @param lookup starts the lookup
+	 * @return a future completed with the result of the shared lookup
+	 */
+	private static <T> CompletableFuture<T> joinInFlight(ConcurrentMap<InFlightKey, CompletableFuture<T>> inFlight,
+			InFlightKey key, Supplier<CompletableFuture<T>> lookup) {
+		CompletableFuture<T> shared = inFlight.get(key);
+		if (shared == null) {
+			CompletableFuture<T> newLookup = new CompletableFuture<>();
+			shared = inFlight.putIfAbsent(key, newLookup);
+			if (shared == null) {
+				shared = newLookup;
+				startInFlight(inFlight, key, newLookup, lookup);
+			}
+		}
+		// Each caller receives its own future, so that no caller may complete the shared one for the others
+		return shared.thenApply(Function.identity());
+	}
+	
+	private static <T> void startInFlight(ConcurrentMap<InFlightKey, CompletableFuture<T>> inFlight,
+			InFlightKey key, CompletableFuture<T> newLookup, Supplier<CompletableFuture<T>> lookup) {
+		CompletableFuture<T> result;
+		try {
+			result = lookup.get();
+		} catch (RuntimeException | Error ex) {
+			inFlight.remove(key, newLookup);
+			newLookup.completeExceptionally(ex);
+			throw ex;
+		}
+		result.whenComplete((value, ex) -> {
+			// Remove first, so that callers arriving after completion begin a fresh lookup
+			inFlight.remove(key, newLookup);
+			if (ex != null) {
+				newLookup.completeExceptionally(ex);
+			} else {
+				newLookup.complete(value);
+			}
+		});
+	}
+	
+	abstract UUID resolveImmediatelyFromRegistered(CanonicalName name, UUIDResolver skip);
 
 	abstract String resolveImmediatelyFromRegistered(UUID uuid, UUIDResolver skip);
 
-	abstract CompletableFuture<UUID> resolveLaterFromRegistered(String name, UUIDResolver skip);
+	abstract CompletableFuture<UUID> resolveLaterFromRegistered(CanonicalName name, UUIDResolver skip);
 
 	abstract CompletableFuture<String> resolveLaterFromRegistered(UUID uuid, UUIDResolver skip);
+	
+	/**
+	 * Resolves many names from registered resolvers
+	 * 
+	 * @param names the names
+	 * @return a future of the found names to their uuids
+	 */
+	abstract CompletableFuture<Map<CanonicalName, UUID>> resolveAllByNameFromRegistered(Set<CanonicalName> names);
+	
+	/**
+	 * Resolves many uuids from registered resolvers
+	 * 
+	 * @param uuids the uuids
+	 * @return a future of the found uuids to their names
+	 */
+	abstract CompletableFuture<Map<UUID, String>> resolveAllByUUIDFromRegistered(Set<UUID> uuids);
+	
+	/**
+	 * Finds candidate uuids for a name from every registered resolver at once
+	 * 
+	 * @param name the name
+	 * @param online the candidate of an online player, null for none
+	 * @return a future of the merged candidates, newest first
+	 */
+	abstract CompletableFuture<List<UUIDCandidate>> resolveCandidatesFromRegistered(CanonicalName name, UUIDCandidate online);
+	
+	/**
+	 * Offers the names found by registered prefix search resolvers to the matches
+	 * 
+	 * @param matches the matches
+	 */
+	abstract void searchRegisteredByPrefix(PrefixMatches matches);
+	
+	/**
+	 * Key of a lookup in flight. Lookups skipping different resolvers may produce different
+	 * results, so the skipped resolver is part of the key.
+	 * 
+	 */
+	private static final class InFlightKey {
+		
+		private final Object key;
+		private final UUIDResolver skip;
+		
+		InFlightKey(Object key, UUIDResolver skip) {
+			this.key = key;
+			this.skip = skip;
+		}
+
+		@Override
+		public int hashCode() {
+			return 31 * key.hashCode() + System.identityHashCode(skip);
+		}
+
+		@Override
+		public boolean equals(Object object) {
+			if (this == object) {
+				return true;
+			}
+			if (!(object instanceof InFlightKey)) {
+				return false;
+			}
+			InFlightKey other = (InFlightKey) object;
+			return skip == other.skip && key.equals(other.key);
+		}
+		
+	}
 
 }
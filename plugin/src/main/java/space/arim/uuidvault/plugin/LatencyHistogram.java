@@ -0,0 +1,97 @@
+/* 
+ * UUIDVault-plugin
+ * Copyright © 2020 Anand Beh <https://www.arim.space>
+ * 
+ * UUIDVault-plugin is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Lesser General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ * 
+ * UUIDVault-plugin is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the
+ * GNU Lesser General Public License for more details.
+ * 
+ * You should have received a copy of the GNU Lesser General Public License
+ * along with UUIDVault-plugin. If not, see <https://www.gnu.org/licenses/>
+ * and navigate to version 3 of the GNU Lesser General Public License.
+ */
+package space.arim.uuidvault.plugin;
+
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Lock free histogram of latencies, using power of two buckets. Bucket {@code n} counts
+ * latencies of at least {@code 2^n} and less than {@code 2^(n+1)} nanoseconds. <br>
+ * <br>
+ * Percentiles are interpolated within a bucket, so their error is bounded by the bucket width.
+ * 
+ */
+final class LatencyHistogram {
+
+	private static final int BUCKETS = 64;
+
+	private final LongAdder[] buckets = new LongAdder[BUCKETS];
+
+	LatencyHistogram() {
+		for (int n = 0; n < BUCKETS; n++) {
+			buckets[n] = new LongAdder();
+		}
+	}
+
+	private static int bucketOf(long nanos) {
+		// Treat 0 and negative values, which are possible with a coarse clock, as 1 nanosecond
+		return 63 - Long.numberOfLeadingZeros(Math.max(nanos, 1L));
+	}
+
+	void record(long nanos) {
+		buckets[bucketOf(nanos)].increment();
+	}
+
+	/**
+	 * Takes a copy of the counts of each bucket
+	 * 
+	 * @return the bucket counts
+	 */
+	long[] snapshot() {
+		long[] counts = new long[BUCKETS];
+		for (int n = 0; n < BUCKETS; n++) {
+			counts[n] = buckets[n].sum();
+		}
+		return counts;
+	}
+
+	/**
+	 * Computes an approximate percentile from bucket counts
+	 * 
+	 * @param counts the bucket counts, as from {@link #snapshot()}
+	 * @param percentile the percentile, between 0 and 100
+	 * @return the approximate latency in nanoseconds, or 0 if there are no counts
+	 */
+	static long percentile(long[] counts, double percentile) {
+		long total = 0L;
+		for (long count : counts) {
+			total += count;
+		}
+		if (total == 0L) {
+			return 0L;
+		}
+		double rank = percentile / 100D * total;
+		long seen = 0L;
+		for (int n = 0; n < counts.length; n++) {
+			long count = counts[n];
+			if (count == 0L) {
+				continue;
+			}
+			if (seen + count >= rank) {
+				long lower = 1L << n;
+				long width = (n == 63) ? Long.MAX_VALUE - lower : lower;
+				return lower + (long) (width * ((rank - seen) / count));
+			}
+			seen += count;
+		}
+		// Unreachable unless rounding error, in which case the highest bucket applies
+		return Long.MAX_VALUE;
+	}
+
+}
@@ -0,0 +1,99 @@
+/* 
+ * UUIDVault-plugin
+ * Copyright © 2020 Anand Beh <https://www.arim.space>
+ * 
+ * UUIDVault-plugin is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Lesser General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ * 
+ * UUIDVault-plugin is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the
+ * GNU Lesser General Public License for more details.
+ * 
+ * You should have received a copy of the GNU Lesser General Public License
+ * along with UUIDVault-plugin. If not, see <https://www.gnu.org/licenses/>
+ * and navigate to version 3 of the GNU Lesser General Public License.
+ */
+package space.arim.uuidvault.plugin;
+
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.function.BooleanSupplier;
+import java.util.function.Consumer;
+import java.util.function.Supplier;
+
+/**
+ * Queues tasks from any thread and runs them on the main thread in batches. Tasks submitted
+ * from the main thread itself run immediately, so that the main thread may wait on the result. <br>
+ * <br>
+ * At most one drain task is scheduled at a time. Every task queued before the drain task runs
+ * is completed by it, so that the amount of scheduled tasks grows with the amount of ticks
+ * rather than the amount of requests.
+ * 
+ */
+final class MainThreadBatcher {
+
+	private final BooleanSupplier isMainThread;
+	private final BatchQueue<Task<?>> queue;
+
+	/**
+	 * Creates from a scheduler of main thread tasks
+	 * 
+	 * @param mainThreadScheduler schedules a task to run on the main thread
+	 * @param isMainThread whether the current thread is the main thread
+	 */
+	MainThreadBatcher(Consumer<Runnable> mainThreadScheduler, BooleanSupplier isMainThread) {
+		this.isMainThread = isMainThread;
+		// The scheduler may refuse tasks, e.g. if the plugin is disabled
+		queue = new BatchQueue<>(mainThreadScheduler, MainThreadBatcher::runAll,
+				(task, ex) -> task.future.completeExceptionally(ex));
+	}
+
+	/**
+	 * Queues a task to run on the main thread, or runs it immediately if called from the main thread
+	 * 
+	 * @param <T> the result type
+	 * @param action the task
+	 * @return a future completed with the result of the task, once run
+	 */
+	<T> CompletableFuture<T> submit(Supplier<T> action) {
+		Task<T> task = new Task<>(action);
+		if (isMainThread.getAsBoolean()) {
+			task.run();
+			return task.future;
+		}
+		queue.offer(task);
+		return task.future;
+	}
+
+	private static void runAll(List<Task<?>> tasks) {
+		for (Task<?> task : tasks) {
+			task.run();
+		}
+	}
+
+	private static final class Task<T> {
+
+		final Supplier<T> action;
+		final CompletableFuture<T> future = new CompletableFuture<>();
+
+		Task(Supplier<T> action) {
+			this.action = action;
+		}
+
+		void run() {
+			T result;
+			try {
+				result = action.get();
+			} catch (RuntimeException | Error ex) {
+				future.completeExceptionally(ex);
+				return;
+			}
+			future.complete(result);
+		}
+
+	}
+
+}
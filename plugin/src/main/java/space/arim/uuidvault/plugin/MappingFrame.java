@@ -0,0 +1,138 @@
+/* 
+ * UUIDVault-plugin
+ * Copyright © 2020 Anand Beh <https://www.arim.space>
+ * 
+ * UUIDVault-plugin is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Lesser General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ * 
+ * UUIDVault-plugin is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the
+ * GNU Lesser General Public License for more details.
+ * 
+ * You should have received a copy of the GNU Lesser General Public License
+ * along with UUIDVault-plugin. If not, see <https://www.gnu.org/licenses/>
+ * and navigate to version 3 of the GNU Lesser General Public License.
+ */
+package space.arim.uuidvault.plugin;
+
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+
+import space.arim.uuidvault.api.UUIDUtil;
+
+/**
+ * Binary encoding of mappings sent from a proxy to its backend servers. <br>
+ * <br>
+ * A frame consists of a version byte, followed by the amount of mappings as an unsigned short,
+ * followed by each mapping. A mapping is the 16 bytes of its uuid, as per
+ * {@link UUIDUtil#toByteArray(UUID)}, followed by the length of its UTF-8 encoded name as an
+ * unsigned byte, followed by the encoded name. A typical mapping thus takes 27 bytes. <br>
+ * <br>
+ * Frames are kept below the size limit of plugin messages, so that many mappings
+ * may be split across several frames.
+ * 
+ */
+final class MappingFrame {
+
+	/**
+	 * The current version. Frames of other versions are rejected
+	 */
+	static final byte VERSION = 1;
+	
+	/**
+	 * Maximum size of a frame, below the 32767 byte limit of serverbound plugin messages
+	 */
+	static final int MAX_FRAME_BYTES = 32_000;
+	
+	private static final int HEADER_BYTES = 3;
+	private static final int MAX_NAME_BYTES = 255;
+	
+	private MappingFrame() {}
+	
+	/**
+	 * Encodes mappings into as many frames as needed. Mappings whose name is longer than
+	 * 255 bytes in UTF-8 are skipped.
+	 * 
+	 * @param mappings the mappings of uuids to names
+	 * @return the frames, empty if there were no mappings to encode
+	 */
+	static List<byte[]> encode(Map<UUID, String> mappings) {
+		List<byte[]> frames = new ArrayList<>();
+		byte[] buffer = new byte[MAX_FRAME_BYTES];
+		int position = HEADER_BYTES;
+		int count = 0;
+		for (Map.Entry<UUID, String> mapping : mappings.entrySet()) {
+			byte[] name = mapping.getValue().getBytes(StandardCharsets.UTF_8);
+			if (name.length > MAX_NAME_BYTES) {
+				continue;
+			}
+			int length = 16 + 1 + name.length;
+			if (position + length > MAX_FRAME_BYTES || count == 0xFFFF) {
+				frames.add(finish(buffer, position, count));
+				position = HEADER_BYTES;
+				count = 0;
+			}
+			UUIDUtil.toByteArray(mapping.getKey(), buffer, position);
+			buffer[position + 16] = (byte) name.length;
+			System.arraycopy(name, 0, buffer, position + 17, name.length);
+			position += length;
+			count++;
+		}
+		if (count != 0) {
+			frames.add(finish(buffer, position, count));
+		}
+		return frames;
+	}
+	
+	private static byte[] finish(byte[] buffer, int position, int count) {
+		buffer[0] = VERSION;
+		buffer[1] = (byte) (count >>> 8);
+		buffer[2] = (byte) count;
+		return Arrays.copyOf(buffer, position);
+	}
+	
+	/**
+	 * Decodes a frame
+	 * 
+	 * @param frame the frame
+	 * @return the mappings of uuids to names, in the order encoded
+	 * @throws IllegalArgumentException if the frame is malformed or of another version
+	 */
+	static Map<UUID, String> decode(byte[] frame) {
+		if (frame.length < HEADER_BYTES) {
+			throw new IllegalArgumentException("Frame is too short: " + frame.length + " bytes");
+		}
+		if (frame[0] != VERSION) {
+			throw new IllegalArgumentException("Unsupported frame version " + frame[0]);
+		}
+		int count = ((frame[1] & 0xFF) << 8) | (frame[2] & 0xFF);
+		Map<UUID, String> mappings = new LinkedHashMap<>(count * 4 / 3 + 1);
+		int position = HEADER_BYTES;
+		for (int n = 0; n < count; n++) {
+			if (position + 17 > frame.length) {
+				throw new IllegalArgumentException("Frame is truncated at mapping " + n + " of " + count);
+			}
+			UUID uuid = UUIDUtil.fromByteArray(frame, position);
+			int nameLength = frame[position + 16] & 0xFF;
+			position += 17;
+			if (nameLength == 0 || position + nameLength > frame.length) {
+				throw new IllegalArgumentException("Frame has invalid name length at mapping " + n + " of " + count);
+			}
+			mappings.put(uuid, new String(frame, position, nameLength, StandardCharsets.UTF_8));
+			position += nameLength;
+		}
+		if (position != frame.length) {
+			throw new IllegalArgumentException("Frame has " + (frame.length - position) + " trailing bytes");
+		}
+		return mappings;
+	}
+	
+}
@@ -0,0 +1,97 @@
+/* 
+ * UUIDVault-plugin
+ * Copyright © 2020 Anand Beh <https://www.arim.space>
+ * 
+ * UUIDVault-plugin is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Lesser General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ * 
+ * UUIDVault-plugin is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the
+ * GNU Lesser General Public License for more details.
+ * 
+ * You should have received a copy of the GNU Lesser General Public License
+ * along with UUIDVault-plugin. If not, see <https://www.gnu.org/licenses/>
+ * and navigate to version 3 of the GNU Lesser General Public License.
+ */
+package space.arim.uuidvault.plugin;
+
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+import java.util.function.Consumer;
+
+/**
+ * Propagates mappings seen by a proxy to its backend servers. <br>
+ * <br>
+ * Mappings are queued by platform listeners, which never wait on sending. At most one send
+ * is scheduled at a time, shortly after the first mapping is queued. It then encodes every
+ * queued mapping into as few frames as possible, and sends them through the transport.
+ * 
+ */
+final class MappingPropagator {
+
+	private final MappingTransport transport;
+	private final Consumer<RuntimeException> failureHandler;
+	private final BatchQueue<Mapping> queue;
+	
+	/**
+	 * How long mappings are gathered before sending. This also gives a player who just
+	 * connected to a backend server time to be counted as connected to it, so that the
+	 * backend server is reachable
+	 */
+	static final long BATCH_DELAY_MILLIS = 50L;
+	
+	/**
+	 * Creates the propagator
+	 * 
+	 * @param scheduler the scheduler used to delay and perform sending
+	 * @param transport the transport to backend servers
+	 * @param failureHandler handles exceptions thrown by the transport
+	 */
+	MappingPropagator(VaultScheduler scheduler, MappingTransport transport, Consumer<RuntimeException> failureHandler) {
+		this.transport = transport;
+		this.failureHandler = failureHandler;
+		queue = BatchQueue.delayed(scheduler, BATCH_DELAY_MILLIS, Runnable::run, this::send);
+	}
+	
+	/**
+	 * Queues a mapping to be sent
+	 * 
+	 * @param uuid the uuid
+	 * @param name the name
+	 */
+	void propagate(UUID uuid, String name) {
+		queue.offer(new Mapping(uuid, name));
+	}
+	
+	private void send(List<Mapping> queued) {
+		Map<UUID, String> mappings = new LinkedHashMap<>();
+		for (Mapping mapping : queued) {
+			mappings.put(mapping.uuid, mapping.name);
+		}
+		try {
+			for (byte[] frame : MappingFrame.encode(mappings)) {
+				transport.send(frame);
+			}
+		} catch (RuntimeException ex) {
+			failureHandler.accept(ex);
+		}
+	}
+	
+	private static final class Mapping {
+		
+		final UUID uuid;
+		final String name;
+		
+		Mapping(UUID uuid, String name) {
+			this.uuid = uuid;
+			this.name = name;
+		}
+		
+	}
+	
+}
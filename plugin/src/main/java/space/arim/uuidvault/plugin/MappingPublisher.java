@@ -0,0 +1,138 @@
+/* 
+ * UUIDVault-plugin
+ * Copyright © 2020 Anand Beh <https://www.arim.space>
+ * 
+ * UUIDVault-plugin is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Lesser General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ * 
+ * UUIDVault-plugin is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the
+ * GNU Lesser General Public License for more details.
+ * 
+ * You should have received a copy of the GNU Lesser General Public License
+ * along with UUIDVault-plugin. If not, see <https://www.gnu.org/licenses/>
+ * and navigate to version 3 of the GNU Lesser General Public License.
+ */
+package space.arim.uuidvault.plugin;
+
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.IdentityHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+import java.util.concurrent.Executor;
+import java.util.function.BiConsumer;
+
+import space.arim.uuidvault.api.MappingListener;
+
+/**
+ * Publishes found mappings to the {@link MappingListener}s of registrations which did not find them. <br>
+ * <br>
+ * Mappings are queued by lookups, which never wait on delivery. At most one delivery is scheduled
+ * at a time, shortly after the first mapping is queued. It then delivers every queued mapping,
+ * grouped per listener, so that each listener is called at most twice per delivery.
+ * 
+ */
+final class MappingPublisher {
+
+	private final BiConsumer<Registration, RuntimeException> failureHandler;
+	private final BatchQueue<Discovery> queue;
+	
+	/**
+	 * How long mappings are gathered before delivery
+	 */
+	static final long BATCH_DELAY_MILLIS = 50L;
+	
+	/**
+	 * Creates the publisher
+	 * 
+	 * @param scheduler the scheduler used to delay delivery
+	 * @param deliveryExecutor the executor on which listeners are called
+	 * @param failureHandler handles exceptions thrown by listeners
+	 */
+	MappingPublisher(VaultScheduler scheduler, Executor deliveryExecutor,
+			BiConsumer<Registration, RuntimeException> failureHandler) {
+		this.failureHandler = failureHandler;
+		queue = BatchQueue.delayed(scheduler, BATCH_DELAY_MILLIS, deliveryExecutor, this::deliver);
+	}
+	
+	/**
+	 * Queues a uuid found for a name
+	 * 
+	 * @param targets the registrations whose resolvers are mapping listeners, not empty
+	 * @param name the name as looked up
+	 * @param uuid the uuid found
+	 */
+	void publishUUID(List<Registration> targets, String name, UUID uuid) {
+		queue.offer(new Discovery(targets, uuid, name, true));
+	}
+	
+	/**
+	 * Queues a name found for a uuid
+	 * 
+	 * @param targets the registrations whose resolvers are mapping listeners, not empty
+	 * @param uuid the uuid
+	 * @param name the name found
+	 */
+	void publishName(List<Registration> targets, UUID uuid, String name) {
+		queue.offer(new Discovery(targets, uuid, name, false));
+	}
+	
+	private void deliver(List<Discovery> discoveries) {
+		Map<Registration, Batch> batches = new IdentityHashMap<>();
+		for (Discovery discovery : discoveries) {
+			for (Registration target : discovery.targets) {
+				Batch batch = batches.computeIfAbsent(target, (ignore) -> new Batch());
+				if (discovery.byName) {
+					batch.uuids.put(discovery.name, discovery.uuid);
+				} else {
+					batch.names.put(discovery.uuid, discovery.name);
+				}
+			}
+		}
+		batches.forEach((registration, batch) -> {
+			MappingListener listener = (MappingListener) registration.resolver;
+			try {
+				if (!batch.uuids.isEmpty()) {
+					listener.onUUIDsFound(Collections.unmodifiableMap(batch.uuids));
+				}
+				if (!batch.names.isEmpty()) {
+					listener.onNamesFound(Collections.unmodifiableMap(batch.names));
+				}
+			} catch (RuntimeException ex) {
+				failureHandler.accept(registration, ex);
+			}
+		});
+	}
+	
+	private static final class Discovery {
+		
+		final List<Registration> targets;
+		final UUID uuid;
+		final String name;
+		/**
+		 * Whether the uuid was found for the name, rather than the name for the uuid
+		 */
+		final boolean byName;
+		
+		Discovery(List<Registration> targets, UUID uuid, String name, boolean byName) {
+			this.targets = targets;
+			this.uuid = uuid;
+			this.name = name;
+			this.byName = byName;
+		}
+		
+	}
+	
+	private static final class Batch {
+		
+		final Map<String, UUID> uuids = new HashMap<>();
+		final Map<UUID, String> names = new HashMap<>();
+		
+	}
+	
+}
@@ -0,0 +1,47 @@
+/* 
+ * UUIDVault-plugin
+ * Copyright © 2020 Anand Beh <https://www.arim.space>
+ * 
+ * UUIDVault-plugin is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Lesser General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ * 
+ * UUIDVault-plugin is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the
+ * GNU Lesser General Public License for more details.
+ * 
+ * You should have received a copy of the GNU Lesser General Public License
+ * along with UUIDVault-plugin. If not, see <https://www.gnu.org/licenses/>
+ * and navigate to version 3 of the GNU Lesser General Public License.
+ */
+package space.arim.uuidvault.plugin;
+
+/**
+ * Carries frames of mappings from a proxy to its backend servers. Implemented by proxy platforms
+ * using plugin messaging, and in tests by an in-memory loopback. <br>
+ * <br>
+ * Backend servers receive frames on {@link #CHANNEL} and pass them to
+ * {@link SimpleImplementation#receiveMappings(byte[])}.
+ * 
+ */
+interface MappingTransport {
+
+	/**
+	 * The plugin messaging channel. Namespaced, as required since Minecraft 1.13,
+	 * and short enough for older versions
+	 */
+	String CHANNEL = "uuidvault:mappings";
+	
+	/**
+	 * Sends a frame to every backend server which can currently receive it. On most platforms,
+	 * this requires a player to be connected to the backend server. <br>
+	 * <br>
+	 * May be called from any thread.
+	 * 
+	 * @param frame the frame, encoded by {@link MappingFrame}
+	 */
+	void send(byte[] frame);
+	
+}
@@ -0,0 +1,92 @@
+/* 
+ * UUIDVault-plugin
+ * Copyright © 2020 Anand Beh <https://www.arim.space>
+ * 
+ * UUIDVault-plugin is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Lesser General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ * 
+ * UUIDVault-plugin is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the
+ * GNU Lesser General Public License for more details.
+ * 
+ * You should have received a copy of the GNU Lesser General Public License
+ * along with UUIDVault-plugin. If not, see <https://www.gnu.org/licenses/>
+ * and navigate to version 3 of the GNU Lesser General Public License.
+ */
+package space.arim.uuidvault.plugin;
+
+import java.util.Map;
+import java.util.Queue;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.ConcurrentSkipListMap;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import space.arim.uuidvault.api.CanonicalName;
+
+/**
+ * Concurrent, sorted index of known names, for prefix search. Bounded in size,
+ * such that when full, the names indexed first are evicted first. <br>
+ * <br>
+ * A prefix search is a range query on a skip list, taking logarithmic time
+ * plus the amount of names returned.
+ * 
+ */
+final class NameIndex {
+
+	private final int maxSize;
+	/**
+	 * Folded names to names as correctly spelled
+	 */
+	private final ConcurrentSkipListMap<String, String> names = new ConcurrentSkipListMap<>();
+	private final Queue<String> insertionOrder = new ConcurrentLinkedQueue<>();
+	private final AtomicInteger queueSize = new AtomicInteger();
+	
+	NameIndex(int maxSize) {
+		this.maxSize = maxSize;
+	}
+	
+	/**
+	 * Adds a name, replacing any other spelling of it
+	 * 
+	 * @param name the name, correctly spelled
+	 */
+	void add(String name) {
+		CanonicalName canonicalName = CanonicalName.of(name);
+		if (canonicalName == null) {
+			return;
+		}
+		String folded = canonicalName.getFolded();
+		if (names.put(folded, name) != null) {
+			return;
+		}
+		insertionOrder.offer(folded);
+		if (queueSize.incrementAndGet() <= maxSize) {
+			return;
+		}
+		String eldest = insertionOrder.poll();
+		if (eldest != null) {
+			queueSize.decrementAndGet();
+			names.remove(eldest);
+		}
+	}
+	
+	/**
+	 * Offers the first names matching a prefix, in alphabetical order, to the matches
+	 * 
+	 * @param matches the matches
+	 */
+	void search(PrefixMatches matches) {
+		String foldedPrefix = matches.foldedPrefix();
+		int remaining = matches.limit();
+		for (Map.Entry<String, String> entry : names.tailMap(foldedPrefix).entrySet()) {
+			if (!entry.getKey().startsWith(foldedPrefix) || remaining-- == 0) {
+				return;
+			}
+			matches.offer(entry.getKey(), entry.getValue());
+		}
+	}
+	
+}
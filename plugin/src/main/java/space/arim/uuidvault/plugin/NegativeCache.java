@@ -0,0 +1,68 @@
+/* 
+ * UUIDVault-plugin
+ * Copyright © 2020 Anand Beh <https://www.arim.space>
+ * 
+ * UUIDVault-plugin is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Lesser General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ * 
+ * UUIDVault-plugin is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the
+ * GNU Lesser General Public License for more details.
+ * 
+ * You should have received a copy of the GNU Lesser General Public License
+ * along with UUIDVault-plugin. If not, see <https://www.gnu.org/licenses/>
+ * and navigate to version 3 of the GNU Lesser General Public License.
+ */
+package space.arim.uuidvault.plugin;
+
+import java.util.UUID;
+
+import space.arim.uuidvault.api.CanonicalName;
+
+/**
+ * Remembers names and uuids which no registered resolver knows, for a short while.
+ * 
+ */
+final class NegativeCache {
+
+	private final ExpiringMap<CanonicalName, Boolean> names;
+	private final ExpiringMap<UUID, Boolean> uuids;
+
+	NegativeCache(int maxSize, long ttlMillis) {
+		names = new ExpiringMap<>(maxSize, ttlMillis);
+		uuids = new ExpiringMap<>(maxSize, ttlMillis);
+	}
+
+	boolean isMissing(CanonicalName name) {
+		return names.get(name) != null;
+	}
+
+	boolean isMissing(UUID uuid) {
+		return uuids.get(uuid) != null;
+	}
+
+	void markMissing(CanonicalName name) {
+		names.put(name, Boolean.TRUE);
+	}
+
+	void markMissing(UUID uuid) {
+		uuids.put(uuid, Boolean.TRUE);
+	}
+
+	void forget(CanonicalName name) {
+		names.remove(name);
+	}
+
+	void forget(UUID uuid) {
+		uuids.remove(uuid);
+	}
+
+	void clear() {
+		names.clear();
+		uuids.clear();
+	}
+
+}
@@ -0,0 +1,86 @@
+/* 
+ * UUIDVault-plugin
+ * Copyright © 2020 Anand Beh <https://www.arim.space>
+ * 
+ * UUIDVault-plugin is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Lesser General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ * 
+ * UUIDVault-plugin is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the
+ * GNU Lesser General Public License for more details.
+ * 
+ * You should have received a copy of the GNU Lesser General Public License
+ * along with UUIDVault-plugin. If not, see <https://www.gnu.org/licenses/>
+ * and navigate to version 3 of the GNU Lesser General Public License.
+ */
+package space.arim.uuidvault.plugin;
+
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+
+import space.arim.uuidvault.api.CanonicalName;
+
+/**
+ * Concurrent index of online players, maintained by join and quit listeners on each platform.
+ * Lookups are lock free map reads, safe from any thread.
+ * 
+ */
+final class OnlinePlayerIndex {
+
+	private final ConcurrentHashMap<CanonicalName, UUID> uuids = new ConcurrentHashMap<>();
+	private final ConcurrentHashMap<UUID, String> names = new ConcurrentHashMap<>();
+	private final NameIndex nameIndex;
+
+	/**
+	 * Creates the index
+	 * 
+	 * @param nameIndex the index of known names to which joining players are added, null for none
+	 */
+	OnlinePlayerIndex(NameIndex nameIndex) {
+		this.nameIndex = nameIndex;
+	}
+
+	/**
+	 * Adds a player who joined
+	 * 
+	 * @param uuid the player's uuid
+	 * @param name the player's name
+	 */
+	void add(UUID uuid, String name) {
+		names.put(uuid, name);
+		CanonicalName canonicalName = CanonicalName.of(name);
+		if (canonicalName != null) {
+			uuids.put(canonicalName, uuid);
+		}
+		if (nameIndex != null) {
+			nameIndex.add(name);
+		}
+	}
+
+	/**
+	 * Removes a player who quit. Removal only occurs if the player is still indexed
+	 * with the same name and uuid.
+	 * 
+	 * @param uuid the player's uuid
+	 * @param name the player's name
+	 */
+	void remove(UUID uuid, String name) {
+		names.remove(uuid, name);
+		CanonicalName canonicalName = CanonicalName.of(name);
+		if (canonicalName != null) {
+			uuids.remove(canonicalName, uuid);
+		}
+	}
+
+	UUID getUUID(CanonicalName name) {
+		return uuids.get(name);
+	}
+
+	String getName(UUID uuid) {
+		return names.get(uuid);
+	}
+
+}
@@ -0,0 +1,140 @@
+/* 
+ * UUIDVault-plugin
+ * Copyright © 2020 Anand Beh <https://www.arim.space>
+ * 
+ * UUIDVault-plugin is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Lesser General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ * 
+ * UUIDVault-plugin is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the
+ * GNU Lesser General Public License for more details.
+ * 
+ * You should have received a copy of the GNU Lesser General Public License
+ * along with UUIDVault-plugin. If not, see <https://www.gnu.org/licenses/>
+ * and navigate to version 3 of the GNU Lesser General Public License.
+ */
+package space.arim.uuidvault.plugin;
+
+import java.util.Objects;
+import java.util.UUID;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.locks.Lock;
+import java.util.concurrent.locks.ReadWriteLock;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+
+import space.arim.uuidvault.api.CanonicalName;
+import space.arim.uuidvault.api.CanonicalNameResolver;
+
+/**
+ * A resolver for very large sets of known mappings, such as every player a network has seen. <br>
+ * <br>
+ * Mappings are held in primitive arrays at under 40 bytes each, rather than in maps of
+ * strings and uuids. Every lookup completes immediately. Names which are not 1 to 16 ASCII
+ * letters, digits, or underscores cannot be held, and are ignored. <br>
+ * <br>
+ * Mappings are added with {@link #add(UUID, String)}, after which the resolver
+ * may be registered with UUIDVault like any other. This class is thread safe.
+ * 
+ * @author A248
+ * 
+ */
+public final class PackedMappingResolver implements CanonicalNameResolver {
+
+	private final ReadWriteLock lock = new ReentrantReadWriteLock();
+	private final PackedMappingStore store; // Guarded by lock
+	
+	/**
+	 * Creates an empty resolver
+	 * 
+	 * @param expectedSize the amount of mappings expected, beyond which storage grows
+	 * @throws IllegalArgumentException if {@code expectedSize} is not positive
+	 */
+	public PackedMappingResolver(int expectedSize) {
+		if (expectedSize < 1) {
+			throw new IllegalArgumentException("Expected size must be positive");
+		}
+		store = new PackedMappingStore(expectedSize, true);
+	}
+	
+	/**
+	 * Adds a mapping, replacing any previous mapping of the uuid or of the name
+	 * 
+	 * @param uuid the uuid
+	 * @param name the correctly spelled name
+	 * @return true if added, false if the name cannot be held
+	 * @throws NullPointerException if {@code uuid} or {@code name} is null
+	 */
+	public boolean add(UUID uuid, String name) {
+		Objects.requireNonNull(uuid, "uuid");
+		Objects.requireNonNull(name, "name");
+		Lock writeLock = lock.writeLock();
+		writeLock.lock();
+		try {
+			return store.put(uuid, name, true);
+		} finally {
+			writeLock.unlock();
+		}
+	}
+	
+	/**
+	 * Gets the amount of mappings held
+	 * 
+	 * @return the amount of mappings
+	 */
+	public int size() {
+		Lock readLock = lock.readLock();
+		readLock.lock();
+		try {
+			return store.size();
+		} finally {
+			readLock.unlock();
+		}
+	}
+
+	@Override
+	public CompletableFuture<UUID> resolve(String name) {
+		return CompletableFuture.completedFuture(resolveImmediately(name));
+	}
+
+	@Override
+	public UUID resolveImmediately(String name) {
+		CanonicalName canonicalName = CanonicalName.of(name);
+		return (canonicalName == null) ? null : resolveImmediately(canonicalName);
+	}
+
+	@Override
+	public CompletableFuture<UUID> resolve(CanonicalName name) {
+		return CompletableFuture.completedFuture(resolveImmediately(name));
+	}
+
+	@Override
+	public UUID resolveImmediately(CanonicalName name) {
+		Lock readLock = lock.readLock();
+		readLock.lock();
+		try {
+			return store.getUUID(name);
+		} finally {
+			readLock.unlock();
+		}
+	}
+
+	@Override
+	public CompletableFuture<String> resolve(UUID uuid) {
+		return CompletableFuture.completedFuture(resolveImmediately(uuid));
+	}
+
+	@Override
+	public String resolveImmediately(UUID uuid) {
+		Lock readLock = lock.readLock();
+		readLock.lock();
+		try {
+			return store.getName(uuid, true);
+		} finally {
+			readLock.unlock();
+		}
+	}
+
+}
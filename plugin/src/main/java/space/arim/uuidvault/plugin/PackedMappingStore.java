@@ -0,0 +1,509 @@
+/* 
+ * UUIDVault-plugin
+ * Copyright © 2020 Anand Beh <https://www.arim.space>
+ * 
+ * UUIDVault-plugin is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Lesser General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ * 
+ * UUIDVault-plugin is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the
+ * GNU Lesser General Public License for more details.
+ * 
+ * You should have received a copy of the GNU Lesser General Public License
+ * along with UUIDVault-plugin. If not, see <https://www.gnu.org/licenses/>
+ * and navigate to version 3 of the GNU Lesser General Public License.
+ */
+package space.arim.uuidvault.plugin;
+
+import java.util.Arrays;
+import java.util.UUID;
+
+import space.arim.uuidvault.api.CanonicalName;
+
+/**
+ * Mappings between uuids and names, packed into primitive arrays. <br>
+ * <br>
+ * Each uuid is held as two longs. Each name is packed at 6 bits per character into a long and an int,
+ * which covers every name of up to 16 ASCII letters, digits, and underscores. Other names are not stored.
+ * Two open addressing tables of entry indexes allow lookups in both directions, names being matched
+ * regardless of case. A name belongs to at most one uuid, and a uuid to at most one name. <br>
+ * <br>
+ * At full capacity, a mapping costs 28 bytes in the entry arrays and about 11 bytes in the tables.
+ * Nothing is allocated per mapping, except when growing, and the garbage collector has no objects to trace. <br>
+ * <br>
+ * Not thread safe.
+ * 
+ */
+final class PackedMappingStore {
+
+	private static final int MAX_LENGTH = 16;
+	private static final int MAX_CAPACITY = 1 << 30;
+	
+	/**
+	 * Character codes, zero marking the end of a name. Uppercase letters
+	 * are offset from their lowercase counterparts by a constant
+	 */
+	private static final byte[] CODES = new byte[128];
+	private static final char[] CHARS = new char[64];
+	private static final int FIRST_UPPERCASE = 27;
+	private static final int LAST_UPPERCASE = 52;
+	private static final int CASE_OFFSET = 26;
+	
+	static {
+		int code = 1;
+		for (char c = 'a'; c <= 'z'; c++) {
+			setCode(c, code++);
+		}
+		for (char c = 'A'; c <= 'Z'; c++) {
+			setCode(c, code++);
+		}
+		for (char c = '0'; c <= '9'; c++) {
+			setCode(c, code++);
+		}
+		setCode('_', code);
+	}
+	
+	private static void setCode(char c, int code) {
+		CODES[c] = (byte) code;
+		CHARS[code] = c;
+	}
+	
+	private final boolean growable;
+	private int capacity;
+	private int size;
+	
+	private long[] mostSigBits;
+	private long[] leastSigBits;
+	private long[] namesHigh;
+	private int[] namesLow;
+	/**
+	 * Bit set of entries whose name is known to be correctly spelled
+	 */
+	private long[] exact;
+	
+	/**
+	 * Open addressing tables holding entry index + 1, so that zero marks an empty slot
+	 */
+	private int[] byName;
+	private int[] byUUID;
+	
+	/**
+	 * Creates an empty store
+	 * 
+	 * @param capacity the initial capacity, at least 1
+	 * @param growable whether to grow when full, rather than refuse new mappings
+	 */
+	PackedMappingStore(int capacity, boolean growable) {
+		if (capacity < 1 || capacity > MAX_CAPACITY) {
+			throw new IllegalArgumentException("Capacity must be between 1 and " + MAX_CAPACITY);
+		}
+		this.growable = growable;
+		this.capacity = capacity;
+		mostSigBits = new long[capacity];
+		leastSigBits = new long[capacity];
+		namesHigh = new long[capacity];
+		namesLow = new int[capacity];
+		exact = new long[(capacity + 63) >>> 6];
+		byName = new int[tableLength(capacity)];
+		byUUID = new int[tableLength(capacity)];
+	}
+	
+	/**
+	 * Sizes tables for a load factor of 0.75 at full capacity. Tables need not be a power of 2,
+	 * since slots are computed by multiplication rather than masking
+	 */
+	private static int tableLength(int capacity) {
+		return capacity + capacity / 3 + 1;
+	}
+	
+	int size() {
+		return size;
+	}
+	
+	int capacity() {
+		return capacity;
+	}
+	
+	/**
+	 * Determines whether a name can be stored
+	 * 
+	 * @param name the name
+	 * @return true if packable, false otherwise
+	 */
+	static boolean isPackable(String name) {
+		int length = name.length();
+		if (length == 0 || length > MAX_LENGTH) {
+			return false;
+		}
+		for (int n = 0; n < length; n++) {
+			char c = name.charAt(n);
+			if (c >= 128 || CODES[c] == 0) {
+				return false;
+			}
+		}
+		return true;
+	}
+	
+	/*
+	 * 
+	 * Lookups
+	 * 
+	 */
+	
+	/**
+	 * Finds the uuid mapped to a name
+	 * 
+	 * @param name the name
+	 * @return the uuid or null if not found
+	 */
+	UUID getUUID(CanonicalName name) {
+		String folded = name.getFolded();
+		if (!isPackable(folded)) {
+			return null;
+		}
+		int slot = findName(packHigh(folded), packLow(folded));
+		if (slot == -1) {
+			return null;
+		}
+		int entry = byName[slot] - 1;
+		return new UUID(mostSigBits[entry], leastSigBits[entry]);
+	}
+	
+	/**
+	 * Finds the name mapped to a uuid
+	 * 
+	 * @param uuid the uuid
+	 * @param requireExact whether to ignore names not stored as correctly spelled
+	 * @return the name or null if not found
+	 */
+	String getName(UUID uuid, boolean requireExact) {
+		int slot = findUUID(uuid.getMostSignificantBits(), uuid.getLeastSignificantBits());
+		if (slot == -1) {
+			return null;
+		}
+		int entry = byUUID[slot] - 1;
+		if (requireExact && !isExact(entry)) {
+			return null;
+		}
+		long high = namesHigh[entry];
+		int low = namesLow[entry];
+		char[] chars = new char[MAX_LENGTH];
+		int length = 0;
+		int code;
+		while (length < MAX_LENGTH && (code = codeAt(high, low, length)) != 0) {
+			chars[length++] = CHARS[code];
+		}
+		return new String(chars, 0, length);
+	}
+	
+	/*
+	 * 
+	 * Modification
+	 * 
+	 */
+	
+	/**
+	 * Maps a uuid and name to each other. Any other mapping of either is removed. <br>
+	 * <br>
+	 * If the mapping already exists, an exact spelling is never replaced by an inexact one.
+	 * 
+	 * @param uuid the uuid
+	 * @param name the name
+	 * @param exact whether the name is known to be correctly spelled
+	 * @return true if stored, false if the name cannot be packed or the store is full and not growable
+	 */
+	boolean put(UUID uuid, String name, boolean exact) {
+		if (!isPackable(name)) {
+			return false;
+		}
+		long msb = uuid.getMostSignificantBits();
+		long lsb = uuid.getLeastSignificantBits();
+		long high = packHigh(name);
+		int low = packLow(name);
+		long foldedHigh = foldHigh(high, low);
+		int foldedLow = foldLow(high, low);
+
+		int nameSlot = findName(foldedHigh, foldedLow);
+		if (nameSlot != -1) {
+			int entry = byName[nameSlot] - 1;
+			if (mostSigBits[entry] == msb && leastSigBits[entry] == lsb) {
+				if (exact || !isExact(entry)) {
+					namesHigh[entry] = high;
+					namesLow[entry] = low;
+					setExact(entry, exact);
+				}
+				return true;
+			}
+			// The name has passed to another uuid
+			removeEntry(entry);
+		}
+		int uuidSlot = findUUID(msb, lsb);
+		if (uuidSlot != -1) {
+			// The uuid has changed its name
+			int entry = byUUID[uuidSlot] - 1;
+			deleteSlot(byName, slotOf(byName, entry, true), true);
+			namesHigh[entry] = high;
+			namesLow[entry] = low;
+			setExact(entry, exact);
+			insert(byName, nameHash(foldedHigh, foldedLow), entry);
+			return true;
+		}
+		if (size == capacity && !grow()) {
+			return false;
+		}
+		int entry = size++;
+		mostSigBits[entry] = msb;
+		leastSigBits[entry] = lsb;
+		namesHigh[entry] = high;
+		namesLow[entry] = low;
+		setExact(entry, exact);
+		insert(byName, nameHash(foldedHigh, foldedLow), entry);
+		insert(byUUID, uuidHash(msb, lsb), entry);
+		return true;
+	}
+	
+	/**
+	 * Removes all mappings, retaining the allocated capacity
+	 * 
+	 */
+	void clear() {
+		size = 0;
+		Arrays.fill(byName, 0);
+		Arrays.fill(byUUID, 0);
+		Arrays.fill(exact, 0L);
+	}
+	
+	private boolean grow() {
+		if (!growable || capacity == MAX_CAPACITY) {
+			return false;
+		}
+		int newCapacity = (capacity > MAX_CAPACITY / 2) ? MAX_CAPACITY : capacity * 2;
+		mostSigBits = Arrays.copyOf(mostSigBits, newCapacity);
+		leastSigBits = Arrays.copyOf(leastSigBits, newCapacity);
+		namesHigh = Arrays.copyOf(namesHigh, newCapacity);
+		namesLow = Arrays.copyOf(namesLow, newCapacity);
+		exact = Arrays.copyOf(exact, (newCapacity + 63) >>> 6);
+		capacity = newCapacity;
+		byName = new int[tableLength(newCapacity)];
+		byUUID = new int[tableLength(newCapacity)];
+		for (int entry = 0; entry < size; entry++) {
+			insert(byName, hashOf(entry, true), entry);
+			insert(byUUID, hashOf(entry, false), entry);
+		}
+		return true;
+	}
+	
+	/**
+	 * Removes an entry, moving the last entry into its place so that entries stay contiguous
+	 */
+	private void removeEntry(int entry) {
+		deleteSlot(byName, slotOf(byName, entry, true), true);
+		deleteSlot(byUUID, slotOf(byUUID, entry, false), false);
+		int last = --size;
+		if (entry != last) {
+			int nameSlot = slotOf(byName, last, true);
+			int uuidSlot = slotOf(byUUID, last, false);
+			mostSigBits[entry] = mostSigBits[last];
+			leastSigBits[entry] = leastSigBits[last];
+			namesHigh[entry] = namesHigh[last];
+			namesLow[entry] = namesLow[last];
+			setExact(entry, isExact(last));
+			byName[nameSlot] = entry + 1;
+			byUUID[uuidSlot] = entry + 1;
+		}
+		setExact(last, false);
+	}
+	
+	private boolean isExact(int entry) {
+		return (exact[entry >>> 6] & (1L << entry)) != 0L;
+	}
+	
+	private void setExact(int entry, boolean value) {
+		if (value) {
+			exact[entry >>> 6] |= 1L << entry;
+		} else {
+			exact[entry >>> 6] &= ~(1L << entry);
+		}
+	}
+	
+	/*
+	 * 
+	 * Open addressing
+	 * 
+	 */
+	
+	private int home(int hash, int tableLength) {
+		return (int) (((hash & 0xFFFFFFFFL) * tableLength) >>> 32);
+	}
+	
+	private int findName(long foldedHigh, int foldedLow) {
+		int[] table = byName;
+		int slot = home(nameHash(foldedHigh, foldedLow), table.length);
+		int value;
+		while ((value = table[slot]) != 0) {
+			int entry = value - 1;
+			long high = namesHigh[entry];
+			int low = namesLow[entry];
+			if ((high == foldedHigh && low == foldedLow)
+					|| (foldHigh(high, low) == foldedHigh && foldLow(high, low) == foldedLow)) {
+				return slot;
+			}
+			if (++slot == table.length) {
+				slot = 0;
+			}
+		}
+		return -1;
+	}
+	
+	private int findUUID(long msb, long lsb) {
+		int[] table = byUUID;
+		int slot = home(uuidHash(msb, lsb), table.length);
+		int value;
+		while ((value = table[slot]) != 0) {
+			int entry = value - 1;
+			if (mostSigBits[entry] == msb && leastSigBits[entry] == lsb) {
+				return slot;
+			}
+			if (++slot == table.length) {
+				slot = 0;
+			}
+		}
+		return -1;
+	}
+	
+	private int slotOf(int[] table, int entry, boolean names) {
+		int slot = home(hashOf(entry, names), table.length);
+		while (table[slot] != entry + 1) {
+			if (++slot == table.length) {
+				slot = 0;
+			}
+		}
+		return slot;
+	}
+	
+	private void insert(int[] table, int hash, int entry) {
+		int slot = home(hash, table.length);
+		while (table[slot] != 0) {
+			if (++slot == table.length) {
+				slot = 0;
+			}
+		}
+		table[slot] = entry + 1;
+	}
+	
+	/**
+	 * Empties a slot, then shifts back later entries of the same probe sequence,
+	 * so that no tombstones are needed
+	 */
+	private void deleteSlot(int[] table, int hole, boolean names) {
+		table[hole] = 0;
+		int slot = hole;
+		while (true) {
+			if (++slot == table.length) {
+				slot = 0;
+			}
+			int value = table[slot];
+			if (value == 0) {
+				return;
+			}
+			int home = home(hashOf(value - 1, names), table.length);
+			boolean reachable = (hole <= slot) ? (hole < home && home <= slot) : (hole < home || home <= slot);
+			if (!reachable) {
+				table[hole] = value;
+				table[slot] = 0;
+				hole = slot;
+			}
+		}
+	}
+	
+	private int hashOf(int entry, boolean names) {
+		if (names) {
+			long high = namesHigh[entry];
+			int low = namesLow[entry];
+			return nameHash(foldHigh(high, low), foldLow(high, low));
+		}
+		return uuidHash(mostSigBits[entry], leastSigBits[entry]);
+	}
+	
+	private static int nameHash(long foldedHigh, int foldedLow) {
+		return mix(foldedHigh ^ (foldedLow * 0x9E3779B97F4A7C15L));
+	}
+	
+	private static int uuidHash(long msb, long lsb) {
+		return mix(msb ^ (lsb * 0x9E3779B97F4A7C15L));
+	}
+	
+	private static int mix(long value) {
+		value ^= value >>> 33;
+		value *= 0xff51afd7ed558ccdL;
+		value ^= value >>> 33;
+		value *= 0xc4ceb9fe1a85ec53L;
+		value ^= value >>> 33;
+		return (int) value;
+	}
+	
+	/*
+	 * 
+	 * Packing
+	 * 
+	 * Character n occupies bits 6n to 6n + 5 of a 96 bit string,
+	 * the low 64 bits of which are in a long and the rest in an int.
+	 * 
+	 */
+	
+	private static long packHigh(String name) {
+		long high = 0L;
+		int end = Math.min(name.length(), 11);
+		for (int n = 0; n < end; n++) {
+			high |= ((long) CODES[name.charAt(n)]) << (6 * n);
+		}
+		return high;
+	}
+	
+	private static int packLow(String name) {
+		int low = 0;
+		for (int n = 10; n < name.length(); n++) {
+			low |= lowBits(CODES[name.charAt(n)], n);
+		}
+		return low;
+	}
+	
+	private static int lowBits(int code, int n) {
+		int shift = 6 * n - 64;
+		return (shift < 0) ? code >>> -shift : code << shift;
+	}
+	
+	private static int codeAt(long high, int low, int n) {
+		if (n < 10) {
+			return (int) (high >>> (6 * n)) & 63;
+		}
+		if (n == 10) {
+			return (int) ((high >>> 60) | (low << 4)) & 63;
+		}
+		return (low >>> (6 * n - 64)) & 63;
+	}
+	
+	private static int fold(int code) {
+		return (code >= FIRST_UPPERCASE && code <= LAST_UPPERCASE) ? code - CASE_OFFSET : code;
+	}
+	
+	private static long foldHigh(long high, int low) {
+		long folded = 0L;
+		for (int n = 0; n < 11; n++) {
+			folded |= ((long) fold(codeAt(high, low, n))) << (6 * n);
+		}
+		return folded;
+	}
+	
+	private static int foldLow(long high, int low) {
+		int folded = 0;
+		for (int n = 10; n < MAX_LENGTH; n++) {
+			folded |= lowBits(fold(codeAt(high, low, n)), n);
+		}
+		return folded;
+	}
+
+}
@@ -0,0 +1,146 @@
+/* 
+ * UUIDVault-plugin
+ * Copyright © 2020 Anand Beh <https://www.arim.space>
+ * 
+ * UUIDVault-plugin is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Lesser General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ * 
+ * UUIDVault-plugin is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the
+ * GNU Lesser General Public License for more details.
+ * 
+ * You should have received a copy of the GNU Lesser General Public License
+ * along with UUIDVault-plugin. If not, see <https://www.gnu.org/licenses/>
+ * and navigate to version 3 of the GNU Lesser General Public License.
+ */
+package space.arim.uuidvault.plugin;
+
+import java.util.UUID;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.locks.Lock;
+import java.util.concurrent.locks.ReadWriteLock;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+
+import space.arim.uuidvault.api.CanonicalName;
+
+/**
+ * Result cache backed by two generations of {@link PackedMappingStore}, suited to very large sizes. <br>
+ * <br>
+ * New results go to the current generation. Once it is full, or has been current for half the ttl,
+ * it becomes the previous generation, and the former previous generation is cleared and reused.
+ * A generation expires as a whole, once it is older than the ttl. Thus each generation holds up
+ * to the maximum size, and results remain cached for between half the ttl and the full ttl. <br>
+ * <br>
+ * Names found for uuids are stored as correctly spelled. Names looked up to uuids are stored
+ * as spelled by the caller, and are not used to answer uuid lookups.
+ * 
+ */
+final class PackedResultCache implements ResultCache {
+
+	private final long ttlNanos;
+	
+	private final ReadWriteLock lock = new ReentrantReadWriteLock();
+	// Guarded by lock
+	private PackedMappingStore current;
+	private PackedMappingStore previous;
+	private long currentSince;
+	private long previousSince;
+	
+	PackedResultCache(int maxSize, long ttlMillis) {
+		ttlNanos = TimeUnit.MILLISECONDS.toNanos(ttlMillis);
+		current = new PackedMappingStore(maxSize, false);
+		previous = new PackedMappingStore(maxSize, false);
+		currentSince = previousSince = System.nanoTime();
+	}
+
+	@Override
+	public UUID getUUID(CanonicalName name) {
+		Lock readLock = lock.readLock();
+		readLock.lock();
+		try {
+			long now = System.nanoTime();
+			UUID uuid = (isExpired(currentSince, now)) ? null : current.getUUID(name);
+			if (uuid == null && !isExpired(previousSince, now)) {
+				uuid = previous.getUUID(name);
+			}
+			return uuid;
+		} finally {
+			readLock.unlock();
+		}
+	}
+
+	@Override
+	public String getName(UUID uuid) {
+		Lock readLock = lock.readLock();
+		readLock.lock();
+		try {
+			long now = System.nanoTime();
+			String name = (isExpired(currentSince, now)) ? null : current.getName(uuid, true);
+			if (name == null && !isExpired(previousSince, now)) {
+				name = previous.getName(uuid, true);
+			}
+			return name;
+		} finally {
+			readLock.unlock();
+		}
+	}
+	
+	private boolean isExpired(long since, long now) {
+		return now - since > ttlNanos;
+	}
+
+	@Override
+	public void putUUID(CanonicalName name, UUID uuid) {
+		put(uuid, name.getName(), false);
+	}
+
+	@Override
+	public void putName(UUID uuid, String name) {
+		put(uuid, name, true);
+	}
+	
+	private void put(UUID uuid, String name, boolean exact) {
+		if (!PackedMappingStore.isPackable(name)) {
+			return;
+		}
+		Lock writeLock = lock.writeLock();
+		writeLock.lock();
+		try {
+			long now = System.nanoTime();
+			if (now - currentSince >= ttlNanos / 2) {
+				rotate(now);
+			}
+			if (!current.put(uuid, name, exact)) {
+				rotate(now);
+				current.put(uuid, name, exact);
+			}
+		} finally {
+			writeLock.unlock();
+		}
+	}
+	
+	private void rotate(long now) {
+		PackedMappingStore recycled = previous;
+		recycled.clear();
+		previous = current;
+		previousSince = currentSince;
+		current = recycled;
+		currentSince = now;
+	}
+
+	@Override
+	public void clear() {
+		Lock writeLock = lock.writeLock();
+		writeLock.lock();
+		try {
+			current.clear();
+			previous.clear();
+		} finally {
+			writeLock.unlock();
+		}
+	}
+
+}
@@ -0,0 +1,83 @@
+/* 
+ * UUIDVault-plugin
+ * Copyright © 2020 Anand Beh <https://www.arim.space>
+ * 
+ * UUIDVault-plugin is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Lesser General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ * 
+ * UUIDVault-plugin is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the
+ * GNU Lesser General Public License for more details.
+ * 
+ * You should have received a copy of the GNU Lesser General Public License
+ * along with UUIDVault-plugin. If not, see <https://www.gnu.org/licenses/>
+ * and navigate to version 3 of the GNU Lesser General Public License.
+ */
+package space.arim.uuidvault.plugin;
+
+import java.util.concurrent.CompletableFuture;
+
+/**
+ * Combines futures started at the same time, completing with the first nonnull result
+ * in priority order. <br>
+ * <br>
+ * A lower priority result is accepted only once every higher priority future has completed
+ * with {@code null}. Once a result is accepted, remaining futures are abandoned. They are not
+ * cancelled, because resolvers may share their futures with other callers.
+ * 
+ * @param <T> the result type
+ */
+final class ParallelResolution<T> {
+
+	private final CompletableFuture<T>[] futures;
+	private final CompletableFuture<T> result = new CompletableFuture<>();
+	/**
+	 * Index of the highest priority future not yet known to be null. Guarded by this
+	 */
+	private int next;
+
+	/**
+	 * Creates from futures in priority order. Null elements are treated as completed with null
+	 * 
+	 * @param futures the futures, highest priority first
+	 */
+	private ParallelResolution(CompletableFuture<T>[] futures) {
+		this.futures = futures;
+	}
+
+	static <T> CompletableFuture<T> combine(CompletableFuture<T>[] futures) {
+		ParallelResolution<T> resolution = new ParallelResolution<>(futures);
+		for (CompletableFuture<T> future : futures) {
+			if (future != null) {
+				future.whenComplete((ignore1, ignore2) -> resolution.advance());
+			}
+		}
+		resolution.advance();
+		return resolution.result;
+	}
+
+	private synchronized void advance() {
+		if (result.isDone()) {
+			return;
+		}
+		while (next < futures.length) {
+			CompletableFuture<T> future = futures[next];
+			if (future != null) {
+				if (!future.isDone()) {
+					return;
+				}
+				T value = (future.isCompletedExceptionally()) ? null : future.join();
+				if (value != null) {
+					result.complete(value);
+					return;
+				}
+			}
+			next++;
+		}
+		result.complete(null);
+	}
+
+}
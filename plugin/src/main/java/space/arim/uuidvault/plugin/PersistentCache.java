@@ -0,0 +1,498 @@
+/* 
+ * UUIDVault-plugin
+ * Copyright © 2020 Anand Beh <https://www.arim.space>
+ * 
+ * UUIDVault-plugin is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Lesser General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ * 
+ * UUIDVault-plugin is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the
+ * GNU Lesser General Public License for more details.
+ * 
+ * You should have received a copy of the GNU Lesser General Public License
+ * along with UUIDVault-plugin. If not, see <https://www.gnu.org/licenses/>
+ * and navigate to version 3 of the GNU Lesser General Public License.
+ */
+package space.arim.uuidvault.plugin;
+
+import java.io.IOException;
+import java.nio.Buffer;
+import java.nio.ByteBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.List;
+import java.util.UUID;
+
+import space.arim.uuidvault.api.CanonicalName;
+import space.arim.uuidvault.api.UUIDUtil;
+
+/**
+ * Name and uuid mappings persisted across restarts in a memory mapped file, so that lookups
+ * after a restart need not all reach the registered resolvers. <br>
+ * <br>
+ * <b>Format</b> <br>
+ * The file begins with a header, followed by two open addressing hash tables of fixed width records,
+ * one keyed by name and the other by uuid. Since the tables live in the file, mappings are available
+ * as soon as the file is mapped, without reading it in full. Each record holds the uuid as 16 bytes,
+ * per {@link UUIDUtil#toByteArray(UUID, byte[], int)}, the time it was written, and the name, length prefixed
+ * and encoded in UTF-8. Names longer than {@value #MAX_NAME_BYTES} bytes when encoded are not persisted. <br>
+ * <br>
+ * <b>Writes and compaction</b> <br>
+ * A mapping is written by updating its records in place. The uuid table is authoritative: a name
+ * record whose uuid now maps to a different name is stale, and is removed when read. Removed records
+ * remain as tombstones until {@link #compactIfNeeded()} rebuilds the tables, at which point stale,
+ * expired, and if necessary the oldest mappings are dropped. If compaction is interrupted, the file
+ * is discarded when next opened. <br>
+ * <br>
+ * All methods are synchronized. Each operation is a handful of reads from the mapped file.
+ * 
+ */
+final class PersistentCache {
+
+	private static final int MAGIC = 0x55564331; // "UVC1"
+	private static final int VERSION = 1;
+
+	private static final int HEADER_SIZE = 64;
+	private static final int HEADER_MAGIC = 0;
+	private static final int HEADER_VERSION = 4;
+	private static final int HEADER_CAPACITY = 8;
+	private static final int HEADER_FLAGS = 12;
+	private static final int HEADER_NAMES_USED = 16;
+	private static final int HEADER_UUIDS_USED = 20;
+
+	private static final int FLAG_COMPACTING = 1;
+
+	static final int MAX_NAME_BYTES = 16;
+	private static final int RECORD_SIZE = 48;
+	private static final int RECORD_STATUS = 0;
+	private static final int RECORD_NAME_LENGTH = 1;
+	private static final int RECORD_HASH = 4;
+	private static final int RECORD_UUID = 8;
+	private static final int RECORD_WRITTEN_AT = 24;
+	private static final int RECORD_NAME = 32;
+
+	private static final byte STATUS_EMPTY = 0;
+	private static final byte STATUS_LIVE = 1;
+	private static final byte STATUS_TOMBSTONE = 2;
+
+	private static final int MAX_CAPACITY = (Integer.MAX_VALUE - HEADER_SIZE) / (2 * RECORD_SIZE);
+
+	private final FileChannel channel;
+	private final MappedByteBuffer buffer;
+	private final int capacity;
+	private final long maxAgeMillis;
+	private final int namesOffset;
+	private final int uuidsOffset;
+	private final byte[] record = new byte[RECORD_SIZE];
+
+	private PersistentCache(FileChannel channel, MappedByteBuffer buffer, int capacity, long maxAgeMillis) {
+		this.channel = channel;
+		this.buffer = buffer;
+		this.capacity = capacity;
+		this.maxAgeMillis = maxAgeMillis;
+		namesOffset = HEADER_SIZE;
+		uuidsOffset = HEADER_SIZE + capacity * RECORD_SIZE;
+	}
+
+	/**
+	 * Opens the cache file, creating it if it does not exist. If the file exists but is
+	 * incompatible, such as having a different capacity, it is discarded.
+	 * 
+	 * @param file the cache file
+	 * @param capacity the amount of records in each table
+	 * @param maxAgeMillis how long a mapping remains valid
+	 * @return the opened cache
+	 * @throws IOException if the file could not be opened or mapped
+	 */
+	static PersistentCache open(Path file, int capacity, long maxAgeMillis) throws IOException {
+		if (capacity <= 0 || capacity > MAX_CAPACITY) {
+			throw new IllegalArgumentException("Capacity must be between 1 and " + MAX_CAPACITY);
+		}
+		Path parent = file.toAbsolutePath().getParent();
+		if (parent != null) {
+			Files.createDirectories(parent);
+		}
+		FileChannel channel = FileChannel.open(file,
+				StandardOpenOption.CREATE, StandardOpenOption.READ, StandardOpenOption.WRITE);
+		try {
+			int size = HEADER_SIZE + 2 * capacity * RECORD_SIZE;
+			boolean compatible = channel.size() == size && isCompatible(channel, capacity);
+			if (!compatible) {
+				channel.truncate(0L);
+			}
+			MappedByteBuffer buffer = channel.map(FileChannel.MapMode.READ_WRITE, 0L, size);
+			PersistentCache cache = new PersistentCache(channel, buffer, capacity, maxAgeMillis);
+			if (!compatible) {
+				cache.writeHeader();
+			}
+			return cache;
+		} catch (IOException | RuntimeException ex) {
+			channel.close();
+			throw ex;
+		}
+	}
+
+	private static boolean isCompatible(FileChannel channel, int capacity) throws IOException {
+		ByteBuffer header = ByteBuffer.allocate(HEADER_SIZE);
+		while (header.hasRemaining()) {
+			if (channel.read(header, header.position()) < 0) {
+				return false;
+			}
+		}
+		return header.getInt(HEADER_MAGIC) == MAGIC && header.getInt(HEADER_VERSION) == VERSION
+				&& header.getInt(HEADER_CAPACITY) == capacity
+				&& (header.getInt(HEADER_FLAGS) & FLAG_COMPACTING) == 0;
+	}
+
+	private void writeHeader() {
+		buffer.putInt(HEADER_MAGIC, MAGIC);
+		buffer.putInt(HEADER_VERSION, VERSION);
+		buffer.putInt(HEADER_CAPACITY, capacity);
+		buffer.putInt(HEADER_FLAGS, 0);
+		buffer.putInt(HEADER_NAMES_USED, 0);
+		buffer.putInt(HEADER_UUIDS_USED, 0);
+	}
+
+	/*
+	 * 
+	 * Lookups
+	 * 
+	 */
+
+	synchronized UUID getUUID(CanonicalName name) {
+		int slot = findName(name);
+		if (slot == -1) {
+			return null;
+		}
+		UUID uuid = UUIDUtil.fromByteBuffer(buffer, slot + RECORD_UUID);
+		// The uuid table is authoritative, in case the player has since changed name
+		int uuidSlot = findUUID(uuid);
+		if (uuidSlot != -1 && !name.equals(CanonicalName.of(readName(uuidSlot)))) {
+			remove(slot);
+			return null;
+		}
+		return uuid;
+	}
+
+	synchronized String getName(UUID uuid) {
+		int slot = findUUID(uuid);
+		return (slot == -1) ? null : readName(slot);
+	}
+
+	/**
+	 * Finds the live record of a name, removing it if expired
+	 * 
+	 * @param name the name
+	 * @return the record offset, or -1 if not found
+	 */
+	private int findName(CanonicalName name) {
+		int hash = name.hashCode();
+		int start = indexFor(hash);
+		for (int probe = 0; probe < capacity; probe++) {
+			int slot = namesOffset + ((start + probe) % capacity) * RECORD_SIZE;
+			byte status = buffer.get(slot + RECORD_STATUS);
+			if (status == STATUS_EMPTY) {
+				return -1;
+			}
+			if (status == STATUS_LIVE && buffer.getInt(slot + RECORD_HASH) == hash
+					&& name.equals(CanonicalName.of(readName(slot)))) {
+				return checkExpiry(slot);
+			}
+		}
+		return -1;
+	}
+
+	/**
+	 * Finds the live record of a uuid, removing it if expired
+	 * 
+	 * @param uuid the uuid
+	 * @return the record offset, or -1 if not found
+	 */
+	private int findUUID(UUID uuid) {
+		long msb = uuid.getMostSignificantBits();
+		long lsb = uuid.getLeastSignificantBits();
+		int start = indexFor(uuid.hashCode());
+		for (int probe = 0; probe < capacity; probe++) {
+			int slot = uuidsOffset + ((start + probe) % capacity) * RECORD_SIZE;
+			byte status = buffer.get(slot + RECORD_STATUS);
+			if (status == STATUS_EMPTY) {
+				return -1;
+			}
+			if (status == STATUS_LIVE && buffer.getLong(slot + RECORD_UUID) == msb
+					&& buffer.getLong(slot + RECORD_UUID + 8) == lsb) {
+				return checkExpiry(slot);
+			}
+		}
+		return -1;
+	}
+
+	private int checkExpiry(int slot) {
+		if (System.currentTimeMillis() - buffer.getLong(slot + RECORD_WRITTEN_AT) > maxAgeMillis) {
+			remove(slot);
+			return -1;
+		}
+		return slot;
+	}
+
+	private void remove(int slot) {
+		// Tombstones remain used until compaction, since probe sequences pass through them
+		buffer.put(slot + RECORD_STATUS, STATUS_TOMBSTONE);
+	}
+
+	private String readName(int slot) {
+		int length = buffer.get(slot + RECORD_NAME_LENGTH);
+		byte[] nameBytes = new byte[length];
+		for (int n = 0; n < length; n++) {
+			nameBytes[n] = buffer.get(slot + RECORD_NAME + n);
+		}
+		return new String(nameBytes, StandardCharsets.UTF_8);
+	}
+
+	private int indexFor(int hash) {
+		hash ^= (hash >>> 16);
+		return (hash & 0x7FFFFFFF) % capacity;
+	}
+
+	/*
+	 * 
+	 * Writes
+	 * 
+	 */
+
+	/**
+	 * Persists a mapping found by name. Only the name table is updated, since the
+	 * spelling of the name may differ from the player's actual name.
+	 * 
+	 * @param name the name
+	 * @param uuid the uuid
+	 */
+	synchronized void putUUID(CanonicalName name, UUID uuid) {
+		byte[] nameBytes = encode(name.getName());
+		if (nameBytes != null) {
+			putName(name.hashCode(), nameBytes, uuid);
+		}
+	}
+
+	/**
+	 * Persists a mapping found by uuid. The name is the player's actual name,
+	 * so both tables are updated.
+	 * 
+	 * @param uuid the uuid
+	 * @param name the name
+	 */
+	synchronized void putName(UUID uuid, String name) {
+		CanonicalName canonicalName = CanonicalName.of(name);
+		byte[] nameBytes = (canonicalName == null) ? null : encode(name);
+		if (nameBytes == null) {
+			return;
+		}
+		putName(canonicalName.hashCode(), nameBytes, uuid);
+		long msb = uuid.getMostSignificantBits();
+		long lsb = uuid.getLeastSignificantBits();
+		int start = indexFor(uuid.hashCode());
+		int target = -1;
+		for (int probe = 0; probe < capacity; probe++) {
+			int slot = uuidsOffset + ((start + probe) % capacity) * RECORD_SIZE;
+			byte status = buffer.get(slot + RECORD_STATUS);
+			if (status == STATUS_LIVE && buffer.getLong(slot + RECORD_UUID) == msb
+					&& buffer.getLong(slot + RECORD_UUID + 8) == lsb) {
+				target = slot;
+				break;
+			}
+			if (status == STATUS_TOMBSTONE && target == -1) {
+				target = slot;
+			}
+			if (status == STATUS_EMPTY) {
+				if (target == -1) {
+					target = claim(slot, HEADER_UUIDS_USED);
+				}
+				break;
+			}
+		}
+		if (target != -1) {
+			writeRecord(target, uuid.hashCode(), nameBytes, uuid);
+		}
+	}
+
+	private void putName(int hash, byte[] nameBytes, UUID uuid) {
+		String name = new String(nameBytes, StandardCharsets.UTF_8);
+		int start = indexFor(hash);
+		int target = -1;
+		for (int probe = 0; probe < capacity; probe++) {
+			int slot = namesOffset + ((start + probe) % capacity) * RECORD_SIZE;
+			byte status = buffer.get(slot + RECORD_STATUS);
+			if (status == STATUS_LIVE && buffer.getInt(slot + RECORD_HASH) == hash
+					&& readName(slot).equalsIgnoreCase(name)) {
+				target = slot;
+				break;
+			}
+			if (status == STATUS_TOMBSTONE && target == -1) {
+				target = slot;
+			}
+			if (status == STATUS_EMPTY) {
+				if (target == -1) {
+					target = claim(slot, HEADER_NAMES_USED);
+				}
+				break;
+			}
+		}
+		if (target != -1) {
+			writeRecord(target, hash, nameBytes, uuid);
+		}
+	}
+
+	/**
+	 * Claims an empty slot, unless the table is too full, in which case the mapping
+	 * is not persisted until the next compaction
+	 * 
+	 * @param slot the empty slot
+	 * @param usedCounter the header offset of the table's used count
+	 * @return the slot, or -1 if the table is too full
+	 */
+	private int claim(int slot, int usedCounter) {
+		int used = buffer.getInt(usedCounter);
+		if (used >= maxUsed()) {
+			return -1;
+		}
+		buffer.putInt(usedCounter, used + 1);
+		return slot;
+	}
+
+	private int maxUsed() {
+		// Keep probe sequences short
+		return capacity - capacity / 4;
+	}
+
+	private void writeRecord(int slot, int hash, byte[] nameBytes, UUID uuid) {
+		byte[] record = this.record;
+		Arrays.fill(record, (byte) 0);
+		// Status is written last, so that a record is never live with partial contents
+		record[RECORD_NAME_LENGTH] = (byte) nameBytes.length;
+		ByteBuffer.wrap(record).putInt(RECORD_HASH, hash).putLong(RECORD_WRITTEN_AT, System.currentTimeMillis());
+		UUIDUtil.toByteArray(uuid, record, RECORD_UUID);
+		System.arraycopy(nameBytes, 0, record, RECORD_NAME, nameBytes.length);
+		buffer.put(slot + RECORD_STATUS, STATUS_TOMBSTONE);
+		((Buffer) buffer).position(slot + 1);
+		buffer.put(record, 1, RECORD_SIZE - 1);
+		buffer.put(slot + RECORD_STATUS, STATUS_LIVE);
+	}
+
+	private static byte[] encode(String name) {
+		byte[] nameBytes = name.getBytes(StandardCharsets.UTF_8);
+		return (nameBytes.length > MAX_NAME_BYTES) ? null : nameBytes;
+	}
+
+	/*
+	 * 
+	 * Compaction
+	 * 
+	 */
+
+	/**
+	 * Rebuilds the tables if tombstones and stale records occupy too much of either.
+	 * Stale and expired mappings are dropped. If there are still too many mappings,
+	 * the oldest are dropped, such that each table is at most half full.
+	 * 
+	 * @return true if compacted
+	 */
+	synchronized boolean compactIfNeeded() {
+		int threshold = capacity / 2;
+		if (buffer.getInt(HEADER_NAMES_USED) <= threshold && buffer.getInt(HEADER_UUIDS_USED) <= threshold) {
+			return false;
+		}
+		long now = System.currentTimeMillis();
+		List<byte[]> uuidRecords = liveRecords(uuidsOffset, now);
+		List<byte[]> nameRecords = liveRecords(namesOffset, now);
+		// Newest first, so that the oldest are dropped if there are too many
+		Comparator<byte[]> newestFirst = Comparator.comparingLong(
+				(byte[] record) -> ByteBuffer.wrap(record).getLong(RECORD_WRITTEN_AT)).reversed();
+		uuidRecords.sort(newestFirst);
+		nameRecords.sort(newestFirst);
+
+		buffer.putInt(HEADER_FLAGS, FLAG_COMPACTING);
+		buffer.force();
+		for (int n = HEADER_SIZE; n < uuidsOffset + capacity * RECORD_SIZE; n += RECORD_SIZE) {
+			buffer.put(n + RECORD_STATUS, STATUS_EMPTY);
+		}
+		buffer.putInt(HEADER_NAMES_USED, 0);
+		buffer.putInt(HEADER_UUIDS_USED, 0);
+		int uuidCount = 0;
+		for (byte[] record : uuidRecords) {
+			if (uuidCount++ == threshold) {
+				break;
+			}
+			reinsert(record, uuidsOffset, HEADER_UUIDS_USED);
+		}
+		int nameCount = 0;
+		for (byte[] record : nameRecords) {
+			if (nameCount == threshold) {
+				break;
+			}
+			UUID uuid = UUIDUtil.fromByteArray(record, RECORD_UUID);
+			int uuidSlot = findUUID(uuid);
+			if (uuidSlot != -1 && !readName(uuidSlot).equalsIgnoreCase(nameOf(record))) {
+				// Stale
+				continue;
+			}
+			reinsert(record, namesOffset, HEADER_NAMES_USED);
+			nameCount++;
+		}
+		buffer.putInt(HEADER_FLAGS, 0);
+		buffer.force();
+		return true;
+	}
+
+	private List<byte[]> liveRecords(int tableOffset, long now) {
+		List<byte[]> records = new ArrayList<>();
+		for (int n = 0; n < capacity; n++) {
+			int slot = tableOffset + n * RECORD_SIZE;
+			if (buffer.get(slot + RECORD_STATUS) == STATUS_LIVE
+					&& now - buffer.getLong(slot + RECORD_WRITTEN_AT) <= maxAgeMillis) {
+				byte[] record = new byte[RECORD_SIZE];
+				((Buffer) buffer).position(slot);
+				buffer.get(record);
+				records.add(record);
+			}
+		}
+		return records;
+	}
+
+	private void reinsert(byte[] record, int tableOffset, int usedCounter) {
+		int hash = ByteBuffer.wrap(record).getInt(RECORD_HASH);
+		int start = indexFor(hash);
+		for (int probe = 0; probe < capacity; probe++) {
+			int slot = tableOffset + ((start + probe) % capacity) * RECORD_SIZE;
+			if (buffer.get(slot + RECORD_STATUS) == STATUS_EMPTY) {
+				((Buffer) buffer).position(slot);
+				buffer.put(record);
+				buffer.putInt(usedCounter, buffer.getInt(usedCounter) + 1);
+				return;
+			}
+		}
+	}
+
+	private static String nameOf(byte[] record) {
+		return new String(record, RECORD_NAME, record[RECORD_NAME_LENGTH], StandardCharsets.UTF_8);
+	}
+
+	/**
+	 * Flushes and closes the file. The cache must not be used afterward.
+	 * 
+	 * @throws IOException if closing failed
+	 */
+	synchronized void close() throws IOException {
+		buffer.force();
+		channel.close();
+	}
+
+}
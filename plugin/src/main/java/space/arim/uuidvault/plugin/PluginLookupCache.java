@@ -0,0 +1,73 @@
+/* 
+ * UUIDVault-plugin
+ * Copyright © 2020 Anand Beh <https://www.arim.space>
+ * 
+ * UUIDVault-plugin is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Lesser General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ * 
+ * UUIDVault-plugin is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the
+ * GNU Lesser General Public License for more details.
+ * 
+ * You should have received a copy of the GNU Lesser General Public License
+ * along with UUIDVault-plugin. If not, see <https://www.gnu.org/licenses/>
+ * and navigate to version 3 of the GNU Lesser General Public License.
+ */
+package space.arim.uuidvault.plugin;
+
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.function.Function;
+
+/**
+ * Caches the platform plugin for each plugin class, so that the plugin list is not
+ * scanned on every registration and every logged resolver failure. <br>
+ * <br>
+ * Only plugins which were found are cached, since a plugin not yet loaded may be loaded later.
+ * Platforms which may unload plugins must {@link #invalidate(Class)} them when they do.
+ * 
+ * @param <P> the platform plugin type
+ */
+final class PluginLookupCache<P> {
+
+	private final Function<Class<?>, P> scanner;
+	private final ConcurrentHashMap<Class<?>, P> plugins = new ConcurrentHashMap<>();
+
+	/**
+	 * Creates from a function which scans the plugin list
+	 * 
+	 * @param scanner finds the plugin for a plugin class, or null if there is none
+	 */
+	PluginLookupCache(Function<Class<?>, P> scanner) {
+		this.scanner = scanner;
+	}
+
+	/**
+	 * Gets the plugin for a plugin class
+	 * 
+	 * @param pluginClass the plugin class
+	 * @return the plugin, or null if there is none
+	 */
+	P get(Class<?> pluginClass) {
+		P plugin = plugins.get(pluginClass);
+		if (plugin == null) {
+			plugin = scanner.apply(pluginClass);
+			if (plugin != null) {
+				plugins.put(pluginClass, plugin);
+			}
+		}
+		return plugin;
+	}
+
+	/**
+	 * Forgets the plugin for a plugin class, such as when the plugin is disabled
+	 * 
+	 * @param pluginClass the plugin class
+	 */
+	void invalidate(Class<?> pluginClass) {
+		plugins.remove(pluginClass);
+	}
+
+}
@@ -0,0 +1,91 @@
+/* 
+ * UUIDVault-plugin
+ * Copyright © 2020 Anand Beh <https://www.arim.space>
+ * 
+ * UUIDVault-plugin is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Lesser General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ * 
+ * UUIDVault-plugin is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the
+ * GNU Lesser General Public License for more details.
+ * 
+ * You should have received a copy of the GNU Lesser General Public License
+ * along with UUIDVault-plugin. If not, see <https://www.gnu.org/licenses/>
+ * and navigate to version 3 of the GNU Lesser General Public License.
+ */
+package space.arim.uuidvault.plugin;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.Locale;
+import java.util.TreeMap;
+
+/**
+ * The names found by a prefix search, keeping only the alphabetically first up to the limit.
+ * Names are distinct ignoring case, the first spelling offered being kept. Not thread safe.
+ * 
+ */
+final class PrefixMatches {
+
+	private final String prefix;
+	private final String foldedPrefix;
+	private final int limit;
+	private final TreeMap<String, String> matches = new TreeMap<>();
+	
+	PrefixMatches(String prefix, int limit) {
+		this.prefix = prefix;
+		foldedPrefix = prefix.toLowerCase(Locale.ROOT);
+		this.limit = limit;
+	}
+	
+	String prefix() {
+		return prefix;
+	}
+	
+	String foldedPrefix() {
+		return foldedPrefix;
+	}
+	
+	int limit() {
+		return limit;
+	}
+	
+	/**
+	 * Offers a name, which is ignored if it does not match the prefix
+	 * 
+	 * @param name the name
+	 */
+	void offer(String name) {
+		if (name != null) {
+			offer(name.toLowerCase(Locale.ROOT), name);
+		}
+	}
+	
+	/**
+	 * Offers a name already folded
+	 * 
+	 * @param folded the folded name
+	 * @param name the name
+	 */
+	void offer(String folded, String name) {
+		if (!folded.startsWith(foldedPrefix) || matches.containsKey(folded)) {
+			return;
+		}
+		if (matches.size() == limit) {
+			if (folded.compareTo(matches.lastKey()) > 0) {
+				return;
+			}
+			matches.pollLastEntry();
+		}
+		matches.put(folded, name);
+	}
+	
+	List<String> toList() {
+		return Collections.unmodifiableList(new ArrayList<>(matches.values()));
+	}
+	
+}
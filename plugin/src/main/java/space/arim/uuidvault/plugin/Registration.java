@@ -25,14 +25,25 @@ class Registration implements UUIDVaultRegistration, Comparable<Registration> {
 
 	final Class<?> pluginClass;
 	final UUIDResolver resolver;
-	private final byte priority;
+	final byte priority;
 	final String name;
+	/**
+	 * Timeout of asynchronous resolution, zero for none
+	 */
+	final long timeoutMillis;
+	final RegistrationStatistics statistics = new RegistrationStatistics();
+	final ErrorReporter errors;
+	final CircuitBreaker breaker;
 	
-	Registration(Class<?> pluginClass, UUIDResolver resolver, byte priority, String name) {
+	Registration(Class<?> pluginClass, UUIDResolver resolver, byte priority, String name, long timeoutMillis,
+			ErrorReporter errors, CircuitBreaker breaker) {
 		this.pluginClass = pluginClass;
 		this.resolver = resolver;
 		this.priority = priority;
 		this.name = name;
+		this.timeoutMillis = timeoutMillis;
+		this.errors = errors;
+		this.breaker = breaker;
 	}
 
 	@Override
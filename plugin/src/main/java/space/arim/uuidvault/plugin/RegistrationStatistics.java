@@ -0,0 +1,216 @@
+/* 
+ * UUIDVault-plugin
+ * Copyright © 2020 Anand Beh <https://www.arim.space>
+ * 
+ * UUIDVault-plugin is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Lesser General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ * 
+ * UUIDVault-plugin is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the
+ * GNU Lesser General Public License for more details.
+ * 
+ * You should have received a copy of the GNU Lesser General Public License
+ * along with UUIDVault-plugin. If not, see <https://www.gnu.org/licenses/>
+ * and navigate to version 3 of the GNU Lesser General Public License.
+ */
+package space.arim.uuidvault.plugin;
+
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.LongAdder;
+
+import space.arim.uuidvault.api.CircuitState;
+import space.arim.uuidvault.api.ResolverStatistics;
+
+/**
+ * Live counters of a single registration. Recording is lock free, so it may be done
+ * on every call to a resolver.
+ * 
+ */
+final class RegistrationStatistics {
+
+	private final LongAdder immediateHits = new LongAdder();
+	private final LongAdder immediateMisses = new LongAdder();
+	private final LongAdder hits = new LongAdder();
+	private final LongAdder misses = new LongAdder();
+	private final LongAdder exceptions = new LongAdder();
+	private final LongAdder timeouts = new LongAdder();
+	private final LongAdder suppressedErrors = new LongAdder();
+	private final LatencyHistogram latency = new LatencyHistogram();
+	private final LongAdder totalLatencyNanos = new LongAdder();
+
+	/**
+	 * Minimum cost attributed to a lookup, so that resolvers answering only immediately,
+	 * or extremely quickly, are not considered free
+	 */
+	private static final long MINIMUM_COST_NANOS = 1_000L;
+	// Only accessed by the adaptive ordering task
+	private long sampledCalls;
+	private long sampledFound;
+	private long sampledAsyncCalls;
+	private long sampledLatencyNanos;
+	/**
+	 * Hit rate divided by mean cost, as of the last sample. Unmeasured registrations
+	 * are infinitely attractive, so that they are queried and thereby measured.
+	 */
+	private volatile double adaptiveScore = Double.POSITIVE_INFINITY;
+
+	void recordImmediate(boolean found) {
+		((found) ? immediateHits : immediateMisses).increment();
+	}
+
+	void recordFound(long latencyNanos) {
+		hits.increment();
+		recordLatency(latencyNanos);
+	}
+
+	void recordMissing(long latencyNanos) {
+		misses.increment();
+		recordLatency(latencyNanos);
+	}
+
+	void recordException(long latencyNanos) {
+		exceptions.increment();
+		recordLatency(latencyNanos);
+	}
+
+	private void recordLatency(long latencyNanos) {
+		latency.record(latencyNanos);
+		totalLatencyNanos.add(latencyNanos);
+	}
+
+	void recordTimeout() {
+		// Latency of a timeout says nothing about the resolver, only about the configuration
+		timeouts.increment();
+	}
+
+	void recordSuppressedError() {
+		suppressedErrors.increment();
+	}
+
+	/**
+	 * Recomputes the adaptive score from the calls made since the previous sample.
+	 * If there were no such calls, the previous score is kept. <br>
+	 * <br>
+	 * The expected cost of a sequential lookup is minimised by querying resolvers in
+	 * descending order of hit rate divided by mean cost, which is the score computed here.
+	 * Must only be called by one thread at a time.
+	 * 
+	 */
+	void sampleAdaptiveScore() {
+		long immediateHits = this.immediateHits.sum();
+		long hits = this.hits.sum();
+		long asyncCalls = hits + misses.sum() + exceptions.sum();
+		long calls = immediateHits + immediateMisses.sum() + asyncCalls + timeouts.sum();
+		long found = immediateHits + hits;
+		long latencyNanos = totalLatencyNanos.sum();
+
+		long deltaCalls = calls - sampledCalls;
+		if (deltaCalls > 0L) {
+			long deltaAsyncCalls = asyncCalls - sampledAsyncCalls;
+			long meanCost = (deltaAsyncCalls == 0L) ? 0L : (latencyNanos - sampledLatencyNanos) / deltaAsyncCalls;
+			double hitRate = (found - sampledFound) / (double) deltaCalls;
+			adaptiveScore = hitRate / Math.max(meanCost, MINIMUM_COST_NANOS);
+		}
+		sampledCalls = calls;
+		sampledFound = found;
+		sampledAsyncCalls = asyncCalls;
+		sampledLatencyNanos = latencyNanos;
+	}
+
+	double adaptiveScore() {
+		return adaptiveScore;
+	}
+
+	ResolverStatistics snapshot(CircuitState circuitState) {
+		return new Snapshot(immediateHits.sum(), immediateMisses.sum(), hits.sum(), misses.sum(),
+				exceptions.sum(), timeouts.sum(), suppressedErrors.sum(), circuitState, latency.snapshot());
+	}
+
+	private static final class Snapshot implements ResolverStatistics {
+
+		private final long immediateHits;
+		private final long immediateMisses;
+		private final long hits;
+		private final long misses;
+		private final long exceptions;
+		private final long timeouts;
+		private final long suppressedErrors;
+		private final CircuitState circuitState;
+		private final long[] latencyCounts;
+
+		Snapshot(long immediateHits, long immediateMisses, long hits, long misses, long exceptions,
+				long timeouts, long suppressedErrors, CircuitState circuitState, long[] latencyCounts) {
+			this.immediateHits = immediateHits;
+			this.immediateMisses = immediateMisses;
+			this.hits = hits;
+			this.misses = misses;
+			this.exceptions = exceptions;
+			this.timeouts = timeouts;
+			this.suppressedErrors = suppressedErrors;
+			this.circuitState = circuitState;
+			this.latencyCounts = latencyCounts;
+		}
+
+		@Override
+		public long getImmediateHits() {
+			return immediateHits;
+		}
+
+		@Override
+		public long getImmediateMisses() {
+			return immediateMisses;
+		}
+
+		@Override
+		public long getHits() {
+			return hits;
+		}
+
+		@Override
+		public long getMisses() {
+			return misses;
+		}
+
+		@Override
+		public long getExceptions() {
+			return exceptions;
+		}
+
+		@Override
+		public long getTimeouts() {
+			return timeouts;
+		}
+
+		@Override
+		public long getSuppressedErrors() {
+			return suppressedErrors;
+		}
+
+		@Override
+		public CircuitState getCircuitState() {
+			return circuitState;
+		}
+
+		@Override
+		public long getLatency(double percentile, TimeUnit unit) {
+			if (!(percentile >= 0D && percentile <= 100D)) {
+				throw new IllegalArgumentException("Percentile must be between 0 and 100");
+			}
+			return unit.convert(LatencyHistogram.percentile(latencyCounts, percentile), TimeUnit.NANOSECONDS);
+		}
+
+		@Override
+		public String toString() {
+			return "ResolverStatistics [immediateHits=" + immediateHits + ", immediateMisses=" + immediateMisses
+					+ ", hits=" + hits + ", misses=" + misses + ", exceptions=" + exceptions + ", timeouts=" + timeouts
+					+ ", suppressedErrors=" + suppressedErrors + ", circuitState=" + circuitState
+					+ ", p50Millis=" + getLatency(50D, TimeUnit.MILLISECONDS)
+					+ ", p99Millis=" + getLatency(99D, TimeUnit.MILLISECONDS) + "]";
+		}
+
+	}
+
+}
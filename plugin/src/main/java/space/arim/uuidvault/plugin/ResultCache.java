@@ -0,0 +1,69 @@
+/* 
+ * UUIDVault-plugin
+ * Copyright © 2020 Anand Beh <https://www.arim.space>
+ * 
+ * UUIDVault-plugin is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Lesser General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ * 
+ * UUIDVault-plugin is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the
+ * GNU Lesser General Public License for more details.
+ * 
+ * You should have received a copy of the GNU Lesser General Public License
+ * along with UUIDVault-plugin. If not, see <https://www.gnu.org/licenses/>
+ * and navigate to version 3 of the GNU Lesser General Public License.
+ */
+package space.arim.uuidvault.plugin;
+
+import java.util.UUID;
+
+import space.arim.uuidvault.api.CanonicalName;
+
+/**
+ * Bounded, concurrent cache of results found by registered resolvers
+ * 
+ */
+interface ResultCache {
+
+	/**
+	 * Gets a cached uuid
+	 * 
+	 * @param name the name
+	 * @return the uuid, or null if not cached
+	 */
+	UUID getUUID(CanonicalName name);
+	
+	/**
+	 * Gets a cached name
+	 * 
+	 * @param uuid the uuid
+	 * @return the name, or null if not cached
+	 */
+	String getName(UUID uuid);
+	
+	/**
+	 * Caches the uuid found for a name
+	 * 
+	 * @param name the name as looked up
+	 * @param uuid the uuid
+	 */
+	void putUUID(CanonicalName name, UUID uuid);
+	
+	/**
+	 * Caches the name found for a uuid
+	 * 
+	 * @param uuid the uuid
+	 * @param name the name, correctly spelled
+	 */
+	void putName(UUID uuid, String name);
+	
+	/**
+	 * Removes all cached results
+	 * 
+	 */
+	void clear();
+	
+}
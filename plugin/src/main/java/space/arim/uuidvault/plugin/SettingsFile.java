@@ -0,0 +1,191 @@
+/* 
+ * UUIDVault-plugin
+ * Copyright © 2020 Anand Beh <https://www.arim.space>
+ * 
+ * UUIDVault-plugin is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Lesser General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ * 
+ * UUIDVault-plugin is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the
+ * GNU Lesser General Public License for more details.
+ * 
+ * You should have received a copy of the GNU Lesser General Public License
+ * along with UUIDVault-plugin. If not, see <https://www.gnu.org/licenses/>
+ * and navigate to version 3 of the GNU Lesser General Public License.
+ */
+package space.arim.uuidvault.plugin;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.Reader;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Locale;
+import java.util.Properties;
+import java.util.concurrent.TimeUnit;
+import java.util.function.BiConsumer;
+
+/**
+ * Loads {@link VaultSettings} from the {@code config.properties} file in a plugin's data folder.
+ * If the file does not exist, the bundled default is copied to the data folder first.
+ * 
+ */
+final class SettingsFile {
+
+	private static final String FILE_NAME = "config.properties";
+	private static final String RESOLVER_TIMEOUT_PREFIX = "timeout.resolver.";
+	private static final String PERSISTENT_CACHE_FILE_NAME = "cache.dat";
+
+	private final Path dataFolder;
+	private final Properties properties;
+
+	private SettingsFile(Path dataFolder, Properties properties) {
+		this.dataFolder = dataFolder;
+		this.properties = properties;
+	}
+
+	/**
+	 * Loads settings from the data folder
+	 * 
+	 * @param dataFolder the plugin data folder
+	 * @return the loaded settings
+	 * @throws IOException if the configuration could not be read or written
+	 * @throws IllegalArgumentException if the configuration contains invalid values
+	 */
+	static VaultSettings load(Path dataFolder) throws IOException {
+		Path file = dataFolder.resolve(FILE_NAME);
+		if (!Files.exists(file)) {
+			Files.createDirectories(dataFolder);
+			try (InputStream defaultConfig = SettingsFile.class.getResourceAsStream("/" + FILE_NAME)) {
+				Files.copy(defaultConfig, file);
+			}
+		}
+		Properties properties = new Properties();
+		try (Reader reader = Files.newBufferedReader(file, StandardCharsets.UTF_8)) {
+			properties.load(reader);
+		}
+		return new SettingsFile(dataFolder, properties).toSettings();
+	}
+
+	/**
+	 * Loads settings from the data folder, falling back to the defaults if the configuration
+	 * could not be loaded
+	 * 
+	 * @param dataFolder the plugin data folder
+	 * @param warningLogger used to report failure to load the configuration
+	 * @return the loaded settings, or the defaults on failure
+	 */
+	static VaultSettings loadOrDefaults(Path dataFolder, BiConsumer<String, Throwable> warningLogger) {
+		try {
+			return load(dataFolder);
+		} catch (IOException | IllegalArgumentException ex) {
+			warningLogger.accept("Unable to load " + FILE_NAME + ", using default settings", ex);
+			return VaultSettings.defaults();
+		}
+	}
+
+	private VaultSettings toSettings() {
+		VaultSettings.Builder builder = VaultSettings.builder();
+		builder.cacheSize(getInt("cache.size", 0));
+		builder.cacheTtl(getLong("cache.ttl-seconds", 300L), TimeUnit.SECONDS);
+		builder.packedCache(getBoolean("cache.packed", false));
+		builder.negativeCacheSize(getInt("negative-cache.size", 0));
+		builder.negativeCacheTtl(getLong("negative-cache.ttl-seconds", 30L), TimeUnit.SECONDS);
+		builder.persistentCache(dataFolder.resolve(PERSISTENT_CACHE_FILE_NAME), getInt("persistent-cache.size", 0));
+		builder.persistentCacheMaxAge(getLong("persistent-cache.max-age-days", 30L), TimeUnit.DAYS);
+		builder.parallelResolution(getBoolean("resolution.parallel", false));
+		builder.dispatch(getEnum("resolution.dispatch", VaultSettings.DispatchMode.CALLER), getInt("resolution.dispatch-threads", 4));
+		builder.adaptiveOrdering(getLong("resolution.adaptive-ordering-seconds", 0L), TimeUnit.SECONDS);
+		builder.resolverTimeout(getLong("timeout.resolver-millis", 0L), TimeUnit.MILLISECONDS);
+		for (String key : properties.stringPropertyNames()) {
+			if (key.startsWith(RESOLVER_TIMEOUT_PREFIX)) {
+				String registrationName = key.substring(RESOLVER_TIMEOUT_PREFIX.length());
+				builder.resolverTimeout(registrationName, getLong(key, 0L), TimeUnit.MILLISECONDS);
+			}
+		}
+		builder.deadline(getLong("timeout.deadline-millis", 0L), TimeUnit.MILLISECONDS);
+		builder.strictNameValidation(getBoolean("names.strict-validation", false));
+		builder.nameIndexSize(getInt("names.index-size", 0));
+		builder.onlinePlayerIndex(getBoolean("native.online-player-index", false));
+		builder.nativeStage(getEnum("native.stage", VaultSettings.NativeStage.NONE));
+		builder.errorLogBurst(getInt("error-log.burst", 1));
+		builder.circuitBreaker(getDouble("circuit-breaker.failure-rate", 0D), getInt("circuit-breaker.minimum-calls", 20));
+		builder.circuitBreakerSlowCall(getLong("circuit-breaker.slow-call-millis", 0L), TimeUnit.MILLISECONDS);
+		builder.circuitBreakerCooldown(getLong("circuit-breaker.cooldown-seconds", 30L), TimeUnit.SECONDS);
+		builder.errorLogWindow(getLong("error-log.window-seconds", 0L), TimeUnit.SECONDS);
+		builder.mappingPropagation(getBoolean("propagation.enabled", false));
+		return builder.build();
+	}
+
+	private String get(String key) {
+		String value = properties.getProperty(key);
+		return (value == null) ? null : value.trim();
+	}
+
+	private int getInt(String key, int defaultValue) {
+		String value = get(key);
+		if (value == null) {
+			return defaultValue;
+		}
+		try {
+			return Integer.parseInt(value);
+		} catch (NumberFormatException ex) {
+			throw new IllegalArgumentException("Config option " + key + " must be an integer, not " + value, ex);
+		}
+	}
+
+	private boolean getBoolean(String key, boolean defaultValue) {
+		String value = get(key);
+		if (value == null) {
+			return defaultValue;
+		}
+		if (value.equalsIgnoreCase("true")) {
+			return true;
+		}
+		if (value.equalsIgnoreCase("false")) {
+			return false;
+		}
+		throw new IllegalArgumentException("Config option " + key + " must be true or false, not " + value);
+	}
+
+	private <E extends Enum<E>> E getEnum(String key, E defaultValue) {
+		String value = get(key);
+		if (value == null) {
+			return defaultValue;
+		}
+		try {
+			return Enum.valueOf(defaultValue.getDeclaringClass(), value.toUpperCase(Locale.ROOT));
+		} catch (IllegalArgumentException ex) {
+			throw new IllegalArgumentException("Config option " + key + " has unknown value " + value, ex);
+		}
+	}
+
+	private double getDouble(String key, double defaultValue) {
+		String value = get(key);
+		if (value == null) {
+			return defaultValue;
+		}
+		try {
+			return Double.parseDouble(value);
+		} catch (NumberFormatException ex) {
+			throw new IllegalArgumentException("Config option " + key + " must be a number, not " + value, ex);
+		}
+	}
+
+	private long getLong(String key, long defaultValue) {
+		String value = get(key);
+		if (value == null) {
+			return defaultValue;
+		}
+		try {
+			return Long.parseLong(value);
+		} catch (NumberFormatException ex) {
+			throw new IllegalArgumentException("Config option " + key + " must be an integer, not " + value, ex);
+		}
+	}
+
+}
@@ -18,22 +18,113 @@
  */
 package space.arim.uuidvault.plugin;
 
+import java.io.IOException;
+import java.util.ArrayList;
 import java.util.Arrays;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
 import java.util.Objects;
+import java.util.Set;
 import java.util.UUID;
 import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.CompletionStage;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
 import java.util.concurrent.atomic.AtomicReference;
+import java.util.concurrent.atomic.AtomicReferenceArray;
+import java.util.function.BiFunction;
+import java.util.function.Function;
+import java.util.function.Supplier;
 
+import space.arim.uuidvault.api.BatchUUIDResolver;
+import space.arim.uuidvault.api.CandidateResolver;
+import space.arim.uuidvault.api.CanonicalName;
+import space.arim.uuidvault.api.CanonicalNameResolver;
 import space.arim.uuidvault.api.CollectiveUUIDResolver;
+import space.arim.uuidvault.api.MappingListener;
+import space.arim.uuidvault.api.PrefixSearchResolver;
+import space.arim.uuidvault.api.ResolverStatistics;
+import space.arim.uuidvault.api.UUIDCandidate;
 import space.arim.uuidvault.api.UUIDResolver;
 import space.arim.uuidvault.api.UUIDVaultRegistration;
 
 abstract class SimpleImplementation extends ImplementationHelper {
 	
 	private final AtomicReference<Registration[]> registrations = new AtomicReference<>(new Registration[] {});
+	private final ResultCache cache;
+	private final NegativeCache negativeCache;
+	private final boolean parallelResolution;
+	private final VaultSettings settings;
+	private final VaultScheduler scheduler = new VaultScheduler();
+	private final DispatchExecutor dispatch;
+	private final MappingPublisher publisher;
+	/**
+	 * Amount of registrations whose resolvers are mapping listeners
+	 */
+	private final AtomicInteger mappingListeners = new AtomicInteger();
+	/**
+	 * Incremented whenever a registration is added or removed, so that lookups begun
+	 * before the change do not cache their results
+	 */
+	private final AtomicInteger registrationGeneration = new AtomicInteger();
+	/**
+	 * Set by proxy platforms if propagation to backend servers is enabled
+	 */
+	private volatile MappingPropagator propagator;
+	private final AtomicBoolean errorSummaryScheduled = new AtomicBoolean();
+	/**
+	 * Opened when constructed, so that lookups never wait on opening the file. Null if
+	 * disabled, unavailable, or closed. Written while holding the lock
+	 */
+	private volatile PersistentCache persistentCache;
+	/**
+	 * Why the persistent cache could not be opened. Logged by the first compaction check,
+	 * since subclasses cannot yet log while constructing
+	 */
+	private volatile Exception persistentCacheFailure;
+	private final Object persistentCacheLock = new Object();
 	
-	SimpleImplementation() {
-
+	private static final long PERSISTENT_CACHE_COMPACTION_CHECK_MILLIS = TimeUnit.MINUTES.toMillis(1L);
+	
+	SimpleImplementation(VaultSettings settings) {
+		super(settings);
+		this.settings = settings;
+		if (settings.cacheSize() == 0) {
+			cache = null;
+		} else if (settings.packedCache()) {
+			cache = new PackedResultCache(settings.cacheSize(), settings.cacheTtlMillis());
+		} else {
+			cache = new ExpiringResultCache(settings.cacheSize(), settings.cacheTtlMillis());
+		}
+		negativeCache = (settings.negativeCacheSize() == 0) ? null
+				: new NegativeCache(settings.negativeCacheSize(), settings.negativeCacheTtlMillis());
+		parallelResolution = settings.parallelResolution();
+		dispatch = (settings.dispatchMode() == VaultSettings.DispatchMode.CALLER) ? null
+				: new DispatchExecutor(settings.dispatchMode(), settings.dispatchThreads(), this::logWarning);
+		publisher = new MappingPublisher(scheduler, (dispatch == null) ? ForkJoinPool.commonPool() : dispatch,
+				this::logListenerFailure);
+		if (settings.persistentCacheSize() != 0) {
+			try {
+				persistentCache = PersistentCache.open(settings.persistentCacheFile(),
+						settings.persistentCacheSize(), settings.persistentCacheMaxAgeMillis());
+			} catch (IOException | RuntimeException ex) {
+				persistentCacheFailure = ex;
+			}
+			scheduler.scheduleRepeating(this::compactPersistentCache, PERSISTENT_CACHE_COMPACTION_CHECK_MILLIS);
+		}
+		if (settings.adaptiveOrderingMillis() != 0L) {
+			scheduler.scheduleRepeating(this::reorderAdaptively, settings.adaptiveOrderingMillis());
+		}
 	}
 	
 	/*
@@ -51,7 +142,11 @@ abstract class SimpleImplementation extends ImplementationHelper {
 		if (!verifyNativePluginClass(pluginClass)) {
 			throw new IllegalArgumentException("Plugin class is invalid!");
 		}
-		Registration regisToAdd = new Registration(pluginClass, resolver, defaultPriority, name);
+		Registration regisToAdd = new Registration(pluginClass, resolver, defaultPriority, name,
+				settings.resolverTimeoutMillis(name),
+				new ErrorReporter(settings.errorLogBurst(), settings.errorLogWindowMillis()),
+				new CircuitBreaker(settings.circuitBreakerFailureRate(), settings.circuitBreakerMinimumCalls(),
+						settings.circuitBreakerSlowCallMillis(), settings.circuitBreakerCooldownMillis()));
 		Registration[] existing;
 		Registration[] updated;
 		do {
@@ -62,14 +157,26 @@ abstract class SimpleImplementation extends ImplementationHelper {
 				}
 			}
 			updated = new Registration[existing.length + 1];
-			int binarySearch = Arrays.binarySearch(existing, regisToAdd);
-			int insertionIndex = - (binarySearch + 1);
+			// Not a binary search, since adaptive ordering may reorder registrations of the same priority
+			int insertionIndex = 0;
+			while (insertionIndex < existing.length && existing[insertionIndex].compareTo(regisToAdd) <= 0) {
+				insertionIndex++;
+			}
 
 			updated[insertionIndex] = regisToAdd;
 			System.arraycopy(existing, 0, updated, 0, insertionIndex++);
 			System.arraycopy(existing, insertionIndex - 1, updated, insertionIndex, updated.length - insertionIndex);
 
 		} while (!registrations.compareAndSet(existing, updated));
+		if (resolver instanceof MappingListener) {
+			mappingListeners.incrementAndGet();
+		}
+		registrationGeneration.incrementAndGet();
+		invalidateCache();
+		if (negativeCache != null) {
+			// The new resolver may know what no other did
+			negativeCache.clear();
+		}
 		return regisToAdd;
 	}
 
@@ -83,7 +190,7 @@ abstract class SimpleImplementation extends ImplementationHelper {
 		Registration[] updated;
 		do {
 			existing = registrations.get();
-			int locationIndex = Arrays.binarySearch(existing, registration);
+			int locationIndex = indexOf(existing, registration);
 			if (locationIndex < 0) {
 				// not found
 				return false;
@@ -93,21 +200,98 @@ abstract class SimpleImplementation extends ImplementationHelper {
 			System.arraycopy(existing, locationIndex, updated, locationIndex - 1, existing.length - locationIndex);
 
 		} while (!registrations.compareAndSet(existing, updated));
+		if (((Registration) registration).resolver instanceof MappingListener) {
+			mappingListeners.decrementAndGet();
+		}
+		registrationGeneration.incrementAndGet();
+		invalidateCache();
 		return true;
 	}
 	
+	private static int indexOf(Registration[] registrations, UUIDVaultRegistration registration) {
+		for (int n = 0; n < registrations.length; n++) {
+			if (registrations[n] == registration) {
+				return n;
+			}
+		}
+		return -1;
+	}
+	
+	/**
+	 * Reorders registrations of the same priority by their adaptive score, highest first.
+	 * The reordered array is published in the same way as registration changes. <br>
+	 * <br>
+	 * Caches are not invalidated, because the order of registrations with the same priority
+	 * was never meaningful.
+	 * 
+	 */
+	void reorderAdaptively() {
+		for (Registration registration : registrations.get()) {
+			registration.statistics.sampleAdaptiveScore();
+		}
+		Comparator<Registration> order = Comparator.<Registration>comparingInt((registration) -> -registration.priority)
+				.thenComparingDouble((registration) -> -registration.statistics.adaptiveScore());
+		Registration[] existing;
+		Registration[] updated;
+		do {
+			existing = registrations.get();
+			updated = existing.clone();
+			// Stable sort, so that equal scores keep their current order
+			Arrays.sort(updated, order);
+			if (Arrays.equals(existing, updated)) {
+				return;
+			}
+		} while (!registrations.compareAndSet(existing, updated));
+	}
+	
 	/*
 	 * 
 	 * Miscellaneous
 	 * 
 	 */
 	
+	/**
+	 * Clears cached results, since a change in registrations may change which result
+	 * would be found first
+	 * 
+	 */
+	private void invalidateCache() {
+		if (cache != null) {
+			cache.clear();
+		}
+	}
+	
+	/**
+	 * Stops the background thread used for timeouts, stops the dispatch executor, and closes the
+	 * persistent cache. Lookups started afterward are not subject to timeouts or the deadline,
+	 * and are continued on the calling thread.
+	 * 
+	 */
+	void shutdown() {
+		scheduler.shutdown();
+		if (dispatch != null) {
+			dispatch.shutdown();
+		}
+		closePersistentCache();
+	}
+	
+	@Override
+	public Map<UUIDVaultRegistration, ResolverStatistics> getStatistics() {
+		Map<UUIDVaultRegistration, ResolverStatistics> statistics = new LinkedHashMap<>();
+		for (Registration registration : registrations.get()) {
+			statistics.put(registration, registration.statistics.snapshot(registration.breaker.state()));
+		}
+		return Collections.unmodifiableMap(statistics);
+	}
+	
 	abstract boolean verifyNativePluginClass(Class<?> pluginClass);
 	
 	abstract String getDescriptiveName(Class<?> pluginClass);
 	
 	abstract void logException(String message, Throwable throwable);
 	
+	abstract void logWarning(String message);
+	
 	@Override
 	public CollectiveUUIDResolver createCollectiveResolverIgnoring(UUIDVaultRegistration registration) {
 		if (!(registration instanceof Registration)) {
@@ -128,15 +312,25 @@ abstract class SimpleImplementation extends ImplementationHelper {
 	 */
 	
 	@Override
-	UUID resolveImmediatelyFromRegistered(String name, UUIDResolver skip) {
+	UUID resolveImmediatelyFromRegistered(CanonicalName name, UUIDResolver skip) {
+		if (skip == null) {
+			UUID cached = getCachedUUID(name);
+			if (cached != null || isKnownMissing(name)) {
+				return cached;
+			}
+		}
 		for (Registration registration : registrations.get()) {
 			UUIDResolver resolver = registration.resolver;
-			if (skip == resolver) {
+			if (skip == resolver || !registration.breaker.allowsImmediate()) {
 				continue;
 			}
 
-			UUID uuid = resolver.resolveImmediately(name);
+			UUID uuid = resolveCanonicalNameImmediately(resolver, name);
+			registration.statistics.recordImmediate(uuid != null);
 			if (uuid != null) {
+				if (skip == null) {
+					foundUUID(name, uuid);
+				}
 				return uuid;
 			}
 		}
@@ -145,14 +339,24 @@ abstract class SimpleImplementation extends ImplementationHelper {
 	
 	@Override
 	String resolveImmediatelyFromRegistered(UUID uuid, UUIDResolver skip) {
+		if (skip == null) {
+			String cached = getCachedName(uuid);
+			if (cached != null || isKnownMissing(uuid)) {
+				return cached;
+			}
+		}
 		for (Registration registration : registrations.get()) {
 			UUIDResolver resolver = registration.resolver;
-			if (skip == resolver) {
+			if (skip == resolver || !registration.breaker.allowsImmediate()) {
 				continue;
 			}
 
 			String name = resolver.resolveImmediately(uuid);
+			registration.statistics.recordImmediate(name != null);
 			if (name != null) {
+				if (skip == null) {
+					foundName(uuid, name);
+				}
 				return name;
 			}
 		}
@@ -160,41 +364,724 @@ abstract class SimpleImplementation extends ImplementationHelper {
 	}
 	
 	@Override
-	CompletableFuture<UUID> resolveLaterFromRegistered(String name, UUIDResolver skip) {
-		CompletableFuture<UUID> result = null;
-		for (Registration registration : registrations.get()) {
+	CompletableFuture<UUID> resolveLaterFromRegistered(CanonicalName name, UUIDResolver skip) {
+		if (skip == null && isKnownMissing(name)) {
+			return CompletableFuture.completedFuture(null);
+		}
+		Lookup lookup = newLookup();
+		CompletableFuture<UUID> result = resolveLater((resolver) -> resolveCanonicalName(resolver, name), skip, lookup);
+		if (result != null && mappingListeners.get() != 0) {
+			result = result.whenComplete((uuid, ex) -> {
+				if (uuid != null) {
+					List<Registration> targets = listenersAhead(lookup, skip);
+					if (!targets.isEmpty()) {
+						publisher.publishUUID(targets, name.getName(), uuid);
+					}
+				}
+			});
+		}
+		if (result != null && skip == null && isCaching()) {
+			result = result.whenComplete((uuid, ex) -> {
+				if (isStale(lookup)) {
+					return;
+				}
+				if (uuid != null) {
+					foundUUID(name, uuid);
+				} else if (ex == null && !lookup.incomplete) {
+					missingUUID(name);
+				}
+			});
+		}
+		return wrapNullableAsCompletedNull(result);
+	}
+	
+	@Override
+	CompletableFuture<String> resolveLaterFromRegistered(UUID uuid, UUIDResolver skip) {
+		if (skip == null && isKnownMissing(uuid)) {
+			return CompletableFuture.completedFuture(null);
+		}
+		Lookup lookup = newLookup();
+		CompletableFuture<String> result = resolveLater((resolver) -> resolver.resolve(uuid), skip, lookup);
+		if (result != null && mappingListeners.get() != 0) {
+			result = result.whenComplete((name, ex) -> {
+				if (name != null) {
+					List<Registration> targets = listenersAhead(lookup, skip);
+					if (!targets.isEmpty()) {
+						publisher.publishName(targets, uuid, name);
+					}
+				}
+			});
+		}
+		if (result != null && skip == null && isCaching()) {
+			result = result.whenComplete((name, ex) -> {
+				if (isStale(lookup)) {
+					return;
+				}
+				if (name != null) {
+					foundName(uuid, name);
+				} else if (ex == null && !lookup.incomplete) {
+					missingName(uuid);
+				}
+			});
+		}
+		return wrapNullableAsCompletedNull(result);
+	}
+	
+	/**
+	 * Queries every registered resolver, except that to skip, using the specified function.
+	 * 
+	 * @param <T> the result type
+	 * @param resolveFunction calls the relevant resolve method of a resolver
+	 * @param skip the resolver to skip, null for none
+	 * @param lookup the lookup
+	 * @return a future of the highest priority nonnull result, or null if there are no resolvers
+	 */
+	private <T> CompletableFuture<T> resolveLater(Function<UUIDResolver, CompletableFuture<T>> resolveFunction,
+			UUIDResolver skip, Lookup lookup) {
+		Registration[] registrations = this.registrations.get();
+		lookup.registrations = registrations;
+		if (parallelResolution) {
+			return dispatched(withinDeadline(resolveInParallel(registrations, resolveFunction, skip, lookup), lookup, () -> null));
+		}
+		CompletableFuture<T> result = null;
+		for (Registration registration : registrations) {
 			UUIDResolver resolver = registration.resolver;
 			if (skip == resolver) {
 				continue;
 			}
 
 			if (result == null) {
-				result = safelyHandle(resolver.resolve(name), registration);
+				result = safelyHandle(() -> resolveFunction.apply(resolver), registration, lookup);
 				continue;
 			}
-			result = result.thenCompose((uuid) -> (uuid != null) ? CompletableFuture.completedFuture(uuid)
-					: wrapNullableAsCompletedNull(safelyHandle(resolver.resolve(name), registration)));
+			result = thenComposeDispatched(result, (value) -> {
+				if (value != null || lookup.isExpired()) {
+					return CompletableFuture.completedFuture(value);
+				}
+				return wrapNullableAsCompletedNull(safelyHandle(() -> resolveFunction.apply(resolver), registration, lookup));
+			});
 		}
-		return wrapNullableAsCompletedNull(result);
+		return dispatched(withinDeadline(result, lookup, () -> null));
+	}
+	
+	private <T> CompletableFuture<T> resolveInParallel(Registration[] registrations,
+			Function<UUIDResolver, CompletableFuture<T>> resolveFunction, UUIDResolver skip, Lookup lookup) {
+		@SuppressWarnings({"unchecked", "rawtypes"})
+		CompletableFuture<T>[] futures = new CompletableFuture[registrations.length];
+		for (int n = 0; n < registrations.length; n++) {
+			Registration registration = registrations[n];
+			UUIDResolver resolver = registration.resolver;
+			if (skip != resolver) {
+				futures[n] = safelyHandle(() -> resolveFunction.apply(resolver), registration, lookup);
+			}
+		}
+		return ParallelResolution.combine(futures);
 	}
 	
 	@Override
-	CompletableFuture<String> resolveLaterFromRegistered(UUID uuid, UUIDResolver skip) {
-		CompletableFuture<String> result = null;
+	CompletableFuture<Map<CanonicalName, UUID>> resolveAllByNameFromRegistered(Set<CanonicalName> names) {
+		if (!isCaching()) {
+			return resolveAllLater(names, SimpleImplementation::resolveAllByCanonicalName,
+					SimpleImplementation::resolveCanonicalName, newLookup());
+		}
+		Set<CanonicalName> unknown = new HashSet<>(names);
+		unknown.removeIf(this::isKnownMissing);
+		Lookup lookup = newLookup();
+		return resolveAllLater(unknown, SimpleImplementation::resolveAllByCanonicalName,
+				SimpleImplementation::resolveCanonicalName, lookup).thenApply((found) -> {
+			if (isStale(lookup)) {
+				return found;
+			}
+			for (CanonicalName name : unknown) {
+				UUID uuid = found.get(name);
+				if (uuid != null) {
+					foundUUID(name, uuid);
+				} else if (!lookup.incomplete) {
+					missingUUID(name);
+				}
+			}
+			return found;
+		});
+	}
+	
+	@Override
+	CompletableFuture<Map<UUID, String>> resolveAllByUUIDFromRegistered(Set<UUID> uuids) {
+		if (!isCaching()) {
+			return resolveAllLater(uuids, BatchUUIDResolver::resolveAllByUUID, UUIDResolver::resolve, newLookup());
+		}
+		Set<UUID> unknown = new HashSet<>(uuids);
+		unknown.removeIf(this::isKnownMissing);
+		Lookup lookup = newLookup();
+		return resolveAllLater(unknown, BatchUUIDResolver::resolveAllByUUID, UUIDResolver::resolve, lookup).thenApply((found) -> {
+			if (isStale(lookup)) {
+				return found;
+			}
+			for (UUID uuid : unknown) {
+				String name = found.get(uuid);
+				if (name != null) {
+					foundName(uuid, name);
+				} else if (!lookup.incomplete) {
+					missingName(uuid);
+				}
+			}
+			return found;
+		});
+	}
+	
+	/**
+	 * Queries registered resolvers, in order, for the keys which higher priority resolvers did not find.
+	 * 
+	 * @param <K> the key type
+	 * @param <V> the value type
+	 * @param keys the keys to resolve
+	 * @param batchFunction calls the relevant method of a batch resolver
+	 * @param singleFunction calls the relevant resolve method of a resolver
+	 * @param lookup the lookup
+	 * @return a future of the found keys to their values
+	 */
+	private <K, V> CompletableFuture<Map<K, V>> resolveAllLater(Set<K> keys,
+			BiFunction<BatchUUIDResolver, Set<K>, CompletableFuture<Map<K, V>>> batchFunction,
+			BiFunction<UUIDResolver, K, CompletableFuture<V>> singleFunction, Lookup lookup) {
+		// Pending is only accessed by one stage at a time
+		// Found is also read when the deadline passes, hence the synchronization
+		Set<K> pending = new HashSet<>(keys);
+		Map<K, V> found = new HashMap<>();
+
+		CompletableFuture<?> chain = CompletableFuture.completedFuture(null);
 		for (Registration registration : registrations.get()) {
+			chain = thenComposeDispatched(chain, (ignore) -> {
+				if (pending.isEmpty() || lookup.isExpired()) {
+					return CompletableFuture.completedFuture(null);
+				}
+				return resolveAllWith(registration, pending, batchFunction, singleFunction, lookup).thenAccept((results) -> {
+					synchronized (found) {
+						results.forEach((key, value) -> {
+							if (value != null && pending.remove(key)) {
+								found.put(key, value);
+							}
+						});
+					}
+				});
+			});
+		}
+		return dispatched(withinDeadline(chain.thenApply((ignore) -> found), lookup, () -> {
+			synchronized (found) {
+				return new HashMap<>(found);
+			}
+		}));
+	}
+	
+	private <K, V> CompletableFuture<Map<K, V>> resolveAllWith(Registration registration, Set<K> pending,
+			BiFunction<BatchUUIDResolver, Set<K>, CompletableFuture<Map<K, V>>> batchFunction,
+			BiFunction<UUIDResolver, K, CompletableFuture<V>> singleFunction, Lookup lookup) {
+		UUIDResolver resolver = registration.resolver;
+		if (resolver instanceof BatchUUIDResolver) {
+			Set<K> batch = Collections.unmodifiableSet(new HashSet<>(pending));
+			return wrapNullableAsCompletedNull(safelyHandle(() -> batchFunction.apply((BatchUUIDResolver) resolver, batch), registration, lookup))
+					.thenApply((results) -> (results == null) ? Collections.emptyMap() : results);
+		}
+		Map<K, CompletableFuture<V>> futures = new HashMap<>();
+		for (K key : pending) {
+			CompletableFuture<V> future = safelyHandle(() -> singleFunction.apply(resolver, key), registration, lookup);
+			if (future != null) {
+				futures.put(key, future);
+			}
+		}
+		return CompletableFuture.allOf(futures.values().toArray(new CompletableFuture<?>[] {})).thenApply((ignore) -> {
+			Map<K, V> results = new HashMap<>();
+			futures.forEach((key, future) -> results.put(key, future.join()));
+			return results;
+		});
+	}
+	
+	@Override
+	CompletableFuture<List<UUIDCandidate>> resolveCandidatesFromRegistered(CanonicalName name, UUIDCandidate online) {
+		Registration[] registrations = this.registrations.get();
+		// Results are kept per registration, so that candidates of unknown recency stay in priority order
+		AtomicReferenceArray<Collection<UUIDCandidate>> found = new AtomicReferenceArray<>(registrations.length);
+		CompletableFuture<?>[] futures = new CompletableFuture<?>[registrations.length];
+		Lookup lookup = newLookup();
+		for (int n = 0; n < registrations.length; n++) {
+			Registration registration = registrations[n];
 			UUIDResolver resolver = registration.resolver;
-			if (skip == resolver) {
+			int index = n;
+			if (resolver instanceof CandidateResolver) {
+				futures[n] = wrapNullableAsCompletedNull(safelyHandle(() -> ((CandidateResolver) resolver).resolveCandidates(name.getName()),
+						registration, lookup)).thenAccept((candidates) -> found.set(index, candidates));
+			} else {
+				futures[n] = wrapNullableAsCompletedNull(safelyHandle(() -> resolveCanonicalName(resolver, name),
+						registration, lookup)).thenAccept((uuid) -> {
+					if (uuid != null) {
+						found.set(index, Collections.singleton(UUIDCandidate.ofUnknownRecency(uuid)));
+					}
+				});
+			}
+		}
+		CompletableFuture<List<UUIDCandidate>> result = CompletableFuture.allOf(futures)
+				.thenApply((ignore) -> mergeCandidates(online, found));
+		return dispatched(withinDeadline(result, lookup, () -> mergeCandidates(online, found)));
+	}
+	
+	/**
+	 * Merges candidates, keeping the most recent of each uuid, and sorts them newest first
+	 * 
+	 * @param online the candidate of an online player, null for none
+	 * @param found the candidates found by each registration, in priority order
+	 * @return the merged candidates
+	 */
+	private static List<UUIDCandidate> mergeCandidates(UUIDCandidate online, AtomicReferenceArray<Collection<UUIDCandidate>> found) {
+		Map<UUID, UUIDCandidate> merged = new LinkedHashMap<>();
+		if (online != null) {
+			merged.put(online.getUUID(), online);
+		}
+		for (int n = 0; n < found.length(); n++) {
+			Collection<UUIDCandidate> candidates = found.get(n);
+			if (candidates == null) {
 				continue;
 			}
-
-			if (result == null) {
-				result = safelyHandle(resolver.resolve(uuid), registration);
+			for (UUIDCandidate candidate : candidates) {
+				if (candidate != null) {
+					merged.merge(candidate.getUUID(), candidate,
+							(existing, other) -> (other.getLastSeen() > existing.getLastSeen()) ? other : existing);
+				}
+			}
+		}
+		List<UUIDCandidate> result = new ArrayList<>(merged.values());
+		// Stable, so that candidates of equal recency keep their priority order
+		result.sort(Comparator.comparingLong(UUIDCandidate::getLastSeen).reversed());
+		return Collections.unmodifiableList(result);
+	}
+	
+	@Override
+	void searchRegisteredByPrefix(PrefixMatches matches) {
+		for (Registration registration : registrations.get()) {
+			UUIDResolver resolver = registration.resolver;
+			if (!(resolver instanceof PrefixSearchResolver) || !registration.breaker.allowsImmediate()) {
 				continue;
 			}
-			result = result.thenCompose((name) -> (name != null) ? CompletableFuture.completedFuture(name)
-					: wrapNullableAsCompletedNull(safelyHandle(resolver.resolve(uuid), registration)));
+			List<String> names = ((PrefixSearchResolver) resolver).searchByPrefix(matches.prefix(), matches.limit());
+			if (names != null) {
+				for (String name : names) {
+					matches.offer(name);
+				}
+			}
+		}
+	}
+	
+	/*
+	 * 
+	 * Canonical names
+	 * 
+	 */
+	
+	private static UUID resolveCanonicalNameImmediately(UUIDResolver resolver, CanonicalName name) {
+		if (resolver instanceof CanonicalNameResolver) {
+			return ((CanonicalNameResolver) resolver).resolveImmediately(name);
+		}
+		return resolver.resolveImmediately(name.getName());
+	}
+	
+	private static CompletableFuture<UUID> resolveCanonicalName(UUIDResolver resolver, CanonicalName name) {
+		if (resolver instanceof CanonicalNameResolver) {
+			return ((CanonicalNameResolver) resolver).resolve(name);
+		}
+		return resolver.resolve(name.getName());
+	}
+	
+	/**
+	 * Calls a batch resolver, which deals in plain names, with canonical names
+	 * 
+	 * @param resolver the batch resolver
+	 * @param names the canonical names
+	 * @return a future of the found canonical names to their uuids, or null if the resolver returned null
+	 */
+	private static CompletableFuture<Map<CanonicalName, UUID>> resolveAllByCanonicalName(BatchUUIDResolver resolver,
+			Set<CanonicalName> names) {
+		Map<String, CanonicalName> canonicalNames = new HashMap<>();
+		for (CanonicalName name : names) {
+			canonicalNames.put(name.getName(), name);
+		}
+		CompletableFuture<Map<String, UUID>> future = resolver.resolveAllByName(
+				Collections.unmodifiableSet(canonicalNames.keySet()));
+		if (future == null) {
+			return null;
+		}
+		return future.thenApply((found) -> {
+			if (found == null) {
+				return null;
+			}
+			Map<CanonicalName, UUID> result = new HashMap<>();
+			found.forEach((name, uuid) -> {
+				CanonicalName canonicalName = canonicalNames.get(name);
+				if (canonicalName != null) {
+					result.put(canonicalName, uuid);
+				}
+			});
+			return result;
+		});
+	}
+	
+	/*
+	 * 
+	 * Timeouts
+	 * 
+	 */
+	
+	/**
+	 * State of a single asynchronous lookup, including its deadline
+	 * 
+	 */
+	private static final class Lookup {
+		
+		/**
+		 * The deadline according to {@link System#nanoTime()}, only relevant if {@code hasDeadline}
+		 */
+		private final long deadlineNanos;
+		private final boolean hasDeadline;
+		/**
+		 * Whether some resolver timed out, or the deadline passed. If so, a missing result
+		 * does not mean that no resolver knows the mapping
+		 */
+		volatile boolean incomplete;
+		/**
+		 * Registrations which found a result, only recorded if there are mapping listeners.
+		 * Guarded by this
+		 */
+		private List<Registration> foundBy;
+		/**
+		 * The registrations queried, in the order in which they were queried. Set when
+		 * resolution starts, null for lookups which are not published to mapping listeners
+		 */
+		Registration[] registrations;
+		/**
+		 * The registration generation when the lookup began
+		 */
+		private final int generation;
+		
+		Lookup(long deadlineNanos, boolean hasDeadline, int generation) {
+			this.deadlineNanos = deadlineNanos;
+			this.hasDeadline = hasDeadline;
+			this.generation = generation;
+		}
+		
+		synchronized void recordFoundBy(Registration registration) {
+			if (foundBy == null) {
+				foundBy = new ArrayList<>(2);
+			}
+			foundBy.add(registration);
+		}
+		
+		synchronized boolean isFoundBy(Registration registration) {
+			if (foundBy != null) {
+				for (Registration found : foundBy) {
+					if (found == registration) {
+						return true;
+					}
+				}
+			}
+			return false;
+		}
+		
+		boolean isExpired() {
+			return hasDeadline && System.nanoTime() - deadlineNanos >= 0L;
+		}
+		
+	}
+	
+	private Lookup newLookup() {
+		int generation = registrationGeneration.get();
+		long deadlineMillis = settings.deadlineMillis();
+		if (deadlineMillis == 0L) {
+			return new Lookup(0L, false, generation);
+		}
+		return new Lookup(System.nanoTime() + TimeUnit.MILLISECONDS.toNanos(deadlineMillis), true, generation);
+	}
+	
+	/**
+	 * Whether registrations were added or removed since the lookup began. If so, caches
+	 * were cleared in the meantime, and the result of the lookup must not be cached, since
+	 * the new registrations might find a different result.
+	 * 
+	 * @param lookup the lookup
+	 * @return true if the result of the lookup must not be cached
+	 */
+	private boolean isStale(Lookup lookup) {
+		return lookup.generation != registrationGeneration.get();
+	}
+	
+	/**
+	 * Applies the deadline to a future. If the deadline passes first, the returned future
+	 * completes with the fallback value.
+	 * 
+	 * @param <T> the result type
+	 * @param future the future, may be null
+	 * @param lookup the lookup
+	 * @param fallback supplies the value to use if the deadline passes
+	 * @return a future completing no later than the deadline, or null if the future was null
+	 */
+	private <T> CompletableFuture<T> withinDeadline(CompletableFuture<T> future, Lookup lookup, Supplier<T> fallback) {
+		long deadlineMillis = settings.deadlineMillis();
+		if (future == null || deadlineMillis == 0L) {
+			return future;
+		}
+		return scheduler.within(future, deadlineMillis).exceptionally((throwable) -> {
+			if (isTimeout(throwable)) {
+				lookup.incomplete = true;
+				return fallback.get();
+			}
+			throw (throwable instanceof CompletionException) ? (CompletionException) throwable
+					: new CompletionException(throwable);
+		});
+	}
+	
+	private static boolean isTimeout(Throwable throwable) {
+		if (throwable instanceof CompletionException && throwable.getCause() != null) {
+			throwable = throwable.getCause();
+		}
+		return throwable instanceof TimeoutException;
+	}
+	
+	/*
+	 * 
+	 * Write-through
+	 * 
+	 */
+	
+	/**
+	 * Finds the mapping listeners which were asked before the registration whose result was used.
+	 * In parallel resolution, this is the highest priority registration which found a result. <br>
+	 * <br>
+	 * The registrations are those which the lookup ran over, not the current registrations,
+	 * since registration and adaptive ordering may have changed the order since.
+	 * 
+	 * @param lookup the lookup
+	 * @param skip the resolver which was skipped, null for none
+	 * @return the registrations of mapping listeners to which to publish, empty if none
+	 */
+	private List<Registration> listenersAhead(Lookup lookup, UUIDResolver skip) {
+		List<Registration> listeners = new ArrayList<>();
+		for (Registration registration : lookup.registrations) {
+			if (lookup.isFoundBy(registration)) {
+				return listeners;
+			}
+			if (registration.resolver != skip && registration.resolver instanceof MappingListener) {
+				listeners.add(registration);
+			}
+		}
+		// Mapping listeners were added during the lookup, so which registration found the result is unknown
+		return Collections.emptyList();
+	}
+	
+	private void logListenerFailure(Registration registration, RuntimeException ex) {
+		String name = ((registration.name == null || registration.name.isEmpty()) ? "Unnamed" : registration.name);
+		logException("Resolver '" + name + "' from " + getDescriptiveName(registration.pluginClass)
+				+ " encountered an error while receiving mappings found by other resolvers", ex);
+	}
+	
+	/*
+	 * 
+	 * Propagation
+	 * 
+	 */
+	
+	/**
+	 * Starts propagating mappings to backend servers. Called by proxy platforms
+	 * if propagation is enabled.
+	 * 
+	 * @param transport the transport to backend servers
+	 */
+	void startPropagation(MappingTransport transport) {
+		propagator = new MappingPropagator(scheduler, transport,
+				(ex) -> logException("Failed to propagate mappings to backend servers", ex));
+	}
+	
+	/**
+	 * Queues a mapping seen by a proxy to be sent to backend servers, if propagation was started
+	 * 
+	 * @param uuid the uuid
+	 * @param name the name
+	 */
+	void propagateMapping(UUID uuid, String name) {
+		MappingPropagator propagator = this.propagator;
+		if (propagator != null) {
+			propagator.propagate(uuid, name);
+		}
+	}
+	
+	/**
+	 * Caches the mappings in a frame received from the proxy, as if they had been found
+	 * by a registered resolver. Malformed frames are logged and ignored.
+	 * 
+	 * @param frame the frame
+	 */
+	void receiveMappings(byte[] frame) {
+		Map<UUID, String> mappings;
+		try {
+			mappings = MappingFrame.decode(frame);
+		} catch (IllegalArgumentException ex) {
+			logWarning("Ignoring malformed mappings received from the proxy: " + ex.getMessage());
+			return;
+		}
+		mappings.forEach((uuid, name) -> {
+			CanonicalName canonicalName = CanonicalName.of(name);
+			if (canonicalName != null) {
+				foundUUID(canonicalName, uuid);
+			}
+			foundName(uuid, name);
+		});
+	}
+	
+	/*
+	 * 
+	 * Dispatch
+	 * 
+	 */
+	
+	/**
+	 * Composes a future with the next stage of a lookup, run on the dispatch executor if there is one
+	 * 
+	 * @param <T> the result type of the future
+	 * @param <U> the result type of the next stage
+	 * @param future the future
+	 * @param function the next stage
+	 * @return the composed future
+	 */
+	private <T, U> CompletableFuture<U> thenComposeDispatched(CompletableFuture<T> future,
+			Function<? super T, ? extends CompletionStage<U>> function) {
+		return (dispatch == null) ? future.thenCompose(function) : future.thenComposeAsync(function, dispatch);
+	}
+	
+	/**
+	 * Hands off the completion of a future to the dispatch executor, so that stages added by the caller
+	 * do not run on resolver or scheduler threads. Futures already complete are returned as is.
+	 * 
+	 * @param <T> the result type
+	 * @param future the future, may be null
+	 * @return a future completing in the same way on the dispatch executor, or the same future
+	 */
+	private <T> CompletableFuture<T> dispatched(CompletableFuture<T> future) {
+		if (dispatch == null || future == null || future.isDone()) {
+			return future;
+		}
+		return future.whenCompleteAsync((ignore1, ignore2) -> {}, dispatch);
+	}
+	
+	/*
+	 * 
+	 * Caching
+	 * 
+	 */
+	
+	private boolean isCaching() {
+		return cache != null || negativeCache != null || persistentCache != null || nameIndex() != null;
+	}
+	
+	private UUID getCachedUUID(CanonicalName name) {
+		UUID uuid = (cache == null) ? null : cache.getUUID(name);
+		if (uuid == null) {
+			PersistentCache persistentCache = this.persistentCache;
+			if (persistentCache != null && (uuid = persistentCache.getUUID(name)) != null && cache != null) {
+				cache.putUUID(name, uuid);
+			}
+		}
+		return uuid;
+	}
+	
+	private String getCachedName(UUID uuid) {
+		String name = (cache == null) ? null : cache.getName(uuid);
+		if (name == null) {
+			PersistentCache persistentCache = this.persistentCache;
+			if (persistentCache != null && (name = persistentCache.getName(uuid)) != null && cache != null) {
+				cache.putName(uuid, name);
+			}
+		}
+		return name;
+	}
+	
+	private boolean isKnownMissing(CanonicalName name) {
+		return negativeCache != null && negativeCache.isMissing(name);
+	}
+	
+	private boolean isKnownMissing(UUID uuid) {
+		return negativeCache != null && negativeCache.isMissing(uuid);
+	}
+	
+	private void foundUUID(CanonicalName name, UUID uuid) {
+		if (cache != null) {
+			cache.putUUID(name, uuid);
+		}
+		PersistentCache persistentCache = this.persistentCache;
+		if (persistentCache != null) {
+			persistentCache.putUUID(name, uuid);
+		}
+		if (negativeCache != null) {
+			negativeCache.forget(name);
+		}
+	}
+	
+	private void foundName(UUID uuid, String name) {
+		if (cache != null) {
+			cache.putName(uuid, name);
+		}
+		NameIndex nameIndex = nameIndex();
+		if (nameIndex != null) {
+			nameIndex.add(name);
+		}
+		PersistentCache persistentCache = this.persistentCache;
+		if (persistentCache != null) {
+			persistentCache.putName(uuid, name);
+		}
+		if (negativeCache != null) {
+			negativeCache.forget(uuid);
+		}
+	}
+	
+	private void missingUUID(CanonicalName name) {
+		if (negativeCache != null) {
+			negativeCache.markMissing(name);
+		}
+	}
+	
+	private void missingName(UUID uuid) {
+		if (negativeCache != null) {
+			negativeCache.markMissing(uuid);
+		}
+	}
+	
+	/**
+	 * Compacts the persistent cache if needed. The persistent cache is not cleared when
+	 * registrations change, since its purpose is to outlive the registrations of a single run.
+	 * 
+	 */
+	private void compactPersistentCache() {
+		Exception failure = persistentCacheFailure;
+		if (failure != null) {
+			persistentCacheFailure = null;
+			logException("Unable to open persistent cache " + settings.persistentCacheFile(), failure);
+		}
+		PersistentCache persistentCache = this.persistentCache;
+		if (persistentCache != null) {
+			try {
+				persistentCache.compactIfNeeded();
+			} catch (RuntimeException ex) {
+				logException("Unable to compact persistent cache " + settings.persistentCacheFile(), ex);
+			}
+		}
+	}
+	
+	private void closePersistentCache() {
+		PersistentCache persistentCache;
+		synchronized (persistentCacheLock) {
+			persistentCache = this.persistentCache;
+			this.persistentCache = null;
+		}
+		if (persistentCache != null) {
+			try {
+				persistentCache.close();
+			} catch (IOException ex) {
+				logException("Unable to close persistent cache " + settings.persistentCacheFile(), ex);
+			}
 		}
-		return wrapNullableAsCompletedNull(result);
 	}
 	
 	/*
@@ -210,17 +1097,119 @@ abstract class SimpleImplementation extends ImplementationHelper {
 		return nullableFuture;
 	}
 	
-	private <T> CompletableFuture<T> safelyHandle(CompletableFuture<T> future, Registration registration) {
+	/**
+	 * Calls a resolver, applying its timeout and circuit breaker, recording statistics, and logging exceptions
+	 * 
+	 * @param <T> the result type
+	 * @param resolveCall calls the relevant resolve method of the registration's resolver
+	 * @param registration the registration
+	 * @param lookup the lookup
+	 * @return a future which never completes exceptionally, or null if the resolver returned null
+	 * or was skipped by its circuit breaker
+	 */
+	private <T> CompletableFuture<T> safelyHandle(Supplier<CompletableFuture<T>> resolveCall,
+			Registration registration, Lookup lookup) {
+		CircuitBreaker breaker = registration.breaker;
+		Object permit = breaker.tryAcquire();
+		if (permit == null) {
+			// The skipped resolver might have known the answer
+			lookup.incomplete = true;
+			return null;
+		}
+		RegistrationStatistics statistics = registration.statistics;
+		long start = System.nanoTime();
+		CompletableFuture<T> future;
+		try {
+			future = resolveCall.get();
+		} catch (RuntimeException | Error ex) {
+			breaker.recordOutcome(permit, true, System.nanoTime() - start);
+			throw ex;
+		}
 		if (future == null) {
+			long latency = System.nanoTime() - start;
+			statistics.recordMissing(latency);
+			breaker.recordOutcome(permit, false, latency);
 			return null;
 		}
-		return future.exceptionally((throwable) -> {
+		if (registration.timeoutMillis != 0L) {
+			future = scheduler.within(future, registration.timeoutMillis);
+		}
+		return future.handle((value, throwable) -> {
+			if (throwable == null) {
+				long latency = System.nanoTime() - start;
+				if (isFound(value)) {
+					statistics.recordFound(latency);
+					if (mappingListeners.get() != 0) {
+						lookup.recordFoundBy(registration);
+					}
+				} else {
+					statistics.recordMissing(latency);
+				}
+				breaker.recordOutcome(permit, false, latency);
+				return value;
+			}
+			breaker.recordOutcome(permit, true, System.nanoTime() - start);
 			Class<?> pluginClass = registration.pluginClass;
 			String name = ((registration.name == null || registration.name.isEmpty()) ? "Unnamed" : registration.name);
-			logException("Resolver '" + name + "' from " + getDescriptiveName(pluginClass)
-					+ " encountered an error while resolving a UUID or name", throwable);
+			// The failed resolver might have known the answer
+			lookup.incomplete = true;
+			String problem;
+			if (isTimeout(throwable)) {
+				statistics.recordTimeout();
+				problem = " timed out while resolving a UUID or name";
+			} else {
+				statistics.recordException(System.nanoTime() - start);
+				problem = " encountered an error while resolving a UUID or name";
+			}
+			if (registration.errors.tryReport()) {
+				logException("Resolver '" + name + "' from " + getDescriptiveName(pluginClass) + problem, throwable);
+			} else {
+				statistics.recordSuppressedError();
+				scheduleErrorSummary();
+			}
 			return null;
 		});
 	}
+	
+	/**
+	 * Starts the periodic summary of suppressed errors, if not yet started. The summary
+	 * is only started once errors are suppressed, so that the background thread is not
+	 * needlessly started.
+	 * 
+	 */
+	private void scheduleErrorSummary() {
+		if (!errorSummaryScheduled.get() && errorSummaryScheduled.compareAndSet(false, true)) {
+			scheduler.scheduleRepeating(this::summarizeSuppressedErrors, settings.errorLogWindowMillis());
+		}
+	}
+	
+	private void summarizeSuppressedErrors() {
+		for (Registration registration : registrations.get()) {
+			long suppressed = registration.errors.drainSuppressed();
+			if (suppressed != 0L) {
+				String name = ((registration.name == null || registration.name.isEmpty()) ? "Unnamed" : registration.name);
+				logWarning("Resolver '" + name + "' from " + getDescriptiveName(registration.pluginClass)
+						+ " failed " + suppressed + " more time(s) since its last reported error. "
+						+ "Details of these failures were not logged.");
+			}
+		}
+	}
+	
+	/**
+	 * Whether a resolver's result counts as a hit. Results of batch resolvers are maps,
+	 * and those of candidate resolvers collections, which count if not empty.
+	 * 
+	 * @param value the result
+	 * @return true if found
+	 */
+	private static boolean isFound(Object value) {
+		if (value instanceof Map) {
+			return !((Map<?, ?>) value).isEmpty();
+		}
+		if (value instanceof Collection) {
+			return !((Collection<?>) value).isEmpty();
+		}
+		return value != null;
+	}
 
 }
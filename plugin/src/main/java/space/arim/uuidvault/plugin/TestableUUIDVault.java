@@ -29,11 +29,20 @@ import java.util.UUID;
 public class TestableUUIDVault extends SimpleImplementation {
 
 	/**
-	 * Creates the instance
+	 * Creates the instance with default settings
 	 * 
 	 */
 	public TestableUUIDVault() {
-		
+		this(VaultSettings.defaults());
+	}
+	
+	/**
+	 * Creates the instance
+	 * 
+	 * @param settings the settings to use
+	 */
+	public TestableUUIDVault(VaultSettings settings) {
+		super(settings);
 	}
 
 	@Override
@@ -51,6 +60,11 @@ public class TestableUUIDVault extends SimpleImplementation {
 		System.err.println(message);
 		throwable.printStackTrace();
 	}
+	
+	@Override
+	void logWarning(String message) {
+		System.err.println(message);
+	}
 
 	@Override
 	UUID resolveNativelyDirectly(String name) {
@@ -74,4 +88,9 @@ public class TestableUUIDVault extends SimpleImplementation {
 		return super.setInstancePassive();
 	}
 	
+	@Override
+	public void shutdown() {
+		super.shutdown();
+	}
+	
 }
@@ -0,0 +1,149 @@
+/* 
+ * UUIDVault-plugin
+ * Copyright © 2020 Anand Beh <https://www.arim.space>
+ * 
+ * UUIDVault-plugin is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Lesser General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ * 
+ * UUIDVault-plugin is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the
+ * GNU Lesser General Public License for more details.
+ * 
+ * You should have received a copy of the GNU Lesser General Public License
+ * along with UUIDVault-plugin. If not, see <https://www.gnu.org/licenses/>
+ * and navigate to version 3 of the GNU Lesser General Public License.
+ */
+package space.arim.uuidvault.plugin;
+
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ScheduledFuture;
+import java.util.concurrent.ScheduledThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+
+/**
+ * Single background thread used for timeouts and periodic tasks. The thread is only started
+ * once something is scheduled. After shutdown, tasks are silently discarded, so that timeouts
+ * never fire and lookups continue without them. <br>
+ * <br>
+ * Timeouts are implemented here because {@code CompletableFuture#orTimeout} requires Java 9.
+ * 
+ */
+final class VaultScheduler {
+
+	private volatile ScheduledThreadPoolExecutor executor;
+	private boolean shutdown; // Guarded by this
+
+	VaultScheduler() {
+
+	}
+
+	private ScheduledThreadPoolExecutor executor() {
+		ScheduledThreadPoolExecutor executor = this.executor;
+		if (executor == null) {
+			synchronized (this) {
+				executor = this.executor;
+				if (executor == null) {
+					if (shutdown) {
+						return null;
+					}
+					executor = new ScheduledThreadPoolExecutor(1, (runnable) -> {
+						Thread thread = new Thread(runnable, "UUIDVault-scheduler");
+						thread.setDaemon(true);
+						return thread;
+					});
+					// Timeouts are usually cancelled, and should not linger in the queue
+					executor.setRemoveOnCancelPolicy(true);
+					this.executor = executor;
+				}
+			}
+		}
+		return executor;
+	}
+
+	/**
+	 * Schedules a task
+	 * 
+	 * @param command the task
+	 * @param delayMillis the delay in milliseconds
+	 * @return the scheduled task, or null if shut down
+	 */
+	ScheduledFuture<?> schedule(Runnable command, long delayMillis) {
+		ScheduledThreadPoolExecutor executor = executor();
+		if (executor == null) {
+			return null;
+		}
+		try {
+			return executor.schedule(command, delayMillis, TimeUnit.MILLISECONDS);
+		} catch (RejectedExecutionException ex) {
+			return null;
+		}
+	}
+
+	/**
+	 * Schedules a repeating task
+	 * 
+	 * @param command the task
+	 * @param periodMillis the delay between runs in milliseconds
+	 * @return the scheduled task, or null if shut down
+	 */
+	ScheduledFuture<?> scheduleRepeating(Runnable command, long periodMillis) {
+		ScheduledThreadPoolExecutor executor = executor();
+		if (executor == null) {
+			return null;
+		}
+		try {
+			return executor.scheduleWithFixedDelay(command, periodMillis, periodMillis, TimeUnit.MILLISECONDS);
+		} catch (RejectedExecutionException ex) {
+			return null;
+		}
+	}
+
+	/**
+	 * Creates a future which completes exceptionally with a {@link TimeoutException} if the specified
+	 * future does not complete within the timeout. Otherwise, it completes in the same way as the specified future.
+	 * 
+	 * @param <T> the result type
+	 * @param future the future
+	 * @param timeoutMillis the timeout in milliseconds
+	 * @return a future which will complete within the timeout
+	 */
+	<T> CompletableFuture<T> within(CompletableFuture<T> future, long timeoutMillis) {
+		if (future.isDone()) {
+			return future;
+		}
+		CompletableFuture<T> result = new CompletableFuture<>();
+		ScheduledFuture<?> timeout = schedule(() -> {
+			result.completeExceptionally(new TimeoutException("Timed out after " + timeoutMillis + "ms"));
+		}, timeoutMillis);
+		if (timeout == null) {
+			return future;
+		}
+		future.whenComplete((value, ex) -> {
+			timeout.cancel(false);
+			if (ex != null) {
+				result.completeExceptionally(ex);
+			} else {
+				result.complete(value);
+			}
+		});
+		return result;
+	}
+
+	/**
+	 * Stops the background thread, if it was started. Pending tasks are discarded
+	 * 
+	 */
+	synchronized void shutdown() {
+		shutdown = true;
+		ScheduledThreadPoolExecutor executor = this.executor;
+		if (executor != null) {
+			executor.shutdownNow();
+		}
+	}
+
+}
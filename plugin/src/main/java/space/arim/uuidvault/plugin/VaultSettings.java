@@ -0,0 +1,730 @@
+/* 
+ * UUIDVault-plugin
+ * Copyright © 2020 Anand Beh <https://www.arim.space>
+ * 
+ * UUIDVault-plugin is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Lesser General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ * 
+ * UUIDVault-plugin is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the
+ * GNU Lesser General Public License for more details.
+ * 
+ * You should have received a copy of the GNU Lesser General Public License
+ * along with UUIDVault-plugin. If not, see <https://www.gnu.org/licenses/>
+ * and navigate to version 3 of the GNU Lesser General Public License.
+ */
+package space.arim.uuidvault.plugin;
+
+import java.nio.file.Path;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.Objects;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Immutable tuning options for a UUIDVault implementation. <br>
+ * <br>
+ * The defaults disable every optional feature, such that an implementation created with
+ * {@link #defaults()} behaves exactly as one without any settings at all.
+ * 
+ * @author A248
+ * 
+ */
+public final class VaultSettings {
+
+	private final int cacheSize;
+	private final long cacheTtlMillis;
+	private final boolean packedCache;
+	private final int negativeCacheSize;
+	private final long negativeCacheTtlMillis;
+	private final boolean parallelResolution;
+	private final DispatchMode dispatchMode;
+	private final int dispatchThreads;
+	private final long resolverTimeoutMillis;
+	private final Map<String, Long> resolverTimeoutOverrides;
+	private final long deadlineMillis;
+	private final boolean strictNameValidation;
+	private final boolean onlinePlayerIndex;
+	private final int nameIndexSize;
+	private final NativeStage nativeStage;
+	private final int errorLogBurst;
+	private final long errorLogWindowMillis;
+	private final long adaptiveOrderingMillis;
+	private final double circuitBreakerFailureRate;
+	private final int circuitBreakerMinimumCalls;
+	private final long circuitBreakerSlowCallMillis;
+	private final long circuitBreakerCooldownMillis;
+	private final Path persistentCacheFile;
+	private final int persistentCacheSize;
+	private final long persistentCacheMaxAgeMillis;
+	private final boolean mappingPropagation;
+
+	private static final VaultSettings DEFAULTS = builder().build();
+
+	private VaultSettings(Builder builder) {
+		cacheSize = builder.cacheSize;
+		cacheTtlMillis = builder.cacheTtlMillis;
+		packedCache = builder.packedCache;
+		negativeCacheSize = builder.negativeCacheSize;
+		negativeCacheTtlMillis = builder.negativeCacheTtlMillis;
+		parallelResolution = builder.parallelResolution;
+		dispatchMode = builder.dispatchMode;
+		dispatchThreads = builder.dispatchThreads;
+		resolverTimeoutMillis = builder.resolverTimeoutMillis;
+		resolverTimeoutOverrides = Collections.unmodifiableMap(new HashMap<>(builder.resolverTimeoutOverrides));
+		deadlineMillis = builder.deadlineMillis;
+		strictNameValidation = builder.strictNameValidation;
+		onlinePlayerIndex = builder.onlinePlayerIndex;
+		nameIndexSize = builder.nameIndexSize;
+		nativeStage = builder.nativeStage;
+		errorLogBurst = builder.errorLogBurst;
+		errorLogWindowMillis = builder.errorLogWindowMillis;
+		adaptiveOrderingMillis = builder.adaptiveOrderingMillis;
+		circuitBreakerFailureRate = builder.circuitBreakerFailureRate;
+		circuitBreakerMinimumCalls = builder.circuitBreakerMinimumCalls;
+		circuitBreakerSlowCallMillis = builder.circuitBreakerSlowCallMillis;
+		circuitBreakerCooldownMillis = builder.circuitBreakerCooldownMillis;
+		persistentCacheFile = builder.persistentCacheFile;
+		persistentCacheSize = builder.persistentCacheSize;
+		persistentCacheMaxAgeMillis = builder.persistentCacheMaxAgeMillis;
+		mappingPropagation = builder.mappingPropagation;
+	}
+
+	/**
+	 * Gets the default settings
+	 * 
+	 * @return the default settings
+	 */
+	public static VaultSettings defaults() {
+		return DEFAULTS;
+	}
+
+	/**
+	 * Creates a builder whose values are initially the defaults
+	 * 
+	 * @return a new builder
+	 */
+	public static Builder builder() {
+		return new Builder();
+	}
+
+	int cacheSize() {
+		return cacheSize;
+	}
+
+	long cacheTtlMillis() {
+		return cacheTtlMillis;
+	}
+
+	boolean packedCache() {
+		return packedCache;
+	}
+
+	int negativeCacheSize() {
+		return negativeCacheSize;
+	}
+
+	long negativeCacheTtlMillis() {
+		return negativeCacheTtlMillis;
+	}
+
+	boolean parallelResolution() {
+		return parallelResolution;
+	}
+
+	DispatchMode dispatchMode() {
+		return dispatchMode;
+	}
+
+	int dispatchThreads() {
+		return dispatchThreads;
+	}
+
+	/**
+	 * Gets the timeout of a registration, taking into account overrides
+	 * 
+	 * @param registrationName the name of the registration
+	 * @return the timeout in milliseconds, zero for none
+	 */
+	long resolverTimeoutMillis(String registrationName) {
+		Long override = resolverTimeoutOverrides.get(registrationName);
+		return (override == null) ? resolverTimeoutMillis : override;
+	}
+
+	long deadlineMillis() {
+		return deadlineMillis;
+	}
+
+	boolean strictNameValidation() {
+		return strictNameValidation;
+	}
+
+	boolean onlinePlayerIndex() {
+		return onlinePlayerIndex;
+	}
+
+	int nameIndexSize() {
+		return nameIndexSize;
+	}
+
+	NativeStage nativeStage() {
+		return nativeStage;
+	}
+
+	int errorLogBurst() {
+		return errorLogBurst;
+	}
+
+	long errorLogWindowMillis() {
+		return errorLogWindowMillis;
+	}
+
+	long adaptiveOrderingMillis() {
+		return adaptiveOrderingMillis;
+	}
+
+	double circuitBreakerFailureRate() {
+		return circuitBreakerFailureRate;
+	}
+
+	int circuitBreakerMinimumCalls() {
+		return circuitBreakerMinimumCalls;
+	}
+
+	long circuitBreakerSlowCallMillis() {
+		return circuitBreakerSlowCallMillis;
+	}
+
+	long circuitBreakerCooldownMillis() {
+		return circuitBreakerCooldownMillis;
+	}
+
+	Path persistentCacheFile() {
+		return persistentCacheFile;
+	}
+
+	int persistentCacheSize() {
+		return persistentCacheSize;
+	}
+
+	long persistentCacheMaxAgeMillis() {
+		return persistentCacheMaxAgeMillis;
+	}
+
+	boolean mappingPropagation() {
+		return mappingPropagation;
+	}
+
+	@Override
+	public String toString() {
+		return "VaultSettings [cacheSize=" + cacheSize + ", cacheTtlMillis=" + cacheTtlMillis
+				+ ", packedCache=" + packedCache
+				+ ", negativeCacheSize=" + negativeCacheSize + ", negativeCacheTtlMillis=" + negativeCacheTtlMillis
+				+ ", parallelResolution=" + parallelResolution + ", dispatchMode=" + dispatchMode
+				+ ", dispatchThreads=" + dispatchThreads + ", resolverTimeoutMillis=" + resolverTimeoutMillis
+				+ ", resolverTimeoutOverrides=" + resolverTimeoutOverrides + ", deadlineMillis=" + deadlineMillis
+				+ ", strictNameValidation=" + strictNameValidation + ", onlinePlayerIndex=" + onlinePlayerIndex
+				+ ", nameIndexSize=" + nameIndexSize
+				+ ", nativeStage=" + nativeStage + ", errorLogBurst=" + errorLogBurst
+				+ ", errorLogWindowMillis=" + errorLogWindowMillis + ", adaptiveOrderingMillis=" + adaptiveOrderingMillis
+				+ ", circuitBreakerFailureRate=" + circuitBreakerFailureRate
+				+ ", circuitBreakerMinimumCalls=" + circuitBreakerMinimumCalls
+				+ ", circuitBreakerSlowCallMillis=" + circuitBreakerSlowCallMillis
+				+ ", circuitBreakerCooldownMillis=" + circuitBreakerCooldownMillis
+				+ ", persistentCacheFile=" + persistentCacheFile + ", persistentCacheSize=" + persistentCacheSize
+				+ ", persistentCacheMaxAgeMillis=" + persistentCacheMaxAgeMillis
+				+ ", mappingPropagation=" + mappingPropagation + "]";
+	}
+
+	/**
+	 * Builder of {@link VaultSettings}. Not thread safe.
+	 * 
+	 * @author A248
+	 * 
+	 */
+	public static final class Builder {
+
+		int cacheSize;
+		long cacheTtlMillis = TimeUnit.MINUTES.toMillis(5L);
+		boolean packedCache;
+		int negativeCacheSize;
+		long negativeCacheTtlMillis = TimeUnit.SECONDS.toMillis(30L);
+		boolean parallelResolution;
+		DispatchMode dispatchMode = DispatchMode.CALLER;
+		int dispatchThreads = 4;
+		long resolverTimeoutMillis;
+		final Map<String, Long> resolverTimeoutOverrides = new HashMap<>();
+		long deadlineMillis;
+		boolean strictNameValidation;
+		boolean onlinePlayerIndex;
+		int nameIndexSize;
+		NativeStage nativeStage = NativeStage.NONE;
+		int errorLogBurst = 1;
+		long errorLogWindowMillis;
+		long adaptiveOrderingMillis;
+		double circuitBreakerFailureRate;
+		int circuitBreakerMinimumCalls = 20;
+		long circuitBreakerSlowCallMillis;
+		long circuitBreakerCooldownMillis = TimeUnit.SECONDS.toMillis(30L);
+		Path persistentCacheFile;
+		int persistentCacheSize;
+		long persistentCacheMaxAgeMillis = TimeUnit.DAYS.toMillis(30L);
+		boolean mappingPropagation;
+
+		Builder() {}
+
+		/**
+		 * Sets the maximum amount of entries, per direction, held by the result cache.
+		 * Zero disables the cache.
+		 * 
+		 * @param cacheSize the maximum cache size, zero to disable
+		 * @return this builder
+		 * @throws IllegalArgumentException if {@code cacheSize} is negative
+		 */
+		public Builder cacheSize(int cacheSize) {
+			if (cacheSize < 0) {
+				throw new IllegalArgumentException("Cache size must not be negative");
+			}
+			this.cacheSize = cacheSize;
+			return this;
+		}
+
+		/**
+		 * Sets how long cached results remain valid
+		 * 
+		 * @param duration the duration
+		 * @param unit the unit of the duration
+		 * @return this builder
+		 * @throws IllegalArgumentException if {@code duration} is not positive
+		 */
+		public Builder cacheTtl(long duration, TimeUnit unit) {
+			this.cacheTtlMillis = positiveMillis(duration, unit);
+			return this;
+		}
+
+		/**
+		 * Sets whether the result cache packs its entries into primitive arrays, at under
+		 * 40 bytes each. This suits very large cache sizes. <br>
+		 * <br>
+		 * The packed cache holds two generations, each of up to the maximum cache size, which
+		 * expire as a whole. Names other than 1 to 16 ASCII letters, digits, or underscores
+		 * are not cached.
+		 * 
+		 * @param packedCache whether to use the packed cache
+		 * @return this builder
+		 */
+		public Builder packedCache(boolean packedCache) {
+			this.packedCache = packedCache;
+			return this;
+		}
+
+		/**
+		 * Sets the maximum amount of names, and separately of uuids, which the negative cache
+		 * remembers as unknown to every resolver. Zero disables the negative cache.
+		 * 
+		 * @param negativeCacheSize the maximum negative cache size, zero to disable
+		 * @return this builder
+		 * @throws IllegalArgumentException if {@code negativeCacheSize} is negative
+		 */
+		public Builder negativeCacheSize(int negativeCacheSize) {
+			if (negativeCacheSize < 0) {
+				throw new IllegalArgumentException("Negative cache size must not be negative");
+			}
+			this.negativeCacheSize = negativeCacheSize;
+			return this;
+		}
+
+		/**
+		 * Sets how long a name or uuid is remembered as unknown to every resolver
+		 * 
+		 * @param duration the duration
+		 * @param unit the unit of the duration
+		 * @return this builder
+		 * @throws IllegalArgumentException if {@code duration} is not positive
+		 */
+		public Builder negativeCacheTtl(long duration, TimeUnit unit) {
+			this.negativeCacheTtlMillis = positiveMillis(duration, unit);
+			return this;
+		}
+
+		/**
+		 * Sets whether asynchronous resolution queries all resolvers at once, rather than
+		 * one after another. The highest priority nonnull result is still the one chosen.
+		 * 
+		 * @param parallelResolution whether to query resolvers in parallel
+		 * @return this builder
+		 */
+		public Builder parallelResolution(boolean parallelResolution) {
+			this.parallelResolution = parallelResolution;
+			return this;
+		}
+
+		/**
+		 * Sets how long each resolver is given to complete an asynchronous lookup. A resolver
+		 * which exceeds the timeout is treated as having found nothing, and the timeout is logged.
+		 * Zero disables the timeout.
+		 * 
+		 * @param duration the duration, zero to disable
+		 * @param unit the unit of the duration
+		 * @return this builder
+		 * @throws IllegalArgumentException if {@code duration} is negative
+		 */
+		public Builder resolverTimeout(long duration, TimeUnit unit) {
+			this.resolverTimeoutMillis = nonNegativeMillis(duration, unit);
+			return this;
+		}
+
+		/**
+		 * Sets the timeout of a specific resolver, overriding {@link #resolverTimeout(long, TimeUnit)}.
+		 * The resolver is identified by the name with which it was registered.
+		 * 
+		 * @param registrationName the name of the registration
+		 * @param duration the duration, zero to disable
+		 * @param unit the unit of the duration
+		 * @return this builder
+		 * @throws IllegalArgumentException if {@code duration} is negative
+		 */
+		public Builder resolverTimeout(String registrationName, long duration, TimeUnit unit) {
+			Objects.requireNonNull(registrationName, "Registration name must not be null");
+			resolverTimeoutOverrides.put(registrationName, nonNegativeMillis(duration, unit));
+			return this;
+		}
+
+		/**
+		 * Sets the overall deadline of an asynchronous lookup. Once it passes, the lookup completes
+		 * with whatever was found so far, and no further resolvers are queried. Zero disables the deadline.
+		 * 
+		 * @param duration the duration, zero to disable
+		 * @param unit the unit of the duration
+		 * @return this builder
+		 * @throws IllegalArgumentException if {@code duration} is negative
+		 */
+		public Builder deadline(long duration, TimeUnit unit) {
+			this.deadlineMillis = nonNegativeMillis(duration, unit);
+			return this;
+		}
+
+		/**
+		 * Sets whether names are validated strictly, such that names containing characters other than
+		 * letters, digits, and underscores are rejected without querying any resolver. Lenient validation
+		 * only rejects names which are empty, longer than 16 characters, or contain spaces. <br>
+		 * <br>
+		 * Lenient validation is necessary if player names may carry a prefix, as with Floodgate.
+		 * 
+		 * @param strictNameValidation whether to validate names strictly
+		 * @return this builder
+		 */
+		public Builder strictNameValidation(boolean strictNameValidation) {
+			this.strictNameValidation = strictNameValidation;
+			return this;
+		}
+
+		/**
+		 * Sets whether native resolution uses an index of online players, maintained through
+		 * join and quit events, rather than platform APIs. The index may be read from any thread,
+		 * so native resolution need not be called from the main thread. <br>
+		 * <br>
+		 * The index is only maintained if the platform plugin is enabled.
+		 * 
+		 * @param onlinePlayerIndex whether to use the online player index
+		 * @return this builder
+		 */
+		public Builder onlinePlayerIndex(boolean onlinePlayerIndex) {
+			this.onlinePlayerIndex = onlinePlayerIndex;
+			return this;
+		}
+
+		/**
+		 * Sets the maximum amount of names held by the name index, which serves prefix searches.
+		 * Names found by lookups, and those of joining players if the online player index is enabled,
+		 * are added to it. When full, the names added first are evicted first. Zero disables the index.
+		 * 
+		 * @param nameIndexSize the maximum name index size, zero to disable
+		 * @return this builder
+		 * @throws IllegalArgumentException if {@code nameIndexSize} is negative
+		 */
+		public Builder nameIndexSize(int nameIndexSize) {
+			if (nameIndexSize < 0) {
+				throw new IllegalArgumentException("Name index size must not be negative");
+			}
+			this.nameIndexSize = nameIndexSize;
+			return this;
+		}
+
+		/**
+		 * Sets when native resolution is consulted by {@code resolve} and {@code resolveImmediately},
+		 * relative to registered resolvers. <br>
+		 * <br>
+		 * Native resolution is only consulted where it is safe from any thread. That is, if the
+		 * online player index is enabled, or the platform does not require native resolution
+		 * to be called from the main thread.
+		 * 
+		 * @param nativeStage the native stage
+		 * @return this builder
+		 */
+		public Builder nativeStage(NativeStage nativeStage) {
+			this.nativeStage = Objects.requireNonNull(nativeStage, "Native stage must not be null");
+			return this;
+		}
+
+		/**
+		 * Sets which threads run the continuations of asynchronous lookups, such as querying the
+		 * next resolver once one found nothing, and completing the future returned to the caller.
+		 * 
+		 * @param dispatchMode the dispatch mode
+		 * @param poolThreads the maximum amount of threads, if a pool is used
+		 * @return this builder
+		 * @throws IllegalArgumentException if {@code poolThreads} is not positive
+		 */
+		public Builder dispatch(DispatchMode dispatchMode, int poolThreads) {
+			Objects.requireNonNull(dispatchMode, "Dispatch mode must not be null");
+			if (poolThreads <= 0) {
+				throw new IllegalArgumentException("Pool threads must be positive");
+			}
+			this.dispatchMode = dispatchMode;
+			this.dispatchThreads = poolThreads;
+			return this;
+		}
+
+		/**
+		 * Sets how many failures of a single resolver may be logged in full at once. Beyond this,
+		 * failures are only counted until the error log window replenishes.
+		 * 
+		 * @param errorLogBurst the amount of failures logged in full at once
+		 * @return this builder
+		 * @throws IllegalArgumentException if {@code errorLogBurst} is not positive
+		 */
+		public Builder errorLogBurst(int errorLogBurst) {
+			if (errorLogBurst <= 0) {
+				throw new IllegalArgumentException("Error log burst must be positive");
+			}
+			this.errorLogBurst = errorLogBurst;
+			return this;
+		}
+
+		/**
+		 * Sets the window over which a resolver's full error logging replenishes. Failures which
+		 * are not logged in full are reported in a single summary line once per window.
+		 * Zero disables rate limiting, such that every failure is logged in full.
+		 * 
+		 * @param duration the duration, zero to disable
+		 * @param unit the unit of the duration
+		 * @return this builder
+		 * @throws IllegalArgumentException if {@code duration} is negative
+		 */
+		public Builder errorLogWindow(long duration, TimeUnit unit) {
+			this.errorLogWindowMillis = nonNegativeMillis(duration, unit);
+			return this;
+		}
+
+		/**
+		 * Sets how often resolvers of the same priority are reordered according to how they perform.
+		 * Resolvers which find results often and quickly are moved ahead of those which rarely find
+		 * anything or are slow. Declared priorities are always respected. <br>
+		 * <br>
+		 * Zero disables adaptive ordering, such that the order within a priority is arbitrary but fixed.
+		 * 
+		 * @param duration the duration between reorderings, zero to disable
+		 * @param unit the unit of the duration
+		 * @return this builder
+		 * @throws IllegalArgumentException if {@code duration} is negative
+		 */
+		public Builder adaptiveOrdering(long duration, TimeUnit unit) {
+			this.adaptiveOrderingMillis = nonNegativeMillis(duration, unit);
+			return this;
+		}
+
+		/**
+		 * Sets when a resolver's circuit breaker opens. Lookups are counted in windows of
+		 * {@code minimumCalls} calls. If, within a window, the proportion of lookups which failed,
+		 * timed out, or were slow reaches {@code failureRate}, the breaker opens and the resolver
+		 * is skipped until the cooldown passes. <br>
+		 * <br>
+		 * A failure rate of zero disables circuit breaking.
+		 * 
+		 * @param failureRate the failure rate at which to open, between 0 and 1, zero to disable
+		 * @param minimumCalls the amount of lookups over which to measure the failure rate
+		 * @return this builder
+		 * @throws IllegalArgumentException if {@code failureRate} is not between 0 and 1, or
+		 * {@code minimumCalls} is not positive
+		 */
+		public Builder circuitBreaker(double failureRate, int minimumCalls) {
+			if (!(failureRate >= 0D && failureRate <= 1D)) {
+				throw new IllegalArgumentException("Failure rate must be between 0 and 1");
+			}
+			if (minimumCalls <= 0) {
+				throw new IllegalArgumentException("Minimum calls must be positive");
+			}
+			this.circuitBreakerFailureRate = failureRate;
+			this.circuitBreakerMinimumCalls = minimumCalls;
+			return this;
+		}
+
+		/**
+		 * Sets the latency at which a successful lookup nonetheless counts as a failure for the
+		 * purposes of circuit breaking. Zero disables this, such that only exceptions and timeouts
+		 * are failures.
+		 * 
+		 * @param duration the duration, zero to disable
+		 * @param unit the unit of the duration
+		 * @return this builder
+		 * @throws IllegalArgumentException if {@code duration} is negative
+		 */
+		public Builder circuitBreakerSlowCall(long duration, TimeUnit unit) {
+			this.circuitBreakerSlowCallMillis = nonNegativeMillis(duration, unit);
+			return this;
+		}
+
+		/**
+		 * Sets how long an open circuit breaker skips its resolver, before probing it again
+		 * 
+		 * @param duration the duration
+		 * @param unit the unit of the duration
+		 * @return this builder
+		 * @throws IllegalArgumentException if {@code duration} is not positive
+		 */
+		public Builder circuitBreakerCooldown(long duration, TimeUnit unit) {
+			this.circuitBreakerCooldownMillis = positiveMillis(duration, unit);
+			return this;
+		}
+
+		/**
+		 * Sets the file in which results found by registered resolvers are persisted across restarts,
+		 * and the maximum amount of mappings it holds. The file is memory mapped, such that persisted
+		 * mappings are available as soon as the implementation starts. <br>
+		 * <br>
+		 * The file takes roughly 96 bytes per mapping of capacity. A size of zero disables persistence.
+		 * 
+		 * @param file the cache file, may be null if {@code size} is zero
+		 * @param size the maximum amount of mappings, zero to disable
+		 * @return this builder
+		 * @throws IllegalArgumentException if {@code size} is negative
+		 * @throws NullPointerException if {@code file} is null and {@code size} is not zero
+		 */
+		public Builder persistentCache(Path file, int size) {
+			if (size < 0) {
+				throw new IllegalArgumentException("Persistent cache size must not be negative");
+			}
+			if (size != 0) {
+				Objects.requireNonNull(file, "Persistent cache file must not be null");
+			}
+			this.persistentCacheFile = file;
+			this.persistentCacheSize = size;
+			return this;
+		}
+
+		/**
+		 * Sets how long a persisted mapping remains valid
+		 * 
+		 * @param duration the duration
+		 * @param unit the unit of the duration
+		 * @return this builder
+		 * @throws IllegalArgumentException if {@code duration} is not positive
+		 */
+		public Builder persistentCacheMaxAge(long duration, TimeUnit unit) {
+			this.persistentCacheMaxAgeMillis = positiveMillis(duration, unit);
+			return this;
+		}
+
+		/**
+		 * Sets whether mappings are propagated from a proxy to its backend servers over plugin messaging. <br>
+		 * <br>
+		 * On BungeeCord and Velocity, the name and uuid of each player connecting to a backend server
+		 * are sent to the backend servers. On Spigot, mappings so received are cached as if found by
+		 * a registered resolver. <br>
+		 * <br>
+		 * Enable this on a backend server only if it cannot be joined except through the proxy,
+		 * since players connecting directly could otherwise send mappings of their own.
+		 * 
+		 * @param mappingPropagation whether to propagate mappings
+		 * @return this builder
+		 */
+		public Builder mappingPropagation(boolean mappingPropagation) {
+			this.mappingPropagation = mappingPropagation;
+			return this;
+		}
+
+		private static long nonNegativeMillis(long duration, TimeUnit unit) {
+			if (duration < 0L) {
+				throw new IllegalArgumentException("Duration must not be negative");
+			}
+			return unit.toMillis(duration);
+		}
+
+		private static long positiveMillis(long duration, TimeUnit unit) {
+			if (duration <= 0L) {
+				throw new IllegalArgumentException("Duration must be positive");
+			}
+			return unit.toMillis(duration);
+		}
+
+		/**
+		 * Builds into settings
+		 * 
+		 * @return the settings
+		 */
+		public VaultSettings build() {
+			return new VaultSettings(this);
+		}
+
+	}
+
+	/**
+	 * When native resolution is consulted during collective resolution
+	 * 
+	 * @author A248
+	 * 
+	 */
+	public enum NativeStage {
+
+		/**
+		 * Native resolution is never consulted
+		 * 
+		 */
+		NONE,
+		/**
+		 * Native resolution is consulted before any registered resolver
+		 * 
+		 */
+		FIRST,
+		/**
+		 * Native resolution is consulted after every registered resolver found nothing
+		 * 
+		 */
+		LAST
+
+	}
+
+	/**
+	 * Which threads run the continuations of asynchronous lookups
+	 * 
+	 * @author A248
+	 * 
+	 */
+	public enum DispatchMode {
+
+		/**
+		 * Continuations run on whichever thread completed the previous stage, such as
+		 * a resolver's database thread, or the calling thread if already complete
+		 * 
+		 */
+		CALLER,
+		/**
+		 * Continuations run on a dedicated, bounded pool of threads
+		 * 
+		 */
+		POOL,
+		/**
+		 * Continuations run on a new virtual thread each. Requires Java 21,
+		 * otherwise the dedicated pool is used instead
+		 * 
+		 */
+		VIRTUAL
+
+	}
+
+}
@@ -0,0 +1,86 @@
+/* 
+ * UUIDVault-plugin
+ * Copyright © 2020 Anand Beh <https://www.arim.space>
+ * 
+ * UUIDVault-plugin is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Lesser General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ * 
+ * UUIDVault-plugin is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the
+ * GNU Lesser General Public License for more details.
+ * 
+ * You should have received a copy of the GNU Lesser General Public License
+ * along with UUIDVault-plugin. If not, see <https://www.gnu.org/licenses/>
+ * and navigate to version 3 of the GNU Lesser General Public License.
+ */
+package space.arim.uuidvault.plugin;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+import java.util.Iterator;
+import java.util.UUID;
+import java.util.concurrent.TimeUnit;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import space.arim.uuidvault.api.UUIDVaultPriority;
+import space.arim.uuidvault.api.UUIDVaultRegistration;
+
+public class AdaptiveOrderingTest {
+
+	private TestableUUIDVault vault;
+	private UUIDVaultRegistration high;
+	private UUIDVaultRegistration missing;
+	private UUIDVaultRegistration finding;
+	
+	@BeforeEach
+	public void setup() {
+		// Long interval, so that reordering only occurs when the test wants it
+		vault = new TestableUUIDVault(VaultSettings.builder().adaptiveOrdering(1L, TimeUnit.HOURS).build());
+		high = vault.register(new CountingResolver(new UUID(0, 3), "Unused"), CountingResolver.class,
+				UUIDVaultPriority.HIGH, "High");
+		missing = vault.register(new SingleImmediateResolver(new UUID(0, 2), "Other"), SingleImmediateResolver.class,
+				UUIDVaultPriority.NORMAL, "Missing");
+		finding = vault.register(new SingleImmediateResolver(new UUID(0, 1), "A248"), AdaptiveOrderingTest.class,
+				UUIDVaultPriority.NORMAL, "Finding");
+	}
+	
+	@AfterEach
+	public void shutdown() {
+		vault.shutdown();
+	}
+	
+	private void resolveAndReorder() {
+		for (int n = 0; n < 10; n++) {
+			assertEquals(new UUID(0, 1), vault.resolveImmediately("A248"));
+		}
+		vault.reorderAdaptively();
+	}
+	
+	@Test
+	public void testFrequentHitsMoveAhead() {
+		// Twice, since a registration which was never queried is tried first
+		resolveAndReorder();
+		resolveAndReorder();
+		Iterator<UUIDVaultRegistration> order = vault.getStatistics().keySet().iterator();
+		assertEquals(high, order.next(), "Declared priorities must be respected");
+		assertEquals(finding, order.next());
+		assertEquals(missing, order.next());
+	}
+	
+	@Test
+	public void testUnregisterAfterReorder() {
+		resolveAndReorder();
+		resolveAndReorder();
+		assertTrue(vault.unregister(missing));
+		assertFalse(vault.unregister(missing));
+		assertTrue(vault.unregister(finding));
+		assertEquals(1, vault.getStatistics().size());
+	}
+	
+}
@@ -0,0 +1,87 @@
+/* 
+ * UUIDVault-plugin
+ * Copyright © 2020 Anand Beh <https://www.arim.space>
+ * 
+ * UUIDVault-plugin is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Lesser General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ * 
+ * UUIDVault-plugin is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the
+ * GNU Lesser General Public License for more details.
+ * 
+ * You should have received a copy of the GNU Lesser General Public License
+ * along with UUIDVault-plugin. If not, see <https://www.gnu.org/licenses/>
+ * and navigate to version 3 of the GNU Lesser General Public License.
+ */
+package space.arim.uuidvault.plugin;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.HashSet;
+import java.util.Map;
+import java.util.UUID;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import space.arim.uuidvault.api.UUIDVaultPriority;
+
+public class BulkResolutionTest {
+
+	private final UUID uuid1 = new UUID(0, 1);
+	private final UUID uuid2 = new UUID(0, 2);
+	private final UUID uuid3 = new UUID(0, 3);
+	
+	private TestableUUIDVault vault;
+	private CountingResolver counting;
+	private MapBatchResolver batch;
+	
+	@BeforeEach
+	public void setup() {
+		vault = new TestableUUIDVault();
+		vault.register(new SingleImmediateResolver(uuid1, "Immediate"), SingleImmediateResolver.class,
+				UUIDVaultPriority.HIGHEST, "Immediate");
+		counting = new CountingResolver(uuid2, "Counting");
+		vault.register(counting, CountingResolver.class, UUIDVaultPriority.HIGH, "Counting");
+		batch = new MapBatchResolver(uuid3, "Batch");
+		vault.register(batch, MapBatchResolver.class, UUIDVaultPriority.NORMAL, "Batch");
+	}
+	
+	@Test
+	public void testResolveAllByName() {
+		Map<String, UUID> result = vault.resolveAllByName(
+				Arrays.asList("Immediate", "counting", "COUNTING", "Batch", "Unknown", "invalid name")).join();
+		assertEquals(uuid1, result.get("Immediate"));
+		assertEquals(uuid2, result.get("counting"));
+		assertEquals(uuid2, result.get("COUNTING"), "Names differing in case should both be found");
+		assertEquals(uuid3, result.get("Batch"));
+		assertEquals(4, result.size(), "Names not found should be absent");
+
+		assertEquals(3, counting.calls.get(), "Non-batch resolvers should be asked once per pending name");
+		assertEquals(Collections.singletonList(new HashSet<>(Arrays.asList("Batch", "Unknown"))), batch.batches,
+				"Batch resolvers should be asked only for names still pending");
+	}
+	
+	@Test
+	public void testResolveAllByUUID() {
+		Map<UUID, String> result = vault.resolveAllByUUID(Arrays.asList(uuid1, uuid2, uuid3, uuid3)).join();
+		assertEquals("Immediate", result.get(uuid1));
+		assertEquals("Counting", result.get(uuid2));
+		assertEquals("Batch", result.get(uuid3));
+		assertEquals(1, batch.batches.size());
+		assertEquals(Collections.singleton(uuid3), batch.batches.get(0));
+	}
+	
+	@Test
+	public void testNothingPending() {
+		assertTrue(vault.resolveAllByName(Collections.emptyList()).join().isEmpty());
+		vault.resolveAllByUUID(Collections.singleton(uuid1)).join();
+		assertTrue(batch.batches.isEmpty(), "Batch resolver should not be asked if nothing is pending");
+	}
+	
+}
@@ -0,0 +1,88 @@
+/* 
+ * UUIDVault-plugin
+ * Copyright © 2020 Anand Beh <https://www.arim.space>
+ * 
+ * UUIDVault-plugin is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Lesser General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ * 
+ * UUIDVault-plugin is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the
+ * GNU Lesser General Public License for more details.
+ * 
+ * You should have received a copy of the GNU Lesser General Public License
+ * along with UUIDVault-plugin. If not, see <https://www.gnu.org/licenses/>
+ * and navigate to version 3 of the GNU Lesser General Public License.
+ */
+package space.arim.uuidvault.plugin;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.List;
+import java.util.UUID;
+import java.util.concurrent.CompletableFuture;
+
+import org.junit.jupiter.api.Test;
+
+import space.arim.uuidvault.api.CandidateResolver;
+import space.arim.uuidvault.api.UUIDCandidate;
+import space.arim.uuidvault.api.UUIDVaultPriority;
+
+public class CandidateResolutionTest {
+
+	private static final UUID FIRST = new UUID(0, 1);
+	private static final UUID SECOND = new UUID(0, 2);
+	private static final UUID THIRD = new UUID(0, 3);
+	private static final UUID ONLINE = new UUID(0, 4);
+
+	@Test
+	public void testMergedNewestFirst() {
+		TestableUUIDVault vault = new TestableUUIDVault();
+		vault.register(new FixedCandidateResolver(UUIDCandidate.of(FIRST, 100L), UUIDCandidate.of(SECOND, 300L)),
+				FixedCandidateResolver.class, UUIDVaultPriority.HIGH, "High");
+		vault.register(new CountingResolver(THIRD, "A248"), CountingResolver.class, UUIDVaultPriority.NORMAL, "Counting");
+		vault.register(new FixedCandidateResolver(UUIDCandidate.of(FIRST, 200L)),
+				CandidateResolutionTest.class, UUIDVaultPriority.LOW, "Low");
+
+		List<UUIDCandidate> candidates = vault.resolveAllCandidates("a248").join();
+		assertEquals(Arrays.asList(UUIDCandidate.of(SECOND, 300L), UUIDCandidate.of(FIRST, 200L),
+				UUIDCandidate.ofUnknownRecency(THIRD)), candidates);
+		assertFalse(candidates.get(2).isLastSeenKnown());
+		assertTrue(vault.resolveAllCandidates("not valid").join().isEmpty());
+	}
+
+	@Test
+	public void testOnlinePlayer() {
+		TestableUUIDVault vault = new TestableUUIDVault(VaultSettings.builder()
+				.onlinePlayerIndex(true).nativeStage(VaultSettings.NativeStage.LAST).build());
+		vault.register(new FixedCandidateResolver(UUIDCandidate.of(FIRST, 100L)),
+				FixedCandidateResolver.class, UUIDVaultPriority.NORMAL, "Fixed");
+		vault.onlinePlayers().add(ONLINE, "A248");
+
+		List<UUIDCandidate> candidates = vault.resolveAllCandidates("A248").join();
+		assertEquals(2, candidates.size());
+		assertEquals(ONLINE, candidates.get(0).getUUID(), "Online player should be the newest candidate");
+		assertEquals(FIRST, candidates.get(1).getUUID());
+	}
+
+	private static class FixedCandidateResolver extends CountingResolver implements CandidateResolver {
+
+		private final List<UUIDCandidate> candidates;
+
+		FixedCandidateResolver(UUIDCandidate... candidates) {
+			super(new UUID(0, 0), "");
+			this.candidates = Arrays.asList(candidates);
+		}
+
+		@Override
+		public CompletableFuture<Collection<UUIDCandidate>> resolveCandidates(String name) {
+			return CompletableFuture.completedFuture(candidates);
+		}
+
+	}
+
+}
@@ -0,0 +1,57 @@
+/* 
+ * UUIDVault-plugin
+ * Copyright © 2020 Anand Beh <https://www.arim.space>
+ * 
+ * UUIDVault-plugin is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Lesser General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ * 
+ * UUIDVault-plugin is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the
+ * GNU Lesser General Public License for more details.
+ * 
+ * You should have received a copy of the GNU Lesser General Public License
+ * along with UUIDVault-plugin. If not, see <https://www.gnu.org/licenses/>
+ * and navigate to version 3 of the GNU Lesser General Public License.
+ */
+package space.arim.uuidvault.plugin;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+import org.junit.jupiter.api.Test;
+
+import space.arim.uuidvault.api.UUIDVaultPriority;
+
+public class CanonicalNameResolutionTest {
+
+	@Test
+	public void testCanonicalNamesPassedThrough() {
+		TestableUUIDVault vault = new TestableUUIDVault();
+		RecordingCanonicalResolver resolver = new RecordingCanonicalResolver();
+		vault.register(resolver, RecordingCanonicalResolver.class, UUIDVaultPriority.NORMAL, "Recording");
+
+		assertNull(vault.resolve("A248").join());
+		assertEquals(2, resolver.received.size());
+		assertEquals("a248", resolver.received.get(0).getFolded());
+		assertEquals("A248", resolver.received.get(1).getName());
+	}
+
+	@Test
+	public void testStrictValidationRejectsEarly() {
+		TestableUUIDVault vault = new TestableUUIDVault(VaultSettings.builder().strictNameValidation(true).build());
+		RecordingCanonicalResolver resolver = new RecordingCanonicalResolver();
+		vault.register(resolver, RecordingCanonicalResolver.class, UUIDVaultPriority.NORMAL, "Recording");
+
+		assertNull(vault.resolve(".Bedrock").join());
+		assertNull(vault.resolveImmediately("not-valid"));
+		assertTrue(resolver.received.isEmpty(), "Invalid names should not reach resolvers");
+
+		TestableUUIDVault lenientVault = new TestableUUIDVault();
+		lenientVault.register(resolver, RecordingCanonicalResolver.class, UUIDVaultPriority.NORMAL, "Recording");
+		assertNull(lenientVault.resolveImmediately(".Bedrock"));
+		assertEquals(1, resolver.received.size(), "Lenient validation should allow prefixed names");
+	}
+
+}
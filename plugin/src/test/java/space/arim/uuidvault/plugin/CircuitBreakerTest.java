@@ -0,0 +1,104 @@
+/* 
+ * UUIDVault-plugin
+ * Copyright © 2020 Anand Beh <https://www.arim.space>
+ * 
+ * UUIDVault-plugin is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Lesser General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ * 
+ * UUIDVault-plugin is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the
+ * GNU Lesser General Public License for more details.
+ * 
+ * You should have received a copy of the GNU Lesser General Public License
+ * along with UUIDVault-plugin. If not, see <https://www.gnu.org/licenses/>
+ * and navigate to version 3 of the GNU Lesser General Public License.
+ */
+package space.arim.uuidvault.plugin;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+import java.util.concurrent.TimeUnit;
+
+import org.junit.jupiter.api.Test;
+
+import space.arim.uuidvault.api.CircuitState;
+import space.arim.uuidvault.api.UUIDVaultPriority;
+import space.arim.uuidvault.api.UUIDVaultRegistration;
+
+public class CircuitBreakerTest {
+
+	@Test
+	public void testOpensAndSkips() {
+		TestableUUIDVault vault = new TestableUUIDVault(VaultSettings.builder()
+				.circuitBreaker(0.5D, 4).circuitBreakerCooldown(1L, TimeUnit.HOURS).build());
+		DeferredResolver failing = new DeferredResolver();
+		UUIDVaultRegistration registration = vault.register(failing, DeferredResolver.class,
+				UUIDVaultPriority.NORMAL, "Failing");
+		failing.uuidFuture.completeExceptionally(new IllegalStateException("Expected exception"));
+		for (int n = 0; n < 4; n++) {
+			assertNull(vault.resolve("A248").join());
+		}
+		assertEquals(CircuitState.OPEN, vault.getStatistics().get(registration).getCircuitState());
+		assertNull(vault.resolve("A248").join());
+		assertEquals(4, failing.calls.get(), "An open breaker should skip its resolver");
+	}
+	
+	@Test
+	public void testProbeAfterCooldown() throws InterruptedException {
+		CircuitBreaker breaker = new CircuitBreaker(0.5D, 2, 0L, 100L);
+		Object beforeOpen = breaker.tryAcquire();
+		breaker.recordOutcome(breaker.tryAcquire(), true, 0L);
+		breaker.recordOutcome(breaker.tryAcquire(), false, 0L);
+		assertEquals(CircuitState.OPEN, breaker.state());
+		assertFalse(breaker.allowsImmediate());
+		Thread.sleep(150L);
+		Object probe = breaker.tryAcquire();
+		assertNotNull(probe, "The first lookup after the cooldown should probe");
+		assertNull(breaker.tryAcquire(), "Only one probe should be let through");
+		assertEquals(CircuitState.HALF_OPEN, breaker.state());
+		breaker.recordOutcome(beforeOpen, false, 0L);
+		assertEquals(CircuitState.HALF_OPEN, breaker.state(), "Only the probe should close the breaker");
+		breaker.recordOutcome(probe, false, 0L);
+		assertEquals(CircuitState.CLOSED, breaker.state());
+	}
+	
+	@Test
+	public void testProbeNeverCompleting() throws InterruptedException {
+		CircuitBreaker breaker = new CircuitBreaker(1D, 1, 0L, 100L);
+		breaker.recordOutcome(breaker.tryAcquire(), true, 0L);
+		Thread.sleep(150L);
+		Object lostProbe = breaker.tryAcquire();
+		assertNotNull(lostProbe);
+		// The probe's future never completes
+		assertNull(breaker.tryAcquire());
+		Thread.sleep(150L);
+		Object probe = breaker.tryAcquire();
+		assertNotNull(probe, "An outstanding probe should be replaced after the cooldown");
+		assertNotSame(lostProbe, probe);
+		breaker.recordOutcome(lostProbe, true, 0L);
+		assertEquals(CircuitState.HALF_OPEN, breaker.state(), "A replaced probe should not reopen the breaker");
+		breaker.recordOutcome(probe, false, 0L);
+		assertEquals(CircuitState.CLOSED, breaker.state());
+	}
+	
+	@Test
+	public void testSlowCallsCountAsFailures() {
+		CircuitBreaker breaker = new CircuitBreaker(1D, 2, 10L, 60_000L);
+		breaker.recordOutcome(breaker.tryAcquire(), false, TimeUnit.MILLISECONDS.toNanos(20L));
+		breaker.recordOutcome(breaker.tryAcquire(), false, TimeUnit.MILLISECONDS.toNanos(20L));
+		assertEquals(CircuitState.OPEN, breaker.state());
+		assertNull(breaker.tryAcquire());
+	}
+	
+	@Test
+	public void testDisabled() {
+		CircuitBreaker breaker = new CircuitBreaker(0D, 1, 0L, 60_000L);
+		breaker.recordOutcome(breaker.tryAcquire(), true, 0L);
+		assertEquals(CircuitState.CLOSED, breaker.state());
+		assertNotNull(breaker.tryAcquire());
+	}
+	
+}
@@ -0,0 +1,60 @@
+/* 
+ * UUIDVault-plugin
+ * Copyright © 2020 Anand Beh <https://www.arim.space>
+ * 
+ * UUIDVault-plugin is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Lesser General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ * 
+ * UUIDVault-plugin is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the
+ * GNU Lesser General Public License for more details.
+ * 
+ * You should have received a copy of the GNU Lesser General Public License
+ * along with UUIDVault-plugin. If not, see <https://www.gnu.org/licenses/>
+ * and navigate to version 3 of the GNU Lesser General Public License.
+ */
+package space.arim.uuidvault.plugin;
+
+import java.util.UUID;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import space.arim.uuidvault.api.UUIDResolver;
+
+/**
+ * Hands out the same incomplete futures to every caller, so that tests decide when
+ * and how resolution completes.
+ * 
+ */
+public class DeferredResolver implements UUIDResolver {
+
+	final CompletableFuture<UUID> uuidFuture = new CompletableFuture<>();
+	final CompletableFuture<String> nameFuture = new CompletableFuture<>();
+	final AtomicInteger calls = new AtomicInteger();
+
+	@Override
+	public CompletableFuture<UUID> resolve(String name) {
+		calls.incrementAndGet();
+		return uuidFuture;
+	}
+
+	@Override
+	public UUID resolveImmediately(String name) {
+		return null;
+	}
+
+	@Override
+	public CompletableFuture<String> resolve(UUID uuid) {
+		calls.incrementAndGet();
+		return nameFuture;
+	}
+
+	@Override
+	public String resolveImmediately(UUID uuid) {
+		return null;
+	}
+
+}
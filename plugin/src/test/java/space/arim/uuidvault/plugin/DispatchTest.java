@@ -0,0 +1,122 @@
+/* 
+ * UUIDVault-plugin
+ * Copyright © 2020 Anand Beh <https://www.arim.space>
+ * 
+ * UUIDVault-plugin is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Lesser General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ * 
+ * UUIDVault-plugin is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the
+ * GNU Lesser General Public License for more details.
+ * 
+ * You should have received a copy of the GNU Lesser General Public License
+ * along with UUIDVault-plugin. If not, see <https://www.gnu.org/licenses/>
+ * and navigate to version 3 of the GNU Lesser General Public License.
+ */
+package space.arim.uuidvault.plugin;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+import java.util.UUID;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.atomic.AtomicReference;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+
+import space.arim.uuidvault.api.UUIDResolver;
+import space.arim.uuidvault.api.UUIDVaultPriority;
+
+public class DispatchTest {
+
+	private TestableUUIDVault vault;
+
+	private TestableUUIDVault createVault(VaultSettings.DispatchMode mode) {
+		return vault = new TestableUUIDVault(VaultSettings.builder().dispatch(mode, 2).build());
+	}
+
+	@AfterEach
+	public void shutdown() {
+		if (vault != null) {
+			vault.shutdown();
+		}
+	}
+
+	private static void assertDispatchThread(Thread thread) {
+		assertNotNull(thread);
+		assertNotEquals(Thread.currentThread(), thread, "Continuation should not run on the completing thread");
+	}
+
+	private void testContinuationsDispatched() {
+		DeferredResolver high = new DeferredResolver();
+		ThreadRecordingResolver low = new ThreadRecordingResolver();
+		vault.register(high, DeferredResolver.class, UUIDVaultPriority.HIGH, "High");
+		vault.register(low, ThreadRecordingResolver.class, UUIDVaultPriority.LOW, "Low");
+
+		AtomicReference<Thread> callerStage = new AtomicReference<>();
+		CompletableFuture<UUID> result = vault.resolve("A248").whenComplete((ignore1, ignore2) -> {
+			callerStage.set(Thread.currentThread());
+		});
+		high.uuidFuture.complete(null);
+		assertEquals(new UUID(0, 1), result.join());
+		assertDispatchThread(low.thread.get());
+		assertDispatchThread(callerStage.get());
+	}
+
+	@Test
+	public void testPool() {
+		createVault(VaultSettings.DispatchMode.POOL);
+		testContinuationsDispatched();
+	}
+
+	@Test
+	public void testVirtualOrFallback() {
+		createVault(VaultSettings.DispatchMode.VIRTUAL);
+		testContinuationsDispatched();
+	}
+
+	@Test
+	public void testAfterShutdown() {
+		createVault(VaultSettings.DispatchMode.POOL).shutdown();
+		DeferredResolver high = new DeferredResolver();
+		ThreadRecordingResolver low = new ThreadRecordingResolver();
+		vault.register(high, DeferredResolver.class, UUIDVaultPriority.HIGH, "High");
+		vault.register(low, ThreadRecordingResolver.class, UUIDVaultPriority.LOW, "Low");
+
+		CompletableFuture<UUID> result = vault.resolve("A248");
+		high.uuidFuture.complete(null);
+		assertEquals(new UUID(0, 1), result.getNow(null), "Continuations should run inline once shut down");
+		assertEquals(Thread.currentThread(), low.thread.get());
+	}
+
+	private static class ThreadRecordingResolver implements UUIDResolver {
+
+		final AtomicReference<Thread> thread = new AtomicReference<>();
+
+		@Override
+		public CompletableFuture<UUID> resolve(String name) {
+			thread.set(Thread.currentThread());
+			return CompletableFuture.completedFuture(new UUID(0, 1));
+		}
+
+		@Override
+		public UUID resolveImmediately(String name) {
+			return null;
+		}
+
+		@Override
+		public CompletableFuture<String> resolve(UUID uuid) {
+			return CompletableFuture.completedFuture(null);
+		}
+
+		@Override
+		public String resolveImmediately(UUID uuid) {
+			return null;
+		}
+
+	}
+
+}
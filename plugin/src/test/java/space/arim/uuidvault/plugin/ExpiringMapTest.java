@@ -0,0 +1,66 @@
+/* 
+ * UUIDVault-plugin
+ * Copyright © 2020 Anand Beh <https://www.arim.space>
+ * 
+ * UUIDVault-plugin is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Lesser General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ * 
+ * UUIDVault-plugin is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the
+ * GNU Lesser General Public License for more details.
+ * 
+ * You should have received a copy of the GNU Lesser General Public License
+ * along with UUIDVault-plugin. If not, see <https://www.gnu.org/licenses/>
+ * and navigate to version 3 of the GNU Lesser General Public License.
+ */
+package space.arim.uuidvault.plugin;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+import org.junit.jupiter.api.Test;
+
+public class ExpiringMapTest {
+
+	@Test
+	public void testReputKeyDoesNotEvictFreshEntries() {
+		ExpiringMap<String, String> map = new ExpiringMap<>(3, 60_000L);
+		map.put("a", "1");
+		map.remove("a");
+		map.put("a", "2");
+		map.put("b", "3");
+		map.put("c", "4");
+		assertEquals("2", map.get("a"), "Stale queued key must not evict its fresh entry");
+		assertEquals("3", map.get("b"));
+		assertEquals("4", map.get("c"));
+	}
+	
+	@Test
+	public void testChurnedKeyDoesNotEvictOthers() {
+		ExpiringMap<String, String> map = new ExpiringMap<>(3, 60_000L);
+		map.put("b", "1");
+		map.put("c", "2");
+		for (int n = 0; n < 1000; n++) {
+			map.put("a", "value" + n);
+			map.remove("a");
+		}
+		map.put("a", "fresh");
+		assertEquals("1", map.get("b"));
+		assertEquals("2", map.get("c"));
+		assertEquals("fresh", map.get("a"));
+	}
+	
+	@Test
+	public void testOldestEvictedWhenFull() {
+		ExpiringMap<String, String> map = new ExpiringMap<>(2, 60_000L);
+		map.put("a", "1");
+		map.put("b", "2");
+		map.put("c", "3");
+		assertNull(map.get("a"));
+		assertEquals("2", map.get("b"));
+		assertEquals("3", map.get("c"));
+	}
+	
+}
@@ -0,0 +1,83 @@
+/* 
+ * UUIDVault-plugin
+ * Copyright © 2020 Anand Beh <https://www.arim.space>
+ * 
+ * UUIDVault-plugin is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Lesser General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ * 
+ * UUIDVault-plugin is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the
+ * GNU Lesser General Public License for more details.
+ * 
+ * You should have received a copy of the GNU Lesser General Public License
+ * along with UUIDVault-plugin. If not, see <https://www.gnu.org/licenses/>
+ * and navigate to version 3 of the GNU Lesser General Public License.
+ */
+package space.arim.uuidvault.plugin;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.RejectedExecutionException;
+
+import org.junit.jupiter.api.Test;
+
+public class MainThreadBatcherTest {
+
+	@Test
+	public void testOneTaskPerBatch() {
+		List<Runnable> scheduled = new ArrayList<>();
+		MainThreadBatcher batcher = new MainThreadBatcher(scheduled::add, () -> false);
+		List<CompletableFuture<Integer>> futures = new ArrayList<>();
+		for (int n = 0; n < 100; n++) {
+			int value = n;
+			futures.add(batcher.submit(() -> value));
+		}
+		assertEquals(1, scheduled.size(), "Requests before the drain should share a single task");
+		assertFalse(futures.get(0).isDone());
+		scheduled.remove(0).run();
+		for (int n = 0; n < 100; n++) {
+			assertEquals(n, futures.get(n).getNow(null));
+		}
+		batcher.submit(() -> 0);
+		assertEquals(1, scheduled.size(), "Requests after the drain should schedule another task");
+	}
+	
+	@Test
+	public void testFailingTasksIsolated() {
+		List<Runnable> scheduled = new ArrayList<>();
+		MainThreadBatcher batcher = new MainThreadBatcher(scheduled::add, () -> false);
+		CompletableFuture<Integer> failing = batcher.submit(() -> {
+			throw new IllegalStateException("Expected exception");
+		});
+		CompletableFuture<Integer> succeeding = batcher.submit(() -> 1);
+		scheduled.remove(0).run();
+		assertTrue(failing.isCompletedExceptionally());
+		assertEquals(1, succeeding.getNow(null));
+	}
+	
+	@Test
+	public void testRefusedSchedule() {
+		MainThreadBatcher batcher = new MainThreadBatcher((command) -> {
+			throw new RejectedExecutionException("Expected exception");
+		}, () -> false);
+		assertTrue(batcher.submit(() -> 1).isCompletedExceptionally());
+	}
+	
+	@Test
+	public void testMainThreadRunsInline() {
+		List<Runnable> scheduled = new ArrayList<>();
+		MainThreadBatcher batcher = new MainThreadBatcher(scheduled::add, () -> true);
+		assertEquals(1, batcher.submit(() -> 1).getNow(null), "Tasks from the main thread must not wait a tick");
+		assertTrue(batcher.submit(() -> {
+			throw new IllegalStateException("Expected exception");
+		}).isCompletedExceptionally());
+		assertTrue(scheduled.isEmpty());
+	}
+	
+}
@@ -0,0 +1,89 @@
+/* 
+ * UUIDVault-plugin
+ * Copyright © 2020 Anand Beh <https://www.arim.space>
+ * 
+ * UUIDVault-plugin is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Lesser General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ * 
+ * UUIDVault-plugin is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the
+ * GNU Lesser General Public License for more details.
+ * 
+ * You should have received a copy of the GNU Lesser General Public License
+ * along with UUIDVault-plugin. If not, see <https://www.gnu.org/licenses/>
+ * and navigate to version 3 of the GNU Lesser General Public License.
+ */
+package space.arim.uuidvault.plugin;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Set;
+import java.util.UUID;
+import java.util.concurrent.CompletableFuture;
+
+import space.arim.uuidvault.api.BatchUUIDResolver;
+
+public class MapBatchResolver implements BatchUUIDResolver {
+
+	private final Map<String, UUID> uuids = new HashMap<>();
+	private final Map<UUID, String> names = new HashMap<>();
+	final List<Set<?>> batches = new ArrayList<>();
+	
+	MapBatchResolver(UUID uuid, String name) {
+		uuids.put(name.toLowerCase(Locale.ROOT), uuid);
+		names.put(uuid, name);
+	}
+	
+	@Override
+	public CompletableFuture<UUID> resolve(String name) {
+		throw new UnsupportedOperationException("Batch resolution should be used");
+	}
+
+	@Override
+	public UUID resolveImmediately(String name) {
+		return null;
+	}
+
+	@Override
+	public CompletableFuture<String> resolve(UUID uuid) {
+		throw new UnsupportedOperationException("Batch resolution should be used");
+	}
+
+	@Override
+	public String resolveImmediately(UUID uuid) {
+		return null;
+	}
+
+	@Override
+	public CompletableFuture<Map<String, UUID>> resolveAllByName(Set<String> names) {
+		batches.add(names);
+		Map<String, UUID> result = new HashMap<>();
+		for (String name : names) {
+			UUID uuid = uuids.get(name.toLowerCase(Locale.ROOT));
+			if (uuid != null) {
+				result.put(name, uuid);
+			}
+		}
+		return CompletableFuture.completedFuture(result);
+	}
+
+	@Override
+	public CompletableFuture<Map<UUID, String>> resolveAllByUUID(Set<UUID> uuids) {
+		batches.add(uuids);
+		Map<UUID, String> result = new HashMap<>();
+		for (UUID uuid : uuids) {
+			String name = names.get(uuid);
+			if (name != null) {
+				result.put(uuid, name);
+			}
+		}
+		return CompletableFuture.completedFuture(result);
+	}
+
+}
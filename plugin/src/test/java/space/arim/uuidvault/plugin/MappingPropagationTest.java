@@ -0,0 +1,111 @@
+/* 
+ * UUIDVault-plugin
+ * Copyright © 2020 Anand Beh <https://www.arim.space>
+ * 
+ * UUIDVault-plugin is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Lesser General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ * 
+ * UUIDVault-plugin is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the
+ * GNU Lesser General Public License for more details.
+ * 
+ * You should have received a copy of the GNU Lesser General Public License
+ * along with UUIDVault-plugin. If not, see <https://www.gnu.org/licenses/>
+ * and navigate to version 3 of the GNU Lesser General Public License.
+ */
+package space.arim.uuidvault.plugin;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+import java.util.concurrent.TimeUnit;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+
+public class MappingPropagationTest {
+
+	private TestableUUIDVault proxy;
+	private TestableUUIDVault backend;
+	
+	@AfterEach
+	public void shutdown() {
+		if (proxy != null) {
+			proxy.shutdown();
+		}
+		if (backend != null) {
+			backend.shutdown();
+		}
+	}
+	
+	@Test
+	public void testFrameRoundTrip() {
+		Map<UUID, String> mappings = new LinkedHashMap<>();
+		mappings.put(UUID.randomUUID(), "A248");
+		mappings.put(UUID.randomUUID(), "Some_Player_1234");
+		mappings.put(UUID.randomUUID(), ".BedrockPlayer");
+		mappings.put(UUID.randomUUID(), "Ünïcödé");
+		List<byte[]> frames = MappingFrame.encode(mappings);
+		assertEquals(1, frames.size());
+		assertEquals(mappings, MappingFrame.decode(frames.get(0)));
+	}
+	
+	@Test
+	public void testLargeBatchIsSplit() {
+		Map<UUID, String> mappings = new HashMap<>();
+		for (int n = 0; n < 3000; n++) {
+			mappings.put(new UUID(n, -n), "Player_" + (1_000_000_000 + n));
+		}
+		List<byte[]> frames = MappingFrame.encode(mappings);
+		assertTrue(frames.size() > 1);
+		Map<UUID, String> decoded = new HashMap<>();
+		for (byte[] frame : frames) {
+			assertTrue(frame.length <= MappingFrame.MAX_FRAME_BYTES);
+			decoded.putAll(MappingFrame.decode(frame));
+		}
+		assertEquals(mappings, decoded);
+	}
+	
+	@Test
+	public void testMalformedFramesRejected() {
+		byte[] frame = MappingFrame.encode(Collections.singletonMap(UUID.randomUUID(), "A248")).get(0);
+		assertThrows(IllegalArgumentException.class, () -> MappingFrame.decode(Arrays.copyOf(frame, frame.length - 1)));
+		assertThrows(IllegalArgumentException.class, () -> MappingFrame.decode(Arrays.copyOf(frame, frame.length + 1)));
+		byte[] otherVersion = frame.clone();
+		otherVersion[0] = MappingFrame.VERSION + 1;
+		assertThrows(IllegalArgumentException.class, () -> MappingFrame.decode(otherVersion));
+	}
+	
+	@Test
+	public void testLoopbackPropagation() throws InterruptedException {
+		proxy = new TestableUUIDVault();
+		backend = new TestableUUIDVault(VaultSettings.builder().cacheSize(100).build());
+		proxy.startPropagation(backend::receiveMappings);
+		UUID uuid = UUID.randomUUID();
+		proxy.propagateMapping(uuid, "A248");
+
+		long deadline = System.nanoTime() + TimeUnit.SECONDS.toNanos(5L);
+		while (backend.resolveImmediately(uuid) == null && System.nanoTime() < deadline) {
+			Thread.sleep(10L);
+		}
+		assertEquals("A248", backend.resolveImmediately(uuid));
+		assertEquals(uuid, backend.resolveImmediately("a248"));
+	}
+	
+	@Test
+	public void testMalformedFrameIgnored() {
+		backend = new TestableUUIDVault(VaultSettings.builder().cacheSize(100).build());
+		backend.receiveMappings(new byte[] {MappingFrame.VERSION, 0, 1});
+		assertNull(backend.resolveImmediately("A248"));
+	}
+	
+}
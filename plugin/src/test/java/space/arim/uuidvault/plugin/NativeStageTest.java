@@ -0,0 +1,74 @@
+/* 
+ * UUIDVault-plugin
+ * Copyright © 2020 Anand Beh <https://www.arim.space>
+ * 
+ * UUIDVault-plugin is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Lesser General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ * 
+ * UUIDVault-plugin is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the
+ * GNU Lesser General Public License for more details.
+ * 
+ * You should have received a copy of the GNU Lesser General Public License
+ * along with UUIDVault-plugin. If not, see <https://www.gnu.org/licenses/>
+ * and navigate to version 3 of the GNU Lesser General Public License.
+ */
+package space.arim.uuidvault.plugin;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.UUID;
+
+import org.junit.jupiter.api.Test;
+
+import space.arim.uuidvault.api.UUIDVaultPriority;
+import space.arim.uuidvault.plugin.VaultSettings.NativeStage;
+
+public class NativeStageTest {
+
+	private static final UUID ONLINE = new UUID(0, 1);
+	private static final UUID OFFLINE = new UUID(0, 2);
+	
+	private TestableUUIDVault vault;
+	private CountingResolver resolver;
+	
+	private void setup(NativeStage nativeStage) {
+		vault = new TestableUUIDVault(VaultSettings.builder().onlinePlayerIndex(true).nativeStage(nativeStage).build());
+		vault.onlinePlayers().add(ONLINE, "A248");
+		resolver = new CountingResolver(OFFLINE, "Offline");
+		vault.register(resolver, CountingResolver.class, UUIDVaultPriority.NORMAL, "Counting");
+	}
+	
+	@Test
+	public void testFirstStageSkipsRegistrations() {
+		setup(NativeStage.FIRST);
+		assertEquals(ONLINE, vault.resolveImmediately("a248"));
+		assertEquals(ONLINE, vault.resolve("A248").join());
+		assertEquals("A248", vault.resolve(ONLINE).join());
+		assertEquals(Collections.singletonMap(ONLINE, "A248"), vault.resolveAllByUUID(Arrays.asList(ONLINE)).join());
+		assertEquals(0, resolver.calls.get(), "Online players should be found without consulting registrations");
+		assertEquals(OFFLINE, vault.resolve("Offline").join());
+	}
+	
+	@Test
+	public void testLastStageFallsBack() {
+		setup(NativeStage.LAST);
+		assertEquals(ONLINE, vault.resolveImmediately("A248"));
+		assertEquals(ONLINE, vault.resolve("A248").join());
+		assertEquals(Collections.singletonMap("A248", ONLINE), vault.resolveAllByName(Arrays.asList("A248")).join());
+		assertEquals(2, resolver.calls.get(), "Registrations should be consulted before online players");
+	}
+	
+	@Test
+	public void testNoStage() {
+		setup(NativeStage.NONE);
+		assertNull(vault.resolve("A248").join());
+		assertNull(vault.resolveImmediately(ONLINE));
+	}
+	
+}
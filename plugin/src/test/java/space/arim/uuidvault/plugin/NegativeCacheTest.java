@@ -0,0 +1,109 @@
+/* 
+ * UUIDVault-plugin
+ * Copyright © 2020 Anand Beh <https://www.arim.space>
+ * 
+ * UUIDVault-plugin is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Lesser General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ * 
+ * UUIDVault-plugin is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the
+ * GNU Lesser General Public License for more details.
+ * 
+ * You should have received a copy of the GNU Lesser General Public License
+ * along with UUIDVault-plugin. If not, see <https://www.gnu.org/licenses/>
+ * and navigate to version 3 of the GNU Lesser General Public License.
+ */
+package space.arim.uuidvault.plugin;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+import java.util.Arrays;
+import java.util.UUID;
+import java.util.concurrent.CompletableFuture;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import space.arim.uuidvault.api.CanonicalName;
+import space.arim.uuidvault.api.UUIDVaultPriority;
+
+public class NegativeCacheTest {
+
+	private TestableUUIDVault vault;
+	private CountingResolver resolver;
+	
+	@BeforeEach
+	public void setup() {
+		vault = new TestableUUIDVault(VaultSettings.builder().negativeCacheSize(100).build());
+		resolver = new CountingResolver(new UUID(0, 1), "A248");
+		vault.register(resolver, CountingResolver.class, UUIDVaultPriority.NORMAL, "Counting");
+	}
+	
+	@Test
+	public void testRepeatedMissesShortCircuit() {
+		assertNull(vault.resolve("Unknown").join());
+		assertNull(vault.resolve("UNKNOWN").join());
+		assertNull(vault.resolve(new UUID(0, 2)).join());
+		assertNull(vault.resolve(new UUID(0, 2)).join());
+		assertEquals(2, resolver.calls.get(), "Repeated misses should not reach resolvers");
+		assertTrue(vault.resolveAllByName(Arrays.asList("Unknown")).join().isEmpty());
+		assertEquals(2, resolver.calls.get(), "Repeated misses should not reach resolvers in bulk");
+	}
+	
+	@Test
+	public void testHitsAreNotCachedAsMisses() {
+		assertEquals(new UUID(0, 1), vault.resolve("A248").join());
+		assertEquals(new UUID(0, 1), vault.resolve("A248").join());
+		assertEquals(2, resolver.calls.get(), "Only misses should be cached");
+	}
+	
+	@Test
+	public void testRegistrationInvalidates() {
+		UUID uuid = new UUID(0, 2);
+		assertNull(vault.resolve(uuid).join());
+		vault.register(new SingleImmediateResolver(uuid, "Other"), SingleImmediateResolver.class,
+				UUIDVaultPriority.LOW, "SingleImmediate");
+		assertEquals("Other", vault.resolve(uuid).join(), "New registrations should invalidate the negative cache");
+	}
+	
+	@Test
+	public void testLookupsInFlightDuringRegistrationNotCached() {
+		UUID uuid = new UUID(0, 2);
+		DeferredResolver deferred = new DeferredResolver();
+		vault.register(deferred, DeferredResolver.class, UUIDVaultPriority.HIGH, "Deferred");
+		CompletableFuture<String> future = vault.resolve(uuid);
+		vault.register(new SingleImmediateResolver(uuid, "Other"), SingleImmediateResolver.class,
+				UUIDVaultPriority.LOW, "SingleImmediate");
+		deferred.nameFuture.complete(null);
+		assertNull(future.join());
+		assertEquals("Other", vault.resolve(uuid).join(), "Misses of lookups begun before registration should not be cached");
+	}
+	
+	@Test
+	public void testFailedResolverIsNotCachedAsMissing() {
+		DeferredResolver failing = new DeferredResolver();
+		vault.register(failing, DeferredResolver.class, UUIDVaultPriority.HIGH, "Failing");
+		failing.uuidFuture.completeExceptionally(new IllegalStateException("Expected exception"));
+		failing.nameFuture.completeExceptionally(new IllegalStateException("Expected exception"));
+
+		assertNull(vault.resolve("Unknown").join());
+		assertNull(vault.resolve("Unknown").join());
+		assertNull(vault.resolve(new UUID(0, 2)).join());
+		assertNull(vault.resolve(new UUID(0, 2)).join());
+		assertEquals(4, resolver.calls.get(), "Misses involving an error must not be negatively cached");
+		assertEquals(4, failing.calls.get());
+	}
+	
+	@Test
+	public void testLearnedMappingsAreForgotten() {
+		NegativeCache cache = new NegativeCache(10, 60_000L);
+		cache.markMissing(CanonicalName.of("A248"));
+		assertTrue(cache.isMissing(CanonicalName.of("a248")));
+		cache.forget(CanonicalName.of("A248"));
+		assertFalse(cache.isMissing(CanonicalName.of("a248")));
+	}
+	
+}
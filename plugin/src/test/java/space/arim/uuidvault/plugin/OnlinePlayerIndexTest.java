@@ -0,0 +1,78 @@
+/* 
+ * UUIDVault-plugin
+ * Copyright © 2020 Anand Beh <https://www.arim.space>
+ * 
+ * UUIDVault-plugin is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Lesser General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ * 
+ * UUIDVault-plugin is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the
+ * GNU Lesser General Public License for more details.
+ * 
+ * You should have received a copy of the GNU Lesser General Public License
+ * along with UUIDVault-plugin. If not, see <https://www.gnu.org/licenses/>
+ * and navigate to version 3 of the GNU Lesser General Public License.
+ */
+package space.arim.uuidvault.plugin;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.UUID;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+public class OnlinePlayerIndexTest {
+
+	private TestableUUIDVault vault;
+	private OnlinePlayerIndex index;
+	
+	@BeforeEach
+	public void setup() {
+		vault = new TestableUUIDVault(VaultSettings.builder().onlinePlayerIndex(true).build());
+		index = vault.onlinePlayers();
+	}
+	
+	@Test
+	public void testDisabledByDefault() {
+		assertNull(new TestableUUIDVault().onlinePlayers());
+	}
+	
+	@Test
+	public void testNativeResolutionUsesIndex() {
+		UUID uuid = new UUID(0, 1);
+		index.add(uuid, "A248");
+		assertEquals(uuid, vault.resolveNatively("a248"));
+		assertEquals("A248", vault.resolveNatively(uuid));
+		index.remove(uuid, "A248");
+		assertNull(vault.resolveNatively("A248"));
+		assertNull(vault.resolveNatively(uuid));
+	}
+	
+	@Test
+	public void testStaleRemovalIgnored() {
+		UUID uuid = new UUID(0, 1);
+		index.add(uuid, "A248");
+		// The same player rejoined under a new name before the old quit was processed
+		index.add(uuid, "Other");
+		index.remove(uuid, "A248");
+		assertEquals("Other", vault.resolveNatively(uuid));
+		assertEquals(uuid, vault.resolveNatively("Other"));
+	}
+	
+	@Test
+	public void testBulkNativeResolution() {
+		UUID uuid = new UUID(0, 1);
+		index.add(uuid, "A248");
+		assertEquals(Collections.singletonMap("a248", uuid),
+				vault.resolveAllByNameNatively(Arrays.asList("a248", "Other")).join());
+		assertEquals(Collections.singletonMap(uuid, "A248"),
+				vault.resolveAllByUUIDNatively(Arrays.asList(uuid, new UUID(0, 2))).join());
+	}
+	
+}
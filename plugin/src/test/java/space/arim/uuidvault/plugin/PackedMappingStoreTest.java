@@ -0,0 +1,163 @@
+/* 
+ * UUIDVault-plugin
+ * Copyright © 2020 Anand Beh <https://www.arim.space>
+ * 
+ * UUIDVault-plugin is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Lesser General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ * 
+ * UUIDVault-plugin is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the
+ * GNU Lesser General Public License for more details.
+ * 
+ * You should have received a copy of the GNU Lesser General Public License
+ * along with UUIDVault-plugin. If not, see <https://www.gnu.org/licenses/>
+ * and navigate to version 3 of the GNU Lesser General Public License.
+ */
+package space.arim.uuidvault.plugin;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+import java.util.HashMap;
+import java.util.Map;
+import java.util.Random;
+import java.util.UUID;
+import java.util.concurrent.TimeUnit;
+
+import org.junit.jupiter.api.Test;
+
+import space.arim.uuidvault.api.CanonicalName;
+
+public class PackedMappingStoreTest {
+
+	private final UUID uuid = UUID.fromString("ed5f12cd-6007-45d9-a4b9-940524ddaecf");
+
+	@Test
+	public void testPackingRoundTrip() {
+		PackedMappingStore store = new PackedMappingStore(4, false);
+		for (String name : new String[] {"A", "A248", "abcdefghijklmnop", "Z_0123456789zZ_9", "ABCDEFGHIJK"}) {
+			assertTrue(store.put(uuid, name, true));
+			assertEquals(name, store.getName(uuid, true));
+			assertEquals(uuid, store.getUUID(CanonicalName.of(name.toLowerCase())), "Names should ignore case");
+			assertEquals(1, store.size());
+		}
+	}
+
+	@Test
+	public void testUnpackableNames() {
+		PackedMappingStore store = new PackedMappingStore(4, false);
+		assertFalse(store.put(uuid, "with-dash", true));
+		assertFalse(store.put(uuid, "seventeen_letters", true));
+		assertNull(store.getUUID(CanonicalName.of("with-dash")));
+		assertEquals(0, store.size());
+	}
+
+	@Test
+	public void testExactSpelling() {
+		PackedMappingStore store = new PackedMappingStore(4, false);
+		store.put(uuid, "a248", false);
+		assertNull(store.getName(uuid, true), "Inexact spelling should not answer exact lookups");
+		store.put(uuid, "A248", true);
+		store.put(uuid, "a248", false);
+		assertEquals("A248", store.getName(uuid, true), "Exact spelling should not be replaced by inexact");
+	}
+
+	@Test
+	public void testNameChanges() {
+		PackedMappingStore store = new PackedMappingStore(4, false);
+		UUID other = new UUID(0, 1);
+		store.put(uuid, "A248", true);
+		store.put(other, "Other", true);
+
+		store.put(uuid, "Renamed", true);
+		assertNull(store.getUUID(CanonicalName.of("A248")), "Previous name should no longer map");
+		assertEquals(uuid, store.getUUID(CanonicalName.of("renamed")));
+
+		store.put(other, "RENAMED", true);
+		assertEquals(other, store.getUUID(CanonicalName.of("renamed")), "Name should pass to the new owner");
+		assertNull(store.getName(uuid, false), "Previous owner should be removed");
+		assertEquals(1, store.size());
+	}
+
+	@Test
+	public void testFullWhenNotGrowable() {
+		PackedMappingStore store = new PackedMappingStore(2, false);
+		assertTrue(store.put(new UUID(0, 1), "first", true));
+		assertTrue(store.put(new UUID(0, 2), "second", true));
+		assertFalse(store.put(new UUID(0, 3), "third", true));
+		assertTrue(store.put(new UUID(0, 2), "renamed", true), "Existing mappings may still change");
+	}
+
+	@Test
+	public void testChurnAgainstReference() {
+		PackedMappingStore store = new PackedMappingStore(16, true);
+		Map<String, UUID> uuids = new HashMap<>();
+		Map<UUID, String> names = new HashMap<>();
+		Random random = new Random(248L);
+		for (int n = 0; n < 50_000; n++) {
+			UUID uuid = new UUID(0L, random.nextInt(5_000));
+			String name = "Player" + random.nextInt(5_000);
+			store.put(uuid, name, true);
+
+			UUID previousOwner = uuids.remove(name.toLowerCase());
+			if (previousOwner != null) {
+				names.remove(previousOwner);
+			}
+			String previousName = names.put(uuid, name);
+			if (previousName != null) {
+				uuids.remove(previousName.toLowerCase());
+			}
+			uuids.put(name.toLowerCase(), uuid);
+		}
+		assertEquals(names.size(), store.size());
+		for (Map.Entry<UUID, String> entry : names.entrySet()) {
+			assertEquals(entry.getValue(), store.getName(entry.getKey(), true));
+			assertEquals(entry.getKey(), store.getUUID(CanonicalName.of(entry.getValue())));
+		}
+		for (int n = 0; n < 5_000; n++) {
+			String name = "player" + n;
+			assertEquals(uuids.get(name), store.getUUID(CanonicalName.of(name)));
+		}
+	}
+
+	@Test
+	public void testPackedResultCache() {
+		PackedResultCache cache = new PackedResultCache(2, TimeUnit.MINUTES.toMillis(1L));
+		cache.putUUID(CanonicalName.of("a248"), uuid);
+		assertEquals(uuid, cache.getUUID(CanonicalName.of("A248")));
+		assertNull(cache.getName(uuid), "Names as looked up should not answer uuid lookups");
+		cache.putName(uuid, "A248");
+		assertEquals("A248", cache.getName(uuid));
+
+		cache.putName(new UUID(0, 1), "first");
+		cache.putName(new UUID(0, 2), "second");
+		cache.putName(new UUID(0, 3), "third");
+		assertEquals("A248", cache.getName(uuid), "Previous generation should remain");
+		cache.putName(new UUID(0, 4), "fourth");
+		assertNull(cache.getName(uuid), "Eldest generation should be evicted");
+		assertNull(cache.getName(new UUID(0, 1)), "Eldest generation should be evicted");
+		assertEquals("second", cache.getName(new UUID(0, 2)));
+	}
+
+	@Test
+	public void testPackedResultCacheExpiry() throws InterruptedException {
+		PackedResultCache cache = new PackedResultCache(10, 1L);
+		cache.putName(uuid, "A248");
+		Thread.sleep(5L);
+		assertNull(cache.getName(uuid), "Entry should have expired");
+	}
+
+	@Test
+	public void testResolver() {
+		PackedMappingResolver resolver = new PackedMappingResolver(1);
+		assertTrue(resolver.add(uuid, "A248"));
+		assertTrue(resolver.add(new UUID(0, 1), "Other"));
+		assertFalse(resolver.add(new UUID(0, 2), "not valid"));
+		assertEquals(2, resolver.size());
+		assertEquals(uuid, resolver.resolve("a248").join());
+		assertEquals("A248", resolver.resolveImmediately(uuid));
+	}
+
+}
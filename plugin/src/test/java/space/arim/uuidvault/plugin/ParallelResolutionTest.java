@@ -0,0 +1,70 @@
+/* 
+ * UUIDVault-plugin
+ * Copyright © 2020 Anand Beh <https://www.arim.space>
+ * 
+ * UUIDVault-plugin is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Lesser General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ * 
+ * UUIDVault-plugin is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the
+ * GNU Lesser General Public License for more details.
+ * 
+ * You should have received a copy of the GNU Lesser General Public License
+ * along with UUIDVault-plugin. If not, see <https://www.gnu.org/licenses/>
+ * and navigate to version 3 of the GNU Lesser General Public License.
+ */
+package space.arim.uuidvault.plugin;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+import java.util.UUID;
+import java.util.concurrent.CompletableFuture;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import space.arim.uuidvault.api.UUIDVaultPriority;
+
+public class ParallelResolutionTest {
+
+	private TestableUUIDVault vault;
+	private DeferredResolver high;
+	private DeferredResolver low;
+
+	@BeforeEach
+	public void setup() {
+		vault = new TestableUUIDVault(VaultSettings.builder().parallelResolution(true).build());
+		high = new DeferredResolver();
+		low = new DeferredResolver();
+		vault.register(high, DeferredResolver.class, UUIDVaultPriority.HIGH, "High");
+		vault.register(low, ParallelResolutionTest.class, UUIDVaultPriority.LOW, "Low");
+	}
+
+	@Test
+	public void testAllResolversStartTogether() {
+		CompletableFuture<UUID> result = vault.resolve("A248");
+		low.uuidFuture.complete(new UUID(0, 1));
+		assertFalse(result.isDone(), "Lower priority result must wait for higher priority resolvers");
+		high.uuidFuture.complete(null);
+		assertEquals(new UUID(0, 1), result.getNow(null));
+	}
+
+	@Test
+	public void testHigherPriorityWins() {
+		CompletableFuture<String> result = vault.resolve(new UUID(0, 1));
+		high.nameFuture.complete("A248");
+		assertEquals("A248", result.getNow(null), "Highest priority result need not wait for others");
+	}
+
+	@Test
+	public void testFailuresTreatedAsNull() {
+		CompletableFuture<String> result = vault.resolve(new UUID(0, 1));
+		high.nameFuture.completeExceptionally(new IllegalStateException("Expected exception"));
+		low.nameFuture.complete(null);
+		assertNull(result.join());
+	}
+
+}
@@ -0,0 +1,109 @@
+/* 
+ * UUIDVault-plugin
+ * Copyright © 2020 Anand Beh <https://www.arim.space>
+ * 
+ * UUIDVault-plugin is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Lesser General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ * 
+ * UUIDVault-plugin is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the
+ * GNU Lesser General Public License for more details.
+ * 
+ * You should have received a copy of the GNU Lesser General Public License
+ * along with UUIDVault-plugin. If not, see <https://www.gnu.org/licenses/>
+ * and navigate to version 3 of the GNU Lesser General Public License.
+ */
+package space.arim.uuidvault.plugin;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+import java.io.IOException;
+import java.nio.file.Path;
+import java.util.UUID;
+import java.util.concurrent.TimeUnit;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import space.arim.uuidvault.api.CanonicalName;
+import space.arim.uuidvault.api.UUIDVaultPriority;
+
+public class PersistentCacheTest {
+
+	private static final long MAX_AGE = TimeUnit.DAYS.toMillis(1L);
+	
+	@TempDir
+	public Path folder;
+	
+	@Test
+	public void testSurvivesReopen() throws IOException {
+		Path file = folder.resolve("cache.dat");
+		UUID uuid = new UUID(0, 1);
+		PersistentCache cache = PersistentCache.open(file, 100, MAX_AGE);
+		cache.putName(uuid, "A248");
+		cache.close();
+
+		cache = PersistentCache.open(file, 100, MAX_AGE);
+		assertEquals(uuid, cache.getUUID(CanonicalName.of("a248")));
+		assertEquals("A248", cache.getName(uuid));
+		cache.close();
+
+		cache = PersistentCache.open(file, 200, MAX_AGE);
+		assertNull(cache.getName(uuid), "A file with a different capacity should be discarded");
+		cache.close();
+	}
+	
+	@Test
+	public void testNameChangeMakesOldNameStale() throws IOException {
+		UUID uuid = new UUID(0, 1);
+		PersistentCache cache = PersistentCache.open(folder.resolve("cache.dat"), 100, MAX_AGE);
+		cache.putName(uuid, "OldName");
+		cache.putName(uuid, "NewName");
+		assertEquals("NewName", cache.getName(uuid));
+		assertEquals(uuid, cache.getUUID(CanonicalName.of("NewName")));
+		assertNull(cache.getUUID(CanonicalName.of("OldName")));
+		cache.close();
+	}
+	
+	@Test
+	public void testCompactionKeepsNewest() throws IOException, InterruptedException {
+		PersistentCache cache = PersistentCache.open(folder.resolve("cache.dat"), 16, MAX_AGE);
+		for (int n = 0; n < 12; n++) {
+			if (n == 4) {
+				// Records written in the same millisecond are equally old
+				Thread.sleep(5L);
+			}
+			cache.putName(new UUID(0, n), "Player" + n);
+		}
+		assertTrue(cache.compactIfNeeded());
+		assertFalse(cache.compactIfNeeded(), "Compaction should leave the tables at most half full");
+		for (int n = 4; n < 12; n++) {
+			assertEquals("Player" + n, cache.getName(new UUID(0, n)));
+			assertEquals(new UUID(0, n), cache.getUUID(CanonicalName.of("Player" + n)));
+		}
+		for (int n = 0; n < 4; n++) {
+			assertNull(cache.getName(new UUID(0, n)), "The oldest records should be dropped");
+		}
+		cache.close();
+	}
+	
+	@Test
+	public void testWarmStart() {
+		Path file = folder.resolve("cache.dat");
+		VaultSettings settings = VaultSettings.builder().persistentCache(file, 100).build();
+		TestableUUIDVault vault = new TestableUUIDVault(settings);
+		vault.register(new CountingResolver(new UUID(0, 1), "A248"), CountingResolver.class,
+				UUIDVaultPriority.NORMAL, "Counting");
+		assertEquals("A248", vault.resolve(new UUID(0, 1)).join());
+		vault.shutdown();
+
+		TestableUUIDVault restarted = new TestableUUIDVault(settings);
+		assertEquals("A248", restarted.resolveImmediately(new UUID(0, 1)));
+		assertEquals(new UUID(0, 1), restarted.resolveImmediately("a248"));
+		restarted.shutdown();
+	}
+	
+}
@@ -0,0 +1,47 @@
+/* 
+ * UUIDVault-plugin
+ * Copyright © 2020 Anand Beh <https://www.arim.space>
+ * 
+ * UUIDVault-plugin is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Lesser General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ * 
+ * UUIDVault-plugin is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the
+ * GNU Lesser General Public License for more details.
+ * 
+ * You should have received a copy of the GNU Lesser General Public License
+ * along with UUIDVault-plugin. If not, see <https://www.gnu.org/licenses/>
+ * and navigate to version 3 of the GNU Lesser General Public License.
+ */
+package space.arim.uuidvault.plugin;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+import java.util.concurrent.atomic.AtomicInteger;
+
+import org.junit.jupiter.api.Test;
+
+public class PluginLookupCacheTest {
+
+	@Test
+	public void testFoundPluginsCached() {
+		AtomicInteger scans = new AtomicInteger();
+		PluginLookupCache<String> cache = new PluginLookupCache<>((pluginClass) -> {
+			scans.incrementAndGet();
+			return (pluginClass == PluginLookupCacheTest.class) ? "Plugin" : null;
+		});
+		assertEquals("Plugin", cache.get(PluginLookupCacheTest.class));
+		assertEquals("Plugin", cache.get(PluginLookupCacheTest.class));
+		assertEquals(1, scans.get());
+		assertNull(cache.get(Object.class));
+		assertNull(cache.get(Object.class));
+		assertEquals(3, scans.get(), "Missing plugins should not be cached");
+		cache.invalidate(PluginLookupCacheTest.class);
+		assertEquals("Plugin", cache.get(PluginLookupCacheTest.class));
+		assertEquals(4, scans.get());
+	}
+	
+}
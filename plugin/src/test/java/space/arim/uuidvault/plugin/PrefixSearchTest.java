@@ -0,0 +1,92 @@
+/* 
+ * UUIDVault-plugin
+ * Copyright © 2020 Anand Beh <https://www.arim.space>
+ * 
+ * UUIDVault-plugin is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Lesser General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ * 
+ * UUIDVault-plugin is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the
+ * GNU Lesser General Public License for more details.
+ * 
+ * You should have received a copy of the GNU Lesser General Public License
+ * along with UUIDVault-plugin. If not, see <https://www.gnu.org/licenses/>
+ * and navigate to version 3 of the GNU Lesser General Public License.
+ */
+package space.arim.uuidvault.plugin;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+import java.util.Arrays;
+import java.util.List;
+import java.util.UUID;
+
+import org.junit.jupiter.api.Test;
+
+import space.arim.uuidvault.api.PrefixSearchResolver;
+import space.arim.uuidvault.api.UUIDVaultPriority;
+
+public class PrefixSearchTest {
+
+	@Test
+	public void testNameIndex() {
+		NameIndex index = new NameIndex(3);
+		index.add("Alice");
+		index.add("alfred");
+		index.add("Bob");
+		index.add("ALICE");
+
+		PrefixMatches matches = new PrefixMatches("AL", 10);
+		index.search(matches);
+		assertEquals(Arrays.asList("alfred", "ALICE"), matches.toList(), "Respellings should replace names");
+
+		index.add("Albert");
+		matches = new PrefixMatches("AL", 10);
+		index.search(matches);
+		assertEquals(Arrays.asList("Albert", "alfred"), matches.toList(), "Eldest name should be evicted");
+	}
+
+	@Test
+	public void testLimit() {
+		PrefixMatches matches = new PrefixMatches("a", 2);
+		for (String name : new String[] {"ad", "Ac", "b", "ab", "AB", "aa"}) {
+			matches.offer(name);
+		}
+		assertEquals(Arrays.asList("aa", "ab"), matches.toList());
+	}
+
+	@Test
+	public void testSearchVault() {
+		TestableUUIDVault vault = new TestableUUIDVault(VaultSettings.builder().nameIndexSize(100).onlinePlayerIndex(true).build());
+		vault.register(new CountingResolver(new UUID(0, 1), "A248"), CountingResolver.class, UUIDVaultPriority.LOW, "Counting");
+		vault.register(new SearchingResolver("Anand", "A249", "Bob"), SearchingResolver.class, UUIDVaultPriority.HIGH, "Searching");
+
+		assertEquals("A248", vault.resolve(new UUID(0, 1)).join());
+		vault.onlinePlayers().add(new UUID(0, 2), "a_joined");
+		assertEquals(Arrays.asList("A248", "A249", "a_joined", "Anand"), vault.searchByPrefix("a", 10));
+		assertEquals(Arrays.asList("A248", "A249"), vault.searchByPrefix("A2", 2));
+		assertTrue(vault.searchByPrefix("z", 10).isEmpty());
+		assertTrue(vault.searchByPrefix("a", 0).isEmpty());
+		assertThrows(IllegalArgumentException.class, () -> vault.searchByPrefix("a", -1));
+	}
+
+	private static class SearchingResolver extends CountingResolver implements PrefixSearchResolver {
+
+		private final List<String> names;
+
+		SearchingResolver(String... names) {
+			super(new UUID(0, 0), "");
+			this.names = Arrays.asList(names);
+		}
+
+		@Override
+		public List<String> searchByPrefix(String prefix, int limit) {
+			return names;
+		}
+
+	}
+
+}
@@ -0,0 +1,74 @@
+/* 
+ * UUIDVault-plugin
+ * Copyright © 2020 Anand Beh <https://www.arim.space>
+ * 
+ * UUIDVault-plugin is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Lesser General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ * 
+ * UUIDVault-plugin is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the
+ * GNU Lesser General Public License for more details.
+ * 
+ * You should have received a copy of the GNU Lesser General Public License
+ * along with UUIDVault-plugin. If not, see <https://www.gnu.org/licenses/>
+ * and navigate to version 3 of the GNU Lesser General Public License.
+ */
+package space.arim.uuidvault.plugin;
+
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CopyOnWriteArrayList;
+
+import space.arim.uuidvault.api.MappingListener;
+
+/**
+ * Finds nothing by itself, but remembers mappings delivered to it, and answers
+ * {@code resolveImmediately} from them.
+ * 
+ */
+public class RememberingResolver implements MappingListener {
+
+	final Map<String, UUID> uuids = new ConcurrentHashMap<>();
+	final Map<UUID, String> names = new ConcurrentHashMap<>();
+	final List<Map<String, UUID>> uuidBatches = new CopyOnWriteArrayList<>();
+	final List<Map<UUID, String>> nameBatches = new CopyOnWriteArrayList<>();
+
+	@Override
+	public CompletableFuture<UUID> resolve(String name) {
+		return CompletableFuture.completedFuture(resolveImmediately(name));
+	}
+
+	@Override
+	public UUID resolveImmediately(String name) {
+		return uuids.get(name.toLowerCase());
+	}
+
+	@Override
+	public CompletableFuture<String> resolve(UUID uuid) {
+		return CompletableFuture.completedFuture(resolveImmediately(uuid));
+	}
+
+	@Override
+	public String resolveImmediately(UUID uuid) {
+		return names.get(uuid);
+	}
+
+	@Override
+	public void onUUIDsFound(Map<String, UUID> uuids) {
+		uuids.forEach((name, uuid) -> this.uuids.put(name.toLowerCase(), uuid));
+		uuidBatches.add(uuids);
+	}
+
+	@Override
+	public void onNamesFound(Map<UUID, String> names) {
+		this.names.putAll(names);
+		nameBatches.add(names);
+	}
+
+}
@@ -0,0 +1,89 @@
+/* 
+ * UUIDVault-plugin
+ * Copyright © 2020 Anand Beh <https://www.arim.space>
+ * 
+ * UUIDVault-plugin is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Lesser General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ * 
+ * UUIDVault-plugin is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the
+ * GNU Lesser General Public License for more details.
+ * 
+ * You should have received a copy of the GNU Lesser General Public License
+ * along with UUIDVault-plugin. If not, see <https://www.gnu.org/licenses/>
+ * and navigate to version 3 of the GNU Lesser General Public License.
+ */
+package space.arim.uuidvault.plugin;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+import java.util.UUID;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.TimeUnit;
+
+import org.junit.jupiter.api.Test;
+
+import space.arim.uuidvault.api.CanonicalName;
+import space.arim.uuidvault.api.UUIDVaultPriority;
+import space.arim.uuidvault.api.UUIDVaultRegistration;
+
+public class ResultCacheTest {
+
+	private final UUID uuid = UUID.fromString("ed5f12cd-6007-45d9-a4b9-940524ddaecf");
+	private final String name = "A248";
+
+	@Test
+	public void testBoundedSize() {
+		ResultCache cache = new ExpiringResultCache(2, TimeUnit.MINUTES.toMillis(1L));
+		cache.putUUID(CanonicalName.of("first"), new UUID(0, 1));
+		cache.putUUID(CanonicalName.of("second"), new UUID(0, 2));
+		cache.putUUID(CanonicalName.of("third"), new UUID(0, 3));
+		assertNull(cache.getUUID(CanonicalName.of("first")), "Eldest entry should be evicted");
+		assertEquals(new UUID(0, 3), cache.getUUID(CanonicalName.of("THIRD")), "Name keys should ignore case");
+	}
+
+	@Test
+	public void testExpiry() throws InterruptedException {
+		ResultCache cache = new ExpiringResultCache(10, 1L);
+		cache.putName(uuid, name);
+		Thread.sleep(5L);
+		assertNull(cache.getName(uuid), "Entry should have expired");
+	}
+
+	@Test
+	public void testRepeatLookupsSkipResolvers() {
+		TestableUUIDVault vault = new TestableUUIDVault(VaultSettings.builder().cacheSize(100).build());
+		CountingResolver resolver = new CountingResolver(uuid, name);
+		UUIDVaultRegistration registration = vault.register(resolver, CountingResolver.class, UUIDVaultPriority.NORMAL, "Counting");
+
+		assertEquals(uuid, vault.resolve(name).join());
+		assertEquals(uuid, vault.resolve(name.toLowerCase()).join());
+		assertEquals(name, vault.resolve(uuid).join());
+		assertEquals(name, vault.resolveImmediately(uuid), "Cached result should be available immediately");
+		assertEquals(2, resolver.calls.get(), "Each direction should only be resolved once");
+
+		vault.register(new EmptyResolver(), EmptyResolver.class, UUIDVaultPriority.HIGH, "Empty");
+		assertNull(vault.resolveImmediately(name), "Registration should invalidate the cache");
+		assertTrue(vault.unregister(registration));
+		assertNull(vault.resolve(name).join(), "Unregistration should invalidate the cache");
+	}
+
+	@Test
+	public void testLookupsInFlightDuringRegistrationNotCached() {
+		TestableUUIDVault vault = new TestableUUIDVault(VaultSettings.builder().cacheSize(100).build());
+		DeferredResolver deferred = new DeferredResolver();
+		vault.register(deferred, DeferredResolver.class, UUIDVaultPriority.NORMAL, "Deferred");
+
+		CompletableFuture<UUID> future = vault.resolve(name);
+		vault.register(new SingleImmediateResolver(new UUID(0, 2), name), SingleImmediateResolver.class,
+				UUIDVaultPriority.HIGH, "SingleImmediate");
+		deferred.uuidFuture.complete(uuid);
+		assertEquals(uuid, future.join());
+		assertEquals(new UUID(0, 2), vault.resolveImmediately(name),
+				"Result of a lookup begun before registration should not be cached");
+	}
+
+}
@@ -0,0 +1,69 @@
+/* 
+ * UUIDVault-plugin
+ * Copyright © 2020 Anand Beh <https://www.arim.space>
+ * 
+ * UUIDVault-plugin is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Lesser General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ * 
+ * UUIDVault-plugin is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the
+ * GNU Lesser General Public License for more details.
+ * 
+ * You should have received a copy of the GNU Lesser General Public License
+ * along with UUIDVault-plugin. If not, see <https://www.gnu.org/licenses/>
+ * and navigate to version 3 of the GNU Lesser General Public License.
+ */
+package space.arim.uuidvault.plugin;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+import java.util.UUID;
+import java.util.concurrent.CompletableFuture;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import space.arim.uuidvault.api.CollectiveUUIDResolver;
+import space.arim.uuidvault.api.UUIDVaultPriority;
+import space.arim.uuidvault.api.UUIDVaultRegistration;
+
+public class SingleFlightTest {
+
+	private TestableUUIDVault vault;
+	private DeferredResolver resolver;
+	
+	@BeforeEach
+	public void setup() {
+		vault = new TestableUUIDVault();
+		resolver = new DeferredResolver();
+		vault.register(resolver, DeferredResolver.class, UUIDVaultPriority.NORMAL, "Deferred");
+	}
+	
+	@Test
+	public void testConcurrentLookupsShareResolution() {
+		CompletableFuture<UUID> first = vault.resolve("A248");
+		CompletableFuture<UUID> second = vault.resolve("a248");
+		assertEquals(1, resolver.calls.get(), "Identical lookups in flight should be coalesced");
+
+		first.complete(new UUID(0, 2));
+		UUID uuid = new UUID(0, 1);
+		resolver.uuidFuture.complete(uuid);
+		assertEquals(uuid, second.join(), "Completing one caller's future must not affect the others");
+
+		vault.resolve("A248");
+		assertEquals(2, resolver.calls.get(), "Completed lookups should no longer be shared");
+	}
+	
+	@Test
+	public void testSkippingResolverDoesNotShare() {
+		UUIDVaultRegistration other = EmptyResolver.register(vault, UUIDVaultPriority.LOW);
+		CollectiveUUIDResolver ignoringOther = vault.createCollectiveResolverIgnoring(other);
+		vault.resolve(new UUID(0, 1));
+		ignoringOther.resolve(new UUID(0, 1));
+		assertEquals(2, resolver.calls.get(), "Lookups skipping different resolvers must not be coalesced");
+	}
+	
+}
@@ -0,0 +1,103 @@
+/* 
+ * UUIDVault-plugin
+ * Copyright © 2020 Anand Beh <https://www.arim.space>
+ * 
+ * UUIDVault-plugin is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Lesser General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ * 
+ * UUIDVault-plugin is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the
+ * GNU Lesser General Public License for more details.
+ * 
+ * You should have received a copy of the GNU Lesser General Public License
+ * along with UUIDVault-plugin. If not, see <https://www.gnu.org/licenses/>
+ * and navigate to version 3 of the GNU Lesser General Public License.
+ */
+package space.arim.uuidvault.plugin;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+import java.util.Map;
+import java.util.UUID;
+import java.util.concurrent.TimeUnit;
+
+import org.junit.jupiter.api.Test;
+
+import space.arim.uuidvault.api.ResolverStatistics;
+import space.arim.uuidvault.api.UUIDVaultPriority;
+import space.arim.uuidvault.api.UUIDVaultRegistration;
+
+public class StatisticsTest {
+
+	@Test
+	public void testCounters() {
+		TestableUUIDVault vault = new TestableUUIDVault();
+		UUIDVaultRegistration registration = vault.register(new CountingResolver(new UUID(0, 1), "A248"),
+				CountingResolver.class, UUIDVaultPriority.NORMAL, "Counting");
+		DeferredResolver failing = new DeferredResolver();
+		UUIDVaultRegistration failingRegistration = vault.register(failing, DeferredResolver.class,
+				UUIDVaultPriority.HIGH, "Failing");
+		failing.uuidFuture.completeExceptionally(new IllegalStateException("Expected exception"));
+
+		assertEquals(new UUID(0, 1), vault.resolve("A248").join());
+		assertNull(vault.resolve("Unknown").join());
+
+		Map<UUIDVaultRegistration, ResolverStatistics> statistics = vault.getStatistics();
+		ResolverStatistics counting = statistics.get(registration);
+		assertEquals(1L, counting.getHits());
+		assertEquals(1L, counting.getMisses());
+		assertEquals(2L, counting.getImmediateMisses());
+		assertEquals(0L, counting.getImmediateHits());
+		assertEquals(2L, statistics.get(failingRegistration).getExceptions());
+		assertEquals(failingRegistration, statistics.keySet().iterator().next(), "Statistics should be in query order");
+	}
+
+	@Test
+	public void testLatencyPercentiles() {
+		LatencyHistogram histogram = new LatencyHistogram();
+		for (int n = 0; n < 99; n++) {
+			histogram.record(TimeUnit.MICROSECONDS.toNanos(100L));
+		}
+		histogram.record(TimeUnit.MILLISECONDS.toNanos(100L));
+		long[] counts = histogram.snapshot();
+		long p50 = LatencyHistogram.percentile(counts, 50D);
+		long p100 = LatencyHistogram.percentile(counts, 100D);
+		assertTrue(p50 >= 65_536L && p50 < 131_072L, "p50 should be within the bucket of 100 microseconds");
+		assertTrue(p100 >= 67_108_864L && p100 <= 134_217_728L, "p100 should be within the bucket of 100 milliseconds");
+		assertEquals(0L, LatencyHistogram.percentile(new LatencyHistogram().snapshot(), 50D));
+	}
+
+	@Test
+	public void testErrorsRateLimited() {
+		TestableUUIDVault vault = new TestableUUIDVault(VaultSettings.builder()
+				.errorLogBurst(2).errorLogWindow(1L, TimeUnit.HOURS).build());
+		DeferredResolver failing = new DeferredResolver();
+		UUIDVaultRegistration registration = vault.register(failing, DeferredResolver.class,
+				UUIDVaultPriority.NORMAL, "Failing");
+		failing.uuidFuture.completeExceptionally(new IllegalStateException("Expected exception"));
+		for (int n = 0; n < 5; n++) {
+			assertNull(vault.resolve("A248").join());
+		}
+		ResolverStatistics statistics = vault.getStatistics().get(registration);
+		assertEquals(5L, statistics.getExceptions());
+		assertEquals(3L, statistics.getSuppressedErrors(), "Errors beyond the burst should be suppressed");
+		vault.shutdown();
+	}
+
+	@Test
+	public void testErrorReporterDrains() {
+		ErrorReporter reporter = new ErrorReporter(1, TimeUnit.HOURS.toMillis(1L));
+		assertTrue(reporter.tryReport());
+		assertFalse(reporter.tryReport());
+		assertFalse(reporter.tryReport());
+		assertEquals(2L, reporter.drainSuppressed());
+		assertEquals(0L, reporter.drainSuppressed());
+		ErrorReporter unlimited = new ErrorReporter(1, 0L);
+		assertTrue(unlimited.tryReport());
+		assertTrue(unlimited.tryReport());
+	}
+
+}
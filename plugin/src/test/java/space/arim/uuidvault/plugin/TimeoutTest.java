@@ -0,0 +1,77 @@
+/* 
+ * UUIDVault-plugin
+ * Copyright © 2020 Anand Beh <https://www.arim.space>
+ * 
+ * UUIDVault-plugin is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Lesser General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ * 
+ * UUIDVault-plugin is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the
+ * GNU Lesser General Public License for more details.
+ * 
+ * You should have received a copy of the GNU Lesser General Public License
+ * along with UUIDVault-plugin. If not, see <https://www.gnu.org/licenses/>
+ * and navigate to version 3 of the GNU Lesser General Public License.
+ */
+package space.arim.uuidvault.plugin;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+import java.util.Arrays;
+import java.util.UUID;
+import java.util.concurrent.TimeUnit;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+
+import space.arim.uuidvault.api.UUIDVaultPriority;
+
+public class TimeoutTest {
+
+	private TestableUUIDVault vault;
+	
+	@AfterEach
+	public void shutdown() {
+		vault.shutdown();
+	}
+	
+	@Test
+	public void testTimedOutResolverIsSkipped() {
+		vault = new TestableUUIDVault(VaultSettings.builder().resolverTimeout(50L, TimeUnit.MILLISECONDS)
+				.negativeCacheSize(100).build());
+		DeferredResolver hanging = new DeferredResolver();
+		CountingResolver counting = new CountingResolver(new UUID(0, 1), "A248");
+		vault.register(hanging, DeferredResolver.class, UUIDVaultPriority.HIGH, "Hanging");
+		vault.register(counting, CountingResolver.class, UUIDVaultPriority.LOW, "Counting");
+
+		assertEquals(new UUID(0, 1), vault.resolve("A248").join(), "Next resolver should be asked after a timeout");
+		assertNull(vault.resolve("Unknown").join());
+		assertNull(vault.resolve("Unknown").join());
+		assertEquals(3, counting.calls.get(), "Misses involving a timeout must not be negatively cached");
+	}
+	
+	@Test
+	public void testTimeoutOverride() {
+		vault = new TestableUUIDVault(VaultSettings.builder().resolverTimeout("Hanging", 50L, TimeUnit.MILLISECONDS).build());
+		DeferredResolver hanging = new DeferredResolver();
+		vault.register(hanging, DeferredResolver.class, UUIDVaultPriority.HIGH, "Hanging");
+		assertNull(vault.resolve(new UUID(0, 1)).join());
+	}
+	
+	@Test
+	public void testDeadline() {
+		vault = new TestableUUIDVault(VaultSettings.builder().deadline(50L, TimeUnit.MILLISECONDS).build());
+		DeferredResolver hanging = new DeferredResolver();
+		CountingResolver counting = new CountingResolver(new UUID(0, 1), "A248");
+		vault.register(counting, CountingResolver.class, UUIDVaultPriority.HIGH, "Counting");
+		vault.register(hanging, DeferredResolver.class, UUIDVaultPriority.LOW, "Hanging");
+
+		assertNull(vault.resolve("Unknown").join());
+		assertEquals(new UUID(0, 1), vault.resolveAllByName(Arrays.asList("A248", "Unknown")).join().get("A248"),
+				"Results found before the deadline should be kept");
+	}
+	
+}
@@ -0,0 +1,103 @@
+/* 
+ * UUIDVault-plugin
+ * Copyright © 2020 Anand Beh <https://www.arim.space>
+ * 
+ * UUIDVault-plugin is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Lesser General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ * 
+ * UUIDVault-plugin is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the
+ * GNU Lesser General Public License for more details.
+ * 
+ * You should have received a copy of the GNU Lesser General Public License
+ * along with UUIDVault-plugin. If not, see <https://www.gnu.org/licenses/>
+ * and navigate to version 3 of the GNU Lesser General Public License.
+ */
+package space.arim.uuidvault.plugin;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+import java.util.UUID;
+import java.util.concurrent.CompletableFuture;
+import java.util.function.BooleanSupplier;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import space.arim.uuidvault.api.UUIDVaultPriority;
+
+public class WriteThroughTest {
+
+	private final UUID uuid = UUID.fromString("ed5f12cd-6007-45d9-a4b9-940524ddaecf");
+	private final String name = "A248";
+
+	private TestableUUIDVault vault;
+	private RememberingResolver high;
+	private RememberingResolver low;
+
+	@BeforeEach
+	public void setup() {
+		vault = new TestableUUIDVault(VaultSettings.defaults());
+		high = new RememberingResolver();
+		low = new RememberingResolver();
+		vault.register(high, RememberingResolver.class, UUIDVaultPriority.HIGH, "High");
+		vault.register(new CountingResolver(uuid, name), CountingResolver.class, UUIDVaultPriority.NORMAL, "Counting");
+		vault.register(low, WriteThroughTest.class, UUIDVaultPriority.LOW, "Low");
+	}
+
+	@AfterEach
+	public void shutdown() {
+		vault.shutdown();
+	}
+
+	private static void awaitCondition(BooleanSupplier condition) throws InterruptedException {
+		long deadline = System.nanoTime() + 5_000_000_000L;
+		while (!condition.getAsBoolean()) {
+			assertTrue(System.nanoTime() - deadline < 0L, "Timed out waiting for delivery");
+			Thread.sleep(5L);
+		}
+	}
+
+	@Test
+	public void testPublishedToHigherPriority() throws InterruptedException {
+		assertNull(vault.resolveImmediately(name));
+		assertEquals(uuid, vault.resolve(name).join());
+		assertEquals(name, vault.resolve(uuid).join());
+
+		awaitCondition(() -> !high.uuidBatches.isEmpty() && !high.nameBatches.isEmpty());
+		assertEquals(uuid, vault.resolveImmediately(name.toLowerCase()), "Listener should now know the mapping");
+		assertEquals(name, vault.resolveImmediately(uuid));
+		assertTrue(low.uuidBatches.isEmpty() && low.nameBatches.isEmpty(),
+				"Lower priority listeners were never asked, and should not be told");
+	}
+
+	@Test
+	public void testBatched() throws InterruptedException {
+		vault.register(new CountingResolver(new UUID(0, 1), "Other"), UUID.class, UUIDVaultPriority.NORMAL, "Other");
+		assertEquals(uuid, vault.resolve(name).join());
+		assertEquals(new UUID(0, 1), vault.resolve("Other").join());
+
+		awaitCondition(() -> high.uuids.size() == 2);
+		assertEquals(1, high.uuidBatches.size(), "Mappings found together should be delivered together");
+		assertEquals(2, high.uuidBatches.get(0).size());
+	}
+
+	@Test
+	public void testRegisteredDuringLookupNotTold() throws InterruptedException {
+		DeferredResolver deferred = new DeferredResolver();
+		vault.register(deferred, DeferredResolver.class, UUIDVaultPriority.LOWER, "Deferred");
+		CompletableFuture<UUID> future = vault.resolve("Other");
+		RememberingResolver late = new RememberingResolver();
+		vault.register(late, UUIDVaultPriority.class, UUIDVaultPriority.HIGHEST, "Late");
+		deferred.uuidFuture.complete(new UUID(0, 1));
+		assertEquals(new UUID(0, 1), future.join());
+
+		awaitCondition(() -> !high.uuidBatches.isEmpty());
+		assertTrue(late.uuidBatches.isEmpty(), "Listeners registered after the lookup began were never asked");
+	}
+
+}
@@ -0,0 +1,43 @@
+/* 
+ * UUIDVault-spigot
+ * Copyright © 2020 Anand Beh <https://www.arim.space>
+ * 
+ * UUIDVault-spigot is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Lesser General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ * 
+ * UUIDVault-spigot is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the
+ * GNU Lesser General Public License for more details.
+ * 
+ * You should have received a copy of the GNU Lesser General Public License
+ * along with UUIDVault-spigot. If not, see <https://www.gnu.org/licenses/>
+ * and navigate to version 3 of the GNU Lesser General Public License.
+ */
+package space.arim.uuidvault.plugin;
+
+import org.bukkit.entity.Player;
+import org.bukkit.plugin.messaging.PluginMessageListener;
+
+/**
+ * Receives mappings propagated by the proxy and caches them
+ * 
+ */
+public class SpigotMappingReceiver implements PluginMessageListener {
+
+	private final UUIDVaultSpigot vault;
+	
+	SpigotMappingReceiver(UUIDVaultSpigot vault) {
+		this.vault = vault;
+	}
+	
+	@Override
+	public void onPluginMessageReceived(String channel, Player player, byte[] message) {
+		if (MappingTransport.CHANNEL.equals(channel)) {
+			vault.receiveMappings(message);
+		}
+	}
+	
+}
@@ -0,0 +1,43 @@
+/* 
+ * UUIDVault-spigot
+ * Copyright © 2020 Anand Beh <https://www.arim.space>
+ * 
+ * UUIDVault-spigot is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Lesser General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ * 
+ * UUIDVault-spigot is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the
+ * GNU Lesser General Public License for more details.
+ * 
+ * You should have received a copy of the GNU Lesser General Public License
+ * along with UUIDVault-spigot. If not, see <https://www.gnu.org/licenses/>
+ * and navigate to version 3 of the GNU Lesser General Public License.
+ */
+package space.arim.uuidvault.plugin;
+
+import org.bukkit.event.EventHandler;
+import org.bukkit.event.EventPriority;
+import org.bukkit.event.Listener;
+import org.bukkit.event.server.PluginDisableEvent;
+
+/**
+ * Invalidates the {@link PluginLookupCache} on Spigot when plugins are disabled
+ * 
+ */
+public class SpigotPluginListener implements Listener {
+
+	private final PluginLookupCache<?> plugins;
+	
+	SpigotPluginListener(PluginLookupCache<?> plugins) {
+		this.plugins = plugins;
+	}
+	
+	@EventHandler(priority = EventPriority.MONITOR)
+	public void onDisable(PluginDisableEvent evt) {
+		plugins.invalidate(evt.getPlugin().getClass());
+	}
+	
+}
@@ -38,18 +38,32 @@ import space.arim.uuidvault.api.UUIDVault;
  */
 public class UUIDVaultSpigot extends SimpleImplementation {
 
+	private final JavaPlugin plugin;
 	private final Logger logger;
+	private final PluginLookupCache<JavaPlugin> plugins = new PluginLookupCache<>(UUIDVaultSpigot::scanPluginFor);
 	
 	/**
-	 * Creates the instance
+	 * Creates the instance with default settings
 	 * 
 	 * @param plugin the bukkit plugin to use
 	 */
 	public UUIDVaultSpigot(JavaPlugin plugin) {
+		this(plugin, VaultSettings.defaults());
+	}
+	
+	/**
+	 * Creates the instance
+	 * 
+	 * @param plugin the bukkit plugin to use
+	 * @param settings the settings to use
+	 */
+	public UUIDVaultSpigot(JavaPlugin plugin, VaultSettings settings) {
+		super(settings);
+		this.plugin = plugin;
 		logger = plugin.getLogger();
 	}
 	
-	private JavaPlugin getPluginFor(Class<?> pluginClass) {
+	private static JavaPlugin scanPluginFor(Class<?> pluginClass) {
 		// Not using JavaPlugin#getPlugin because it may throw exceptions for invalid plugin classes
 		for (Plugin plugin : Bukkit.getPluginManager().getPlugins()) {
 			if (plugin instanceof JavaPlugin && plugin.getClass().equals(pluginClass)) {
@@ -59,6 +73,19 @@ public class UUIDVaultSpigot extends SimpleImplementation {
 		return null;
 	}
 	
+	private JavaPlugin getPluginFor(Class<?> pluginClass) {
+		return plugins.get(pluginClass);
+	}
+	
+	/**
+	 * Gets the cache of plugins, which must be invalidated when plugins are disabled
+	 * 
+	 * @return the plugin lookup cache
+	 */
+	PluginLookupCache<JavaPlugin> plugins() {
+		return plugins;
+	}
+	
 	@Override
 	boolean verifyNativePluginClass(Class<?> pluginClass) {
 		return !JavaPlugin.class.equals(pluginClass) && JavaPlugin.class.isAssignableFrom(pluginClass)
@@ -80,9 +107,15 @@ public class UUIDVaultSpigot extends SimpleImplementation {
 		logger.log(Level.WARNING, message, throwable);
 	}
 	
+	@Override
+	void logWarning(String message) {
+		logger.log(Level.WARNING, message);
+	}
+	
 	@Override
 	public boolean mustCallNativeResolutionSync() {
-		return true;
+		// The online player index is safe from any thread, but Bukkit itself is not
+		return onlinePlayers() == null;
 	}
 	
 	@Override
@@ -99,6 +132,16 @@ public class UUIDVaultSpigot extends SimpleImplementation {
 		return (player == null) ? null : player.getName();
 	}
 	
+	@Override
+	void runOnMainThread(Runnable command) {
+		Bukkit.getScheduler().runTask(plugin, command);
+	}
+	
+	@Override
+	boolean isMainThread() {
+		return Bukkit.isPrimaryThread();
+	}
+	
 	void setInstance1() {
 		setInstance();
 	}
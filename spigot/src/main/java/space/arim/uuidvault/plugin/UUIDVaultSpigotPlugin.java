@@ -18,14 +18,45 @@
  */
 package space.arim.uuidvault.plugin;
 
+import java.util.logging.Level;
+
+import org.bukkit.entity.Player;
 import org.bukkit.plugin.java.JavaPlugin;
 
 public class UUIDVaultSpigotPlugin extends JavaPlugin {
 	
+	private VaultSettings settings;
+	private UUIDVaultSpigot uvs;
+	
 	@Override
 	public void onLoad() {
-		UUIDVaultSpigot uvs = new UUIDVaultSpigot(this);
+		settings = SettingsFile.loadOrDefaults(getDataFolder().toPath(),
+				(message, ex) -> getLogger().log(Level.WARNING, message, ex));
+		uvs = new UUIDVaultSpigot(this, settings);
 		uvs.setInstance1();
 	}
 	
+	@Override
+	public void onEnable() {
+		getServer().getPluginManager().registerEvents(new SpigotPluginListener(uvs.plugins()), this);
+		OnlinePlayerIndex index = uvs.onlinePlayers();
+		if (index != null) {
+			getServer().getPluginManager().registerEvents(new SpigotPlayerListener(index), this);
+			// Players already online, such as after a reload
+			for (Player player : getServer().getOnlinePlayers()) {
+				index.add(player.getUniqueId(), player.getName());
+			}
+		}
+		if (settings.mappingPropagation()) {
+			// Only enabled by configuration, since clients may send on any channel
+			getServer().getMessenger().registerIncomingPluginChannel(this, MappingTransport.CHANNEL,
+					new SpigotMappingReceiver(uvs));
+		}
+	}
+	
+	@Override
+	public void onDisable() {
+		uvs.shutdown();
+	}
+	
 }
@@ -0,0 +1,49 @@
+/* 
+ * UUIDVault-sponge
+ * Copyright © 2020 Anand Beh <https://www.arim.space>
+ * 
+ * UUIDVault-sponge is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Lesser General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ * 
+ * UUIDVault-sponge is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the
+ * GNU Lesser General Public License for more details.
+ * 
+ * You should have received a copy of the GNU Lesser General Public License
+ * along with UUIDVault-sponge. If not, see <https://www.gnu.org/licenses/>
+ * and navigate to version 3 of the GNU Lesser General Public License.
+ */
+package space.arim.uuidvault.plugin;
+
+import org.spongepowered.api.entity.living.player.Player;
+import org.spongepowered.api.event.Listener;
+import org.spongepowered.api.event.Order;
+import org.spongepowered.api.event.filter.Getter;
+import org.spongepowered.api.event.network.ClientConnectionEvent;
+
+/**
+ * Keeps the {@link OnlinePlayerIndex} up to date on Sponge
+ * 
+ */
+public class SpongePlayerListener {
+
+	private final OnlinePlayerIndex index;
+	
+	SpongePlayerListener(OnlinePlayerIndex index) {
+		this.index = index;
+	}
+	
+	@Listener(order = Order.PRE)
+	public void onJoin(@SuppressWarnings("unused") ClientConnectionEvent.Join evt, @Getter("getTargetEntity") Player player) {
+		index.add(player.getUniqueId(), player.getName());
+	}
+	
+	@Listener(order = Order.POST)
+	public void onQuit(@SuppressWarnings("unused") ClientConnectionEvent.Disconnect evt, @Getter("getTargetEntity") Player player) {
+		index.remove(player.getUniqueId(), player.getName());
+	}
+	
+}
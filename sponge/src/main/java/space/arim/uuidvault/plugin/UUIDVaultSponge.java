@@ -37,18 +37,33 @@ import space.arim.uuidvault.api.UUIDVault;
  */
 public class UUIDVaultSponge extends SimpleImplementation {
 
+	private final PluginContainer plugin;
 	private final Logger logger;
+	// Sponge does not unload plugins, so the cache never needs to be invalidated
+	private final PluginLookupCache<PluginContainer> plugins = new PluginLookupCache<>(UUIDVaultSponge::scanPluginFor);
 	
 	/**
-	 * Creates the instance
+	 * Creates the instance with default settings
 	 * 
 	 * @param plugin the sponge plugin to use
 	 */
 	public UUIDVaultSponge(PluginContainer plugin) {
+		this(plugin, VaultSettings.defaults());
+	}
+	
+	/**
+	 * Creates the instance
+	 * 
+	 * @param plugin the sponge plugin to use
+	 * @param settings the settings to use
+	 */
+	public UUIDVaultSponge(PluginContainer plugin, VaultSettings settings) {
+		super(settings);
+		this.plugin = plugin;
 		logger = plugin.getLogger();
 	}
 	
-	private PluginContainer getPluginFor(Class<?> pluginClass) {
+	private static PluginContainer scanPluginFor(Class<?> pluginClass) {
 		for (PluginContainer plugin : Sponge.getPluginManager().getPlugins()) {
 			Object pluginObject = plugin.getInstance().orElse(null);
 			if (pluginObject != null && pluginObject.getClass().equals(pluginClass)) {
@@ -58,6 +73,10 @@ public class UUIDVaultSponge extends SimpleImplementation {
 		return null;
 	}
 	
+	private PluginContainer getPluginFor(Class<?> pluginClass) {
+		return plugins.get(pluginClass);
+	}
+	
 	@Override
 	boolean verifyNativePluginClass(Class<?> pluginClass) {
 		return pluginClass.getDeclaredAnnotation(Plugin.class) != null && getPluginFor(pluginClass) != null;
@@ -78,9 +97,15 @@ public class UUIDVaultSponge extends SimpleImplementation {
 		logger.warn(message, throwable);
 	}
 	
+	@Override
+	void logWarning(String message) {
+		logger.warn(message);
+	}
+	
 	@Override
 	public boolean mustCallNativeResolutionSync() {
-		return true;
+		// The online player index is safe from any thread, but Sponge itself is not
+		return onlinePlayers() == null;
 	}
 
 	@Override
@@ -97,6 +122,16 @@ public class UUIDVaultSponge extends SimpleImplementation {
 		return (player == null) ? null : player.getName();
 	}
 	
+	@Override
+	void runOnMainThread(Runnable command) {
+		Sponge.getScheduler().createTaskBuilder().execute(command).submit(plugin.getInstance().orElse(plugin));
+	}
+	
+	@Override
+	boolean isMainThread() {
+		return Sponge.getServer().isMainThread();
+	}
+	
 	void setInstance1() {
 		setInstance();
 	}
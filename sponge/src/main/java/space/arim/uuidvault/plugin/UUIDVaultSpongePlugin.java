@@ -19,18 +19,43 @@
 package space.arim.uuidvault.plugin;
 
 import org.spongepowered.api.Sponge;
+import org.spongepowered.api.entity.living.player.Player;
 import org.spongepowered.api.event.Listener;
 import org.spongepowered.api.event.game.state.GamePostInitializationEvent;
+import org.spongepowered.api.event.game.state.GameStoppingServerEvent;
 import org.spongepowered.api.plugin.Plugin;
+import org.spongepowered.api.plugin.PluginContainer;
 
 @Plugin(id = PluginInfo.ANNOTATION_ID, name = PluginInfo.NAME, version = PluginInfo.VERSION, authors = {
 		"A248" }, url = PluginInfo.URL, description = PluginInfo.DESCRIPTION)
 public class UUIDVaultSpongePlugin {
 	
+	private UUIDVaultSponge uvs;
+	
 	@Listener
 	public void onEnable(@SuppressWarnings("unused") GamePostInitializationEvent evt) {
-		UUIDVaultSponge uvs = new UUIDVaultSponge(Sponge.getPluginManager().fromInstance(this).get());
+		PluginContainer plugin = Sponge.getPluginManager().fromInstance(this).get();
+		VaultSettings settings = SettingsFile.loadOrDefaults(
+				Sponge.getConfigManager().getPluginConfig(this).getDirectory(), plugin.getLogger()::warn);
+		uvs = new UUIDVaultSponge(plugin, settings);
 		uvs.setInstance1();
+		OnlinePlayerIndex index = uvs.onlinePlayers();
+		if (index != null) {
+			Sponge.getEventManager().registerListeners(this, new SpongePlayerListener(index));
+			// Players already online, such as after a reload
+			if (Sponge.isServerAvailable()) {
+				for (Player player : Sponge.getServer().getOnlinePlayers()) {
+					index.add(player.getUniqueId(), player.getName());
+				}
+			}
+		}
+	}
+	
+	@Listener
+	public void onDisable(@SuppressWarnings("unused") GameStoppingServerEvent evt) {
+		if (uvs != null) {
+			uvs.shutdown();
+		}
 	}
 	
 }
@@ -40,19 +40,33 @@ public class UUIDVaultVelocity extends SimpleImplementation {
 
 	private final ProxyServer server;
 	private final Logger logger;
+	// Velocity does not unload plugins, so the cache never needs to be invalidated
+	private final PluginLookupCache<PluginContainer> plugins = new PluginLookupCache<>(this::scanPluginFor);
 	
 	/**
-	 * Creates the instance
+	 * Creates the instance with default settings
 	 * 
 	 * @param server the velocity server
 	 * @param logger the logger from a velocity plugin
 	 */
 	public UUIDVaultVelocity(ProxyServer server, Logger logger) {
+		this(server, logger, VaultSettings.defaults());
+	}
+	
+	/**
+	 * Creates the instance
+	 * 
+	 * @param server the velocity server
+	 * @param logger the logger from a velocity plugin
+	 * @param settings the settings to use
+	 */
+	public UUIDVaultVelocity(ProxyServer server, Logger logger, VaultSettings settings) {
+		super(settings);
 		this.server = server;
 		this.logger = logger;
 	}
 
-	private PluginContainer getPluginFor(Class<?> pluginClass) {
+	private PluginContainer scanPluginFor(Class<?> pluginClass) {
 		for (PluginContainer plugin : server.getPluginManager().getPlugins()) {
 			Object pluginObject = plugin.getInstance().orElse(null);
 			if (pluginObject != null && pluginObject.getClass().equals(pluginClass)) {
@@ -62,6 +76,10 @@ public class UUIDVaultVelocity extends SimpleImplementation {
 		return null;
 	}
 	
+	private PluginContainer getPluginFor(Class<?> pluginClass) {
+		return plugins.get(pluginClass);
+	}
+	
 	@Override
 	boolean verifyNativePluginClass(Class<?> pluginClass) {
 		return pluginClass.getDeclaredAnnotation(Plugin.class) != null && getPluginFor(pluginClass) != null;
@@ -82,6 +100,11 @@ public class UUIDVaultVelocity extends SimpleImplementation {
 	void logException(String message, Throwable throwable) {
 		logger.warn(message, throwable);
 	}
+	
+	@Override
+	void logWarning(String message) {
+		logger.warn(message);
+	}
 
 	@Override
 	UUID resolveNativelyDirectly(String name) {
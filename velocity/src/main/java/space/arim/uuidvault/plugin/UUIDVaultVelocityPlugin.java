@@ -18,20 +18,55 @@
  */
 package space.arim.uuidvault.plugin;
 
+import java.nio.file.Path;
+
 import org.slf4j.Logger;
 
 import com.google.inject.Inject;
+import com.velocitypowered.api.event.Subscribe;
+import com.velocitypowered.api.event.proxy.ProxyInitializeEvent;
+import com.velocitypowered.api.event.proxy.ProxyShutdownEvent;
 import com.velocitypowered.api.plugin.Plugin;
+import com.velocitypowered.api.plugin.annotation.DataDirectory;
+import com.velocitypowered.api.proxy.Player;
 import com.velocitypowered.api.proxy.ProxyServer;
 
 @Plugin(id = PluginInfo.ANNOTATION_ID, name = PluginInfo.NAME, version = PluginInfo.VERSION, authors = {
 		"A248" }, url = PluginInfo.URL, description = PluginInfo.DESCRIPTION)
 public class UUIDVaultVelocityPlugin {
 	
+	private final ProxyServer server;
+	private final VaultSettings settings;
+	private final UUIDVaultVelocity uvv;
+	
 	@Inject
-	public UUIDVaultVelocityPlugin(ProxyServer server, Logger logger) {
-		UUIDVaultVelocity uvv = new UUIDVaultVelocity(server, logger);
+	public UUIDVaultVelocityPlugin(ProxyServer server, Logger logger, @DataDirectory Path dataDirectory) {
+		this.server = server;
+		settings = SettingsFile.loadOrDefaults(dataDirectory, logger::warn);
+		uvv = new UUIDVaultVelocity(server, logger, settings);
 		uvv.setInstance1();
 	}
 	
+	@Subscribe
+	public void onInitialize(@SuppressWarnings("unused") ProxyInitializeEvent evt) {
+		OnlinePlayerIndex index = uvv.onlinePlayers();
+		if (index != null) {
+			server.getEventManager().register(this, new VelocityPlayerListener(index));
+			for (Player player : server.getAllPlayers()) {
+				index.add(player.getUniqueId(), player.getUsername());
+			}
+		}
+		if (settings.mappingPropagation()) {
+			VelocityMappingTransport transport = new VelocityMappingTransport(server, uvv);
+			server.getChannelRegistrar().register(VelocityMappingTransport.IDENTIFIER);
+			server.getEventManager().register(this, transport);
+			uvv.startPropagation(transport);
+		}
+	}
+	
+	@Subscribe
+	public void onShutdown(@SuppressWarnings("unused") ProxyShutdownEvent evt) {
+		uvv.shutdown();
+	}
+	
 }
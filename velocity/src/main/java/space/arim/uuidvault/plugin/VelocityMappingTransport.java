@@ -0,0 +1,73 @@
+/* 
+ * UUIDVault-velocity
+ * Copyright © 2020 Anand Beh <https://www.arim.space>
+ * 
+ * UUIDVault-velocity is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Lesser General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ * 
+ * UUIDVault-velocity is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the
+ * GNU Lesser General Public License for more details.
+ * 
+ * You should have received a copy of the GNU Lesser General Public License
+ * along with UUIDVault-velocity. If not, see <https://www.gnu.org/licenses/>
+ * and navigate to version 3 of the GNU Lesser General Public License.
+ */
+package space.arim.uuidvault.plugin;
+
+import com.velocitypowered.api.event.PostOrder;
+import com.velocitypowered.api.event.Subscribe;
+import com.velocitypowered.api.event.connection.PluginMessageEvent;
+import com.velocitypowered.api.event.player.ServerConnectedEvent;
+import com.velocitypowered.api.proxy.Player;
+import com.velocitypowered.api.proxy.ProxyServer;
+import com.velocitypowered.api.proxy.messages.ChannelIdentifier;
+import com.velocitypowered.api.proxy.messages.MinecraftChannelIdentifier;
+import com.velocitypowered.api.proxy.server.RegisteredServer;
+
+/**
+ * Propagates mappings to backend servers over plugin messaging on Velocity. Each player
+ * connecting to a backend server is propagated, such that the backend server is reachable
+ * by the time the mapping is sent. <br>
+ * <br>
+ * Messages on the channel which pass through the proxy, such as those sent by clients,
+ * are handled without forwarding, so that only the proxy's own mappings reach backend servers.
+ * 
+ */
+public class VelocityMappingTransport implements MappingTransport {
+
+	static final ChannelIdentifier IDENTIFIER = MinecraftChannelIdentifier.from(CHANNEL);
+	
+	private final ProxyServer server;
+	private final UUIDVaultVelocity vault;
+	
+	VelocityMappingTransport(ProxyServer server, UUIDVaultVelocity vault) {
+		this.server = server;
+		this.vault = vault;
+	}
+	
+	@Override
+	public void send(byte[] frame) {
+		for (RegisteredServer backend : server.getAllServers()) {
+			// Fails for empty servers, which will hear of their players when they connect
+			backend.sendPluginMessage(IDENTIFIER, frame);
+		}
+	}
+	
+	@Subscribe
+	public void onConnected(ServerConnectedEvent evt) {
+		Player player = evt.getPlayer();
+		vault.propagateMapping(player.getUniqueId(), player.getUsername());
+	}
+	
+	@Subscribe(order = PostOrder.FIRST)
+	public void onPluginMessage(PluginMessageEvent evt) {
+		if (IDENTIFIER.equals(evt.getIdentifier())) {
+			evt.setResult(PluginMessageEvent.ForwardResult.handled());
+		}
+	}
+	
+}
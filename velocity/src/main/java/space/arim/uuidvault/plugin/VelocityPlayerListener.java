@@ -0,0 +1,51 @@
+/* 
+ * UUIDVault-velocity
+ * Copyright © 2020 Anand Beh <https://www.arim.space>
+ * 
+ * UUIDVault-velocity is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Lesser General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ * 
+ * UUIDVault-velocity is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the
+ * GNU Lesser General Public License for more details.
+ * 
+ * You should have received a copy of the GNU Lesser General Public License
+ * along with UUIDVault-velocity. If not, see <https://www.gnu.org/licenses/>
+ * and navigate to version 3 of the GNU Lesser General Public License.
+ */
+package space.arim.uuidvault.plugin;
+
+import com.velocitypowered.api.event.PostOrder;
+import com.velocitypowered.api.event.Subscribe;
+import com.velocitypowered.api.event.connection.DisconnectEvent;
+import com.velocitypowered.api.event.connection.PostLoginEvent;
+import com.velocitypowered.api.proxy.Player;
+
+/**
+ * Keeps the {@link OnlinePlayerIndex} up to date on Velocity
+ * 
+ */
+public class VelocityPlayerListener {
+
+	private final OnlinePlayerIndex index;
+	
+	VelocityPlayerListener(OnlinePlayerIndex index) {
+		this.index = index;
+	}
+	
+	@Subscribe(order = PostOrder.FIRST)
+	public void onJoin(PostLoginEvent evt) {
+		Player player = evt.getPlayer();
+		index.add(player.getUniqueId(), player.getUsername());
+	}
+	
+	@Subscribe(order = PostOrder.LAST)
+	public void onQuit(DisconnectEvent evt) {
+		Player player = evt.getPlayer();
+		index.remove(player.getUniqueId(), player.getUsername());
+	}
+	
+}